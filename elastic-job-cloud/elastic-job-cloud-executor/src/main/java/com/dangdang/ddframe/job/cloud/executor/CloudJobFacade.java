@@ -27,10 +27,13 @@ import com.dangdang.ddframe.job.event.type.JobStatusTraceEvent.Source;
 import com.dangdang.ddframe.job.event.type.JobStatusTraceEvent.State;
 import com.dangdang.ddframe.job.exception.JobExecutionEnvironmentException;
 import com.dangdang.ddframe.job.executor.JobFacade;
+import com.dangdang.ddframe.job.executor.OffsetStorage;
 import com.dangdang.ddframe.job.executor.ShardingContexts;
 import lombok.RequiredArgsConstructor;
 
 import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * 为调度器提供内部服务的门面类.
@@ -46,6 +49,8 @@ public class CloudJobFacade implements JobFacade {
     
     private final JobEventBus jobEventBus;
     
+    private final OffsetStorage offsetStorage = new TaskOffsetStorage();
+    
     @Override
     public JobRootConfiguration loadJobRootConfiguration(final boolean fromCache) {
         return jobConfig;
@@ -80,6 +85,11 @@ public class CloudJobFacade implements JobFacade {
     public void clearMisfire(final Collection<Integer> shardingItems) {
     }
     
+    @Override
+    public OffsetStorage getOffsetStorage() {
+        return offsetStorage;
+    }
+    
     @Override
     public boolean isExecuteMisfired(final Collection<Integer> shardingItems) {
         return false;
@@ -118,4 +128,24 @@ public class CloudJobFacade implements JobFacade {
         jobEventBus.post(new JobStatusTraceEvent(taskContext.getMetaInfo().getJobName(), taskContext.getId(), taskContext.getSlaveId(), 
                 Source.CLOUD_EXECUTOR, taskContext.getType(), String.valueOf(taskContext.getMetaInfo().getShardingItems()), state, message));
     }
+    
+    /**
+     * 任务内的分片项处理进度存储.
+     * 
+     * <p>云作业执行器不连接注册中心, 处理进度仅在本次任务内有效.</p>
+     */
+    private static final class TaskOffsetStorage implements OffsetStorage {
+        
+        private final ConcurrentMap<Integer, String> offsets = new ConcurrentHashMap<>();
+        
+        @Override
+        public String load(final int shardingItem) {
+            return offsets.get(shardingItem);
+        }
+        
+        @Override
+        public void commit(final int shardingItem, final String offset) {
+            offsets.put(shardingItem, offset);
+        }
+    }
 }
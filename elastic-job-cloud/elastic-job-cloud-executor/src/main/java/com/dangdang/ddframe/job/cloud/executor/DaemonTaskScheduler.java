@@ -20,7 +20,7 @@ package com.dangdang.ddframe.job.cloud.executor;
 import com.dangdang.ddframe.job.api.ElasticJob;
 import com.dangdang.ddframe.job.config.JobRootConfiguration;
 import com.dangdang.ddframe.job.exception.JobSystemException;
-import com.dangdang.ddframe.job.executor.JobExecutorFactory;
+import com.dangdang.ddframe.job.executor.JobExecutorHolder;
 import com.dangdang.ddframe.job.executor.JobFacade;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
@@ -51,9 +51,15 @@ import java.util.concurrent.ConcurrentHashMap;
 @RequiredArgsConstructor
 public final class DaemonTaskScheduler {
     
+    /**
+     * 作业实例在作业数据中的键.
+     * 
+     * @deprecated 作业实例与作业门面合并为{@code JobExecutorHolder}保存, 此键仅为兼容保留
+     */
+    @Deprecated
     public static final String ELASTIC_JOB_DATA_MAP_KEY = "elasticJob";
     
-    private static final String JOB_FACADE_DATA_MAP_KEY = "jobFacade";
+    private static final String JOB_EXECUTOR_HOLDER_DATA_MAP_KEY = "jobExecutorHolder";
     
     private static final String EXECUTOR_DRIVER_DATA_MAP_KEY = "executorDriver";
     
@@ -76,8 +82,10 @@ public final class DaemonTaskScheduler {
      */
     public void init() {
         JobDetail jobDetail = JobBuilder.newJob(DaemonJob.class).withIdentity(jobRootConfig.getTypeConfig().getCoreConfig().getJobName()).build();
-        jobDetail.getJobDataMap().put(ELASTIC_JOB_DATA_MAP_KEY, elasticJob);
-        jobDetail.getJobDataMap().put(JOB_FACADE_DATA_MAP_KEY, jobFacade);
+        jobDetail.getJobDataMap().put(JOB_EXECUTOR_HOLDER_DATA_MAP_KEY, new JobExecutorHolder(elasticJob, jobFacade));
+        if (null != elasticJob) {
+            jobDetail.getJobDataMap().put(ELASTIC_JOB_DATA_MAP_KEY, elasticJob);
+        }
         jobDetail.getJobDataMap().put(EXECUTOR_DRIVER_DATA_MAP_KEY, executorDriver);
         jobDetail.getJobDataMap().put(TASK_ID_DATA_MAP_KEY, taskId);
         try {
@@ -146,10 +154,7 @@ public final class DaemonTaskScheduler {
     public static final class DaemonJob implements Job {
         
         @Setter
-        private ElasticJob elasticJob;
-        
-        @Setter
-        private JobFacade jobFacade;
+        private JobExecutorHolder jobExecutorHolder;
         
         @Setter
         private ExecutorDriver executorDriver;
@@ -160,7 +165,7 @@ public final class DaemonTaskScheduler {
         @Override
         public void execute(final JobExecutionContext context) throws JobExecutionException {
             executorDriver.sendStatusUpdate(Protos.TaskStatus.newBuilder().setTaskId(taskId).setState(Protos.TaskState.TASK_RUNNING).setMessage("BEGIN").build());
-            JobExecutorFactory.getJobExecutor(elasticJob, jobFacade).execute();
+            jobExecutorHolder.getJobExecutor().execute();
             executorDriver.sendStatusUpdate(Protos.TaskStatus.newBuilder().setTaskId(taskId).setState(Protos.TaskState.TASK_RUNNING).setMessage("COMPLETE").build());
         }
     }
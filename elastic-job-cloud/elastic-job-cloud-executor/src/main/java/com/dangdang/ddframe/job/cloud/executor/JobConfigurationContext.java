@@ -61,7 +61,9 @@ public class JobConfigurationContext implements JobRootConfiguration {
         jobCoreConfig.getJobProperties().put(JobPropertiesEnum.EXECUTOR_SERVICE_HANDLER.name(), jobConfigurationMap.get("executorServiceHandler"));
         jobCoreConfig.getJobProperties().put(JobPropertiesEnum.JOB_EXCEPTION_HANDLER.name(), jobConfigurationMap.get("jobExceptionHandler"));
         if (JobType.DATAFLOW.name().equals(jobType)) {
-            jobTypeConfig = new DataflowJobConfiguration(jobCoreConfig, jobClass, Boolean.valueOf(jobConfigurationMap.get("streamingProcess")));
+            jobTypeConfig = new DataflowJobConfiguration(jobCoreConfig, jobClass, Boolean.valueOf(jobConfigurationMap.get("streamingProcess")), 
+                    getIntValue(jobConfigurationMap, "prefetchDepth"), getIntValue(jobConfigurationMap, "processParallelism"), 
+                    getIntValue(jobConfigurationMap, "minBatchSize"), getIntValue(jobConfigurationMap, "maxBatchSize"), getLongValue(jobConfigurationMap, "targetProcessMilliseconds"));
         } else if (JobType.SIMPLE.name().equals(jobType)) {
             jobTypeConfig = new SimpleJobConfiguration(jobCoreConfig, jobClass);
         } else if (JobType.SCRIPT.name().equals(jobType)) {
@@ -71,6 +73,16 @@ public class JobConfigurationContext implements JobRootConfiguration {
         applicationContext = jobConfigurationMap.get("applicationContext");
     }
     
+    private int getIntValue(final Map<String, String> jobConfigurationMap, final String key) {
+        String value = jobConfigurationMap.get(key);
+        return Strings.isNullOrEmpty(value) ? 0 : Integer.parseInt(value);
+    }
+    
+    private long getLongValue(final Map<String, String> jobConfigurationMap, final String key) {
+        String value = jobConfigurationMap.get(key);
+        return Strings.isNullOrEmpty(value) ? 0L : Long.parseLong(value);
+    }
+    
     /**
      * 判断是否为瞬时作业.
      * 
@@ -33,6 +33,7 @@ import java.util.Map;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.verify;
@@ -115,6 +116,14 @@ public class CloudJobFacadeTest {
         assertFalse(jobFacade.isExecuteMisfired(null));
     }
     
+    @Test
+    public void assertGetOffsetStorage() {
+        assertNull(jobFacade.getOffsetStorage().load(0));
+        jobFacade.getOffsetStorage().commit(0, "100");
+        assertThat(jobFacade.getOffsetStorage().load(0), is("100"));
+        assertNull(jobFacade.getOffsetStorage().load(1));
+    }
+    
     @Test
     public void assertIsEligibleForJobRunningWhenIsNotDataflowJob() {
         assertFalse(jobFacade.isEligibleForJobRunning());
@@ -45,6 +45,22 @@ public class JobConfigurationContextTest {
         assertTrue(new JobConfigurationContext(buildJobConfigurationContextMap(JobType.DATAFLOW)).getTypeConfig() instanceof DataflowJobConfiguration);
     }
     
+    @Test
+    public void assertDataflowJobConfigurationContextWithPrefetchDepth() throws JobExecutionEnvironmentException {
+        Map<String, String> context = buildJobConfigurationContextMap(JobType.DATAFLOW);
+        assertThat(((DataflowJobConfiguration) new JobConfigurationContext(context).getTypeConfig()).getPrefetchDepth(), is(0));
+        context.put("prefetchDepth", "2");
+        assertThat(((DataflowJobConfiguration) new JobConfigurationContext(context).getTypeConfig()).getPrefetchDepth(), is(2));
+    }
+    
+    @Test
+    public void assertDataflowJobConfigurationContextWithTargetProcessMilliseconds() throws JobExecutionEnvironmentException {
+        Map<String, String> context = buildJobConfigurationContextMap(JobType.DATAFLOW);
+        assertThat(((DataflowJobConfiguration) new JobConfigurationContext(context).getTypeConfig()).getTargetProcessMilliseconds(), is(0L));
+        context.put("targetProcessMilliseconds", "3000000000");
+        assertThat(((DataflowJobConfiguration) new JobConfigurationContext(context).getTypeConfig()).getTargetProcessMilliseconds(), is(3000000000L));
+    }
+    
     @Test
     public void assertScriptJobConfigurationContext() throws JobExecutionEnvironmentException {
         assertTrue(new JobConfigurationContext(buildJobConfigurationContextMap(JobType.SCRIPT)).getTypeConfig() instanceof ScriptJobConfiguration);
@@ -62,7 +62,13 @@ public final class TaskInfoData {
         result.put("jobExceptionHandler", jobConfig.getTypeConfig().getCoreConfig().getJobProperties().get(JobProperties.JobPropertiesEnum.JOB_EXCEPTION_HANDLER));
         result.put("executorServiceHandler", jobConfig.getTypeConfig().getCoreConfig().getJobProperties().get(JobProperties.JobPropertiesEnum.EXECUTOR_SERVICE_HANDLER));
         if (jobConfig.getTypeConfig() instanceof DataflowJobConfiguration) {
-            result.put("streamingProcess", Boolean.toString(((DataflowJobConfiguration) jobConfig.getTypeConfig()).isStreamingProcess()));
+            DataflowJobConfiguration dataflowJobConfig = (DataflowJobConfiguration) jobConfig.getTypeConfig();
+            result.put("streamingProcess", Boolean.toString(dataflowJobConfig.isStreamingProcess()));
+            result.put("prefetchDepth", Integer.toString(dataflowJobConfig.getPrefetchDepth()));
+            result.put("processParallelism", Integer.toString(dataflowJobConfig.getProcessParallelism()));
+            result.put("minBatchSize", Integer.toString(dataflowJobConfig.getMinBatchSize()));
+            result.put("maxBatchSize", Integer.toString(dataflowJobConfig.getMaxBatchSize()));
+            result.put("targetProcessMilliseconds", Long.toString(dataflowJobConfig.getTargetProcessMilliseconds()));
         } else if (jobConfig.getTypeConfig() instanceof ScriptJobConfiguration) {
             result.put("scriptCommandLine", ((ScriptJobConfiguration) jobConfig.getTypeConfig()).getScriptCommandLine());
         }
@@ -17,8 +17,12 @@
 
 package com.dangdang.ddframe.job.api;
 
+import com.dangdang.ddframe.job.executor.OffsetStorage;
 import com.dangdang.ddframe.job.executor.ShardingContexts;
+import com.google.common.base.Preconditions;
+import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.Setter;
 import lombok.ToString;
 
 /**
@@ -27,7 +31,7 @@ import lombok.ToString;
  * @author zhangliang
  */
 @Getter
-@ToString
+@ToString(exclude = "offsetStorage")
 public final class ShardingContext {
     
     /**
@@ -61,6 +65,17 @@ public final class ShardingContext {
      */
     private final String shardingParameter;
     
+    /**
+     * 建议数据流作业每次抓取的数据数量.
+     * 根据处理数据的耗时在配置的最小值和最大值之间自适应调整, 未配置自适应批量时为0.
+     */
+    @Setter
+    private volatile int batchSize;
+    
+    @Getter(AccessLevel.NONE)
+    @Setter
+    private OffsetStorage offsetStorage;
+    
     public ShardingContext(final ShardingContexts shardingContexts, final int shardingItem) {
         jobName = shardingContexts.getJobName();
         taskId = shardingContexts.getTaskId();
@@ -69,4 +84,33 @@ public final class ShardingContext {
         this.shardingItem = shardingItem;
         shardingParameter = shardingContexts.getShardingItemParameters().get(shardingItem);
     }
+    
+    /**
+     * 读取本分片项最后提交的处理进度.
+     * 
+     * <p>分片项被重新分配至其他作业实例后, 从最后提交的处理进度继续处理.</p>
+     * 
+     * <p>
+     * 流式作业配置的预先抓取批次数大于0时, 抓取下一批数据先于提交上一批数据的处理进度, 此时读取的处理进度可能落后.
+     * 此类作业应在作业内自行维护抓取位置, 仅在每次执行首次抓取时读取处理进度以恢复.
+     * </p>
+     * 
+     * @return 最后提交的处理进度, 从未提交时返回null
+     */
+    public String getOffset() {
+        return null == offsetStorage ? null : offsetStorage.load(shardingItem);
+    }
+    
+    /**
+     * 提交本分片项的处理进度.
+     * 
+     * <p>提交的处理进度合并后批量写入注册中心, 作业实例异常退出时可能丢失最后一批提交, 重新处理的数据需幂等.</p>
+     * 
+     * @param offset 处理进度
+     */
+    public void commitOffset(final String offset) {
+        Preconditions.checkNotNull(offset, "Offset cannot be null.");
+        Preconditions.checkState(null != offsetStorage, "Job '%s' offset storage is unavailable.", jobName);
+        offsetStorage.commit(shardingItem, offset);
+    }
 }
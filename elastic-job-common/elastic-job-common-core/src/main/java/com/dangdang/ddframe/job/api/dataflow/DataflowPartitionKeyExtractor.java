@@ -0,0 +1,40 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+package com.dangdang.ddframe.job.api.dataflow;
+
+/**
+ * 数据流作业的分区键提取器.
+ * 
+ * <p>
+ * 数据流作业同时实现该接口并配置了处理数据的并行度时, 分区键相同的数据被划分至同一子批次, 按抓取的顺序处理.
+ * 未实现该接口时, 数据按顺序均分至各子批次.
+ * </p>
+ * 
+ * @author zhangliang
+ * 
+ * @param <T> 数据类型
+ */
+public interface DataflowPartitionKeyExtractor<T> {
+    
+    /**
+     * 提取数据的分区键.
+     * 
+     * @param data 待处理数据
+     * @return 分区键
+     */
+    Object extractPartitionKey(T data);
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+package com.dangdang.ddframe.job.api.simple;
+
+import com.dangdang.ddframe.job.api.ElasticJob;
+import com.dangdang.ddframe.job.api.ShardingContext;
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * 异步简单分布式作业接口.
+ * 
+ * <p>适用于主要等待IO的分片项, 分片项在返回的Future完成时结束, 等待期间不占用作业线程.</p>
+ * 
+ * @author zhangliang
+ */
+public interface AsyncSimpleJob extends ElasticJob {
+    
+    /**
+     * 执行作业.
+     *
+     * @param shardingContext 分片上下文
+     * @return 作业执行完成时完成的Future
+     */
+    ListenableFuture<?> execute(ShardingContext shardingContext);
+}
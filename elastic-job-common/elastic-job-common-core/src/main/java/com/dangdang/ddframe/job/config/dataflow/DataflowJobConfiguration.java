@@ -20,8 +20,8 @@ package com.dangdang.ddframe.job.config.dataflow;
 import com.dangdang.ddframe.job.api.JobType;
 import com.dangdang.ddframe.job.config.JobCoreConfiguration;
 import com.dangdang.ddframe.job.config.JobTypeConfiguration;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 
 /**
  * 数据流作业配置信息.
@@ -29,7 +29,7 @@ import lombok.RequiredArgsConstructor;
  * @author caohao
  * @author zhangliang
  */
-@RequiredArgsConstructor
+@AllArgsConstructor
 @Getter
 public final class DataflowJobConfiguration implements JobTypeConfiguration {
     
@@ -40,4 +40,18 @@ public final class DataflowJobConfiguration implements JobTypeConfiguration {
     private final String jobClass;
     
     private final boolean streamingProcess;
+    
+    private final int prefetchDepth;
+    
+    private final int processParallelism;
+    
+    private final int minBatchSize;
+    
+    private final int maxBatchSize;
+    
+    private final long targetProcessMilliseconds;
+    
+    public DataflowJobConfiguration(final JobCoreConfiguration coreConfig, final String jobClass, final boolean streamingProcess) {
+        this(coreConfig, jobClass, streamingProcess, 0, 0, 0, 0, 0L);
+    }
 }
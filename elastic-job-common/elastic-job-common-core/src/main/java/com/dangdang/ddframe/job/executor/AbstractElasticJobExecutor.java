@@ -28,15 +28,24 @@ import com.dangdang.ddframe.job.executor.handler.ExecutorServiceHandler;
 import com.dangdang.ddframe.job.executor.handler.ExecutorServiceHandlerRegistry;
 import com.dangdang.ddframe.job.executor.handler.JobExceptionHandler;
 import com.dangdang.ddframe.job.executor.handler.JobProperties;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 弹性化分布式作业执行器.
@@ -54,19 +63,29 @@ public abstract class AbstractElasticJobExecutor {
     
     private final String jobName;
     
-    private final ExecutorService executorService;
+    @Getter(AccessLevel.PROTECTED)
+    private final ListeningExecutorService executorService;
     
     private final JobExceptionHandler jobExceptionHandler;
     
-    private final Map<Integer, String> itemErrorMessages;
-    
     protected AbstractElasticJobExecutor(final JobFacade jobFacade) {
         this.jobFacade = jobFacade;
         jobRootConfig = jobFacade.loadJobRootConfiguration(true);
         jobName = jobRootConfig.getTypeConfig().getCoreConfig().getJobName();
-        executorService = ExecutorServiceHandlerRegistry.getExecutorServiceHandler(jobName, (ExecutorServiceHandler) getHandler(JobProperties.JobPropertiesEnum.EXECUTOR_SERVICE_HANDLER));
+        executorService = MoreExecutors.listeningDecorator(
+                ExecutorServiceHandlerRegistry.getExecutorServiceHandler(jobName, (ExecutorServiceHandler) getHandler(JobProperties.JobPropertiesEnum.EXECUTOR_SERVICE_HANDLER)));
         jobExceptionHandler = (JobExceptionHandler) getHandler(JobProperties.JobPropertiesEnum.JOB_EXCEPTION_HANDLER);
-        itemErrorMessages = new ConcurrentHashMap<>(jobRootConfig.getTypeConfig().getCoreConfig().getShardingTotalCount(), 1);
+    }
+    
+    /**
+     * 判断作业配置是否已变化.
+     * 
+     * <p>作业配置未变化时, 从缓存读取的作业配置为同一对象.</p>
+     * 
+     * @return 作业配置是否已变化
+     */
+    boolean isJobRootConfigurationChanged() {
+        return jobRootConfig != jobFacade.loadJobRootConfiguration(true);
     }
     
     private Object getHandler(final JobProperties.JobPropertiesEnum jobPropertiesEnum) {
@@ -138,69 +157,234 @@ public abstract class AbstractElasticJobExecutor {
         jobFacade.registerJobBegin(shardingContexts);
         String taskId = shardingContexts.getTaskId();
         jobFacade.postJobStatusTraceEvent(taskId, State.TASK_RUNNING, "");
+        Map<Integer, String> itemErrorMessages = createItemErrorMessages(shardingContexts);
         try {
-            process(shardingContexts, executionSource);
+            process(shardingContexts, executionSource, itemErrorMessages);
         } finally {
-            // TODO 考虑增加作业失败的状态，并且考虑如何处理作业失败的整体回路
-            jobFacade.registerJobCompleted(shardingContexts);
-            if (itemErrorMessages.isEmpty()) {
-                jobFacade.postJobStatusTraceEvent(taskId, State.TASK_FINISHED, "");
-            } else {
-                jobFacade.postJobStatusTraceEvent(taskId, State.TASK_ERROR, itemErrorMessages.toString());
+            registerJobCompleted(shardingContexts, itemErrorMessages);
+        }
+    }
+    
+    private Map<Integer, String> createItemErrorMessages(final ShardingContexts shardingContexts) {
+        return new ConcurrentHashMap<>(shardingContexts.getShardingItemParameters().size(), 1);
+    }
+    
+    private void registerJobCompleted(final ShardingContexts shardingContexts, final Map<Integer, String> itemErrorMessages) {
+        // TODO 考虑增加作业失败的状态，并且考虑如何处理作业失败的整体回路
+        jobFacade.registerJobCompleted(shardingContexts);
+        if (itemErrorMessages.isEmpty()) {
+            jobFacade.postJobStatusTraceEvent(shardingContexts.getTaskId(), State.TASK_FINISHED, "");
+        } else {
+            jobFacade.postJobStatusTraceEvent(shardingContexts.getTaskId(), State.TASK_ERROR, itemErrorMessages.toString());
+        }
+    }
+    
+    /**
+     * 执行失效转移的作业.
+     * 
+     * <p>
+     * 不经过调度器触发, 将分片项直接提交至作业线程池后立即返回.
+     * 失效转移的分片项已由主节点分配, 因此跳过时间误差检查, 分片和清理上次执行信息等步骤.
+     * 全部分片项执行完成后再次尝试抓取失效转移的分片项.
+     * </p>
+     * 
+     * @param shardingContexts 失效转移的分片上下文
+     */
+    public final void executeFailover(final ShardingContexts shardingContexts) {
+        String taskId = shardingContexts.getTaskId();
+        jobFacade.postJobStatusTraceEvent(taskId, State.TASK_STAGING, String.format("Job '%s' failover execute begin.", jobName));
+        Collection<Integer> items = shardingContexts.getShardingItemParameters().keySet();
+        if (items.isEmpty()) {
+            jobFacade.postJobStatusTraceEvent(taskId, State.TASK_FINISHED, String.format("Sharding item for job '%s' is empty.", jobName));
+            return;
+        }
+        if (executorService.isShutdown()) {
+            jobFacade.postJobStatusTraceEvent(taskId, State.TASK_FINISHED, String.format("Executor service for job '%s' is shutdown.", jobName));
+            return;
+        }
+        try {
+            jobFacade.beforeJobExecuted(shardingContexts);
+            //CHECKSTYLE:OFF
+        } catch (final Throwable cause) {
+            //CHECKSTYLE:ON
+            jobExceptionHandler.handleException(jobName, cause);
+        }
+        jobFacade.registerJobBegin(shardingContexts);
+        jobFacade.postJobStatusTraceEvent(taskId, State.TASK_RUNNING, "");
+        final Map<Integer, String> itemErrorMessages = createItemErrorMessages(shardingContexts);
+        final AtomicInteger remainingCount = new AtomicInteger(items.size());
+        for (final int each : items) {
+            final JobExecutionEvent jobExecutionEvent = new JobExecutionEvent(taskId, jobName, JobExecutionEvent.ExecutionSource.FAILOVER, each);
+            try {
+                processItem(shardingContexts, each, jobExecutionEvent, itemErrorMessages).addListener(new Runnable() {
+                    
+                    @Override
+                    public void run() {
+                        completeFailoverIfNecessary(shardingContexts, itemErrorMessages, remainingCount);
+                    }
+                }, MoreExecutors.directExecutor());
+            } catch (final RejectedExecutionException ex) {
+                itemErrorMessages.put(each, ExceptionUtil.transform(ex));
+                completeFailoverIfNecessary(shardingContexts, itemErrorMessages, remainingCount);
             }
         }
     }
     
-    private void process(final ShardingContexts shardingContexts, final JobExecutionEvent.ExecutionSource executionSource) {
+    private void completeFailoverIfNecessary(final ShardingContexts shardingContexts, final Map<Integer, String> itemErrorMessages, final AtomicInteger remainingCount) {
+        if (0 != remainingCount.decrementAndGet()) {
+            return;
+        }
+        registerJobCompleted(shardingContexts, itemErrorMessages);
+        jobFacade.failoverIfNecessary();
+        try {
+            jobFacade.afterJobExecuted(shardingContexts);
+            //CHECKSTYLE:OFF
+        } catch (final Throwable cause) {
+            //CHECKSTYLE:ON
+            jobExceptionHandler.handleException(jobName, cause);
+        }
+    }
+    
+    private void process(final ShardingContexts shardingContexts, final JobExecutionEvent.ExecutionSource executionSource, final Map<Integer, String> itemErrorMessages) {
         Collection<Integer> items = shardingContexts.getShardingItemParameters().keySet();
-        if (1 == items.size()) {
+        if (1 == items.size() && !isAsyncProcess()) {
             int item = shardingContexts.getShardingItemParameters().keySet().iterator().next();
             JobExecutionEvent jobExecutionEvent =  new JobExecutionEvent(shardingContexts.getTaskId(), jobName, executionSource, item);
-            process(shardingContexts, item, jobExecutionEvent);
+            process(shardingContexts, item, jobExecutionEvent, itemErrorMessages);
             return;
         }
-        final CountDownLatch latch = new CountDownLatch(items.size());
+        List<ListenableFuture<?>> futures = new ArrayList<>(items.size());
         for (final int each : items) {
             final JobExecutionEvent jobExecutionEvent = new JobExecutionEvent(shardingContexts.getTaskId(), jobName, executionSource, each);
             if (executorService.isShutdown()) {
                 return;
             }
-            executorService.submit(new Runnable() {
-                
-                @Override
-                public void run() {
-                    try {
-                        process(shardingContexts, each, jobExecutionEvent);
-                    } finally {
-                        latch.countDown();
-                    }
-                }
-            });
+            futures.add(processItem(shardingContexts, each, jobExecutionEvent, itemErrorMessages));
         }
         try {
-            latch.await();
+            Futures.successfulAsList(futures).get();
         } catch (final InterruptedException ex) {
             Thread.currentThread().interrupt();
+        } catch (final ExecutionException ex) {
+            throw new JobSystemException(ex);
         }
     }
     
-    private void process(final ShardingContexts shardingContexts, final int item, final JobExecutionEvent jobExecutionEvent) {
+    private ListenableFuture<?> processItem(final ShardingContexts shardingContexts, final int item, final JobExecutionEvent jobExecutionEvent, final Map<Integer, String> itemErrorMessages) {
+        if (isAsyncProcess()) {
+            return processAsync(shardingContexts, item, jobExecutionEvent, itemErrorMessages);
+        }
+        return executorService.submit(new Runnable() {
+            
+            @Override
+            public void run() {
+                process(shardingContexts, item, jobExecutionEvent, itemErrorMessages);
+            }
+        });
+    }
+    
+    private void process(final ShardingContexts shardingContexts, final int item, final JobExecutionEvent jobExecutionEvent, final Map<Integer, String> itemErrorMessages) {
         jobFacade.postJobExecutionEvent(jobExecutionEvent);
         log.trace("Job '{}' executing, item is: '{}'.", jobName, item);
+        long startTime = System.currentTimeMillis();
         try {
-            process(new ShardingContext(shardingContexts, item));
-            jobExecutionEvent.executionSuccess();
-            log.trace("Job '{}' executed, item is: '{}'.", jobName, item);
+            process(createShardingContext(shardingContexts, item));
             // CHECKSTYLE:OFF
         } catch (final Throwable cause) {
             // CHECKSTYLE:ON
-            jobExecutionEvent.executionFailure(cause);
-            itemErrorMessages.put(item, ExceptionUtil.transform(cause));
-            jobExceptionHandler.handleException(jobName, cause);
+            completeItem(shardingContexts, item, jobExecutionEvent, startTime, cause, itemErrorMessages);
+            return;
+        }
+        completeItem(shardingContexts, item, jobExecutionEvent, startTime, null, itemErrorMessages);
+    }
+    
+    private ShardingContext createShardingContext(final ShardingContexts shardingContexts, final int item) {
+        ShardingContext result = new ShardingContext(shardingContexts, item);
+        result.setOffsetStorage(jobFacade.getOffsetStorage());
+        return result;
+    }
+    
+    private ListenableFuture<?> processAsync(final ShardingContexts shardingContexts, final int item, final JobExecutionEvent jobExecutionEvent, final Map<Integer, String> itemErrorMessages) {
+        jobFacade.postJobExecutionEvent(jobExecutionEvent);
+        log.trace("Job '{}' executing asynchronously, item is: '{}'.", jobName, item);
+        final long startTime = System.currentTimeMillis();
+        ListenableFuture<?> future;
+        try {
+            future = processAsync(createShardingContext(shardingContexts, item));
+            // CHECKSTYLE:OFF
+        } catch (final Throwable cause) {
+            // CHECKSTYLE:ON
+            future = Futures.immediateFailedFuture(cause);
+        }
+        final SettableFuture<Object> result = SettableFuture.create();
+        Futures.addCallback(future, new FutureCallback<Object>() {
+            
+            @Override
+            public void onSuccess(final Object value) {
+                try {
+                    completeItem(shardingContexts, item, jobExecutionEvent, startTime, null, itemErrorMessages);
+                } finally {
+                    result.set(null);
+                }
+            }
+            
+            @Override
+            public void onFailure(final Throwable cause) {
+                try {
+                    completeItem(shardingContexts, item, jobExecutionEvent, startTime, cause, itemErrorMessages);
+                } finally {
+                    result.set(null);
+                }
+            }
+        });
+        return result;
+    }
+    
+    private void completeItem(final ShardingContexts shardingContexts, final int item, final JobExecutionEvent jobExecutionEvent, final long startTime, 
+                              final Throwable cause, final Map<Integer, String> itemErrorMessages) {
+        try {
+            if (null == cause) {
+                jobExecutionEvent.executionSuccess();
+                log.trace("Job '{}' executed, item is: '{}'.", jobName, item);
+            } else {
+                jobExecutionEvent.executionFailure(cause);
+                itemErrorMessages.put(item, ExceptionUtil.transform(cause));
+                jobExceptionHandler.handleException(jobName, cause);
+            }
         } finally {
+            shardingContexts.getItemDurations().put(item, System.currentTimeMillis() - startTime);
             jobFacade.postJobExecutionEvent(jobExecutionEvent);
         }
     }
     
     protected abstract void process(ShardingContext shardingContext);
+    
+    /**
+     * 判断是否异步处理分片项.
+     * 
+     * <p>异步处理的分片项不占用作业线程池, 在{@link #processAsync(ShardingContext)}返回的Future完成时结束.</p>
+     * 
+     * @return 是否异步处理分片项
+     */
+    protected boolean isAsyncProcess() {
+        return false;
+    }
+    
+    /**
+     * 异步处理分片项.
+     * 
+     * <p>默认在作业线程池中同步处理分片项, 异步作业执行器需覆盖此方法.</p>
+     * 
+     * @param shardingContext 分片上下文
+     * @return 分片项处理完成时完成的Future
+     */
+    protected ListenableFuture<?> processAsync(final ShardingContext shardingContext) {
+        return executorService.submit(new Runnable() {
+            
+            @Override
+            public void run() {
+                process(shardingContext);
+            }
+        });
+    }
 }
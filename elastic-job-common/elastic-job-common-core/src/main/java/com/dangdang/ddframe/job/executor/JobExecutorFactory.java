@@ -18,9 +18,13 @@
 package com.dangdang.ddframe.job.executor;
 
 import com.dangdang.ddframe.job.api.ElasticJob;
+import com.dangdang.ddframe.job.api.dataflow.AsyncDataflowJob;
 import com.dangdang.ddframe.job.api.dataflow.DataflowJob;
+import com.dangdang.ddframe.job.api.simple.AsyncSimpleJob;
 import com.dangdang.ddframe.job.api.simple.SimpleJob;
 import com.dangdang.ddframe.job.exception.JobConfigurationException;
+import com.dangdang.ddframe.job.executor.type.AsyncDataflowJobExecutor;
+import com.dangdang.ddframe.job.executor.type.AsyncSimpleJobExecutor;
 import com.dangdang.ddframe.job.executor.type.DataflowJobExecutor;
 import com.dangdang.ddframe.job.executor.type.ScriptJobExecutor;
 import com.dangdang.ddframe.job.executor.type.SimpleJobExecutor;
@@ -53,6 +57,12 @@ public final class JobExecutorFactory {
         if (elasticJob instanceof DataflowJob) {
             return new DataflowJobExecutor((DataflowJob) elasticJob, jobFacade);
         }
+        if (elasticJob instanceof AsyncSimpleJob) {
+            return new AsyncSimpleJobExecutor((AsyncSimpleJob) elasticJob, jobFacade);
+        }
+        if (elasticJob instanceof AsyncDataflowJob) {
+            return new AsyncDataflowJobExecutor((AsyncDataflowJob) elasticJob, jobFacade);
+        }
         throw new JobConfigurationException("Cannot support job type '%s'", elasticJob.getClass().getCanonicalName());
     }
 }
@@ -0,0 +1,59 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.executor;
+
+import com.dangdang.ddframe.job.api.ElasticJob;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 作业执行器持有者.
+ *
+ * <p>
+ * 每个作业复用同一个作业执行器, 避免每次触发都重新加载作业配置和实例化处理器.
+ * 作业配置变化时重新创建作业执行器.
+ * </p>
+ *
+ * @author zhangliang
+ */
+@RequiredArgsConstructor
+public final class JobExecutorHolder {
+    
+    private final ElasticJob elasticJob;
+    
+    private final JobFacade jobFacade;
+    
+    private volatile AbstractElasticJobExecutor jobExecutor;
+    
+    /**
+     * 获取作业执行器.
+     *
+     * @return 作业执行器
+     */
+    public AbstractElasticJobExecutor getJobExecutor() {
+        AbstractElasticJobExecutor result = jobExecutor;
+        if (null != result && !result.isJobRootConfigurationChanged()) {
+            return result;
+        }
+        synchronized (this) {
+            if (null == jobExecutor || jobExecutor.isJobRootConfigurationChanged()) {
+                jobExecutor = JobExecutorFactory.getJobExecutor(elasticJob, jobFacade);
+            }
+            return jobExecutor;
+        }
+    }
+}
@@ -87,6 +87,13 @@ public interface JobFacade {
      */
     void clearMisfire(Collection<Integer> shardingItems);
     
+    /**
+     * 获取分片项处理进度存储.
+     * 
+     * @return 分片项处理进度存储
+     */
+    OffsetStorage getOffsetStorage();
+    
     /**
      * 判断作业是否需要执行错过的任务.
      * 
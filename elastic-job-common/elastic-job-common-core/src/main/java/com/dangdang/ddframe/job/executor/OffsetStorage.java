@@ -0,0 +1,44 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.executor;
+
+/**
+ * 分片项处理进度存储.
+ * 
+ * @author zhangliang
+ */
+public interface OffsetStorage {
+    
+    /**
+     * 读取分片项最后提交的处理进度.
+     * 
+     * @param shardingItem 分片项
+     * @return 分片项最后提交的处理进度, 从未提交时返回null
+     */
+    String load(int shardingItem);
+    
+    /**
+     * 提交分片项的处理进度.
+     * 
+     * <p>同一分片项的多次提交只保留最后一次, 不保证提交后立即写入存储.</p>
+     * 
+     * @param shardingItem 分片项
+     * @param offset 处理进度
+     */
+    void commit(int shardingItem, String offset);
+}
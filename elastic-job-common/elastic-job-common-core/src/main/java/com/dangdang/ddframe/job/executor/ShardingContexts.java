@@ -23,6 +23,7 @@ import lombok.ToString;
 
 import java.io.Serializable;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 分片上下文集合.
@@ -61,4 +62,9 @@ public final class ShardingContexts implements Serializable {
      * 分配于本作业实例的分片项和参数的Map.
      */
     private final Map<Integer, String> shardingItemParameters;
+    
+    /**
+     * 本次执行的分片项和执行耗时毫秒数的Map.
+     */
+    private final Map<Integer, Long> itemDurations = new ConcurrentHashMap<>();
 }
@@ -17,12 +17,16 @@
 
 package com.dangdang.ddframe.job.executor.handler;
 
+import com.dangdang.ddframe.job.util.concurrent.MonitoredExecutorService;
+import com.dangdang.ddframe.job.util.concurrent.QuotaExecutorService;
+import com.google.common.base.Optional;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * 线程池服务处理器注册表.
@@ -32,7 +36,9 @@ import java.util.concurrent.ExecutorService;
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class ExecutorServiceHandlerRegistry {
     
-    private static final Map<String, ExecutorService> REGISTRY = new HashMap<>();
+    private static final int DEFAULT_THREAD_SIZE = Runtime.getRuntime().availableProcessors() * 2;
+    
+    private static final Map<String, MonitoredExecutorService> REGISTRY = new HashMap<>();
     
     /**
      * 获取线程池服务.
@@ -43,11 +49,34 @@ public final class ExecutorServiceHandlerRegistry {
      */
     public static synchronized ExecutorService getExecutorServiceHandler(final String jobName, final ExecutorServiceHandler executorServiceHandler) {
         if (!REGISTRY.containsKey(jobName)) {
-            REGISTRY.put(jobName, executorServiceHandler.createExecutorService(jobName));
+            ExecutorService executorService = executorServiceHandler.createExecutorService(jobName);
+            REGISTRY.put(jobName, new MonitoredExecutorService(executorService, getThreadSize(executorService)));
         }
         return REGISTRY.get(jobName);
     }
     
+    private static int getThreadSize(final ExecutorService executorService) {
+        if (executorService instanceof QuotaExecutorService) {
+            return ((QuotaExecutorService) executorService).getQuota();
+        }
+        if (executorService instanceof ThreadPoolExecutor) {
+            return ((ThreadPoolExecutor) executorService).getMaximumPoolSize();
+        }
+        return DEFAULT_THREAD_SIZE;
+    }
+    
+    /**
+     * 查找作业的线程池服务, 用于获取作业线程池的活跃线程数和空闲线程数.
+     * 
+     * <p>无法获知线程池大小时, 按默认线程池大小(处理器数量的2倍)计算.</p>
+     * 
+     * @param jobName 作业名称
+     * @return 作业的线程池服务, 作业未创建线程池时返回空
+     */
+    public static synchronized Optional<MonitoredExecutorService> find(final String jobName) {
+        return Optional.fromNullable(REGISTRY.get(jobName));
+    }
+    
     /**
      * 从注册表中删除该作业线程池服务.
      *
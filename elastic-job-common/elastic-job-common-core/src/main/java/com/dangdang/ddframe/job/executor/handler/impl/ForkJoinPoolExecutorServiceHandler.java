@@ -0,0 +1,88 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.executor.handler.impl;
+
+import com.dangdang.ddframe.job.executor.handler.ExecutorServiceHandler;
+import com.dangdang.ddframe.job.util.concurrent.QuotaExecutorService;
+import com.google.common.base.Optional;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 共享ForkJoinPool的线程池服务处理器.
+ *
+ * <p>
+ * 同一JVM中使用本处理器的作业共享一个工作窃取的ForkJoinPool, 并行度为CPU核数的2倍.
+ * 每个作业同时执行的分片项不超过CPU核数, 超出的分片项在作业自己的队列中等待, 因此单个作业的突发任务不会占满共享线程池.
+ * </p>
+ *
+ * @author zhangliang
+ */
+public final class ForkJoinPoolExecutorServiceHandler implements ExecutorServiceHandler {
+    
+    private static final int PARALLELISM = Runtime.getRuntime().availableProcessors() * 2;
+    
+    private static final int JOB_QUOTA = Math.max(1, PARALLELISM / 2);
+    
+    private static final ForkJoinPool SHARED_POOL = new ForkJoinPool(PARALLELISM, new NamedForkJoinWorkerThreadFactory(), null, true);
+    
+    private static final ConcurrentMap<String, QuotaExecutorService> JOB_EXECUTOR_SERVICES = new ConcurrentHashMap<>();
+    
+    @Override
+    public ExecutorService createExecutorService(final String jobName) {
+        QuotaExecutorService result = new QuotaExecutorService(SHARED_POOL, JOB_QUOTA);
+        JOB_EXECUTOR_SERVICES.put(jobName, result);
+        return result;
+    }
+    
+    /**
+     * 获取作业的线程池服务, 用于查看作业的等待任务数量和等待时间.
+     *
+     * @param jobName 作业名称
+     * @return 作业的线程池服务
+     */
+    public static Optional<QuotaExecutorService> getJobExecutorService(final String jobName) {
+        return Optional.fromNullable(JOB_EXECUTOR_SERVICES.get(jobName));
+    }
+    
+    /**
+     * 删除作业的线程池服务, 作业关闭时调用.
+     *
+     * @param jobName 作业名称
+     */
+    public static void removeJobExecutorService(final String jobName) {
+        JOB_EXECUTOR_SERVICES.remove(jobName);
+    }
+    
+    private static final class NamedForkJoinWorkerThreadFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+        
+        private final AtomicInteger threadCount = new AtomicInteger();
+        
+        @Override
+        public ForkJoinWorkerThread newThread(final ForkJoinPool pool) {
+            ForkJoinWorkerThread result = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            result.setName("shared-inner-job-" + threadCount.incrementAndGet());
+            return result;
+        }
+    }
+}
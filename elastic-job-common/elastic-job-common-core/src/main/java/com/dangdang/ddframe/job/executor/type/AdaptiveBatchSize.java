@@ -0,0 +1,80 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+package com.dangdang.ddframe.job.executor.type;
+
+/**
+ * 数据流作业的自适应批量.
+ * 
+ * <p>
+ * 采用加性增乘性减(AIMD)的方式调整批量: 
+ * 处理耗时超过目标耗时时批量减半; 
+ * 处理耗时未超过目标耗时且抓取的数据已填满批量时, 批量增加最大值与最小值之差的1/16.
+ * 批量始终在最小值和最大值之间. 目标耗时不大于0时无法判断处理快慢, 批量固定为最小值.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+final class AdaptiveBatchSize {
+    
+    private static final int INCREASE_DIVISOR = 16;
+    
+    private final int minBatchSize;
+    
+    private final int maxBatchSize;
+    
+    private final long targetProcessMilliseconds;
+    
+    private final int increment;
+    
+    private volatile int current;
+    
+    AdaptiveBatchSize(final int minBatchSize, final int maxBatchSize, final long targetProcessMilliseconds) {
+        this.minBatchSize = Math.max(1, minBatchSize);
+        this.maxBatchSize = Math.max(this.minBatchSize, maxBatchSize);
+        this.targetProcessMilliseconds = targetProcessMilliseconds;
+        increment = Math.max(1, (this.maxBatchSize - this.minBatchSize) / INCREASE_DIVISOR);
+        current = this.minBatchSize;
+    }
+    
+    /**
+     * 获取当前批量.
+     * 
+     * @return 当前批量
+     */
+    int get() {
+        return current;
+    }
+    
+    /**
+     * 根据一批数据的处理耗时调整批量.
+     * 
+     * @param dataSize 处理的数据数量
+     * @param processMilliseconds 处理耗时毫秒数
+     * @return 调整后的批量
+     */
+    synchronized int adjust(final int dataSize, final long processMilliseconds) {
+        if (targetProcessMilliseconds <= 0L) {
+            return current;
+        }
+        if (processMilliseconds > targetProcessMilliseconds) {
+            current = Math.max(minBatchSize, current / 2);
+        } else if (dataSize >= current) {
+            current = Math.min(maxBatchSize, current + increment);
+        }
+        return current;
+    }
+}
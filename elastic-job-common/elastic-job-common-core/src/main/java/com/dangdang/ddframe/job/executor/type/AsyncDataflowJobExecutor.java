@@ -0,0 +1,139 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+package com.dangdang.ddframe.job.executor.type;
+
+import com.dangdang.ddframe.job.api.ShardingContext;
+import com.dangdang.ddframe.job.api.dataflow.AsyncDataflowJob;
+import com.dangdang.ddframe.job.config.dataflow.DataflowJobConfiguration;
+import com.dangdang.ddframe.job.executor.AbstractElasticJobExecutor;
+import com.dangdang.ddframe.job.executor.JobFacade;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+
+import java.util.List;
+
+/**
+ * 异步数据流作业执行器.
+ * 
+ * <p>
+ * 每个分片项只创建一个结果Future, 获取和处理数据的循环由回调驱动.
+ * 流式处理时, 下一次获取数据重新提交到作业线程池中发起, 避免同步完成的Future导致调用栈或Future链无限增长.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+public final class AsyncDataflowJobExecutor extends AbstractElasticJobExecutor {
+    
+    private final AsyncDataflowJob<Object> asyncDataflowJob;
+    
+    public AsyncDataflowJobExecutor(final AsyncDataflowJob<Object> asyncDataflowJob, final JobFacade jobFacade) {
+        super(jobFacade);
+        this.asyncDataflowJob = asyncDataflowJob;
+    }
+    
+    @Override
+    protected boolean isAsyncProcess() {
+        return true;
+    }
+    
+    @Override
+    protected ListenableFuture<?> processAsync(final ShardingContext shardingContext) {
+        boolean streamingProcess = ((DataflowJobConfiguration) getJobRootConfig().getTypeConfig()).isStreamingProcess();
+        SettableFuture<Object> result = SettableFuture.create();
+        fetchAndProcess(shardingContext, streamingProcess, result);
+        return result;
+    }
+    
+    private void fetchAndProcess(final ShardingContext shardingContext, final boolean streamingProcess, final SettableFuture<Object> result) {
+        ListenableFuture<List<Object>> fetchFuture;
+        try {
+            fetchFuture = asyncDataflowJob.fetchData(shardingContext);
+            // CHECKSTYLE:OFF
+        } catch (final Throwable cause) {
+            // CHECKSTYLE:ON
+            result.setException(cause);
+            return;
+        }
+        Futures.addCallback(fetchFuture, new FutureCallback<List<Object>>() {
+            
+            @Override
+            public void onSuccess(final List<Object> data) {
+                if (null == data || data.isEmpty()) {
+                    result.set(null);
+                    return;
+                }
+                process(shardingContext, data, streamingProcess, result);
+            }
+            
+            @Override
+            public void onFailure(final Throwable cause) {
+                result.setException(cause);
+            }
+        });
+    }
+    
+    private void process(final ShardingContext shardingContext, final List<Object> data, final boolean streamingProcess, final SettableFuture<Object> result) {
+        ListenableFuture<?> processFuture;
+        try {
+            processFuture = asyncDataflowJob.processData(shardingContext, data);
+            // CHECKSTYLE:OFF
+        } catch (final Throwable cause) {
+            // CHECKSTYLE:ON
+            result.setException(cause);
+            return;
+        }
+        Futures.addCallback(processFuture, new FutureCallback<Object>() {
+            
+            @Override
+            public void onSuccess(final Object value) {
+                if (!streamingProcess || !getJobFacade().isEligibleForJobRunning()) {
+                    result.set(null);
+                    return;
+                }
+                fetchNext(shardingContext, result);
+            }
+            
+            @Override
+            public void onFailure(final Throwable cause) {
+                result.setException(cause);
+            }
+        });
+    }
+    
+    private void fetchNext(final ShardingContext shardingContext, final SettableFuture<Object> result) {
+        try {
+            getExecutorService().execute(new Runnable() {
+                
+                @Override
+                public void run() {
+                    fetchAndProcess(shardingContext, true, result);
+                }
+            });
+            // CHECKSTYLE:OFF
+        } catch (final Throwable cause) {
+            // CHECKSTYLE:ON
+            result.setException(cause);
+        }
+    }
+    
+    @Override
+    protected void process(final ShardingContext shardingContext) {
+        Futures.getUnchecked(processAsync(shardingContext));
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+package com.dangdang.ddframe.job.executor.type;
+
+import com.dangdang.ddframe.job.api.ShardingContext;
+import com.dangdang.ddframe.job.api.simple.AsyncSimpleJob;
+import com.dangdang.ddframe.job.executor.AbstractElasticJobExecutor;
+import com.dangdang.ddframe.job.executor.JobFacade;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * 异步简单作业执行器.
+ * 
+ * @author zhangliang
+ */
+public final class AsyncSimpleJobExecutor extends AbstractElasticJobExecutor {
+    
+    private final AsyncSimpleJob asyncSimpleJob;
+    
+    public AsyncSimpleJobExecutor(final AsyncSimpleJob asyncSimpleJob, final JobFacade jobFacade) {
+        super(jobFacade);
+        this.asyncSimpleJob = asyncSimpleJob;
+    }
+    
+    @Override
+    protected boolean isAsyncProcess() {
+        return true;
+    }
+    
+    @Override
+    protected ListenableFuture<?> processAsync(final ShardingContext shardingContext) {
+        return asyncSimpleJob.execute(shardingContext);
+    }
+    
+    @Override
+    protected void process(final ShardingContext shardingContext) {
+        Futures.getUnchecked(processAsync(shardingContext));
+    }
+}
@@ -19,30 +19,95 @@ package com.dangdang.ddframe.job.executor.type;
 
 import com.dangdang.ddframe.job.api.ShardingContext;
 import com.dangdang.ddframe.job.api.dataflow.DataflowJob;
+import com.dangdang.ddframe.job.api.dataflow.DataflowPartitionKeyExtractor;
 import com.dangdang.ddframe.job.config.dataflow.DataflowJobConfiguration;
+import com.dangdang.ddframe.job.exception.JobSystemException;
 import com.dangdang.ddframe.job.executor.AbstractElasticJobExecutor;
 import com.dangdang.ddframe.job.executor.JobFacade;
+import com.dangdang.ddframe.job.executor.handler.ExecutorServiceHandlerRegistry;
+import com.dangdang.ddframe.job.util.concurrent.MonitoredExecutorService;
+import com.google.common.base.Optional;
+import com.google.common.base.Throwables;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * 数据流作业执行器.
  * 
+ * <p>
+ * 流式处理且配置了预先抓取的批次数时, 在预先抓取线程中抓取数据, 在当前线程中处理数据, 抓取和处理并行执行.
+ * 作业不再满足执行条件时停止抓取, 已抓取的数据处理完成后结束.
+ * 预先抓取线程池归属于本执行器, 线程数不超过作业线程池大小, 空闲线程自动回收; 线程池已满时退化为非并行的流式处理.
+ * 处理异常中止时不中断抓取线程, 而是清空已抓取的数据使其自行结束, 避免中断作业代码.
+ * </p>
+ * 
+ * <p>
+ * 配置了处理数据的并行度时, 将抓取的数据拆分为子批次, 由当前线程和作业线程池共同处理, 全部子批次处理完成后才继续.
+ * 当前线程自行处理尚未被作业线程池领取的子批次, 因此作业线程池被占满时不会死锁.
+ * </p>
+ * 
+ * <p>
+ * 配置了最大批量时, 每个分片项根据处理数据的耗时自适应调整建议的批量, 通过{@link ShardingContext#getBatchSize()}提供给作业.
+ * </p>
+ * 
  * @author zhangliang
  */
 public final class DataflowJobExecutor extends AbstractElasticJobExecutor {
     
+    private static final long PREFETCH_KEEP_ALIVE_SECONDS = 60L;
+    
+    private static final List<Object> END_OF_DATA = Collections.emptyList();
+    
     private final DataflowJob<Object> dataflowJob;
     
+    private final ConcurrentMap<Integer, AdaptiveBatchSize> adaptiveBatchSizes = new ConcurrentHashMap<>();
+    
+    private final ExecutorService prefetchExecutor;
+    
     public DataflowJobExecutor(final DataflowJob<Object> dataflowJob, final JobFacade jobFacade) {
         super(jobFacade);
         this.dataflowJob = dataflowJob;
+        prefetchExecutor = createPrefetchExecutor(getJobRootConfig().getTypeConfig().getCoreConfig().getJobName());
+    }
+    
+    private static ExecutorService createPrefetchExecutor(final String jobName) {
+        Optional<MonitoredExecutorService> jobExecutorService = ExecutorServiceHandlerRegistry.find(jobName);
+        int maxThreadSize = jobExecutorService.isPresent() ? jobExecutorService.get().getThreadSize() : 1;
+        return new ThreadPoolExecutor(0, maxThreadSize, PREFETCH_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new SynchronousQueue<Runnable>(), 
+                new BasicThreadFactory.Builder().namingPattern("dataflow-prefetch-%s").daemon(true).build());
     }
     
     @Override
     protected void process(final ShardingContext shardingContext) {
         DataflowJobConfiguration dataflowConfig = (DataflowJobConfiguration) getJobRootConfig().getTypeConfig();
-        if (dataflowConfig.isStreamingProcess()) {
+        if (isAdaptiveBatchSize(dataflowConfig)) {
+            shardingContext.setBatchSize(getAdaptiveBatchSize(shardingContext.getShardingItem(), dataflowConfig).get());
+        }
+        if (dataflowConfig.isStreamingProcess() && dataflowConfig.getPrefetchDepth() > 0) {
+            pipelinedStreamingExecute(shardingContext, dataflowConfig.getPrefetchDepth());
+        } else if (dataflowConfig.isStreamingProcess()) {
             streamingExecute(shardingContext);
         } else {
             oneOffExecute(shardingContext);
@@ -60,6 +125,43 @@ public final class DataflowJobExecutor extends AbstractElasticJobExecutor {
         }
     }
     
+    private void pipelinedStreamingExecute(final ShardingContext shardingContext, final int prefetchDepth) {
+        BlockingQueue<List<Object>> batches = new ArrayBlockingQueue<>(prefetchDepth);
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicBoolean aborted = new AtomicBoolean();
+        Future<?> prefetchFuture;
+        try {
+            prefetchFuture = prefetchExecutor.submit(new PrefetchTask(shardingContext, batches, running, aborted));
+        } catch (final RejectedExecutionException ex) {
+            streamingExecute(shardingContext);
+            return;
+        }
+        boolean drained = false;
+        try {
+            List<Object> data = batches.take();
+            while (END_OF_DATA != data) {
+                processData(shardingContext, data);
+                if (running.get() && !getJobFacade().isEligibleForJobRunning()) {
+                    running.set(false);
+                }
+                data = batches.take();
+            }
+            drained = true;
+            prefetchFuture.get();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException ex) {
+            throw Throwables.propagate(ex.getCause());
+        } finally {
+            if (!drained) {
+                aborted.set(true);
+                running.set(false);
+                prefetchFuture.cancel(false);
+                batches.clear();
+            }
+        }
+    }
+    
     private void oneOffExecute(final ShardingContext shardingContext) {
         List<Object> data = fetchData(shardingContext);
         if (null != data && !data.isEmpty()) {
@@ -72,6 +174,149 @@ public final class DataflowJobExecutor extends AbstractElasticJobExecutor {
     }
     
     private void processData(final ShardingContext shardingContext, final List<Object> data) {
-        dataflowJob.processData(shardingContext, data);
+        DataflowJobConfiguration dataflowConfig = (DataflowJobConfiguration) getJobRootConfig().getTypeConfig();
+        long startTime = System.currentTimeMillis();
+        if (dataflowConfig.getProcessParallelism() <= 1 || data.size() <= 1) {
+            dataflowJob.processData(shardingContext, data);
+        } else {
+            processSubBatches(shardingContext, partition(data, dataflowConfig.getProcessParallelism()));
+        }
+        if (isAdaptiveBatchSize(dataflowConfig)) {
+            shardingContext.setBatchSize(getAdaptiveBatchSize(shardingContext.getShardingItem(), dataflowConfig).adjust(data.size(), System.currentTimeMillis() - startTime));
+        }
+    }
+    
+    private boolean isAdaptiveBatchSize(final DataflowJobConfiguration dataflowConfig) {
+        return dataflowConfig.getMaxBatchSize() > 0;
+    }
+    
+    private AdaptiveBatchSize getAdaptiveBatchSize(final int item, final DataflowJobConfiguration dataflowConfig) {
+        AdaptiveBatchSize result = adaptiveBatchSizes.get(item);
+        if (null == result) {
+            adaptiveBatchSizes.putIfAbsent(item, new AdaptiveBatchSize(dataflowConfig.getMinBatchSize(), dataflowConfig.getMaxBatchSize(), dataflowConfig.getTargetProcessMilliseconds()));
+            result = adaptiveBatchSizes.get(item);
+        }
+        return result;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private List<List<Object>> partition(final List<Object> data, final int processParallelism) {
+        int subBatchCount = Math.min(processParallelism, data.size());
+        List<List<Object>> result = new ArrayList<>(subBatchCount);
+        for (int i = 0; i < subBatchCount; i++) {
+            result.add(new ArrayList<>(data.size() / subBatchCount + 1));
+        }
+        if (dataflowJob instanceof DataflowPartitionKeyExtractor) {
+            DataflowPartitionKeyExtractor<Object> keyExtractor = (DataflowPartitionKeyExtractor<Object>) dataflowJob;
+            for (Object each : data) {
+                Object key = keyExtractor.extractPartitionKey(each);
+                result.get(null == key ? 0 : Math.abs(key.hashCode() % subBatchCount)).add(each);
+            }
+        } else {
+            int index = 0;
+            for (Object each : data) {
+                result.get(index++ * subBatchCount / data.size()).add(each);
+            }
+        }
+        List<List<Object>> nonEmptyResult = new ArrayList<>(subBatchCount);
+        for (List<Object> each : result) {
+            if (!each.isEmpty()) {
+                nonEmptyResult.add(each);
+            }
+        }
+        return nonEmptyResult;
+    }
+    
+    private void processSubBatches(final ShardingContext shardingContext, final List<List<Object>> subBatches) {
+        Queue<Integer> pendingIndexes = new ConcurrentLinkedQueue<>();
+        for (int i = 0; i < subBatches.size(); i++) {
+            pendingIndexes.offer(i);
+        }
+        Map<Integer, Throwable> failures = new ConcurrentSkipListMap<>();
+        CountDownLatch latch = new CountDownLatch(subBatches.size());
+        SubBatchWorker worker = new SubBatchWorker(shardingContext, subBatches, pendingIndexes, failures, latch);
+        for (int i = 1; i < subBatches.size(); i++) {
+            try {
+                getExecutorService().execute(worker);
+            } catch (final RejectedExecutionException ex) {
+                break;
+            }
+        }
+        worker.run();
+        try {
+            latch.await();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new JobSystemException(ex);
+        }
+        if (failures.isEmpty()) {
+            return;
+        }
+        JobSystemException result = new JobSystemException("Job '%s' item '%s' process sub-batches %s of %s failure.", 
+                shardingContext.getJobName(), shardingContext.getShardingItem(), failures.keySet(), subBatches.size());
+        for (Throwable each : failures.values()) {
+            result.addSuppressed(each);
+        }
+        throw result;
+    }
+    
+    @RequiredArgsConstructor
+    private final class PrefetchTask implements Callable<Void> {
+        
+        private final ShardingContext shardingContext;
+        
+        private final BlockingQueue<List<Object>> batches;
+        
+        private final AtomicBoolean running;
+        
+        private final AtomicBoolean aborted;
+        
+        @Override
+        public Void call() throws InterruptedException {
+            try {
+                while (running.get()) {
+                    List<Object> data = fetchData(shardingContext);
+                    if (null == data || data.isEmpty()) {
+                        break;
+                    }
+                    batches.put(data);
+                }
+            } finally {
+                if (!aborted.get()) {
+                    batches.put(END_OF_DATA);
+                }
+            }
+            return null;
+        }
+    }
+    
+    @RequiredArgsConstructor
+    private final class SubBatchWorker implements Runnable {
+        
+        private final ShardingContext shardingContext;
+        
+        private final List<List<Object>> subBatches;
+        
+        private final Queue<Integer> pendingIndexes;
+        
+        private final Map<Integer, Throwable> failures;
+        
+        private final CountDownLatch latch;
+        
+        @Override
+        public void run() {
+            Integer index;
+            while (null != (index = pendingIndexes.poll())) {
+                try {
+                    dataflowJob.processData(shardingContext, subBatches.get(index));
+                    // CHECKSTYLE:OFF
+                } catch (final Throwable cause) {
+                    // CHECKSTYLE:ON
+                    failures.put(index, cause);
+                } finally {
+                    latch.countDown();
+                }
+            }
+        }
     }
 }
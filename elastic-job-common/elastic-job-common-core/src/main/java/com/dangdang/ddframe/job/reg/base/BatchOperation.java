@@ -0,0 +1,116 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.reg.base;
+
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * 注册中心批量操作.
+ * 
+ * @author zhangliang
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class BatchOperation {
+    
+    private final Type type;
+    
+    private final String key;
+    
+    private final String value;
+    
+    /**
+     * 如果不存在则创建持久数据.
+     * 
+     * @param key 键
+     * @param value 值
+     * @return 批量操作
+     */
+    public static BatchOperation createIfAbsent(final String key, final String value) {
+        return new BatchOperation(Type.CREATE_IF_ABSENT, key, value);
+    }
+    
+    /**
+     * 持久化数据, 存在则更新.
+     * 
+     * @param key 键
+     * @param value 值
+     * @return 批量操作
+     */
+    public static BatchOperation persist(final String key, final String value) {
+        return new BatchOperation(Type.PERSIST, key, value);
+    }
+    
+    /**
+     * 父节点存在时持久化数据, 存在则更新.
+     * 
+     * <p>父节点不存在时忽略, 不会创建父节点.</p>
+     * 
+     * @param key 键
+     * @param value 值
+     * @return 批量操作
+     */
+    public static BatchOperation persistIfParentExisted(final String key, final String value) {
+        return new BatchOperation(Type.PERSIST_IF_PARENT_EXISTED, key, value);
+    }
+    
+    /**
+     * 持久化临时数据, 存在则先删除.
+     * 
+     * @param key 键
+     * @param value 值
+     * @return 批量操作
+     */
+    public static BatchOperation persistEphemeral(final String key, final String value) {
+        return new BatchOperation(Type.PERSIST_EPHEMERAL, key, value);
+    }
+    
+    /**
+     * 如果存在则删除数据及其子节点.
+     * 
+     * @param key 键
+     * @return 批量操作
+     */
+    public static BatchOperation removeIfExisted(final String key) {
+        return new BatchOperation(Type.REMOVE_IF_EXISTED, key, null);
+    }
+    
+    /**
+     * 替换键, 保留操作类型和值.
+     * 
+     * @param key 新的键
+     * @return 批量操作
+     */
+    public BatchOperation withKey(final String key) {
+        return new BatchOperation(type, key, value);
+    }
+    
+    /**
+     * 批量操作类型.
+     */
+    public enum Type {
+        
+        CREATE_IF_ABSENT, PERSIST, PERSIST_IF_PARENT_EXISTED, PERSIST_EPHEMERAL, REMOVE_IF_EXISTED
+    }
+}
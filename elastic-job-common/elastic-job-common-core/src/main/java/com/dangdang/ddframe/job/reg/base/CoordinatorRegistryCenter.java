@@ -17,6 +17,9 @@
 
 package com.dangdang.ddframe.job.reg.base;
 
+import com.google.common.base.Function;
+import com.google.common.util.concurrent.ListenableFuture;
+
 import java.util.List;
 
 /**
@@ -26,6 +29,21 @@ import java.util.List;
  */
 public interface CoordinatorRegistryCenter extends RegistryCenter {
     
+    /**
+     * 获取解码后的注册数据.
+     * 
+     * <p>
+     * 节点位于本地缓存时, 按节点路径和修改版本缓存解码结果, 节点未变化时重复读取返回同一对象且不再解码.
+     * 解码结果会被共享, 必须是不可变对象; 解码器应使用常量, 不同解码器之间不共享解码结果.
+     * </p>
+     * 
+     * @param key 键
+     * @param decoder 将数据值解码为对象的解码器
+     * @param <T> 解码结果类型
+     * @return 解码结果
+     */
+    <T> T getDecoded(String key, Function<String, T> decoder);
+    
     /**
      * 直接从注册中心而非本地缓存获取数据.
      * 
@@ -34,14 +52,149 @@ public interface CoordinatorRegistryCenter extends RegistryCenter {
      */
     String getDirectly(String key);
     
+    /**
+     * 直接从注册中心而非本地缓存判断数据是否存在.
+     * 
+     * @param key 键
+     * @return 数据是否存在
+     */
+    boolean isExistedDirectly(String key);
+    
+    /**
+     * 阻塞等待节点被创建.
+     * 
+     * <p>
+     * 由节点变化事件唤醒, 不轮询注册中心. 如果键位于已初始化的本地缓存中, 返回时本地缓存已可见该节点.
+     * </p>
+     * 
+     * @param key 键
+     * @param timeoutMilliseconds 超时毫秒数
+     * @return 超时前节点是否已存在
+     */
+    boolean awaitCreated(String key, long timeoutMilliseconds);
+    
+    /**
+     * 阻塞等待节点被删除.
+     * 
+     * <p>
+     * 由节点变化事件唤醒, 不轮询注册中心. 如果键位于已初始化的本地缓存中, 返回时本地缓存已不可见该节点.
+     * </p>
+     * 
+     * @param key 键
+     * @param timeoutMilliseconds 超时毫秒数
+     * @return 超时前节点是否已不存在
+     */
+    boolean awaitRemoved(String key, long timeoutMilliseconds);
+    
     /**
      * 获取子节点名称集合.
      * 
+     * <p>
+     * 如果键位于已初始化的本地缓存中则从缓存读取, 否则从注册中心读取.
+     * 本地缓存由注册中心的事件异步更新, 可能短暂落后于注册中心, 刚写入的节点不保证立即可见.
+     * 需要读取最新数据时应使用{@code getChildrenKeysDirectly}.
+     * </p>
+     * 
      * @param key 键
-     * @return 子节点名称集合
+     * @return 子节点名称集合, 按名称降序排列
      */
     List<String> getChildrenKeys(String key);
     
+    /**
+     * 直接从注册中心而非本地缓存获取子节点名称集合.
+     * 
+     * @param key 键
+     * @return 子节点名称集合, 按名称降序排列
+     */
+    List<String> getChildrenKeysDirectly(String key);
+    
+    /**
+     * 在同一事务中批量执行操作.
+     * 
+     * <p>
+     * 批量操作全部成功或全部失败, 正常情况下只需一次注册中心往返.
+     * 判断节点是否存在时优先使用本地缓存, 缓存过期导致事务失败时直接从注册中心判断后重试一次.
+     * </p>
+     * 
+     * @param operations 批量操作
+     */
+    void executeInBatch(List<BatchOperation> operations);
+    
+    /**
+     * 在同一事务中批量执行操作, 任何注册中心异常都抛给调用方.
+     * 
+     * <p>与{@link #executeInBatch(List)}不同, 连接丢失和节点不存在等异常不会被忽略, 用于调用方需要确认写入成功的场景.</p>
+     * 
+     * @param operations 批量操作
+     * @throws com.dangdang.ddframe.job.reg.exception.RegException 注册中心异常
+     */
+    void executeInBatchStrictly(List<BatchOperation> operations);
+    
+    /**
+     * 异步持久化注册数据, 存在则更新.
+     * 
+     * <p>
+     * 不阻塞调用线程. 不保证与其他同步或异步操作在服务端的生效顺序, 需要顺序时调用方应等待返回的Future完成后再发出后续操作.
+     * </p>
+     * 
+     * @param key 键
+     * @param value 值
+     * @return 操作完成时完成的Future, 操作失败时以RegException失败
+     */
+    ListenableFuture<Void> persistAsync(String key, String value);
+    
+    /**
+     * 异步更新注册数据.
+     * 
+     * @param key 键
+     * @param value 值
+     * @return 操作完成时完成的Future, 操作失败时以RegException失败
+     */
+    ListenableFuture<Void> updateAsync(String key, String value);
+    
+    /**
+     * 异步读取并按版本条件更新注册数据.
+     * 
+     * <p>
+     * 读取和写入之间数据被其他客户端修改时重新读取后重试, 不会覆盖其他客户端的修改.
+     * 键不存在或更新函数返回null时不更新. 更新函数在注册中心事件线程中执行, 不应阻塞.
+     * </p>
+     * 
+     * @param key 键
+     * @param updater 根据当前值计算新值的函数
+     * @return 操作完成时完成的Future, 操作失败时以RegException失败
+     */
+    ListenableFuture<Void> compareAndUpdateAsync(String key, Function<String, String> updater);
+    
+    /**
+     * 异步删除注册数据及其子节点, 不存在则忽略.
+     * 
+     * @param key 键
+     * @return 操作完成时完成的Future, 操作失败时以RegException失败
+     */
+    ListenableFuture<Void> removeAsync(String key);
+    
+    /**
+     * 延迟持久化注册数据, 存在则更新.
+     * 
+     * <p>
+     * 不阻塞调用线程. 同一键的多次写入只保留最后一次, 按配置的间隔批量写入, 关闭注册中心时写入剩余数据.
+     * 删除键时丢弃该键及其子键尚未写入的数据; 不创建父节点, 写入时父节点不存在则丢弃该数据.
+     * 仅用于延迟或丢失不影响正确性的展示类数据.
+     * </p>
+     * 
+     * @param key 键
+     * @param value 值
+     */
+    void persistBehind(String key, String value);
+    
+    /**
+     * 获取尚未写入注册中心的延迟写入数据数量.
+     * 
+     * @return 尚未写入注册中心的延迟写入数据数量
+     */
+    int getPendingWriteCount();
+    
     /**
      * 获取子节点数量.
      *
@@ -58,6 +211,21 @@ public interface CoordinatorRegistryCenter extends RegistryCenter {
      */
     void persistEphemeral(String key, String value);
     
+    /**
+     * 比较并持久化临时注册数据.
+     * 
+     * <p>
+     * 仅当注册数据仍为期望值时写入, 期望值为null表示键不存在, 此时创建临时数据.
+     * 读取和写入之间数据被其他客户端修改则写入失败, 由调用方重新读取后重试.
+     * </p>
+     * 
+     * @param key 键
+     * @param expectedValue 期望值
+     * @param value 值
+     * @return 是否写入成功
+     */
+    boolean persistEphemeralIfUnchanged(String key, String expectedValue, String value);
+    
     /**
      * 持久化顺序注册数据.
      *
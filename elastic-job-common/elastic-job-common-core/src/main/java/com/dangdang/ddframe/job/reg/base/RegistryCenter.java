@@ -45,6 +45,10 @@ public interface RegistryCenter {
     /**
      * 获取数据是否存在.
      * 
+     * <p>
+     * 支持本地缓存的注册中心可以从缓存判断, 缓存可能短暂落后于注册中心.
+     * </p>
+     * 
      * @param key 键
      * @return 数据是否存在
      */
@@ -50,6 +50,21 @@ public final class RegExceptionHandler {
         }
     }
     
+    /**
+     * 记录异步操作的异常.
+     * 
+     * <p>异步操作无法向调用方抛出异常, 可忽略的异常记录调试日志, 其他异常记录警告日志.</p>
+     * 
+     * @param cause 待记录异常
+     */
+    public static void logException(final Throwable cause) {
+        if (isIgnoredException(cause) || isIgnoredException(cause.getCause())) {
+            log.debug("Elastic job: ignored exception for: {}", cause.getMessage());
+        } else {
+            log.warn("Elastic job: asynchronous registry center operation failed", cause);
+        }
+    }
+    
     private static boolean isIgnoredException(final Throwable cause) {
         return null != cause && (cause instanceof ConnectionLossException || cause instanceof NoNodeException || cause instanceof NodeExistsException);
     }
@@ -0,0 +1,236 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.reg.zookeeper;
+
+import com.dangdang.ddframe.job.reg.exception.RegException;
+import com.google.common.base.Charsets;
+import com.google.common.base.Function;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import lombok.RequiredArgsConstructor;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.api.BackgroundCallback;
+import org.apache.curator.framework.api.CuratorEvent;
+import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.KeeperException;
+
+/**
+ * 基于注册中心后台回调的异步操作.
+ * 
+ * <p>
+ * 操作不阻塞调用线程, 回调在注册中心事件线程中执行.
+ * 持久化时的补充创建和连接丢失后的重试都是后续发出的请求, 因此不保证与其他操作在服务端的生效顺序.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@RequiredArgsConstructor
+final class BackgroundOperations {
+    
+    private static final int MAX_COMPARE_AND_UPDATE_ATTEMPTS = 10;
+    
+    private final CuratorFramework client;
+    
+    /**
+     * 异步持久化数据, 存在则更新.
+     * 
+     * @param key 键
+     * @param value 值
+     * @return 操作结果
+     */
+    ListenableFuture<Void> persist(final String key, final String value) {
+        SettableFuture<Void> result = SettableFuture.create();
+        setData(key, value.getBytes(Charsets.UTF_8), true, true, result);
+        return result;
+    }
+    
+    /**
+     * 父节点存在时异步持久化数据, 存在则更新.
+     * 
+     * <p>父节点不存在时忽略, 不会创建父节点.</p>
+     * 
+     * @param key 键
+     * @param value 值
+     * @return 操作结果
+     */
+    ListenableFuture<Void> persistIfParentExisted(final String key, final String value) {
+        SettableFuture<Void> result = SettableFuture.create();
+        setData(key, value.getBytes(Charsets.UTF_8), true, false, result);
+        return result;
+    }
+    
+    /**
+     * 异步更新数据.
+     * 
+     * @param key 键
+     * @param value 值
+     * @return 操作结果
+     */
+    ListenableFuture<Void> update(final String key, final String value) {
+        SettableFuture<Void> result = SettableFuture.create();
+        setData(key, value.getBytes(Charsets.UTF_8), false, false, result);
+        return result;
+    }
+    
+    /**
+     * 异步读取并按版本条件更新数据.
+     * 
+     * <p>版本冲突时重新读取后重试, 不存在或更新函数返回null时忽略.</p>
+     * 
+     * @param key 键
+     * @param updater 根据当前值计算新值的函数
+     * @return 操作结果
+     */
+    ListenableFuture<Void> compareAndUpdate(final String key, final Function<String, String> updater) {
+        SettableFuture<Void> result = SettableFuture.create();
+        compareAndUpdate(key, updater, MAX_COMPARE_AND_UPDATE_ATTEMPTS, result);
+        return result;
+    }
+    
+    /**
+     * 异步删除数据及其子节点, 不存在则忽略.
+     * 
+     * @param key 键
+     * @return 操作结果
+     */
+    ListenableFuture<Void> remove(final String key) {
+        final SettableFuture<Void> result = SettableFuture.create();
+        try {
+            client.delete().deletingChildrenIfNeeded().inBackground(new BackgroundCallback() {
+                
+                @Override
+                public void processResult(final CuratorFramework client, final CuratorEvent event) throws Exception {
+                    if (KeeperException.Code.NONODE.intValue() == event.getResultCode()) {
+                        result.set(null);
+                    } else {
+                        complete(event, result);
+                    }
+                }
+            }).forPath(key);
+        //CHECKSTYLE:OFF
+        } catch (final Exception ex) {
+        //CHECKSTYLE:ON
+            result.setException(new RegException(ex));
+        }
+        return result;
+    }
+    
+    private void compareAndUpdate(final String key, final Function<String, String> updater, final int remainingAttempts, final SettableFuture<Void> result) {
+        try {
+            client.getData().inBackground(new BackgroundCallback() {
+                
+                @Override
+                public void processResult(final CuratorFramework client, final CuratorEvent event) throws Exception {
+                    if (KeeperException.Code.NONODE.intValue() == event.getResultCode()) {
+                        result.set(null);
+                    } else if (KeeperException.Code.OK.intValue() != event.getResultCode()) {
+                        complete(event, result);
+                    } else {
+                        update(key, new String(event.getData(), Charsets.UTF_8), event.getStat().getVersion(), updater, remainingAttempts, result);
+                    }
+                }
+            }).forPath(key);
+        //CHECKSTYLE:OFF
+        } catch (final Exception ex) {
+        //CHECKSTYLE:ON
+            result.setException(new RegException(ex));
+        }
+    }
+    
+    private void update(final String key, final String currentValue, final int version, final Function<String, String> updater, final int remainingAttempts, final SettableFuture<Void> result) {
+        try {
+            String value = updater.apply(currentValue);
+            if (null == value || value.equals(currentValue)) {
+                result.set(null);
+                return;
+            }
+            client.setData().withVersion(version).inBackground(new BackgroundCallback() {
+                
+                @Override
+                public void processResult(final CuratorFramework client, final CuratorEvent event) throws Exception {
+                    if (KeeperException.Code.BADVERSION.intValue() == event.getResultCode() && remainingAttempts > 1) {
+                        compareAndUpdate(key, updater, remainingAttempts - 1, result);
+                    } else if (KeeperException.Code.NONODE.intValue() == event.getResultCode()) {
+                        result.set(null);
+                    } else {
+                        complete(event, result);
+                    }
+                }
+            }).forPath(key, value.getBytes(Charsets.UTF_8));
+        //CHECKSTYLE:OFF
+        } catch (final Exception ex) {
+        //CHECKSTYLE:ON
+            result.setException(new RegException(ex));
+        }
+    }
+    
+    private void setData(final String key, final byte[] data, final boolean createIfAbsent, final boolean creatingParents, final SettableFuture<Void> result) {
+        try {
+            client.setData().inBackground(new BackgroundCallback() {
+                
+                @Override
+                public void processResult(final CuratorFramework client, final CuratorEvent event) throws Exception {
+                    if (createIfAbsent && KeeperException.Code.NONODE.intValue() == event.getResultCode()) {
+                        create(key, data, creatingParents, result);
+                    } else {
+                        complete(event, result);
+                    }
+                }
+            }).forPath(key, data);
+        //CHECKSTYLE:OFF
+        } catch (final Exception ex) {
+        //CHECKSTYLE:ON
+            result.setException(new RegException(ex));
+        }
+    }
+    
+    private void create(final String key, final byte[] data, final boolean creatingParents, final SettableFuture<Void> result) {
+        BackgroundCallback callback = new BackgroundCallback() {
+            
+            @Override
+            public void processResult(final CuratorFramework client, final CuratorEvent event) throws Exception {
+                if (KeeperException.Code.NODEEXISTS.intValue() == event.getResultCode()) {
+                    setData(key, data, false, false, result);
+                } else if (!creatingParents && KeeperException.Code.NONODE.intValue() == event.getResultCode()) {
+                    result.set(null);
+                } else {
+                    complete(event, result);
+                }
+            }
+        };
+        try {
+            if (creatingParents) {
+                client.create().creatingParentsIfNeeded().withMode(CreateMode.PERSISTENT).inBackground(callback).forPath(key, data);
+            } else {
+                client.create().withMode(CreateMode.PERSISTENT).inBackground(callback).forPath(key, data);
+            }
+        //CHECKSTYLE:OFF
+        } catch (final Exception ex) {
+        //CHECKSTYLE:ON
+            result.setException(new RegException(ex));
+        }
+    }
+    
+    private void complete(final CuratorEvent event, final SettableFuture<Void> result) {
+        if (KeeperException.Code.OK.intValue() == event.getResultCode()) {
+            result.set(null);
+        } else {
+            result.setException(new RegException(KeeperException.create(KeeperException.Code.get(event.getResultCode()), event.getPath())));
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.reg.zookeeper;
+
+import com.dangdang.ddframe.job.reg.base.BatchOperation;
+import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
+import com.google.common.base.Charsets;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.api.transaction.CuratorTransactionFinal;
+import org.apache.curator.utils.ZKPaths;
+import org.apache.zookeeper.CreateMode;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 将批量操作转换为单个注册中心事务.
+ * 
+ * <p>
+ * 根据节点当前是否存在将批量操作展开为创建, 更新和删除操作, 缺失的父节点和待删除节点的子节点也会一并加入事务.
+ * 仅在父节点存在时写入的操作不创建父节点: 依据缓存判断时交由注册中心校验父节点, 直接判断时父节点不存在则忽略该操作.
+ * 事务中之前的操作对之后操作的判断可见.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+final class BatchTransaction {
+    
+    private static final String ROOT = "/";
+    
+    private final CoordinatorRegistryCenter regCenter;
+    
+    private final boolean directly;
+    
+    private final Map<String, Boolean> pendingExistence = new HashMap<>();
+    
+    private final Map<String, Set<String>> pendingChildren = new HashMap<>();
+    
+    private CuratorTransactionFinal transaction;
+    
+    private int size;
+    
+    /**
+     * 创建批量事务.
+     * 
+     * @param client 注册中心客户端
+     * @param regCenter 用于判断节点状态的注册中心
+     * @param directly 是否直接从注册中心而非本地缓存判断节点状态
+     * @throws Exception 注册中心异常
+     */
+    BatchTransaction(final CuratorFramework client, final CoordinatorRegistryCenter regCenter, final boolean directly) throws Exception {
+        this.regCenter = regCenter;
+        this.directly = directly;
+        transaction = client.inTransaction().check().forPath(ROOT).and();
+    }
+    
+    /**
+     * 加入批量操作.
+     * 
+     * @param operations 批量操作
+     * @return 当前批量事务
+     * @throws Exception 注册中心异常
+     */
+    BatchTransaction add(final Collection<BatchOperation> operations) throws Exception {
+        for (BatchOperation each : operations) {
+            add(each);
+        }
+        return this;
+    }
+    
+    private void add(final BatchOperation operation) throws Exception {
+        String key = operation.getKey();
+        switch (operation.getType()) {
+            case CREATE_IF_ABSENT:
+                if (!isExisted(key)) {
+                    create(key, operation.getValue(), CreateMode.PERSISTENT);
+                }
+                break;
+            case PERSIST:
+                if (isExisted(key)) {
+                    transaction = transaction.setData().forPath(key, operation.getValue().getBytes(Charsets.UTF_8)).and();
+                    size++;
+                } else {
+                    create(key, operation.getValue(), CreateMode.PERSISTENT);
+                }
+                break;
+            case PERSIST_IF_PARENT_EXISTED:
+                if (isExisted(key)) {
+                    transaction = transaction.setData().forPath(key, operation.getValue().getBytes(Charsets.UTF_8)).and();
+                    size++;
+                } else if (!directly || isExisted(ZKPaths.getPathAndNode(key).getPath())) {
+                    createNode(key, operation.getValue(), CreateMode.PERSISTENT);
+                }
+                break;
+            case PERSIST_EPHEMERAL:
+                if (isExisted(key)) {
+                    remove(key);
+                }
+                create(key, operation.getValue(), CreateMode.EPHEMERAL);
+                break;
+            case REMOVE_IF_EXISTED:
+                if (isExisted(key)) {
+                    remove(key);
+                }
+                break;
+            default:
+                throw new UnsupportedOperationException(operation.getType().name());
+        }
+    }
+    
+    /**
+     * 提交事务.
+     * 
+     * @throws Exception 注册中心异常
+     */
+    void commit() throws Exception {
+        if (size > 0) {
+            transaction.commit();
+        }
+    }
+    
+    private void create(final String key, final String value, final CreateMode createMode) throws Exception {
+        ZKPaths.PathAndNode pathAndNode = ZKPaths.getPathAndNode(key);
+        String parent = pathAndNode.getPath();
+        if (!ROOT.equals(parent) && !isExisted(parent)) {
+            create(parent, "", CreateMode.PERSISTENT);
+        }
+        createNode(key, value, createMode);
+    }
+    
+    private void createNode(final String key, final String value, final CreateMode createMode) throws Exception {
+        ZKPaths.PathAndNode pathAndNode = ZKPaths.getPathAndNode(key);
+        String parent = pathAndNode.getPath();
+        transaction = transaction.create().withMode(createMode).forPath(key, value.getBytes(Charsets.UTF_8)).and();
+        size++;
+        pendingExistence.put(key, true);
+        Set<String> children = pendingChildren.get(parent);
+        if (null == children) {
+            children = new LinkedHashSet<>();
+            pendingChildren.put(parent, children);
+        }
+        children.add(pathAndNode.getNode());
+    }
+    
+    private void remove(final String key) throws Exception {
+        for (String each : getChildren(key)) {
+            remove(ZKPaths.makePath(key, each));
+        }
+        transaction = transaction.delete().forPath(key).and();
+        size++;
+        pendingExistence.put(key, false);
+    }
+    
+    private boolean isExisted(final String key) {
+        Boolean result = pendingExistence.get(key);
+        if (null != result) {
+            return result;
+        }
+        return directly ? regCenter.isExistedDirectly(key) : regCenter.isExisted(key);
+    }
+    
+    private Collection<String> getChildren(final String key) {
+        Set<String> children = new LinkedHashSet<>(directly ? regCenter.getChildrenKeysDirectly(key) : regCenter.getChildrenKeys(key));
+        if (pendingChildren.containsKey(key)) {
+            children.addAll(pendingChildren.get(key));
+        }
+        Collection<String> result = new ArrayList<>(children.size());
+        for (String each : children) {
+            if (!Boolean.FALSE.equals(pendingExistence.get(ZKPaths.makePath(key, each)))) {
+                result.add(each);
+            }
+        }
+        return result;
+    }
+}
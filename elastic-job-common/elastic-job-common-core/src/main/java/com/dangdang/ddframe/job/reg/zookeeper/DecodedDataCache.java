@@ -0,0 +1,119 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.reg.zookeeper;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Function;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 注册数据解码结果缓存.
+ * 
+ * <p>
+ * 以节点路径和节点修改版本(mzxid)为键缓存解码结果, 节点未变化时返回同一解码对象.
+ * 解码结果会被多个线程共享, 必须是不可变对象.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+final class DecodedDataCache {
+    
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    
+    private final AtomicLong hitCount = new AtomicLong();
+    
+    private final AtomicLong missCount = new AtomicLong();
+    
+    /**
+     * 获取解码结果, 节点版本变化或解码器不同时重新解码.
+     * 
+     * @param key 节点路径
+     * @param mzxid 节点修改版本
+     * @param data 节点数据
+     * @param decoder 解码器
+     * @param <T> 解码结果类型
+     * @return 解码结果
+     */
+    @SuppressWarnings("unchecked")
+    <T> T get(final String key, final long mzxid, final byte[] data, final Function<String, T> decoder) {
+        Entry entry = entries.get(key);
+        if (null != entry && mzxid == entry.mzxid && decoder == entry.decoder) {
+            hitCount.incrementAndGet();
+            return (T) entry.value;
+        }
+        missCount.incrementAndGet();
+        T result = decoder.apply(null == data ? null : new String(data, Charsets.UTF_8));
+        entries.put(key, new Entry(mzxid, decoder, result));
+        return result;
+    }
+    
+    /**
+     * 记录一次未经缓存的解码.
+     */
+    void recordMiss() {
+        missCount.incrementAndGet();
+    }
+    
+    /**
+     * 使节点路径的解码结果失效.
+     * 
+     * @param key 节点路径
+     */
+    void invalidate(final String key) {
+        entries.remove(key);
+    }
+    
+    /**
+     * 清空全部解码结果.
+     */
+    void clear() {
+        entries.clear();
+    }
+    
+    /**
+     * 获取命中次数.
+     * 
+     * @return 命中次数
+     */
+    long getHitCount() {
+        return hitCount.get();
+    }
+    
+    /**
+     * 获取未命中次数.
+     * 
+     * @return 未命中次数
+     */
+    long getMissCount() {
+        return missCount.get();
+    }
+    
+    @RequiredArgsConstructor
+    private static final class Entry {
+        
+        private final long mzxid;
+        
+        private final Function<?, ?> decoder;
+        
+        private final Object value;
+    }
+}
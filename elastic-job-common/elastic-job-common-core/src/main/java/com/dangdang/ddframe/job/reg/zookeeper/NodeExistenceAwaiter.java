@@ -0,0 +1,114 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.reg.zookeeper;
+
+import lombok.RequiredArgsConstructor;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.recipes.cache.TreeCache;
+import org.apache.curator.framework.recipes.cache.TreeCacheEvent;
+import org.apache.curator.framework.recipes.cache.TreeCacheListener;
+import org.apache.zookeeper.WatchedEvent;
+import org.apache.zookeeper.Watcher;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 节点存在状态的等待器.
+ * 
+ * <p>
+ * 有本地缓存时由缓存事件唤醒, 等待结束后缓存已反映节点状态; 否则由注册中心的一次性监听唤醒.
+ * 每次唤醒后重新判断节点状态, 不再轮询.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@RequiredArgsConstructor
+final class NodeExistenceAwaiter {
+    
+    private final CuratorFramework client;
+    
+    private final TreeCache cache;
+    
+    /**
+     * 等待节点达到期望的存在状态.
+     * 
+     * @param key 键
+     * @param existed 期望节点是否存在
+     * @param timeoutMilliseconds 超时毫秒数
+     * @return 超时前节点是否达到期望的存在状态
+     * @throws Exception 注册中心异常
+     */
+    boolean await(final String key, final boolean existed, final long timeoutMilliseconds) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMilliseconds);
+        try {
+            return null == cache ? awaitWithWatcher(key, existed, deadline) : awaitWithCache(key, existed, deadline);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+    
+    private boolean awaitWithCache(final String key, final boolean existed, final long deadline) throws InterruptedException {
+        final Object monitor = new Object();
+        TreeCacheListener listener = new TreeCacheListener() {
+            
+            @Override
+            public void childEvent(final CuratorFramework client, final TreeCacheEvent event) throws Exception {
+                synchronized (monitor) {
+                    monitor.notifyAll();
+                }
+            }
+        };
+        cache.getListenable().addListener(listener);
+        try {
+            synchronized (monitor) {
+                while (existed != (null != cache.getCurrentData(key))) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0L) {
+                        return false;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(monitor, remaining);
+                }
+                return true;
+            }
+        } finally {
+            cache.getListenable().removeListener(listener);
+        }
+    }
+    
+    private boolean awaitWithWatcher(final String key, final boolean existed, final long deadline) throws Exception {
+        while (true) {
+            final CountDownLatch changed = new CountDownLatch(1);
+            boolean current = null != client.checkExists().usingWatcher(new Watcher() {
+                
+                @Override
+                public void process(final WatchedEvent event) {
+                    changed.countDown();
+                }
+            }).forPath(key);
+            if (existed == current) {
+                return true;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0L || !changed.await(remaining, TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        }
+    }
+}
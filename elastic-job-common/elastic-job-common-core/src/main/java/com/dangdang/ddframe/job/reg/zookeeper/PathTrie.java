@@ -0,0 +1,214 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.reg.zookeeper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 按znode路径分段组织的前缀树.
+ * 
+ * <p>
+ * 线程安全. 查找代价只与路径深度相关, 与已注册的路径数量无关.
+ * </p>
+ * 
+ * @param <T> 节点值类型
+ * 
+ * @author zhangliang
+ */
+final class PathTrie<T> {
+    
+    private static final char SEPARATOR = '/';
+    
+    private final Node<T> root = new Node<>();
+    
+    /**
+     * 注册路径对应的值.
+     * 
+     * @param path 节点路径
+     * @param value 节点值
+     * @return 被替换的值, 不存在则返回null
+     */
+    T put(final String path, final T value) {
+        Node<T> current = root;
+        int start = skipSeparators(path, 0);
+        while (start < path.length()) {
+            int end = nextSeparator(path, start);
+            current = current.getOrCreateChild(path.substring(start, end));
+            start = skipSeparators(path, end);
+        }
+        synchronized (current) {
+            T result = current.value;
+            current.value = value;
+            return result;
+        }
+    }
+    
+    /**
+     * 获取与路径精确匹配的值.
+     * 
+     * @param path 节点路径
+     * @return 节点值, 不存在则返回null
+     */
+    T get(final String path) {
+        Node<T> node = findNode(path);
+        return null == node ? null : node.value;
+    }
+    
+    /**
+     * 获取与路径最长前缀匹配的值.
+     * 
+     * @param path 节点路径
+     * @return 最长前缀匹配的节点值, 不存在则返回null
+     */
+    T getLongestPrefixMatch(final String path) {
+        Node<T> current = root;
+        T result = current.value;
+        int start = skipSeparators(path, 0);
+        while (start < path.length()) {
+            int end = nextSeparator(path, start);
+            current = current.children.get(path.substring(start, end));
+            if (null == current) {
+                break;
+            }
+            if (null != current.value) {
+                result = current.value;
+            }
+            start = skipSeparators(path, end);
+        }
+        return result;
+    }
+    
+    /**
+     * 删除路径对应的值.
+     * 
+     * @param path 节点路径
+     * @return 被删除的值, 不存在则返回null
+     */
+    T remove(final String path) {
+        Node<T> node = findNode(path);
+        if (null == node) {
+            return null;
+        }
+        synchronized (node) {
+            T result = node.value;
+            node.value = null;
+            return result;
+        }
+    }
+    
+    /**
+     * 删除路径及其全部子路径对应的值.
+     * 
+     * <p>整棵子树一次摘除, 代价只与路径深度和被删除的值数量相关. 与对同一子树的并发注册之间需由调用方同步.</p>
+     * 
+     * @param path 节点路径
+     * @return 被删除的值
+     */
+    Collection<T> removeAll(final String path) {
+        List<T> result = new ArrayList<>();
+        int end = path.length();
+        while (end > 0 && SEPARATOR == path.charAt(end - 1)) {
+            end--;
+        }
+        if (0 == end) {
+            collectValues(root, result);
+            root.value = null;
+            root.children.clear();
+            return result;
+        }
+        int start = path.lastIndexOf(SEPARATOR, end - 1) + 1;
+        Node<T> parent = findNode(path.substring(0, start));
+        if (null == parent) {
+            return result;
+        }
+        Node<T> removed = parent.children.remove(path.substring(start, end));
+        if (null != removed) {
+            collectValues(removed, result);
+        }
+        return result;
+    }
+    
+    /**
+     * 获取全部已注册的值.
+     * 
+     * @return 全部已注册的值
+     */
+    Collection<T> values() {
+        List<T> result = new ArrayList<>();
+        collectValues(root, result);
+        return result;
+    }
+    
+    private void collectValues(final Node<T> node, final List<T> result) {
+        T value = node.value;
+        if (null != value) {
+            result.add(value);
+        }
+        for (Node<T> each : node.children.values()) {
+            collectValues(each, result);
+        }
+    }
+    
+    private Node<T> findNode(final String path) {
+        Node<T> current = root;
+        int start = skipSeparators(path, 0);
+        while (start < path.length()) {
+            int end = nextSeparator(path, start);
+            current = current.children.get(path.substring(start, end));
+            if (null == current) {
+                return null;
+            }
+            start = skipSeparators(path, end);
+        }
+        return current;
+    }
+    
+    private static int skipSeparators(final String path, final int from) {
+        int result = from;
+        while (result < path.length() && SEPARATOR == path.charAt(result)) {
+            result++;
+        }
+        return result;
+    }
+    
+    private static int nextSeparator(final String path, final int from) {
+        int result = path.indexOf(SEPARATOR, from);
+        return -1 == result ? path.length() : result;
+    }
+    
+    private static final class Node<T> {
+        
+        private final ConcurrentMap<String, Node<T>> children = new ConcurrentHashMap<>(4, 0.75f, 1);
+        
+        private volatile T value;
+        
+        private Node<T> getOrCreateChild(final String segment) {
+            Node<T> result = children.get(segment);
+            if (null != result) {
+                return result;
+            }
+            Node<T> created = new Node<>();
+            result = children.putIfAbsent(segment, created);
+            return null == result ? created : result;
+        }
+    }
+}
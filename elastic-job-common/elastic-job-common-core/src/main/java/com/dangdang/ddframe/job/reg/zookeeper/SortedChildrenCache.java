@@ -0,0 +1,92 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.reg.zookeeper;
+
+import lombok.RequiredArgsConstructor;
+import org.apache.curator.framework.recipes.cache.ChildData;
+import org.apache.curator.framework.recipes.cache.TreeCache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 已排序的子节点名称缓存.
+ * 
+ * <p>
+ * 按父节点路径缓存降序排列的子节点名称快照, 子节点未变化时直接复制快照, 避免每次读取都重新排序.
+ * 树缓存先更新节点再异步通知监听器, 仅靠事件失效的快照在通知前会读到过期数据, 因此每次读取时以树缓存当前的子节点名称集合校验快照.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+final class SortedChildrenCache {
+    
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    
+    /**
+     * 获取降序排列的子节点名称, 子节点变化时重新排序.
+     * 
+     * @param key 父节点路径
+     * @param cache 树缓存
+     * @return 降序排列的子节点名称, 可由调用方修改
+     */
+    List<String> get(final String key, final TreeCache cache) {
+        Map<String, ChildData> children = cache.getCurrentChildren(key);
+        if (null == children) {
+            entries.remove(key);
+            return Collections.emptyList();
+        }
+        Entry entry = entries.get(key);
+        if (null == entry || !entry.children.equals(children.keySet())) {
+            List<String> sortedChildren = new ArrayList<>(children.keySet());
+            Collections.sort(sortedChildren, Collections.reverseOrder());
+            entry = new Entry(children.keySet(), sortedChildren);
+            entries.put(key, entry);
+        }
+        return new ArrayList<>(entry.sortedChildren);
+    }
+    
+    /**
+     * 删除已删除节点的快照.
+     * 
+     * @param key 已删除的节点路径
+     */
+    void remove(final String key) {
+        entries.remove(key);
+    }
+    
+    /**
+     * 清空全部快照.
+     */
+    void clear() {
+        entries.clear();
+    }
+    
+    @RequiredArgsConstructor
+    private static final class Entry {
+        
+        private final Set<String> children;
+        
+        private final List<String> sortedChildren;
+    }
+}
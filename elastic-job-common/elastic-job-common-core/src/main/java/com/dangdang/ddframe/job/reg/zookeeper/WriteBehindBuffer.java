@@ -0,0 +1,204 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.reg.zookeeper;
+
+import com.dangdang.ddframe.job.reg.base.BatchOperation;
+import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
+import com.dangdang.ddframe.job.reg.exception.RegException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.zookeeper.KeeperException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 注册中心延迟写入缓冲区.
+ * 
+ * <p>
+ * 同一节点的多次写入只保留最后一次, 按固定间隔以批量事务写入注册中心.
+ * 写入不创建父节点, 父节点已被删除的数据直接丢弃, 避免其他进程删除的节点被延迟写入重建.
+ * 因连接问题写入失败的数据保留至下次写入, 期间被覆盖的数据以新值为准; 连接丢失不会被当作写入成功.
+ * 其他原因写入失败的批次拆分后重试, 单个节点连续失败达到上限后丢弃, 避免一个节点拖累整批数据.
+ * 待写入数据按节点路径组织为前缀树, 丢弃子树的代价与待写入数据总量无关; 丢弃与写入注册中心互斥, 已丢弃的节点不会被正在进行的写入重建.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@Slf4j
+final class WriteBehindBuffer {
+    
+    private static final int MAX_BATCH_SIZE = 500;
+    
+    private static final int MAX_FAILURE_COUNT = 3;
+    
+    private final CoordinatorRegistryCenter regCenter;
+    
+    private final PathTrie<PendingWrite> pendingWrites = new PathTrie<>();
+    
+    private final Object flushLock = new Object();
+    
+    private int pendingCount;
+    
+    private final ScheduledExecutorService flushExecutor;
+    
+    WriteBehindBuffer(final CoordinatorRegistryCenter regCenter, final long flushIntervalMilliseconds) {
+        this.regCenter = regCenter;
+        flushExecutor = Executors.newSingleThreadScheduledExecutor(new BasicThreadFactory.Builder().namingPattern("elastic-job-write-behind-%s").daemon(true).build());
+        flushExecutor.scheduleWithFixedDelay(new Runnable() {
+            
+            @Override
+            public void run() {
+                flush();
+            }
+        }, flushIntervalMilliseconds, flushIntervalMilliseconds, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * 写入数据, 覆盖同一节点尚未写入注册中心的数据.
+     * 
+     * @param key 键
+     * @param value 值
+     */
+    synchronized void write(final String key, final String value) {
+        if (null == pendingWrites.put(key, new PendingWrite(key, value))) {
+            pendingCount++;
+        }
+    }
+    
+    /**
+     * 丢弃节点及其子节点尚未写入注册中心的数据.
+     * 
+     * <p>等待正在进行的写入完成后丢弃.</p>
+     * 
+     * @param key 键
+     */
+    void discard(final String key) {
+        synchronized (flushLock) {
+            synchronized (this) {
+                pendingCount -= pendingWrites.removeAll(key).size();
+            }
+        }
+    }
+    
+    /**
+     * 获取尚未写入注册中心的数据数量.
+     * 
+     * @return 尚未写入注册中心的数据数量
+     */
+    synchronized int getPendingCount() {
+        return pendingCount;
+    }
+    
+    /**
+     * 将缓冲的数据写入注册中心.
+     */
+    void flush() {
+        synchronized (flushLock) {
+            Collection<PendingWrite> writes;
+            synchronized (this) {
+                writes = pendingWrites.values();
+            }
+            List<PendingWrite> batch = new ArrayList<>(Math.min(writes.size(), MAX_BATCH_SIZE));
+            for (PendingWrite each : writes) {
+                batch.add(each);
+                if (MAX_BATCH_SIZE == batch.size()) {
+                    execute(batch);
+                    batch = new ArrayList<>(MAX_BATCH_SIZE);
+                }
+            }
+            execute(batch);
+        }
+    }
+    
+    private void execute(final List<PendingWrite> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<BatchOperation> operations = new ArrayList<>(batch.size());
+        for (PendingWrite each : batch) {
+            operations.add(BatchOperation.persistIfParentExisted(each.key, each.value));
+        }
+        try {
+            regCenter.executeInBatchStrictly(operations);
+        } catch (final RegException ex) {
+            if (isConnectionProblem(ex)) {
+                log.warn("Elastic job: write behind {} operations failure, will retry at next flush.", operations.size(), ex);
+            } else if (batch.size() > 1) {
+                execute(batch.subList(0, batch.size() / 2));
+                execute(batch.subList(batch.size() / 2, batch.size()));
+            } else {
+                fail(batch.get(0), ex);
+            }
+            return;
+        }
+        removeIfUnchanged(batch);
+    }
+    
+    private boolean isConnectionProblem(final RegException ex) {
+        for (Throwable each = ex.getCause(); null != each; each = each.getCause()) {
+            if (each instanceof KeeperException.ConnectionLossException || each instanceof KeeperException.SessionExpiredException
+                    || each instanceof KeeperException.OperationTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private synchronized void fail(final PendingWrite pendingWrite, final RegException ex) {
+        if (++pendingWrite.failureCount < MAX_FAILURE_COUNT) {
+            log.warn("Elastic job: write behind '{}' failure, will retry at next flush.", pendingWrite.key, ex);
+            return;
+        }
+        log.error("Elastic job: write behind '{}' failed {} times, discard value '{}'.", pendingWrite.key, pendingWrite.failureCount, pendingWrite.value, ex);
+        removeIfUnchanged(Collections.singletonList(pendingWrite));
+    }
+    
+    private synchronized void removeIfUnchanged(final List<PendingWrite> batch) {
+        for (PendingWrite each : batch) {
+            if (each == pendingWrites.get(each.key)) {
+                pendingWrites.remove(each.key);
+                pendingCount--;
+            }
+        }
+    }
+    
+    /**
+     * 停止定时写入并写入剩余数据.
+     */
+    void close() {
+        flushExecutor.shutdown();
+        flush();
+    }
+    
+    @RequiredArgsConstructor
+    private static final class PendingWrite {
+        
+        private final String key;
+        
+        private final String value;
+        
+        private int failureCount;
+    }
+}
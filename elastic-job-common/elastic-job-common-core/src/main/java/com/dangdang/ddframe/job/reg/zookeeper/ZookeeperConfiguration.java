@@ -79,4 +79,11 @@ public class ZookeeperConfiguration {
      * 缺省为不需要权限验证.
      */
     private String digest;
+    
+    /**
+     * 延迟写入数据的间隔时间.
+     * 单位毫秒.
+     * 小于等于0表示不延迟, 直接异步写入.
+     */
+    private int writeBehindFlushIntervalMilliseconds = 1000;
 }
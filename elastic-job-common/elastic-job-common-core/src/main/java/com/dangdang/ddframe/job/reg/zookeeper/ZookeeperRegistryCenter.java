@@ -17,11 +17,15 @@
 
 package com.dangdang.ddframe.job.reg.zookeeper;
 
+import com.dangdang.ddframe.job.reg.base.BatchOperation;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
+import com.dangdang.ddframe.job.reg.exception.RegException;
 import com.dangdang.ddframe.job.reg.exception.RegExceptionHandler;
 import com.google.common.base.Charsets;
+import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.util.concurrent.ListenableFuture;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -31,6 +35,8 @@ import org.apache.curator.framework.CuratorFrameworkFactory.Builder;
 import org.apache.curator.framework.api.ACLProvider;
 import org.apache.curator.framework.recipes.cache.ChildData;
 import org.apache.curator.framework.recipes.cache.TreeCache;
+import org.apache.curator.framework.recipes.cache.TreeCacheEvent;
+import org.apache.curator.framework.recipes.cache.TreeCacheListener;
 import org.apache.curator.retry.ExponentialBackoffRetry;
 import org.apache.curator.utils.CloseableUtils;
 import org.apache.zookeeper.CreateMode;
@@ -39,12 +45,11 @@ import org.apache.zookeeper.ZooDefs;
 import org.apache.zookeeper.data.ACL;
 import org.apache.zookeeper.data.Stat;
 
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -58,10 +63,18 @@ public class ZookeeperRegistryCenter implements CoordinatorRegistryCenter {
     @Getter(AccessLevel.PROTECTED)
     private ZookeeperConfiguration zkConfig;
     
-    private final Map<String, TreeCache> caches = new HashMap<>();
+    private final PathTrie<TreeCache> caches = new PathTrie<>();
+    
+    private final Set<TreeCache> initializedCaches = Collections.newSetFromMap(new ConcurrentHashMap<TreeCache, Boolean>());
+    
+    private final DecodedDataCache decodedDataCache = new DecodedDataCache();
+    
+    private final SortedChildrenCache sortedChildrenCache = new SortedChildrenCache();
     
     private CuratorFramework client;
     
+    private WriteBehindBuffer writeBehindBuffer;
+    
     public ZookeeperRegistryCenter(final ZookeeperConfiguration zkConfig) {
         this.zkConfig = zkConfig;
     }
@@ -106,13 +119,22 @@ public class ZookeeperRegistryCenter implements CoordinatorRegistryCenter {
         //CHECKSTYLE:ON
             RegExceptionHandler.handleException(ex);
         }
+        if (zkConfig.getWriteBehindFlushIntervalMilliseconds() > 0) {
+            writeBehindBuffer = new WriteBehindBuffer(this, zkConfig.getWriteBehindFlushIntervalMilliseconds());
+        }
     }
     
     @Override
     public void close() {
-        for (Entry<String, TreeCache> each : caches.entrySet()) {
-            each.getValue().close();
+        if (null != writeBehindBuffer) {
+            writeBehindBuffer.close();
+        }
+        for (TreeCache each : caches.values()) {
+            each.close();
         }
+        initializedCaches.clear();
+        decodedDataCache.clear();
+        sortedChildrenCache.clear();
         waitForCacheClose();
         CloseableUtils.closeQuietly(client);
     }
@@ -132,7 +154,7 @@ public class ZookeeperRegistryCenter implements CoordinatorRegistryCenter {
     
     @Override
     public String get(final String key) {
-        TreeCache cache = findTreeCache(key);
+        TreeCache cache = caches.getLongestPrefixMatch(key);
         if (null == cache) {
             return getDirectly(key);
         }
@@ -143,13 +165,33 @@ public class ZookeeperRegistryCenter implements CoordinatorRegistryCenter {
         return getDirectly(key);
     }
     
-    private TreeCache findTreeCache(final String key) {
-        for (Entry<String, TreeCache> entry : caches.entrySet()) {
-            if (key.startsWith(entry.getKey())) {
-                return entry.getValue();
-            }
+    @Override
+    public <T> T getDecoded(final String key, final Function<String, T> decoder) {
+        TreeCache cache = caches.getLongestPrefixMatch(key);
+        ChildData resultInCache = null == cache ? null : cache.getCurrentData(key);
+        if (null == resultInCache || null == resultInCache.getStat()) {
+            decodedDataCache.recordMiss();
+            return decoder.apply(get(key));
         }
-        return null;
+        return decodedDataCache.get(key, resultInCache.getStat().getMzxid(), resultInCache.getData(), decoder);
+    }
+    
+    /**
+     * 获取解码结果缓存的命中次数.
+     * 
+     * @return 解码结果缓存的命中次数
+     */
+    public long getDecodedCacheHitCount() {
+        return decodedDataCache.getHitCount();
+    }
+    
+    /**
+     * 获取解码结果缓存的未命中次数.
+     * 
+     * @return 解码结果缓存的未命中次数
+     */
+    public long getDecodedCacheMissCount() {
+        return decodedDataCache.getMissCount();
     }
     
     @Override
@@ -166,15 +208,18 @@ public class ZookeeperRegistryCenter implements CoordinatorRegistryCenter {
     
     @Override
     public List<String> getChildrenKeys(final String key) {
+        TreeCache cache = findInitializedTreeCache(key);
+        if (null == cache) {
+            return getChildrenKeysDirectly(key);
+        }
+        return sortedChildrenCache.get(key, cache);
+    }
+    
+    @Override
+    public List<String> getChildrenKeysDirectly(final String key) {
         try {
             List<String> result = client.getChildren().forPath(key);
-            Collections.sort(result, new Comparator<String>() {
-                
-                @Override
-                public int compare(final String o1, final String o2) {
-                    return o2.compareTo(o1);
-                }
-            });
+            Collections.sort(result, Collections.reverseOrder());
             return result;
          //CHECKSTYLE:OFF
         } catch (final Exception ex) {
@@ -184,6 +229,11 @@ public class ZookeeperRegistryCenter implements CoordinatorRegistryCenter {
         }
     }
     
+    private TreeCache findInitializedTreeCache(final String key) {
+        TreeCache result = caches.getLongestPrefixMatch(key);
+        return null != result && initializedCaches.contains(result) ? result : null;
+    }
+    
     @Override
     public int getNumChildren(final String key) {
         try {
@@ -206,6 +256,15 @@ public class ZookeeperRegistryCenter implements CoordinatorRegistryCenter {
     
     @Override
     public boolean isExisted(final String key) {
+        TreeCache cache = findInitializedTreeCache(key);
+        if (null == cache) {
+            return isExistedDirectly(key);
+        }
+        return null != cache.getCurrentData(key);
+    }
+    
+    @Override
+    public boolean isExistedDirectly(final String key) {
         try {
             return null != client.checkExists().forPath(key);
         //CHECKSTYLE:OFF
@@ -216,10 +275,31 @@ public class ZookeeperRegistryCenter implements CoordinatorRegistryCenter {
         }
     }
     
+    @Override
+    public boolean awaitCreated(final String key, final long timeoutMilliseconds) {
+        return await(key, true, timeoutMilliseconds);
+    }
+    
+    @Override
+    public boolean awaitRemoved(final String key, final long timeoutMilliseconds) {
+        return await(key, false, timeoutMilliseconds);
+    }
+    
+    private boolean await(final String key, final boolean existed, final long timeoutMilliseconds) {
+        try {
+            return new NodeExistenceAwaiter(client, findInitializedTreeCache(key)).await(key, existed, timeoutMilliseconds);
+        //CHECKSTYLE:OFF
+        } catch (final Exception ex) {
+        //CHECKSTYLE:ON
+            RegExceptionHandler.handleException(ex);
+            return false;
+        }
+    }
+    
     @Override
     public void persist(final String key, final String value) {
         try {
-            if (!isExisted(key)) {
+            if (!isExistedDirectly(key)) {
                 client.create().creatingParentsIfNeeded().withMode(CreateMode.PERSISTENT).forPath(key, value.getBytes(Charsets.UTF_8));
             } else {
                 update(key, value);
@@ -242,10 +322,95 @@ public class ZookeeperRegistryCenter implements CoordinatorRegistryCenter {
         }
     }
     
+    @Override
+    public void executeInBatch(final List<BatchOperation> operations) {
+        if (operations.isEmpty()) {
+            return;
+        }
+        try {
+            commitInBatch(operations);
+        //CHECKSTYLE:OFF
+        } catch (final Exception ex) {
+        //CHECKSTYLE:ON
+            RegExceptionHandler.handleException(ex);
+        }
+    }
+    
+    @Override
+    public void executeInBatchStrictly(final List<BatchOperation> operations) {
+        if (operations.isEmpty()) {
+            return;
+        }
+        try {
+            commitInBatch(operations);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RegException(ex);
+        //CHECKSTYLE:OFF
+        } catch (final Exception ex) {
+        //CHECKSTYLE:ON
+            throw new RegException(ex);
+        }
+    }
+    
+    private void commitInBatch(final List<BatchOperation> operations) throws Exception {
+        for (BatchOperation each : operations) {
+            if (BatchOperation.Type.REMOVE_IF_EXISTED == each.getType()) {
+                discardPendingWrites(each.getKey());
+            }
+        }
+        try {
+            new BatchTransaction(client, this, false).add(operations).commit();
+        } catch (final KeeperException.NodeExistsException | KeeperException.NoNodeException | KeeperException.NotEmptyException ex) {
+            new BatchTransaction(client, this, true).add(operations).commit();
+        }
+    }
+    
+    @Override
+    public ListenableFuture<Void> persistAsync(final String key, final String value) {
+        return new BackgroundOperations(client).persist(key, value);
+    }
+    
+    @Override
+    public ListenableFuture<Void> updateAsync(final String key, final String value) {
+        return new BackgroundOperations(client).update(key, value);
+    }
+    
+    @Override
+    public ListenableFuture<Void> compareAndUpdateAsync(final String key, final Function<String, String> updater) {
+        return new BackgroundOperations(client).compareAndUpdate(key, updater);
+    }
+    
+    @Override
+    public ListenableFuture<Void> removeAsync(final String key) {
+        discardPendingWrites(key);
+        return new BackgroundOperations(client).remove(key);
+    }
+    
+    @Override
+    public void persistBehind(final String key, final String value) {
+        if (null == writeBehindBuffer) {
+            new BackgroundOperations(client).persistIfParentExisted(key, value);
+        } else {
+            writeBehindBuffer.write(key, value);
+        }
+    }
+    
+    @Override
+    public int getPendingWriteCount() {
+        return null == writeBehindBuffer ? 0 : writeBehindBuffer.getPendingCount();
+    }
+    
+    private void discardPendingWrites(final String key) {
+        if (null != writeBehindBuffer) {
+            writeBehindBuffer.discard(key);
+        }
+    }
+    
     @Override
     public void persistEphemeral(final String key, final String value) {
         try {
-            if (isExisted(key)) {
+            if (isExistedDirectly(key)) {
                 client.delete().deletingChildrenIfNeeded().forPath(key);
             }
             client.create().creatingParentsIfNeeded().withMode(CreateMode.EPHEMERAL).forPath(key, value.getBytes(Charsets.UTF_8));
@@ -256,6 +421,32 @@ public class ZookeeperRegistryCenter implements CoordinatorRegistryCenter {
         }
     }
     
+    @Override
+    public boolean persistEphemeralIfUnchanged(final String key, final String expectedValue, final String value) {
+        try {
+            try {
+                if (null == expectedValue) {
+                    client.create().creatingParentsIfNeeded().withMode(CreateMode.EPHEMERAL).forPath(key, value.getBytes(Charsets.UTF_8));
+                    return true;
+                }
+                Stat stat = new Stat();
+                byte[] currentValue = client.getData().storingStatIn(stat).forPath(key);
+                if (!Arrays.equals(expectedValue.getBytes(Charsets.UTF_8), currentValue)) {
+                    return false;
+                }
+                client.setData().withVersion(stat.getVersion()).forPath(key, value.getBytes(Charsets.UTF_8));
+                return true;
+            } catch (final KeeperException.NodeExistsException | KeeperException.NoNodeException | KeeperException.BadVersionException ex) {
+                return false;
+            }
+        //CHECKSTYLE:OFF
+        } catch (final Exception ex) {
+        //CHECKSTYLE:ON
+            RegExceptionHandler.handleException(ex);
+            return false;
+        }
+    }
+    
     @Override
     public String persistSequential(final String key, final String value) {
         try {
@@ -282,6 +473,7 @@ public class ZookeeperRegistryCenter implements CoordinatorRegistryCenter {
     
     @Override
     public void remove(final String key) {
+        discardPendingWrites(key);
         try {
             client.delete().deletingChildrenIfNeeded().forPath(key);
         //CHECKSTYLE:OFF
@@ -313,7 +505,21 @@ public class ZookeeperRegistryCenter implements CoordinatorRegistryCenter {
     
     @Override
     public void addCacheData(final String cachePath) {
-        TreeCache cache = new TreeCache(client, cachePath);
+        final TreeCache cache = new TreeCache(client, cachePath);
+        cache.getListenable().addListener(new TreeCacheListener() {
+            
+            @Override
+            public void childEvent(final CuratorFramework client, final TreeCacheEvent event) throws Exception {
+                if (TreeCacheEvent.Type.INITIALIZED == event.getType()) {
+                    initializedCaches.add(cache);
+                } else if (TreeCacheEvent.Type.NODE_UPDATED == event.getType()) {
+                    decodedDataCache.invalidate(event.getData().getPath());
+                } else if (TreeCacheEvent.Type.NODE_REMOVED == event.getType()) {
+                    decodedDataCache.invalidate(event.getData().getPath());
+                    sortedChildrenCache.remove(event.getData().getPath());
+                }
+            }
+        });
         try {
             cache.start();
         //CHECKSTYLE:OFF
@@ -321,11 +527,15 @@ public class ZookeeperRegistryCenter implements CoordinatorRegistryCenter {
         //CHECKSTYLE:ON
             RegExceptionHandler.handleException(ex);
         }
-        caches.put(cachePath + "/", cache);
+        TreeCache replaced = caches.put(cachePath, cache);
+        if (null != replaced) {
+            initializedCaches.remove(replaced);
+            replaced.close();
+        }
     }
     
     @Override
     public Object getRawCache(final String cachePath) {
-        return caches.get(cachePath + "/");
+        return caches.get(cachePath);
     }
 }
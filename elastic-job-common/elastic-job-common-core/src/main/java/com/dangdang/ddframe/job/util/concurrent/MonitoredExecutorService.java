@@ -0,0 +1,131 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.util.concurrent;
+
+import com.google.common.base.Preconditions;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 可监控的线程池执行服务.
+ *
+ * <p>
+ * 将任务委托给被装饰的线程池执行, 同时记录正在执行的任务数及其峰值, 用于计算作业线程池的活跃线程数, 空闲线程数和执行期间的负载.
+ * </p>
+ *
+ * @author zhangliang
+ */
+public final class MonitoredExecutorService extends AbstractExecutorService {
+    
+    private final ExecutorService delegate;
+    
+    @Getter
+    private final int threadSize;
+    
+    private final AtomicInteger activeCount = new AtomicInteger();
+    
+    private final AtomicInteger peakActiveCount = new AtomicInteger();
+    
+    public MonitoredExecutorService(final ExecutorService delegate, final int threadSize) {
+        Preconditions.checkArgument(threadSize > 0, "Thread size must be positive.");
+        this.delegate = delegate;
+        this.threadSize = threadSize;
+    }
+    
+    @Override
+    public void execute(final Runnable command) {
+        delegate.execute(new Runnable() {
+            
+            @Override
+            public void run() {
+                updatePeakActiveCount(activeCount.incrementAndGet());
+                try {
+                    command.run();
+                } finally {
+                    activeCount.decrementAndGet();
+                }
+            }
+        });
+    }
+    
+    private void updatePeakActiveCount(final int active) {
+        int peak = peakActiveCount.get();
+        while (active > peak && !peakActiveCount.compareAndSet(peak, active)) {
+            peak = peakActiveCount.get();
+        }
+    }
+    
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+    
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+    
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+    
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+    
+    @Override
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+    
+    /**
+     * 获取正在执行任务的线程数.
+     *
+     * @return 正在执行任务的线程数
+     */
+    public int getActiveThreadCount() {
+        return activeCount.get();
+    }
+    
+    /**
+     * 获取上次获取以来同时执行任务的最大线程数, 并从当前正在执行任务的线程数重新开始记录.
+     * 
+     * <p>用于在任务执行完成后采样线程池在执行期间的负载.</p>
+     *
+     * @return 上次获取以来同时执行任务的最大线程数
+     */
+    public int getAndResetPeakActiveThreadCount() {
+        return Math.max(activeCount.get(), peakActiveCount.getAndSet(activeCount.get()));
+    }
+    
+    /**
+     * 获取空闲的线程数.
+     *
+     * @return 空闲的线程数
+     */
+    public int getIdleThreadCount() {
+        return Math.max(0, threadSize - activeCount.get());
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.util.concurrent;
+
+import com.google.common.base.Preconditions;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 限额线程池执行服务.
+ *
+ * <p>
+ * 将任务提交至共享的线程池执行, 同时执行的任务数不超过限额, 超出限额的任务在本服务的队列中等待, 不占用共享线程池的队列.
+ * 因此多个作业共享同一线程池时, 单个作业的突发任务不会阻塞其他作业.
+ * 关闭本服务不会关闭共享的线程池.
+ * </p>
+ *
+ * @author zhangliang
+ */
+public final class QuotaExecutorService extends AbstractExecutorService {
+    
+    private final Executor sharedExecutor;
+    
+    private final int quota;
+    
+    private final Queue<QueuedTask> queue = new ConcurrentLinkedQueue<>();
+    
+    private final AtomicInteger queueSize = new AtomicInteger();
+    
+    private final AtomicInteger activeCount = new AtomicInteger();
+    
+    private final AtomicLong startedCount = new AtomicLong();
+    
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    
+    private final Object terminationLock = new Object();
+    
+    private volatile boolean shutdown;
+    
+    public QuotaExecutorService(final Executor sharedExecutor, final int quota) {
+        Preconditions.checkArgument(quota > 0, "Quota must be positive.");
+        this.sharedExecutor = sharedExecutor;
+        this.quota = quota;
+    }
+    
+    @Override
+    public void execute(final Runnable command) {
+        if (shutdown) {
+            throw new RejectedExecutionException("Executor service is shutdown.");
+        }
+        queueSize.incrementAndGet();
+        queue.offer(new QueuedTask(command, System.nanoTime()));
+        dispatch();
+    }
+    
+    private void dispatch() {
+        while (!queue.isEmpty()) {
+            int current = activeCount.get();
+            if (current >= quota) {
+                return;
+            }
+            if (!activeCount.compareAndSet(current, current + 1)) {
+                continue;
+            }
+            QueuedTask task = queue.poll();
+            if (null == task) {
+                activeCount.decrementAndGet();
+                continue;
+            }
+            queueSize.decrementAndGet();
+            try {
+                sharedExecutor.execute(task);
+            } catch (final RejectedExecutionException ex) {
+                activeCount.decrementAndGet();
+                signalTerminationIfNecessary();
+                throw ex;
+            }
+        }
+    }
+    
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        signalTerminationIfNecessary();
+    }
+    
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown = true;
+        List<Runnable> result = new ArrayList<>();
+        QueuedTask each;
+        while (null != (each = queue.poll())) {
+            queueSize.decrementAndGet();
+            result.add(each.command);
+        }
+        signalTerminationIfNecessary();
+        return result;
+    }
+    
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+    
+    @Override
+    public boolean isTerminated() {
+        return shutdown && 0 == activeCount.get() && queue.isEmpty();
+    }
+    
+    @Override
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (terminationLock) {
+            while (!isTerminated()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0L) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(terminationLock, remaining);
+            }
+            return true;
+        }
+    }
+    
+    private void signalTerminationIfNecessary() {
+        if (isTerminated()) {
+            synchronized (terminationLock) {
+                terminationLock.notifyAll();
+            }
+        }
+    }
+    
+    /**
+     * 获取等待执行的任务数量.
+     *
+     * @return 等待执行的任务数量
+     */
+    public int getQueueSize() {
+        return queueSize.get();
+    }
+    
+    /**
+     * 获取同时执行的任务数限额.
+     *
+     * @return 同时执行的任务数限额
+     */
+    public int getQuota() {
+        return quota;
+    }
+    
+    /**
+     * 获取已提交至共享线程池的任务数量.
+     *
+     * @return 已提交至共享线程池的任务数量
+     */
+    public int getActiveCount() {
+        return activeCount.get();
+    }
+    
+    /**
+     * 获取任务从提交到开始执行的平均等待毫秒数.
+     *
+     * @return 平均等待毫秒数
+     */
+    public long getAverageWaitMilliseconds() {
+        long started = startedCount.get();
+        return 0L == started ? 0L : TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get() / started);
+    }
+    
+    @RequiredArgsConstructor
+    private final class QueuedTask implements Runnable {
+        
+        private final Runnable command;
+        
+        private final long submitNanos;
+        
+        @Override
+        public void run() {
+            totalWaitNanos.addAndGet(System.nanoTime() - submitNanos);
+            startedCount.incrementAndGet();
+            try {
+                command.run();
+            } finally {
+                activeCount.decrementAndGet();
+                dispatch();
+                signalTerminationIfNecessary();
+            }
+        }
+    }
+}
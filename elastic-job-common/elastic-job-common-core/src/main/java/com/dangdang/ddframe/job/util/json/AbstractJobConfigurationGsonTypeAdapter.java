@@ -30,6 +30,7 @@ import com.google.common.base.Strings;
 import com.google.gson.TypeAdapter;
 import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonWriter;
+import lombok.RequiredArgsConstructor;
 
 import java.io.IOException;
 import java.util.HashMap;
@@ -59,6 +60,11 @@ public abstract class AbstractJobConfigurationGsonTypeAdapter<T extends JobRootC
         JobType jobType = null;
         String jobClass = "";
         boolean streamingProcess = false;
+        int prefetchDepth = 0;
+        int processParallelism = 0;
+        int minBatchSize = 0;
+        int maxBatchSize = 0;
+        long targetProcessMilliseconds = 0L;
         String scriptCommandLine = "";
         Map<String, Object> customizedValueMap = new HashMap<>(32, 1);
         in.beginObject();
@@ -101,6 +107,21 @@ public abstract class AbstractJobConfigurationGsonTypeAdapter<T extends JobRootC
                 case "streamingProcess":
                     streamingProcess = in.nextBoolean();
                     break;
+                case "prefetchDepth":
+                    prefetchDepth = in.nextInt();
+                    break;
+                case "processParallelism":
+                    processParallelism = in.nextInt();
+                    break;
+                case "minBatchSize":
+                    minBatchSize = in.nextInt();
+                    break;
+                case "maxBatchSize":
+                    maxBatchSize = in.nextInt();
+                    break;
+                case "targetProcessMilliseconds":
+                    targetProcessMilliseconds = in.nextLong();
+                    break;
                 case "scriptCommandLine":
                     scriptCommandLine = in.nextString();
                     break;
@@ -112,7 +133,8 @@ public abstract class AbstractJobConfigurationGsonTypeAdapter<T extends JobRootC
         in.endObject();
         JobCoreConfiguration coreConfig = getJobCoreConfiguration(jobName, cron, shardingTotalCount, shardingItemParameters,
                 jobParameter, failover, misfire, description, jobProperties);
-        JobTypeConfiguration typeConfig = getJobTypeConfiguration(coreConfig, jobType, jobClass, streamingProcess, scriptCommandLine);
+        DataflowSettings dataflowSettings = new DataflowSettings(streamingProcess, prefetchDepth, processParallelism, minBatchSize, maxBatchSize, targetProcessMilliseconds);
+        JobTypeConfiguration typeConfig = getJobTypeConfiguration(coreConfig, jobType, jobClass, dataflowSettings, scriptCommandLine);
         return getJobRootConfiguration(typeConfig, customizedValueMap);
     }
     
@@ -149,7 +171,7 @@ public abstract class AbstractJobConfigurationGsonTypeAdapter<T extends JobRootC
     }
     
     private JobTypeConfiguration getJobTypeConfiguration(
-            final JobCoreConfiguration coreConfig, final JobType jobType, final String jobClass, final boolean streamingProcess, final String scriptCommandLine) {
+            final JobCoreConfiguration coreConfig, final JobType jobType, final String jobClass, final DataflowSettings dataflowSettings, final String scriptCommandLine) {
         JobTypeConfiguration result;
         Preconditions.checkNotNull(jobType, "jobType cannot be null.");
         switch (jobType) {
@@ -159,7 +181,8 @@ public abstract class AbstractJobConfigurationGsonTypeAdapter<T extends JobRootC
                 break;
             case DATAFLOW:
                 Preconditions.checkArgument(!Strings.isNullOrEmpty(jobClass), "jobClass cannot be empty.");
-                result = new DataflowJobConfiguration(coreConfig, jobClass, streamingProcess);
+                result = new DataflowJobConfiguration(coreConfig, jobClass, dataflowSettings.streamingProcess, dataflowSettings.prefetchDepth, dataflowSettings.processParallelism, 
+                        dataflowSettings.minBatchSize, dataflowSettings.maxBatchSize, dataflowSettings.targetProcessMilliseconds);
                 break;
             case SCRIPT:
                 result = new ScriptJobConfiguration(coreConfig, scriptCommandLine);
@@ -189,6 +212,11 @@ public abstract class AbstractJobConfigurationGsonTypeAdapter<T extends JobRootC
         if (value.getTypeConfig().getJobType() == JobType.DATAFLOW) {
             DataflowJobConfiguration dataflowJobConfig = (DataflowJobConfiguration) value.getTypeConfig();
             out.name("streamingProcess").value(dataflowJobConfig.isStreamingProcess());
+            out.name("prefetchDepth").value(dataflowJobConfig.getPrefetchDepth());
+            out.name("processParallelism").value(dataflowJobConfig.getProcessParallelism());
+            out.name("minBatchSize").value(dataflowJobConfig.getMinBatchSize());
+            out.name("maxBatchSize").value(dataflowJobConfig.getMaxBatchSize());
+            out.name("targetProcessMilliseconds").value(dataflowJobConfig.getTargetProcessMilliseconds());
         } else if (value.getTypeConfig().getJobType() == JobType.SCRIPT) {
             ScriptJobConfiguration scriptJobConfig = (ScriptJobConfiguration) value.getTypeConfig();
             out.name("scriptCommandLine").value(scriptJobConfig.getScriptCommandLine());
@@ -198,4 +226,20 @@ public abstract class AbstractJobConfigurationGsonTypeAdapter<T extends JobRootC
     }
     
     protected abstract void writeCustomized(final JsonWriter out, final T value) throws IOException;
+    
+    @RequiredArgsConstructor
+    private static final class DataflowSettings {
+        
+        private final boolean streamingProcess;
+        
+        private final int prefetchDepth;
+        
+        private final int processParallelism;
+        
+        private final int minBatchSize;
+        
+        private final int maxBatchSize;
+        
+        private final long targetProcessMilliseconds;
+    }
 }
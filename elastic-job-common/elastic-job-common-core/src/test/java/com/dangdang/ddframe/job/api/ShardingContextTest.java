@@ -17,12 +17,17 @@
 
 package com.dangdang.ddframe.job.api;
 
+import com.dangdang.ddframe.job.executor.OffsetStorage;
 import com.dangdang.ddframe.job.executor.ShardingContexts;
 import com.dangdang.ddframe.job.fixture.ShardingContextsBuilder;
 import org.junit.Test;
 
 import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public final class ShardingContextTest {
     
@@ -36,11 +41,33 @@ public final class ShardingContextTest {
         assertThat(actual.getJobParameter(), is(shardingContexts.getJobParameter()));
         assertThat(actual.getShardingItem(), is(1));
         assertThat(actual.getShardingParameter(), is(shardingContexts.getShardingItemParameters().get(1)));
+        assertThat(actual.getBatchSize(), is(0));
     }
     
     @Test
     public void assertToString() {
         assertThat(new ShardingContext(ShardingContextsBuilder.getMultipleShardingContexts(), 1).toString(), 
-                is("ShardingContext(jobName=test_job, taskId=fake_task_id, shardingTotalCount=2, jobParameter=, shardingItem=1, shardingParameter=B)"));
+                is("ShardingContext(jobName=test_job, taskId=fake_task_id, shardingTotalCount=2, jobParameter=, shardingItem=1, shardingParameter=B, batchSize=0)"));
+    }
+    
+    @Test
+    public void assertGetOffsetWhenOffsetStorageIsUnavailable() {
+        assertNull(new ShardingContext(ShardingContextsBuilder.getMultipleShardingContexts(), 1).getOffset());
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void assertCommitOffsetWhenOffsetStorageIsUnavailable() {
+        new ShardingContext(ShardingContextsBuilder.getMultipleShardingContexts(), 1).commitOffset("10");
+    }
+    
+    @Test
+    public void assertGetAndCommitOffset() {
+        OffsetStorage offsetStorage = mock(OffsetStorage.class);
+        when(offsetStorage.load(1)).thenReturn("10");
+        ShardingContext actual = new ShardingContext(ShardingContextsBuilder.getMultipleShardingContexts(), 1);
+        actual.setOffsetStorage(offsetStorage);
+        assertThat(actual.getOffset(), is("10"));
+        actual.commitOffset("20");
+        verify(offsetStorage).commit(1, "20");
     }
 }
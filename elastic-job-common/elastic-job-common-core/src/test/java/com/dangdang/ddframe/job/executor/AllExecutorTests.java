@@ -20,6 +20,9 @@ package com.dangdang.ddframe.job.executor;
 import com.dangdang.ddframe.job.executor.handler.ExecutorServiceHandlerRegistryTest;
 import com.dangdang.ddframe.job.executor.handler.JobPropertiesTest;
 import com.dangdang.ddframe.job.executor.handler.impl.DefaultJobExceptionHandlerTest;
+import com.dangdang.ddframe.job.executor.type.AdaptiveBatchSizeTest;
+import com.dangdang.ddframe.job.executor.type.AsyncDataflowJobExecutorTest;
+import com.dangdang.ddframe.job.executor.type.AsyncSimpleJobExecutorTest;
 import com.dangdang.ddframe.job.executor.type.DataflowJobExecutorTest;
 import com.dangdang.ddframe.job.executor.type.ScriptJobExecutorTest;
 import com.dangdang.ddframe.job.executor.type.SimpleJobExecutorTest;
@@ -31,13 +34,17 @@ import org.junit.runners.Suite.SuiteClasses;
 @RunWith(Suite.class)
 @SuiteClasses({
         JobExecutorFactoryTest.class,
+        JobExecutorHolderTest.class,
         ExecutorServiceHandlerRegistryTest.class, 
         JobPropertiesTest.class,
         DefaultJobExceptionHandlerTest.class, 
         SimpleJobExecutorTest.class,
         WrongJobExecutorTest.class,
         DataflowJobExecutorTest.class, 
-        ScriptJobExecutorTest.class
+        ScriptJobExecutorTest.class, 
+        AsyncSimpleJobExecutorTest.class, 
+        AsyncDataflowJobExecutorTest.class, 
+        AdaptiveBatchSizeTest.class
     })
 public final class AllExecutorTests {
 }
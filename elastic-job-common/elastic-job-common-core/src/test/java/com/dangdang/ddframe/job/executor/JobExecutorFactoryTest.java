@@ -18,6 +18,8 @@
 package com.dangdang.ddframe.job.executor;
 
 import com.dangdang.ddframe.job.exception.JobConfigurationException;
+import com.dangdang.ddframe.job.executor.type.AsyncDataflowJobExecutor;
+import com.dangdang.ddframe.job.executor.type.AsyncSimpleJobExecutor;
 import com.dangdang.ddframe.job.executor.type.DataflowJobExecutor;
 import com.dangdang.ddframe.job.executor.type.ScriptJobExecutor;
 import com.dangdang.ddframe.job.executor.type.SimpleJobExecutor;
@@ -26,6 +28,8 @@ import com.dangdang.ddframe.job.fixture.config.TestScriptJobConfiguration;
 import com.dangdang.ddframe.job.fixture.config.TestSimpleJobConfiguration;
 import com.dangdang.ddframe.job.fixture.handler.IgnoreJobExceptionHandler;
 import com.dangdang.ddframe.job.fixture.job.OtherJob;
+import com.dangdang.ddframe.job.fixture.job.TestAsyncDataflowJob;
+import com.dangdang.ddframe.job.fixture.job.TestAsyncSimpleJob;
 import com.dangdang.ddframe.job.fixture.job.TestDataflowJob;
 import com.dangdang.ddframe.job.fixture.job.TestSimpleJob;
 import org.junit.Test;
@@ -67,6 +71,18 @@ public final class JobExecutorFactoryTest {
         assertThat(JobExecutorFactory.getJobExecutor(new TestDataflowJob(null), jobFacade), instanceOf(DataflowJobExecutor.class));
     }
     
+    @Test
+    public void assertGetJobExecutorForAsyncSimpleJob() {
+        when(jobFacade.loadJobRootConfiguration(true)).thenReturn(new TestSimpleJobConfiguration());
+        assertThat(JobExecutorFactory.getJobExecutor(new TestAsyncSimpleJob(null), jobFacade), instanceOf(AsyncSimpleJobExecutor.class));
+    }
+    
+    @Test
+    public void assertGetJobExecutorForAsyncDataflowJob() {
+        when(jobFacade.loadJobRootConfiguration(true)).thenReturn(new TestDataflowJobConfiguration(false));
+        assertThat(JobExecutorFactory.getJobExecutor(new TestAsyncDataflowJob(null), jobFacade), instanceOf(AsyncDataflowJobExecutor.class));
+    }
+    
     @Test(expected = JobConfigurationException.class)
     public void assertGetJobExecutorWhenJobClassWhenUnsupportedJob() {
         when(jobFacade.getShardingContexts()).thenReturn(new ShardingContexts("fake_task_id", "unsupported_test_job", 10, "", Collections.<Integer, String>emptyMap()));
@@ -0,0 +1,57 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.executor;
+
+import com.dangdang.ddframe.job.executor.type.SimpleJobExecutor;
+import com.dangdang.ddframe.job.fixture.config.TestSimpleJobConfiguration;
+import com.dangdang.ddframe.job.fixture.job.TestSimpleJob;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public final class JobExecutorHolderTest {
+    
+    @Mock
+    private JobFacade jobFacade;
+    
+    @Test
+    public void assertGetJobExecutorWhenConfigurationUnchanged() {
+        when(jobFacade.loadJobRootConfiguration(true)).thenReturn(new TestSimpleJobConfiguration());
+        JobExecutorHolder jobExecutorHolder = new JobExecutorHolder(new TestSimpleJob(null), jobFacade);
+        AbstractElasticJobExecutor actual = jobExecutorHolder.getJobExecutor();
+        assertThat(actual, instanceOf(SimpleJobExecutor.class));
+        assertThat(jobExecutorHolder.getJobExecutor(), sameInstance(actual));
+    }
+    
+    @Test
+    public void assertGetJobExecutorWhenConfigurationChanged() {
+        when(jobFacade.loadJobRootConfiguration(true)).thenReturn(new TestSimpleJobConfiguration());
+        JobExecutorHolder jobExecutorHolder = new JobExecutorHolder(new TestSimpleJob(null), jobFacade);
+        AbstractElasticJobExecutor actual = jobExecutorHolder.getJobExecutor();
+        when(jobFacade.loadJobRootConfiguration(true)).thenReturn(new TestSimpleJobConfiguration());
+        assertThat(jobExecutorHolder.getJobExecutor(), not(sameInstance(actual)));
+    }
+}
@@ -18,6 +18,7 @@
 package com.dangdang.ddframe.job.executor.handler;
 
 import com.dangdang.ddframe.job.executor.handler.impl.DefaultExecutorServiceHandler;
+import com.dangdang.ddframe.job.executor.handler.impl.ForkJoinPoolExecutorServiceHandler;
 import lombok.RequiredArgsConstructor;
 import org.junit.After;
 import org.junit.Test;
@@ -32,6 +33,7 @@ import java.util.concurrent.Executors;
 
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsNot.not;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 
 public final class ExecutorServiceHandlerRegistryTest {
@@ -69,6 +71,24 @@ public final class ExecutorServiceHandlerRegistryTest {
         assertThat(ExecutorServiceHandlerRegistry.getExecutorServiceHandler("test_job", new DefaultExecutorServiceHandler()), is(set.iterator().next()));
     }
     
+    @Test
+    public void assertFindWhenAbsent() {
+        assertFalse(ExecutorServiceHandlerRegistry.find("test_job").isPresent());
+    }
+    
+    @Test
+    public void assertFindWithDefaultExecutorServiceHandler() {
+        ExecutorService actual = ExecutorServiceHandlerRegistry.getExecutorServiceHandler("test_job", new DefaultExecutorServiceHandler());
+        assertThat(ExecutorServiceHandlerRegistry.find("test_job").get(), is((Object) actual));
+        assertThat(ExecutorServiceHandlerRegistry.find("test_job").get().getThreadSize(), is(Runtime.getRuntime().availableProcessors() * 2));
+    }
+    
+    @Test
+    public void assertFindWithForkJoinPoolExecutorServiceHandler() {
+        ExecutorServiceHandlerRegistry.getExecutorServiceHandler("test_job", new ForkJoinPoolExecutorServiceHandler());
+        assertThat(ExecutorServiceHandlerRegistry.find("test_job").get().getThreadSize(), is(Math.max(1, Runtime.getRuntime().availableProcessors())));
+    }
+    
     @RequiredArgsConstructor
     class GetExecutorServiceHandlerTask implements Runnable {
         
@@ -0,0 +1,79 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+package com.dangdang.ddframe.job.executor.type;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public final class AdaptiveBatchSizeTest {
+    
+    @Test
+    public void assertInitialBatchSizeIsMinBatchSize() {
+        assertThat(new AdaptiveBatchSize(10, 170, 100L).get(), is(10));
+    }
+    
+    @Test
+    public void assertInitialBatchSizeWhenBoundsAreInvalid() {
+        AdaptiveBatchSize actual = new AdaptiveBatchSize(0, -1, 100L);
+        assertThat(actual.get(), is(1));
+        assertThat(actual.adjust(1, 0L), is(1));
+    }
+    
+    @Test
+    public void assertIncreaseAdditivelyWhenBatchIsFullAndFast() {
+        AdaptiveBatchSize actual = new AdaptiveBatchSize(10, 170, 100L);
+        assertThat(actual.adjust(10, 50L), is(20));
+        assertThat(actual.adjust(20, 100L), is(30));
+    }
+    
+    @Test
+    public void assertNotIncreaseWhenBatchIsNotFull() {
+        AdaptiveBatchSize actual = new AdaptiveBatchSize(10, 170, 100L);
+        assertThat(actual.adjust(5, 1L), is(10));
+    }
+    
+    @Test
+    public void assertDecreaseMultiplicativelyWhenSlow() {
+        AdaptiveBatchSize actual = new AdaptiveBatchSize(10, 170, 100L);
+        for (int i = 0; i < 10; i++) {
+            actual.adjust(actual.get(), 1L);
+        }
+        assertThat(actual.get(), is(110));
+        assertThat(actual.adjust(110, 101L), is(55));
+        assertThat(actual.adjust(55, 101L), is(27));
+        assertThat(actual.adjust(27, 101L), is(13));
+        assertThat(actual.adjust(13, 101L), is(10));
+    }
+    
+    @Test
+    public void assertBoundedByMaxBatchSize() {
+        AdaptiveBatchSize actual = new AdaptiveBatchSize(10, 170, 100L);
+        for (int i = 0; i < 100; i++) {
+            actual.adjust(actual.get(), 1L);
+        }
+        assertThat(actual.get(), is(170));
+    }
+    
+    @Test
+    public void assertFixedWithoutTargetProcessMilliseconds() {
+        AdaptiveBatchSize actual = new AdaptiveBatchSize(10, 170, 0L);
+        assertThat(actual.adjust(10, 10000L), is(10));
+        assertThat(actual.adjust(10, 1L), is(10));
+    }
+}
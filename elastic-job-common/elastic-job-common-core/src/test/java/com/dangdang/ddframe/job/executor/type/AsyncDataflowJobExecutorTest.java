@@ -0,0 +1,133 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+package com.dangdang.ddframe.job.executor.type;
+
+import com.dangdang.ddframe.job.executor.JobFacade;
+import com.dangdang.ddframe.job.executor.ShardingContexts;
+import com.dangdang.ddframe.job.fixture.ShardingContextsBuilder;
+import com.dangdang.ddframe.job.fixture.config.TestDataflowJobConfiguration;
+import com.dangdang.ddframe.job.fixture.job.JobCaller;
+import com.dangdang.ddframe.job.fixture.job.TestAsyncDataflowJob;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public final class AsyncDataflowJobExecutorTest {
+    
+    @Mock
+    private JobCaller jobCaller;
+    
+    @Mock
+    private JobFacade jobFacade;
+    
+    private ShardingContexts shardingContexts;
+    
+    private AsyncDataflowJobExecutor asyncDataflowJobExecutor;
+    
+    @After
+    public void tearDown() {
+        ElasticJobVerify.verifyForIsNotMisfire(jobFacade, shardingContexts);
+    }
+    
+    @Test
+    public void assertExecuteWhenFetchDataIsNullAndEmpty() {
+        setUp(true, ShardingContextsBuilder.getMultipleShardingContexts());
+        when(jobCaller.fetchData(0)).thenReturn(null);
+        when(jobCaller.fetchData(1)).thenReturn(Collections.emptyList());
+        asyncDataflowJobExecutor.execute();
+        verify(jobCaller).fetchData(0);
+        verify(jobCaller).fetchData(1);
+        verify(jobCaller, times(0)).processData(any());
+    }
+    
+    @Test
+    public void assertExecuteForUnStreamingProcess() {
+        setUp(false, ShardingContextsBuilder.getMultipleShardingContexts());
+        when(jobCaller.fetchData(0)).thenReturn(Arrays.<Object>asList(1, 2));
+        when(jobCaller.fetchData(1)).thenReturn(Arrays.<Object>asList(3, 4));
+        asyncDataflowJobExecutor.execute();
+        verify(jobCaller).fetchData(0);
+        verify(jobCaller).fetchData(1);
+        verify(jobCaller).processData(1);
+        verify(jobCaller).processData(2);
+        verify(jobCaller).processData(3);
+        verify(jobCaller).processData(4);
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Test
+    public void assertExecuteForStreamingProcess() {
+        setUp(true, ShardingContextsBuilder.getSingleShardingContexts());
+        when(jobCaller.fetchData(0)).thenReturn(Collections.<Object>singletonList(1), Collections.<Object>singletonList(2), Collections.emptyList());
+        when(jobFacade.isEligibleForJobRunning()).thenReturn(true);
+        asyncDataflowJobExecutor.execute();
+        verify(jobCaller, times(3)).fetchData(0);
+        verify(jobCaller).processData(1);
+        verify(jobCaller).processData(2);
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Test
+    public void assertExecuteForStreamingProcessWhenIsNotEligibleForJobRunning() {
+        setUp(true, ShardingContextsBuilder.getSingleShardingContexts());
+        when(jobCaller.fetchData(0)).thenReturn(Collections.<Object>singletonList(1), Collections.<Object>singletonList(2));
+        when(jobFacade.isEligibleForJobRunning()).thenReturn(false);
+        asyncDataflowJobExecutor.execute();
+        verify(jobCaller).fetchData(0);
+        verify(jobCaller).processData(1);
+    }
+    
+    @Test
+    public void assertExecuteForLongStreamingProcess() {
+        setUp(true, ShardingContextsBuilder.getSingleShardingContexts());
+        final int batchCount = 5000;
+        when(jobCaller.fetchData(0)).thenAnswer(new Answer<List<Object>>() {
+            
+            private int fetchCount;
+            
+            @Override
+            public List<Object> answer(final InvocationOnMock invocation) {
+                return ++fetchCount <= batchCount ? Collections.<Object>singletonList(fetchCount) : Collections.emptyList();
+            }
+        });
+        when(jobFacade.isEligibleForJobRunning()).thenReturn(true);
+        asyncDataflowJobExecutor.execute();
+        verify(jobCaller, times(batchCount + 1)).fetchData(0);
+        verify(jobCaller, times(batchCount)).processData(any());
+    }
+    
+    private void setUp(final boolean isStreamingProcess, final ShardingContexts shardingContexts) {
+        this.shardingContexts = shardingContexts;
+        when(jobFacade.loadJobRootConfiguration(true)).thenReturn(new TestDataflowJobConfiguration(isStreamingProcess));
+        asyncDataflowJobExecutor = new AsyncDataflowJobExecutor(new TestAsyncDataflowJob(jobCaller), jobFacade);
+        ElasticJobVerify.prepareForIsNotMisfire(jobFacade, shardingContexts);
+    }
+}
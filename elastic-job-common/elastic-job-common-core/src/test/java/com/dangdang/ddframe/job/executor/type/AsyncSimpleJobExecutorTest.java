@@ -0,0 +1,134 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+package com.dangdang.ddframe.job.executor.type;
+
+import com.dangdang.ddframe.job.event.type.JobStatusTraceEvent.State;
+import com.dangdang.ddframe.job.executor.JobFacade;
+import com.dangdang.ddframe.job.executor.ShardingContexts;
+import com.dangdang.ddframe.job.fixture.ShardingContextsBuilder;
+import com.dangdang.ddframe.job.fixture.config.TestSimpleJobConfiguration;
+import com.dangdang.ddframe.job.fixture.handler.IgnoreJobExceptionHandler;
+import com.dangdang.ddframe.job.fixture.job.JobCaller;
+import com.dangdang.ddframe.job.fixture.job.TestAsyncSimpleJob;
+import com.google.common.util.concurrent.SettableFuture;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public final class AsyncSimpleJobExecutorTest {
+    
+    @Mock
+    private JobCaller jobCaller;
+    
+    @Mock
+    private JobFacade jobFacade;
+    
+    private TestAsyncSimpleJob asyncSimpleJob;
+    
+    private AsyncSimpleJobExecutor asyncSimpleJobExecutor;
+    
+    @Before
+    public void setUp() {
+        when(jobFacade.loadJobRootConfiguration(true)).thenReturn(new TestSimpleJobConfiguration(IgnoreJobExceptionHandler.class.getCanonicalName(), null));
+        asyncSimpleJob = new TestAsyncSimpleJob(jobCaller);
+        asyncSimpleJobExecutor = new AsyncSimpleJobExecutor(asyncSimpleJob, jobFacade);
+    }
+    
+    @Test
+    public void assertExecuteWhenFutureSuccess() throws InterruptedException {
+        ShardingContexts shardingContexts = ShardingContextsBuilder.getSingleShardingContexts();
+        ElasticJobVerify.prepareForIsNotMisfire(jobFacade, shardingContexts);
+        Thread executeThread = startExecute();
+        awaitFutures(1);
+        assertFalse(asyncSimpleJob.getFutures().get(0).isDone());
+        asyncSimpleJob.getFutures().get(0).set(null);
+        executeThread.join(5000L);
+        assertFalse(executeThread.isAlive());
+        ElasticJobVerify.verifyForIsNotMisfire(jobFacade, shardingContexts);
+        verify(jobFacade).postJobStatusTraceEvent(shardingContexts.getTaskId(), State.TASK_FINISHED, "");
+    }
+    
+    @Test
+    public void assertExecuteWhenFutureFailure() throws InterruptedException {
+        ShardingContexts shardingContexts = ShardingContextsBuilder.getMultipleShardingContexts();
+        ElasticJobVerify.prepareForIsNotMisfire(jobFacade, shardingContexts);
+        Thread executeThread = startExecute();
+        awaitFutures(2);
+        asyncSimpleJob.getFutures().get(0).set(null);
+        asyncSimpleJob.getFutures().get(1).setException(new IllegalStateException());
+        executeThread.join(5000L);
+        assertFalse(executeThread.isAlive());
+        verify(jobFacade).postJobStatusTraceEvent(eq(shardingContexts.getTaskId()), eq(State.TASK_ERROR), anyString());
+        assertThat(shardingContexts.getItemDurations().size(), is(2));
+    }
+    
+    @Test
+    public void assertExecuteWithThousandsOfInFlightItems() throws InterruptedException {
+        int itemCount = 2000;
+        Map<Integer, String> shardingItemParameters = new HashMap<>(itemCount, 1);
+        for (int i = 0; i < itemCount; i++) {
+            shardingItemParameters.put(i, "");
+        }
+        ShardingContexts shardingContexts = new ShardingContexts("fake_task_id", ShardingContextsBuilder.JOB_NAME, itemCount, "", shardingItemParameters);
+        ElasticJobVerify.prepareForIsNotMisfire(jobFacade, shardingContexts);
+        Thread executeThread = startExecute();
+        awaitFutures(itemCount);
+        verify(jobCaller, times(itemCount)).execute();
+        for (SettableFuture<Object> each : asyncSimpleJob.getFutures().values()) {
+            each.set(null);
+        }
+        executeThread.join(5000L);
+        assertFalse(executeThread.isAlive());
+        verify(jobFacade).postJobStatusTraceEvent(shardingContexts.getTaskId(), State.TASK_FINISHED, "");
+    }
+    
+    private Thread startExecute() {
+        Thread result = new Thread(new Runnable() {
+            
+            @Override
+            public void run() {
+                asyncSimpleJobExecutor.execute();
+            }
+        });
+        result.start();
+        return result;
+    }
+    
+    private void awaitFutures(final int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5L);
+        while (asyncSimpleJob.getFutures().size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10L);
+        }
+        assertThat(asyncSimpleJob.getFutures().size(), is(count));
+    }
+}
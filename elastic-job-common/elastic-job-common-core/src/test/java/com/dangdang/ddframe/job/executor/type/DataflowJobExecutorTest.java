@@ -17,22 +17,38 @@
 
 package com.dangdang.ddframe.job.executor.type;
 
+import com.dangdang.ddframe.job.api.ShardingContext;
+import com.dangdang.ddframe.job.api.dataflow.DataflowJob;
+import com.dangdang.ddframe.job.event.type.JobStatusTraceEvent.State;
 import com.dangdang.ddframe.job.executor.JobFacade;
 import com.dangdang.ddframe.job.executor.ShardingContexts;
 import com.dangdang.ddframe.job.fixture.ShardingContextsBuilder;
 import com.dangdang.ddframe.job.fixture.config.TestDataflowJobConfiguration;
 import com.dangdang.ddframe.job.fixture.job.JobCaller;
 import com.dangdang.ddframe.job.fixture.job.TestDataflowJob;
+import com.dangdang.ddframe.job.fixture.job.TestPartitionedDataflowJob;
 import org.junit.After;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.contains;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -166,11 +182,155 @@ public final class DataflowJobExecutorTest {
         verify(jobCaller).processData(4);
     }
     
+    @SuppressWarnings("unchecked")
+    @Test
+    public void assertExecuteWhenFetchDataIsNotEmptyForPipelinedStreamingProcess() {
+        setUp(true, 2, ShardingContextsBuilder.getMultipleShardingContexts());
+        when(jobFacade.isEligibleForJobRunning()).thenReturn(true);
+        when(jobCaller.fetchData(0)).thenReturn(Collections.<Object>singletonList(1), Collections.<Object>singletonList(2), Collections.emptyList());
+        when(jobCaller.fetchData(1)).thenReturn(Arrays.<Object>asList(3, 4), (List<Object>) null);
+        dataflowJobExecutor.execute();
+        verify(jobCaller, times(3)).fetchData(0);
+        verify(jobCaller, times(2)).fetchData(1);
+        verify(jobCaller).processData(1);
+        verify(jobCaller).processData(2);
+        verify(jobCaller).processData(3);
+        verify(jobCaller).processData(4);
+    }
+    
+    @Test
+    public void assertExecuteWhenIsNotEligibleForJobRunningForPipelinedStreamingProcess() {
+        setUp(true, 2, ShardingContextsBuilder.getSingleShardingContexts());
+        when(jobFacade.isEligibleForJobRunning()).thenReturn(false);
+        final AtomicInteger fetchCount = new AtomicInteger();
+        when(jobCaller.fetchData(0)).thenAnswer(new Answer<List<Object>>() {
+            
+            @Override
+            public List<Object> answer(final InvocationOnMock invocation) {
+                return Collections.<Object>singletonList(fetchCount.incrementAndGet());
+            }
+        });
+        dataflowJobExecutor.execute();
+        assertTrue(fetchCount.get() <= 4);
+        verify(jobCaller, times(fetchCount.get())).processData(any());
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Test
+    public void assertExecuteWhenFetchDataFailureForPipelinedStreamingProcess() {
+        setUp(true, 1, ShardingContextsBuilder.getSingleShardingContexts());
+        when(jobFacade.isEligibleForJobRunning()).thenReturn(true);
+        when(jobCaller.fetchData(0)).thenReturn(Collections.<Object>singletonList(1)).thenThrow(new IllegalStateException());
+        dataflowJobExecutor.execute();
+        verify(jobCaller, times(2)).fetchData(0);
+        verify(jobCaller).processData(1);
+        verify(jobFacade).postJobStatusTraceEvent(eq(shardingContexts.getTaskId()), eq(State.TASK_ERROR), anyString());
+    }
+    
+    @Test
+    public void assertExecuteWhenProcessDataFailureForPipelinedStreamingProcess() throws InterruptedException {
+        setUp(true, 1, ShardingContextsBuilder.getSingleShardingContexts());
+        when(jobFacade.isEligibleForJobRunning()).thenReturn(true);
+        final AtomicInteger fetchCount = new AtomicInteger();
+        when(jobCaller.fetchData(0)).thenAnswer(new Answer<List<Object>>() {
+            
+            @Override
+            public List<Object> answer(final InvocationOnMock invocation) {
+                return Collections.<Object>singletonList(fetchCount.incrementAndGet());
+            }
+        });
+        doThrow(new IllegalStateException()).when(jobCaller).processData(1);
+        dataflowJobExecutor.execute();
+        verify(jobCaller).processData(1);
+        verify(jobCaller, times(0)).processData(2);
+        Thread.sleep(100L);
+        assertTrue(fetchCount.get() <= 3);
+    }
+    
+    @Test
+    public void assertExecuteWhenProcessDataInParallel() {
+        setUp(new TestDataflowJobConfiguration(false, 0, 3), new TestDataflowJob(jobCaller), ShardingContextsBuilder.getSingleShardingContexts());
+        when(jobCaller.fetchData(0)).thenReturn(Arrays.<Object>asList(1, 2, 3, 4, 5, 6, 7));
+        dataflowJobExecutor.execute();
+        verify(jobCaller).fetchData(0);
+        for (int i = 1; i <= 7; i++) {
+            verify(jobCaller).processData(i);
+        }
+        verify(jobFacade).postJobStatusTraceEvent(shardingContexts.getTaskId(), State.TASK_FINISHED, "");
+    }
+    
+    @Test
+    public void assertExecuteWhenProcessDataInParallelWithPartitionKey() {
+        final List<Object> processed = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(new Answer<Void>() {
+            
+            @Override
+            public Void answer(final InvocationOnMock invocation) {
+                processed.add(invocation.getArguments()[0]);
+                return null;
+            }
+        }).when(jobCaller).processData(any());
+        setUp(new TestDataflowJobConfiguration(false, 0, 4), new TestPartitionedDataflowJob(jobCaller), ShardingContextsBuilder.getSingleShardingContexts());
+        when(jobCaller.fetchData(0)).thenReturn(Arrays.<Object>asList("a1", "b1", "a2", "c1", "b2", "a3", "c2"));
+        dataflowJobExecutor.execute();
+        assertThat(processed.size(), is(7));
+        assertOrder(processed, "a1", "a2", "a3");
+        assertOrder(processed, "b1", "b2");
+        assertOrder(processed, "c1", "c2");
+    }
+    
+    @Test
+    public void assertExecuteWhenProcessDataInParallelAndSubBatchFailure() {
+        setUp(new TestDataflowJobConfiguration(false, 0, 2), new TestDataflowJob(jobCaller), ShardingContextsBuilder.getSingleShardingContexts());
+        when(jobCaller.fetchData(0)).thenReturn(Arrays.<Object>asList(1, 2, 3, 4));
+        doThrow(new IllegalStateException()).when(jobCaller).processData(3);
+        dataflowJobExecutor.execute();
+        verify(jobCaller).processData(1);
+        verify(jobCaller).processData(2);
+        verify(jobCaller).processData(3);
+        verify(jobFacade).postJobStatusTraceEvent(eq(shardingContexts.getTaskId()), eq(State.TASK_ERROR), contains("sub-batches [1] of 2"));
+    }
+    
+    @Test
+    public void assertExecuteWithAdaptiveBatchSizeForStreamingProcess() {
+        final List<Integer> batchSizes = new ArrayList<>();
+        DataflowJob<Object> dataflowJob = new DataflowJob<Object>() {
+            
+            @Override
+            public List<Object> fetchData(final ShardingContext shardingContext) {
+                batchSizes.add(shardingContext.getBatchSize());
+                return 3 == batchSizes.size() ? Collections.<Object>emptyList() : Collections.<Object>nCopies(shardingContext.getBatchSize(), 0);
+            }
+            
+            @Override
+            public void processData(final ShardingContext shardingContext, final List<Object> data) {
+            }
+        };
+        setUp(new TestDataflowJobConfiguration(true, 0, 0, 10, 170, 60000L), dataflowJob, ShardingContextsBuilder.getSingleShardingContexts());
+        when(jobFacade.isEligibleForJobRunning()).thenReturn(true);
+        dataflowJobExecutor.execute();
+        assertThat(batchSizes, is(Arrays.asList(10, 20, 30)));
+    }
+    
+    private void assertOrder(final List<Object> processed, final Object... expected) {
+        for (int i = 1; i < expected.length; i++) {
+            assertTrue(processed.indexOf(expected[i - 1]) < processed.indexOf(expected[i]));
+        }
+    }
+    
     private void setUp(final boolean isStreamingProcess, final ShardingContexts shardingContexts) {
+        setUp(isStreamingProcess, 0, shardingContexts);
+    }
+    
+    private void setUp(final boolean isStreamingProcess, final int prefetchDepth, final ShardingContexts shardingContexts) {
+        setUp(new TestDataflowJobConfiguration(isStreamingProcess, prefetchDepth, 0), new TestDataflowJob(jobCaller), shardingContexts);
+    }
+    
+    private void setUp(final TestDataflowJobConfiguration jobConfig, final DataflowJob<Object> dataflowJob, final ShardingContexts shardingContexts) {
         this.shardingContexts = shardingContexts;
-        when(jobFacade.loadJobRootConfiguration(true)).thenReturn(new TestDataflowJobConfiguration(isStreamingProcess));
+        when(jobFacade.loadJobRootConfiguration(true)).thenReturn(jobConfig);
         when(jobFacade.getShardingContexts()).thenReturn(shardingContexts);
-        dataflowJobExecutor = new DataflowJobExecutor(new TestDataflowJob(jobCaller), jobFacade);
+        dataflowJobExecutor = new DataflowJobExecutor(dataflowJob, jobFacade);
         ElasticJobVerify.prepareForIsNotMisfire(jobFacade, shardingContexts);
     }
 }
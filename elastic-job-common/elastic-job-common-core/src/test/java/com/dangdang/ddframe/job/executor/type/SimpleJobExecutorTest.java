@@ -17,6 +17,7 @@
 
 package com.dangdang.ddframe.job.executor.type;
 
+import com.dangdang.ddframe.job.event.type.JobExecutionEvent;
 import com.dangdang.ddframe.job.event.type.JobStatusTraceEvent;
 import com.dangdang.ddframe.job.event.type.JobStatusTraceEvent.State;
 import com.dangdang.ddframe.job.exception.JobExecutionEnvironmentException;
@@ -33,6 +34,7 @@ import com.dangdang.ddframe.job.fixture.job.TestSimpleJob;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.unitils.util.ReflectionUtils;
@@ -40,8 +42,14 @@ import org.unitils.util.ReflectionUtils;
 import java.util.Collections;
 
 import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -147,6 +155,20 @@ public final class SimpleJobExecutorTest {
         }
     }
     
+    @Test
+    public void assertExecuteTwiceWhenPreviousExecutionFailure() {
+        ShardingContexts failureShardingContexts = ShardingContextsBuilder.getMultipleShardingContexts();
+        ElasticJobVerify.prepareForIsNotMisfire(jobFacade, failureShardingContexts);
+        doThrow(RuntimeException.class).when(jobCaller).execute();
+        simpleJobExecutor.execute();
+        ShardingContexts successShardingContexts = new ShardingContexts("fake_task_id_2", "test_job", 2, "", failureShardingContexts.getShardingItemParameters());
+        ElasticJobVerify.prepareForIsNotMisfire(jobFacade, successShardingContexts);
+        doNothing().when(jobCaller).execute();
+        simpleJobExecutor.execute();
+        verify(jobFacade).postJobStatusTraceEvent(successShardingContexts.getTaskId(), State.TASK_FINISHED, "");
+        verify(jobFacade, never()).postJobStatusTraceEvent(eq(successShardingContexts.getTaskId()), eq(State.TASK_ERROR), anyString());
+    }
+    
     @Test
     public void assertExecuteWhenRunOnceSuccessForSingleShardingItems() {
         assertExecuteWhenRunOnceSuccess(ShardingContextsBuilder.getSingleShardingContexts());
@@ -164,6 +186,7 @@ public final class SimpleJobExecutorTest {
         verify(jobFacade).postJobStatusTraceEvent(shardingContexts.getTaskId(), State.TASK_FINISHED, "");
         ElasticJobVerify.verifyForIsNotMisfire(jobFacade, shardingContexts);
         verify(jobCaller, times(shardingContexts.getShardingTotalCount())).execute();
+        assertThat(shardingContexts.getItemDurations().keySet(), is(shardingContexts.getShardingItemParameters().keySet()));
     }
     
     @Test
@@ -232,4 +255,52 @@ public final class SimpleJobExecutorTest {
             verify(jobCaller, times(2)).execute();
         }
     }
+    
+    @Test
+    public void assertExecuteFailoverWhenShardingItemsIsEmpty() {
+        ShardingContexts shardingContexts = new ShardingContexts("fake_task_id", "test_job", 10, "", Collections.<Integer, String>emptyMap());
+        simpleJobExecutor.executeFailover(shardingContexts);
+        verify(jobFacade).postJobStatusTraceEvent(shardingContexts.getTaskId(), State.TASK_STAGING, "Job 'test_job' failover execute begin.");
+        verify(jobFacade).postJobStatusTraceEvent(shardingContexts.getTaskId(), State.TASK_FINISHED, "Sharding item for job 'test_job' is empty.");
+        verify(jobFacade, never()).registerJobBegin(shardingContexts);
+        verify(jobCaller, times(0)).execute();
+    }
+    
+    @Test
+    public void assertExecuteFailover() throws JobExecutionEnvironmentException {
+        ShardingContexts shardingContexts = ShardingContextsBuilder.getMultipleShardingContexts();
+        simpleJobExecutor.executeFailover(shardingContexts);
+        verify(jobFacade, timeout(3000L)).afterJobExecuted(shardingContexts);
+        verify(jobFacade).postJobStatusTraceEvent(shardingContexts.getTaskId(), State.TASK_STAGING, "Job 'test_job' failover execute begin.");
+        verify(jobFacade).postJobStatusTraceEvent(shardingContexts.getTaskId(), State.TASK_RUNNING, "");
+        verify(jobFacade).postJobStatusTraceEvent(shardingContexts.getTaskId(), State.TASK_FINISHED, "");
+        verify(jobFacade).beforeJobExecuted(shardingContexts);
+        verify(jobFacade).registerJobBegin(shardingContexts);
+        verify(jobFacade).registerJobCompleted(shardingContexts);
+        verify(jobFacade).failoverIfNecessary();
+        verify(jobFacade, never()).checkJobExecutionEnvironment();
+        verify(jobFacade, never()).getShardingContexts();
+        verify(jobFacade, never()).misfireIfNecessary(shardingContexts.getShardingItemParameters().keySet());
+        verify(jobFacade, never()).cleanPreviousExecutionInfo();
+        verify(jobCaller, times(2)).execute();
+        assertThat(shardingContexts.getItemDurations().keySet(), is(shardingContexts.getShardingItemParameters().keySet()));
+        ArgumentCaptor<JobExecutionEvent> jobExecutionEvents = ArgumentCaptor.forClass(JobExecutionEvent.class);
+        verify(jobFacade, times(4)).postJobExecutionEvent(jobExecutionEvents.capture());
+        for (JobExecutionEvent each : jobExecutionEvents.getAllValues()) {
+            assertThat(each.getSource(), is(JobExecutionEvent.ExecutionSource.FAILOVER));
+        }
+    }
+    
+    @Test
+    public void assertExecuteFailoverWhenThrowException() {
+        ShardingContexts shardingContexts = ShardingContextsBuilder.getMultipleShardingContexts();
+        doThrow(RuntimeException.class).when(jobCaller).execute();
+        simpleJobExecutor.executeFailover(shardingContexts);
+        verify(jobFacade, timeout(3000L)).afterJobExecuted(shardingContexts);
+        String lineSeparator = System.getProperty("line.separator");
+        verify(jobFacade).postJobStatusTraceEvent(shardingContexts.getTaskId(), State.TASK_ERROR, 
+                "{0=java.lang.RuntimeException" + lineSeparator + ", 1=java.lang.RuntimeException" + lineSeparator + "}");
+        verify(jobFacade).registerJobCompleted(shardingContexts);
+        verify(jobCaller, times(2)).execute();
+    }
 }
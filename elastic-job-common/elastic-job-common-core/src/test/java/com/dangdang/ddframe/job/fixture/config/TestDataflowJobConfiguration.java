@@ -25,17 +25,35 @@ import com.dangdang.ddframe.job.executor.handler.JobProperties;
 import com.dangdang.ddframe.job.fixture.ShardingContextsBuilder;
 import com.dangdang.ddframe.job.fixture.handler.IgnoreJobExceptionHandler;
 import com.dangdang.ddframe.job.fixture.job.TestDataflowJob;
-import lombok.RequiredArgsConstructor;
+import lombok.AllArgsConstructor;
 
-@RequiredArgsConstructor
+@AllArgsConstructor
 public final class TestDataflowJobConfiguration implements JobRootConfiguration {
     
     private final boolean streamingProcess;
     
+    private final int prefetchDepth;
+    
+    private final int processParallelism;
+    
+    private final int minBatchSize;
+    
+    private final int maxBatchSize;
+    
+    private final long targetProcessMilliseconds;
+    
+    public TestDataflowJobConfiguration(final boolean streamingProcess) {
+        this(streamingProcess, 0, 0);
+    }
+    
+    public TestDataflowJobConfiguration(final boolean streamingProcess, final int prefetchDepth, final int processParallelism) {
+        this(streamingProcess, prefetchDepth, processParallelism, 0, 0, 0L);
+    }
+    
     @Override
     public JobTypeConfiguration getTypeConfig() {
         return new DataflowJobConfiguration(JobCoreConfiguration.newBuilder(ShardingContextsBuilder.JOB_NAME, "0/1 * * * * ?", 3)
                 .jobProperties(JobProperties.JobPropertiesEnum.JOB_EXCEPTION_HANDLER.getKey(), IgnoreJobExceptionHandler.class.getCanonicalName()).build(), 
-                TestDataflowJob.class.getCanonicalName(), streamingProcess);
+                TestDataflowJob.class.getCanonicalName(), streamingProcess, prefetchDepth, processParallelism, minBatchSize, maxBatchSize, targetProcessMilliseconds);
     }
 }
@@ -0,0 +1,44 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+package com.dangdang.ddframe.job.fixture.job;
+
+import com.dangdang.ddframe.job.api.ShardingContext;
+import com.dangdang.ddframe.job.api.simple.AsyncSimpleJob;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@RequiredArgsConstructor
+public final class TestAsyncSimpleJob implements AsyncSimpleJob {
+    
+    private final JobCaller jobCaller;
+    
+    @Getter
+    private final Map<Integer, SettableFuture<Object>> futures = new ConcurrentHashMap<>();
+    
+    @Override
+    public ListenableFuture<?> execute(final ShardingContext shardingContext) {
+        jobCaller.execute();
+        SettableFuture<Object> result = SettableFuture.create();
+        futures.put(shardingContext.getShardingItem(), result);
+        return result;
+    }
+}
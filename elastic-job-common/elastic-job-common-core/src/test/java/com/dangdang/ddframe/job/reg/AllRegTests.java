@@ -18,13 +18,20 @@
 package com.dangdang.ddframe.job.reg;
 
 import com.dangdang.ddframe.job.reg.exception.RegExceptionHandlerTest;
+import com.dangdang.ddframe.job.reg.zookeeper.DecodedDataCacheTest;
+import com.dangdang.ddframe.job.reg.zookeeper.PathTrieTest;
+import com.dangdang.ddframe.job.reg.zookeeper.SortedChildrenCacheTest;
+import com.dangdang.ddframe.job.reg.zookeeper.WriteBehindBufferTest;
+import com.dangdang.ddframe.job.reg.zookeeper.ZookeeperRegistryCenterAwaitTest;
 import com.dangdang.ddframe.job.reg.zookeeper.ZookeeperConfigurationTest;
+import com.dangdang.ddframe.job.reg.zookeeper.ZookeeperRegistryCenterBatchTest;
 import com.dangdang.ddframe.job.reg.zookeeper.ZookeeperRegistryCenterForAuthTest;
 import com.dangdang.ddframe.job.reg.zookeeper.ZookeeperRegistryCenterInitFailureTest;
 import com.dangdang.ddframe.job.reg.zookeeper.ZookeeperRegistryCenterMiscellaneousTest;
 import com.dangdang.ddframe.job.reg.zookeeper.ZookeeperRegistryCenterModifyTest;
 import com.dangdang.ddframe.job.reg.zookeeper.ZookeeperRegistryCenterQueryWithCacheTest;
 import com.dangdang.ddframe.job.reg.zookeeper.ZookeeperRegistryCenterQueryWithoutCacheTest;
+import com.dangdang.ddframe.job.reg.zookeeper.ZookeeperRegistryCenterWriteBehindTest;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import org.junit.runner.RunWith;
@@ -34,10 +41,17 @@ import org.junit.runners.Suite.SuiteClasses;
 @RunWith(Suite.class)
 @SuiteClasses({
         ZookeeperConfigurationTest.class, 
+        PathTrieTest.class, 
+        DecodedDataCacheTest.class, 
+        SortedChildrenCacheTest.class, 
+        WriteBehindBufferTest.class, 
         ZookeeperRegistryCenterForAuthTest.class, 
         ZookeeperRegistryCenterQueryWithCacheTest.class, 
         ZookeeperRegistryCenterQueryWithoutCacheTest.class, 
         ZookeeperRegistryCenterModifyTest.class, 
+        ZookeeperRegistryCenterBatchTest.class, 
+        ZookeeperRegistryCenterAwaitTest.class, 
+        ZookeeperRegistryCenterWriteBehindTest.class, 
         ZookeeperRegistryCenterMiscellaneousTest.class, 
         RegExceptionHandlerTest.class, 
         ZookeeperRegistryCenterInitFailureTest.class
@@ -66,4 +66,14 @@ public final class RegExceptionHandlerTest {
     public void assertHandleExceptionWithCausedNoNodeExistsException() {
         RegExceptionHandler.handleException(new RuntimeException(new NodeExistsException()));
     }
+    
+    @Test
+    public void assertLogExceptionWithCausedNoNodeException() {
+        RegExceptionHandler.logException(new RegException(new NoNodeException()));
+    }
+    
+    @Test
+    public void assertLogExceptionWithOtherException() {
+        RegExceptionHandler.logException(new RegException(new RuntimeException()));
+    }
 }
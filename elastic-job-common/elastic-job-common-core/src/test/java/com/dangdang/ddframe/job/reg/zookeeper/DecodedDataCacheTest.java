@@ -0,0 +1,94 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.reg.zookeeper;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Function;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+
+public final class DecodedDataCacheTest {
+    
+    private static final Function<String, StringBuilder> DECODER = new Function<String, StringBuilder>() {
+        
+        @Override
+        public StringBuilder apply(final String input) {
+            return null == input ? null : new StringBuilder(input);
+        }
+    };
+    
+    private final DecodedDataCache decodedDataCache = new DecodedDataCache();
+    
+    @Test
+    public void assertGetWithSameVersion() {
+        StringBuilder expected = decodedDataCache.get("/test", 1L, "value".getBytes(Charsets.UTF_8), DECODER);
+        assertThat(expected.toString(), is("value"));
+        assertThat(decodedDataCache.get("/test", 1L, "value".getBytes(Charsets.UTF_8), DECODER), sameInstance(expected));
+        assertThat(decodedDataCache.getHitCount(), is(1L));
+        assertThat(decodedDataCache.getMissCount(), is(1L));
+    }
+    
+    @Test
+    public void assertGetWithChangedVersion() {
+        StringBuilder expected = decodedDataCache.get("/test", 1L, "value".getBytes(Charsets.UTF_8), DECODER);
+        StringBuilder actual = decodedDataCache.get("/test", 2L, "new_value".getBytes(Charsets.UTF_8), DECODER);
+        assertThat(actual, not(sameInstance(expected)));
+        assertThat(actual.toString(), is("new_value"));
+        assertThat(decodedDataCache.getHitCount(), is(0L));
+        assertThat(decodedDataCache.getMissCount(), is(2L));
+    }
+    
+    @Test
+    public void assertGetWithOtherDecoder() {
+        decodedDataCache.get("/test", 1L, "value".getBytes(Charsets.UTF_8), DECODER);
+        String actual = decodedDataCache.get("/test", 1L, "value".getBytes(Charsets.UTF_8), new Function<String, String>() {
+            
+            @Override
+            public String apply(final String input) {
+                return input.toUpperCase();
+            }
+        });
+        assertThat(actual, is("VALUE"));
+        assertThat(decodedDataCache.getMissCount(), is(2L));
+    }
+    
+    @Test
+    public void assertGetWithNullData() {
+        assertNull(decodedDataCache.get("/test", 1L, null, DECODER));
+    }
+    
+    @Test
+    public void assertInvalidate() {
+        StringBuilder expected = decodedDataCache.get("/test", 1L, "value".getBytes(Charsets.UTF_8), DECODER);
+        decodedDataCache.invalidate("/test");
+        assertThat(decodedDataCache.get("/test", 1L, "value".getBytes(Charsets.UTF_8), DECODER), not(sameInstance(expected)));
+        assertThat(decodedDataCache.getMissCount(), is(2L));
+    }
+    
+    @Test
+    public void assertClear() {
+        StringBuilder expected = decodedDataCache.get("/test", 1L, "value".getBytes(Charsets.UTF_8), DECODER);
+        decodedDataCache.clear();
+        assertThat(decodedDataCache.get("/test", 1L, "value".getBytes(Charsets.UTF_8), DECODER), not(sameInstance(expected)));
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.reg.zookeeper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 注册中心本地缓存查找的性能基准.
+ * 
+ * <p>
+ * 对比按作业数量线性扫描的查找方式与前缀树查找方式, 前缀树的查找耗时不应随作业数量增长.
+ * 运行方式: 执行本类的main方法.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathTrieBenchmark {
+    
+    @Param({"10", "100", "800", "5000"})
+    private int jobCount;
+    
+    private final Map<String, Object> linearCaches = new HashMap<>();
+    
+    private final PathTrie<Object> trieCaches = new PathTrie<>();
+    
+    private String lookupKey;
+    
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < jobCount; i++) {
+            Object cache = new Object();
+            linearCaches.put("/test_job_" + i + "/", cache);
+            trieCaches.put("/test_job_" + i, cache);
+        }
+        lookupKey = "/test_job_" + (jobCount - 1) + "/servers/127.0.0.1@-@0/sharding";
+    }
+    
+    @Benchmark
+    public Object linearScan() {
+        for (Entry<String, Object> entry : linearCaches.entrySet()) {
+            if (lookupKey.startsWith(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+    
+    @Benchmark
+    public Object pathTrie() {
+        return trieCaches.getLongestPrefixMatch(lookupKey);
+    }
+    
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PathTrieBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.reg.zookeeper;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public final class PathTrieTest {
+    
+    private final PathTrie<String> pathTrie = new PathTrie<>();
+    
+    @Test
+    public void assertGetLongestPrefixMatch() {
+        pathTrie.put("/test_job", "job");
+        pathTrie.put("/test_job/servers", "servers");
+        assertThat(pathTrie.getLongestPrefixMatch("/test_job"), is("job"));
+        assertThat(pathTrie.getLongestPrefixMatch("/test_job/config"), is("job"));
+        assertThat(pathTrie.getLongestPrefixMatch("/test_job/servers/127.0.0.1"), is("servers"));
+    }
+    
+    @Test
+    public void assertGetLongestPrefixMatchWithSegmentBoundary() {
+        pathTrie.put("/test_job", "job");
+        assertNull(pathTrie.getLongestPrefixMatch("/test_job_other/config"));
+        assertNull(pathTrie.getLongestPrefixMatch("/other_job"));
+    }
+    
+    @Test
+    public void assertGet() {
+        pathTrie.put("/test_job", "job");
+        assertThat(pathTrie.get("/test_job"), is("job"));
+        assertNull(pathTrie.get("/test_job/config"));
+        assertNull(pathTrie.get("/other_job"));
+    }
+    
+    @Test
+    public void assertPutReplaced() {
+        assertNull(pathTrie.put("/test_job", "job"));
+        assertThat(pathTrie.put("/test_job", "new_job"), is("job"));
+        assertThat(pathTrie.get("/test_job"), is("new_job"));
+    }
+    
+    @Test
+    public void assertRemove() {
+        pathTrie.put("/test_job", "job");
+        pathTrie.put("/test_job/servers", "servers");
+        assertThat(pathTrie.remove("/test_job/servers"), is("servers"));
+        assertNull(pathTrie.remove("/other_job"));
+        assertThat(pathTrie.getLongestPrefixMatch("/test_job/servers/127.0.0.1"), is("job"));
+    }
+    
+    @Test
+    public void assertValues() {
+        pathTrie.put("/test_job", "job");
+        pathTrie.put("/test_job/servers", "servers");
+        pathTrie.put("/other_job", "other");
+        assertThat(pathTrie.values().size(), is(3));
+        assertTrue(pathTrie.values().containsAll(Arrays.asList("job", "servers", "other")));
+    }
+    
+    @Test
+    public void assertRemoveAll() {
+        pathTrie.put("/test_job", "job");
+        pathTrie.put("/test_job/servers", "servers");
+        pathTrie.put("/test_job/servers/127.0.0.1", "server");
+        pathTrie.put("/test_job_other", "other");
+        assertThat(pathTrie.removeAll("/test_job/servers").size(), is(2));
+        assertNull(pathTrie.get("/test_job/servers/127.0.0.1"));
+        assertThat(pathTrie.get("/test_job"), is("job"));
+        assertTrue(pathTrie.removeAll("/other_job/servers").isEmpty());
+        assertThat(pathTrie.removeAll("/").size(), is(2));
+        assertTrue(pathTrie.values().isEmpty());
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.reg.zookeeper;
+
+import com.google.common.collect.ImmutableMap;
+import org.apache.curator.framework.recipes.cache.ChildData;
+import org.apache.curator.framework.recipes.cache.TreeCache;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.when;
+
+public final class SortedChildrenCacheTest {
+    
+    @Mock
+    private TreeCache cache;
+    
+    private final SortedChildrenCache sortedChildrenCache = new SortedChildrenCache();
+    
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(cache.getCurrentChildren("/test")).thenReturn(createChildren("a", "c", "b"));
+    }
+    
+    private Map<String, ChildData> createChildren(final String... names) {
+        ImmutableMap.Builder<String, ChildData> result = ImmutableMap.builder();
+        for (String each : names) {
+            result.put(each, new ChildData("/test/" + each, null, null));
+        }
+        return result.build();
+    }
+    
+    @Test
+    public void assertGetFromSnapshot() {
+        List<String> expected = Arrays.asList("c", "b", "a");
+        assertThat(sortedChildrenCache.get("/test", cache), is(expected));
+        List<String> actual = sortedChildrenCache.get("/test", cache);
+        assertThat(actual, is(expected));
+        actual.clear();
+        assertThat(sortedChildrenCache.get("/test", cache), is(expected));
+    }
+    
+    @Test
+    public void assertGetWithoutNode() {
+        assertThat(sortedChildrenCache.get("/test/notExisted", cache), is(Collections.<String>emptyList()));
+    }
+    
+    @Test
+    public void assertGetAfterChildrenChanged() {
+        sortedChildrenCache.get("/test", cache);
+        when(cache.getCurrentChildren("/test")).thenReturn(createChildren("a", "b"));
+        assertThat(sortedChildrenCache.get("/test", cache), is(Arrays.asList("b", "a")));
+        when(cache.getCurrentChildren("/test")).thenReturn(createChildren("a", "d", "b"));
+        assertThat(sortedChildrenCache.get("/test", cache), is(Arrays.asList("d", "b", "a")));
+    }
+    
+    @Test
+    public void assertGetAfterNodeRemoved() {
+        sortedChildrenCache.get("/test", cache);
+        when(cache.getCurrentChildren("/test")).thenReturn(null);
+        assertThat(sortedChildrenCache.get("/test", cache), is(Collections.<String>emptyList()));
+    }
+    
+    @Test
+    public void assertRemove() {
+        sortedChildrenCache.get("/test", cache);
+        sortedChildrenCache.remove("/test");
+        assertThat(sortedChildrenCache.get("/test", cache), is(Arrays.asList("c", "b", "a")));
+    }
+    
+    @Test
+    public void assertClear() {
+        sortedChildrenCache.get("/test", cache);
+        sortedChildrenCache.clear();
+        assertThat(sortedChildrenCache.get("/test", cache), is(Arrays.asList("c", "b", "a")));
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.reg.zookeeper;
+
+import com.dangdang.ddframe.job.reg.base.BatchOperation;
+import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
+import com.dangdang.ddframe.job.reg.exception.RegException;
+import org.apache.zookeeper.KeeperException;
+import org.hamcrest.BaseMatcher;
+import org.hamcrest.Description;
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public final class WriteBehindBufferTest {
+    
+    private final CoordinatorRegistryCenter regCenter = mock(CoordinatorRegistryCenter.class);
+    
+    private final WriteBehindBuffer writeBehindBuffer = new WriteBehindBuffer(regCenter, 60000L);
+    
+    @After
+    public void tearDown() {
+        writeBehindBuffer.close();
+    }
+    
+    @Test
+    public void assertFlushWithoutPendingWrites() {
+        writeBehindBuffer.flush();
+        verify(regCenter, times(0)).executeInBatchStrictly(Matchers.<List<BatchOperation>>any());
+    }
+    
+    @Test
+    public void assertFlush() {
+        writeBehindBuffer.write("/test/node", "first");
+        writeBehindBuffer.write("/test/node", "second");
+        assertThat(writeBehindBuffer.getPendingCount(), is(1));
+        writeBehindBuffer.flush();
+        verify(regCenter).executeInBatchStrictly(Collections.singletonList(BatchOperation.persistIfParentExisted("/test/node", "second")));
+        assertThat(writeBehindBuffer.getPendingCount(), is(0));
+    }
+    
+    @Test
+    public void assertFlushInMultipleBatches() {
+        for (int i = 0; i < 501; i++) {
+            writeBehindBuffer.write("/test/node" + i, "value");
+        }
+        writeBehindBuffer.flush();
+        verify(regCenter, times(2)).executeInBatchStrictly(Matchers.<List<BatchOperation>>any());
+        assertThat(writeBehindBuffer.getPendingCount(), is(0));
+    }
+    
+    @Test
+    public void assertFlushFailure() {
+        doThrow(new RegException(new Exception())).when(regCenter).executeInBatchStrictly(Matchers.<List<BatchOperation>>any());
+        writeBehindBuffer.write("/test/node", "value");
+        writeBehindBuffer.flush();
+        assertThat(writeBehindBuffer.getPendingCount(), is(1));
+    }
+    
+    @Test
+    public void assertDiscard() {
+        writeBehindBuffer.write("/test", "value");
+        writeBehindBuffer.write("/test/node", "value");
+        writeBehindBuffer.write("/testOther", "value");
+        writeBehindBuffer.discard("/test");
+        assertThat(writeBehindBuffer.getPendingCount(), is(1));
+    }
+    
+    @Test
+    public void assertFlushFailureWithConnectionProblem() {
+        doThrow(new RegException(new KeeperException.ConnectionLossException())).when(regCenter).executeInBatchStrictly(Matchers.<List<BatchOperation>>any());
+        writeBehindBuffer.write("/test/node1", "value");
+        writeBehindBuffer.write("/test/node2", "value");
+        for (int i = 0; i < 5; i++) {
+            writeBehindBuffer.flush();
+        }
+        verify(regCenter, times(5)).executeInBatchStrictly(Matchers.<List<BatchOperation>>any());
+        assertThat(writeBehindBuffer.getPendingCount(), is(2));
+    }
+    
+    @Test
+    public void assertFlushSplitsFailedBatchAndDiscardsRepeatedlyFailedWrite() {
+        doThrow(new RegException(new KeeperException.BadVersionException())).when(regCenter).executeInBatchStrictly(Matchers.argThat(new BaseMatcher<List<BatchOperation>>() {
+            
+            @Override
+            public boolean matches(final Object item) {
+                return ((List<?>) item).contains(BatchOperation.persistIfParentExisted("/test/bad", "value"));
+            }
+            
+            @Override
+            public void describeTo(final Description description) {
+            }
+        }));
+        writeBehindBuffer.write("/test/bad", "value");
+        writeBehindBuffer.write("/test/good", "value");
+        writeBehindBuffer.flush();
+        verify(regCenter).executeInBatchStrictly(Collections.singletonList(BatchOperation.persistIfParentExisted("/test/good", "value")));
+        assertThat(writeBehindBuffer.getPendingCount(), is(1));
+        writeBehindBuffer.flush();
+        assertThat(writeBehindBuffer.getPendingCount(), is(1));
+        writeBehindBuffer.flush();
+        assertThat(writeBehindBuffer.getPendingCount(), is(0));
+    }
+    
+    @Test
+    public void assertDiscardWaitsForFlush() throws InterruptedException {
+        final CountDownLatch flushStarted = new CountDownLatch(1);
+        final CountDownLatch flushReleased = new CountDownLatch(1);
+        doAnswer(new Answer<Void>() {
+            
+            @Override
+            public Void answer(final InvocationOnMock invocation) throws InterruptedException {
+                flushStarted.countDown();
+                flushReleased.await();
+                return null;
+            }
+        }).when(regCenter).executeInBatchStrictly(Matchers.<List<BatchOperation>>any());
+        writeBehindBuffer.write("/test/node", "value");
+        Thread flushThread = new Thread(new Runnable() {
+            
+            @Override
+            public void run() {
+                writeBehindBuffer.flush();
+            }
+        });
+        flushThread.start();
+        flushStarted.await();
+        Thread discardThread = new Thread(new Runnable() {
+            
+            @Override
+            public void run() {
+                writeBehindBuffer.discard("/test");
+            }
+        });
+        discardThread.start();
+        discardThread.join(200L);
+        assertTrue(discardThread.isAlive());
+        flushReleased.countDown();
+        discardThread.join();
+        flushThread.join();
+        assertThat(writeBehindBuffer.getPendingCount(), is(0));
+    }
+}
@@ -32,5 +32,6 @@ public final class ZookeeperConfigurationTest {
         assertThat(zkConfig.getBaseSleepTimeMilliseconds(), is(1000));
         assertThat(zkConfig.getMaxSleepTimeMilliseconds(), is(3000));
         assertThat(zkConfig.getMaxRetries(), is(3));
+        assertThat(zkConfig.getWriteBehindFlushIntervalMilliseconds(), is(1000));
     }
 }
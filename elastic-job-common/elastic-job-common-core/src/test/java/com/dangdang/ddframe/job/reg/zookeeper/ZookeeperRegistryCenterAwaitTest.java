@@ -0,0 +1,128 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.reg.zookeeper;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public final class ZookeeperRegistryCenterAwaitTest {
+    
+    private static ZookeeperConfiguration zkConfig = new ZookeeperConfiguration(EmbedTestingServer.getConnectionString(), ZookeeperRegistryCenterAwaitTest.class.getName());
+    
+    private static ZookeeperRegistryCenter zkRegCenter;
+    
+    private static ScheduledExecutorService scheduledExecutorService;
+    
+    @BeforeClass
+    public static void setUp() {
+        EmbedTestingServer.start();
+        zkRegCenter = new ZookeeperRegistryCenter(zkConfig);
+        zkConfig.setConnectionTimeoutMilliseconds(30000);
+        zkRegCenter.init();
+        zkRegCenter.persist("/cached", "");
+        zkRegCenter.addCacheData("/cached");
+        scheduledExecutorService = Executors.newSingleThreadScheduledExecutor();
+    }
+    
+    @AfterClass
+    public static void tearDown() {
+        scheduledExecutorService.shutdown();
+        zkRegCenter.close();
+    }
+    
+    @Test
+    public void assertAwaitCreatedWhenExisted() {
+        zkRegCenter.persist("/existed", "");
+        assertTrue(zkRegCenter.awaitCreated("/existed", 0L));
+    }
+    
+    @Test
+    public void assertAwaitRemovedWhenNotExisted() {
+        assertTrue(zkRegCenter.awaitRemoved("/notExisted", 0L));
+    }
+    
+    @Test
+    public void assertAwaitRemovedTimeout() {
+        zkRegCenter.persist("/timeout", "");
+        assertFalse(zkRegCenter.awaitRemoved("/timeout", 100L));
+    }
+    
+    @Test
+    public void assertAwaitCreated() {
+        scheduleAfterShortTime(new Runnable() {
+            
+            @Override
+            public void run() {
+                zkRegCenter.persist("/created", "");
+            }
+        });
+        assertTrue(zkRegCenter.awaitCreated("/created", 10000L));
+    }
+    
+    @Test
+    public void assertAwaitRemoved() {
+        zkRegCenter.persist("/removed", "");
+        scheduleAfterShortTime(new Runnable() {
+            
+            @Override
+            public void run() {
+                zkRegCenter.remove("/removed");
+            }
+        });
+        assertTrue(zkRegCenter.awaitRemoved("/removed", 10000L));
+    }
+    
+    @Test
+    public void assertAwaitCreatedWithCache() {
+        scheduleAfterShortTime(new Runnable() {
+            
+            @Override
+            public void run() {
+                zkRegCenter.persist("/cached/created", "");
+            }
+        });
+        assertTrue(zkRegCenter.awaitCreated("/cached/created", 10000L));
+        assertTrue(zkRegCenter.isExisted("/cached/created"));
+    }
+    
+    @Test
+    public void assertAwaitRemovedWithCache() {
+        zkRegCenter.persist("/cached/removed", "");
+        scheduleAfterShortTime(new Runnable() {
+            
+            @Override
+            public void run() {
+                zkRegCenter.remove("/cached/removed");
+            }
+        });
+        assertTrue(zkRegCenter.awaitRemoved("/cached/removed", 10000L));
+        assertFalse(zkRegCenter.isExisted("/cached/removed"));
+    }
+    
+    private void scheduleAfterShortTime(final Runnable runnable) {
+        scheduledExecutorService.schedule(runnable, 100L, TimeUnit.MILLISECONDS);
+    }
+}
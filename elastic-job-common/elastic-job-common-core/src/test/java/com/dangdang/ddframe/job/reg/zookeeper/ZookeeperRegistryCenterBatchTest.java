@@ -0,0 +1,127 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.reg.zookeeper;
+
+import com.dangdang.ddframe.job.reg.base.BatchOperation;
+import org.apache.curator.framework.CuratorFramework;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public final class ZookeeperRegistryCenterBatchTest {
+    
+    private static ZookeeperConfiguration zkConfig = new ZookeeperConfiguration(EmbedTestingServer.getConnectionString(), ZookeeperRegistryCenterBatchTest.class.getName());
+    
+    private static ZookeeperRegistryCenter zkRegCenter;
+    
+    @BeforeClass
+    public static void setUp() {
+        EmbedTestingServer.start();
+        zkConfig.setConnectionTimeoutMilliseconds(30000);
+        zkRegCenter = new ZookeeperRegistryCenter(zkConfig);
+        zkRegCenter.init();
+        zkRegCenter.addCacheData("/cached");
+    }
+    
+    @AfterClass
+    public static void tearDown() {
+        zkRegCenter.close();
+    }
+    
+    @Test
+    public void assertExecuteInBatchWithEmptyOperations() {
+        zkRegCenter.executeInBatch(Collections.<BatchOperation>emptyList());
+    }
+    
+    @Test
+    public void assertExecuteInBatch() {
+        zkRegCenter.persist("/batch/existed", "before");
+        zkRegCenter.persist("/batch/removed/child", "child");
+        zkRegCenter.executeInBatch(Arrays.asList(
+                BatchOperation.createIfAbsent("/batch/created/deep/nested", "created"),
+                BatchOperation.createIfAbsent("/batch/existed", "ignored"),
+                BatchOperation.persist("/batch/persisted", "persisted"),
+                BatchOperation.persistEphemeral("/batch/ephemeral", "ephemeral"),
+                BatchOperation.removeIfExisted("/batch/removed"),
+                BatchOperation.removeIfExisted("/batch/notExisted")));
+        assertThat(zkRegCenter.getDirectly("/batch/created/deep/nested"), is("created"));
+        assertThat(zkRegCenter.getDirectly("/batch/existed"), is("before"));
+        assertThat(zkRegCenter.getDirectly("/batch/persisted"), is("persisted"));
+        assertThat(zkRegCenter.getDirectly("/batch/ephemeral"), is("ephemeral"));
+        assertFalse(zkRegCenter.isExistedDirectly("/batch/removed"));
+        assertFalse(zkRegCenter.isExistedDirectly("/batch/notExisted"));
+    }
+    
+    @Test
+    public void assertExecuteInBatchForUpdate() {
+        zkRegCenter.persist("/update/existed", "before");
+        zkRegCenter.persistEphemeral("/update/ephemeral", "before");
+        zkRegCenter.executeInBatch(Arrays.asList(BatchOperation.persist("/update/existed", "after"), BatchOperation.persistEphemeral("/update/ephemeral", "after")));
+        assertThat(zkRegCenter.getDirectly("/update/existed"), is("after"));
+        assertThat(zkRegCenter.getDirectly("/update/ephemeral"), is("after"));
+    }
+    
+    @Test
+    public void assertExecuteInBatchSeesPreviousOperations() {
+        zkRegCenter.persist("/sequence/node/child", "before");
+        zkRegCenter.executeInBatch(Arrays.asList(
+                BatchOperation.removeIfExisted("/sequence/node"),
+                BatchOperation.createIfAbsent("/sequence/node", "recreated"),
+                BatchOperation.createIfAbsent("/sequence/node/other", "other"),
+                BatchOperation.removeIfExisted("/sequence/node")));
+        assertFalse(zkRegCenter.isExistedDirectly("/sequence/node"));
+    }
+    
+    @Test
+    public void assertExecuteInBatchWithStaleCache() throws Exception {
+        zkRegCenter.persist("/cached", "");
+        ((CuratorFramework) zkRegCenter.getRawClient()).create().creatingParentsIfNeeded().forPath("/cached/stale", "before".getBytes());
+        zkRegCenter.executeInBatch(Arrays.asList(BatchOperation.createIfAbsent("/cached/stale", "ignored"), BatchOperation.persist("/cached/other", "other")));
+        assertThat(zkRegCenter.getDirectly("/cached/stale"), is("before"));
+        assertThat(zkRegCenter.getDirectly("/cached/other"), is("other"));
+        assertTrue(zkRegCenter.isExistedDirectly("/cached/other"));
+    }
+    
+    @Test
+    public void assertExecuteInBatchStrictly() {
+        zkRegCenter.persist("/strict/removed", "removed");
+        zkRegCenter.executeInBatchStrictly(Arrays.asList(BatchOperation.persist("/strict/deep/persisted", "persisted"), BatchOperation.removeIfExisted("/strict/removed")));
+        assertThat(zkRegCenter.getDirectly("/strict/deep/persisted"), is("persisted"));
+        assertFalse(zkRegCenter.isExistedDirectly("/strict/removed"));
+    }
+    
+    @Test
+    public void assertExecuteInBatchPersistIfParentExisted() {
+        zkRegCenter.persist("/parent/existed", "before");
+        zkRegCenter.executeInBatch(Arrays.asList(
+                BatchOperation.persistIfParentExisted("/parent/existed", "after"),
+                BatchOperation.persistIfParentExisted("/parent/created", "created"),
+                BatchOperation.persistIfParentExisted("/parentNotExisted/node", "ignored")));
+        assertThat(zkRegCenter.getDirectly("/parent/existed"), is("after"));
+        assertThat(zkRegCenter.getDirectly("/parent/created"), is("created"));
+        assertFalse(zkRegCenter.isExistedDirectly("/parentNotExisted"));
+    }
+}
@@ -18,6 +18,8 @@
 package com.dangdang.ddframe.job.reg.zookeeper;
 
 import com.dangdang.ddframe.job.reg.zookeeper.util.ZookeeperRegistryCenterTestUtil;
+import com.google.common.base.Function;
+import com.google.common.base.Functions;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.CuratorFrameworkFactory;
 import org.apache.curator.retry.RetryOneTime;
@@ -26,6 +28,8 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.startsWith;
@@ -84,6 +88,16 @@ public final class ZookeeperRegistryCenterModifyTest {
         zkRegCenter.init();
     }
     
+    @Test
+    public void assertPersistEphemeralIfUnchanged() {
+        assertTrue(zkRegCenter.persistEphemeralIfUnchanged("/cas/ephemeral", null, "first"));
+        assertFalse(zkRegCenter.persistEphemeralIfUnchanged("/cas/ephemeral", null, "conflict"));
+        assertFalse(zkRegCenter.persistEphemeralIfUnchanged("/cas/ephemeral", "stale", "conflict"));
+        assertTrue(zkRegCenter.persistEphemeralIfUnchanged("/cas/ephemeral", "first", "second"));
+        assertThat(zkRegCenter.getDirectly("/cas/ephemeral"), is("second"));
+        assertFalse(zkRegCenter.persistEphemeralIfUnchanged("/cas/notExisted", "first", "second"));
+    }
+    
     
     @Test
     public void assertPersistSequential() throws Exception {
@@ -119,6 +133,71 @@ public final class ZookeeperRegistryCenterModifyTest {
         zkRegCenter.init();
     }
     
+    @Test
+    public void assertPersistAsync() throws Exception {
+        zkRegCenter.persistAsync("/async/persist", "before").get();
+        assertThat(zkRegCenter.getDirectly("/async/persist"), is("before"));
+        zkRegCenter.persistAsync("/async/persist", "after").get();
+        assertThat(zkRegCenter.getDirectly("/async/persist"), is("after"));
+    }
+    
+    @Test
+    public void assertUpdateAsync() throws Exception {
+        zkRegCenter.persist("/async/update", "before");
+        zkRegCenter.updateAsync("/async/update", "after").get();
+        assertThat(zkRegCenter.getDirectly("/async/update"), is("after"));
+    }
+    
+    @Test(expected = ExecutionException.class)
+    public void assertUpdateAsyncWithoutNode() throws Exception {
+        zkRegCenter.updateAsync("/async/notExisted", "value").get();
+    }
+    
+    @Test
+    public void assertCompareAndUpdateAsync() throws Exception {
+        zkRegCenter.persist("/async/compareAndUpdate", "before");
+        zkRegCenter.compareAndUpdateAsync("/async/compareAndUpdate", new Function<String, String>() {
+            
+            @Override
+            public String apply(final String input) {
+                return input + "-after";
+            }
+        }).get();
+        assertThat(zkRegCenter.getDirectly("/async/compareAndUpdate"), is("before-after"));
+    }
+    
+    @Test
+    public void assertCompareAndUpdateAsyncWithConcurrentModification() throws Exception {
+        zkRegCenter.persist("/async/concurrent", "before");
+        final AtomicInteger count = new AtomicInteger();
+        zkRegCenter.compareAndUpdateAsync("/async/concurrent", new Function<String, String>() {
+            
+            @Override
+            public String apply(final String input) {
+                if (0 == count.getAndIncrement()) {
+                    zkRegCenter.update("/async/concurrent", "concurrent");
+                }
+                return input + "-after";
+            }
+        }).get();
+        assertThat(zkRegCenter.getDirectly("/async/concurrent"), is("concurrent-after"));
+        assertThat(count.get(), is(2));
+    }
+    
+    @Test
+    public void assertCompareAndUpdateAsyncWithoutNode() throws Exception {
+        zkRegCenter.compareAndUpdateAsync("/async/compareAndUpdateNotExisted", Functions.<String>identity()).get();
+        assertFalse(zkRegCenter.isExistedDirectly("/async/compareAndUpdateNotExisted"));
+    }
+    
+    @Test
+    public void assertRemoveAsync() throws Exception {
+        zkRegCenter.persist("/async/remove/child", "child");
+        zkRegCenter.removeAsync("/async/remove").get();
+        assertFalse(zkRegCenter.isExistedDirectly("/async/remove"));
+        zkRegCenter.removeAsync("/async/remove").get();
+    }
+    
     @Test
     public void assertRemove() {
         zkRegCenter.remove("/test");
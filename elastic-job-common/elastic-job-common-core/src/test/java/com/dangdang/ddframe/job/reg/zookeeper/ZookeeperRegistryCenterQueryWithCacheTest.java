@@ -18,13 +18,20 @@
 package com.dangdang.ddframe.job.reg.zookeeper;
 
 import com.dangdang.ddframe.job.reg.zookeeper.util.ZookeeperRegistryCenterTestUtil;
+import com.google.common.base.Function;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.Collections;
+
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 
 public final class ZookeeperRegistryCenterQueryWithCacheTest {
     
@@ -32,6 +39,14 @@ public final class ZookeeperRegistryCenterQueryWithCacheTest {
     
     private static ZookeeperRegistryCenter zkRegCenter;
     
+    private static final Function<String, StringBuilder> DECODER = new Function<String, StringBuilder>() {
+        
+        @Override
+        public StringBuilder apply(final String input) {
+            return null == input ? null : new StringBuilder(input);
+        }
+    };
+    
     @BeforeClass
     public static void setUp() {
         EmbedTestingServer.start();
@@ -57,4 +72,46 @@ public final class ZookeeperRegistryCenterQueryWithCacheTest {
         assertThat(zkRegCenter.get("/test"), is("test"));
         assertThat(zkRegCenter.get("/test/deep/nested"), is("deepNested"));
     }
+    
+    @Test
+    public void assertGetChildrenKeysFromCache() {
+        assertThat(zkRegCenter.getChildrenKeys("/test"), is(Arrays.asList("deep", "child")));
+        assertThat(zkRegCenter.getChildrenKeys("/test/deep"), is(Collections.singletonList("nested")));
+        assertThat(zkRegCenter.getChildrenKeys("/test/child"), is(Collections.<String>emptyList()));
+        assertThat(zkRegCenter.getChildrenKeys("/test/notExisted"), is(Collections.<String>emptyList()));
+    }
+    
+    @Test
+    public void assertGetChildrenKeysFromCacheAfterChildrenChanged() {
+        assertThat(zkRegCenter.getChildrenKeys("/test/deep"), is(Collections.singletonList("nested")));
+        zkRegCenter.persist("/test/deep/added", "");
+        assertTrue(zkRegCenter.awaitCreated("/test/deep/added", 5000L));
+        assertThat(zkRegCenter.getChildrenKeys("/test/deep"), is(Arrays.asList("nested", "added")));
+        zkRegCenter.remove("/test/deep/added");
+        assertTrue(zkRegCenter.awaitRemoved("/test/deep/added", 5000L));
+        assertThat(zkRegCenter.getChildrenKeys("/test/deep"), is(Collections.singletonList("nested")));
+    }
+    
+    @Test
+    public void assertIsExistedFromCache() {
+        assertTrue(zkRegCenter.isExisted("/test"));
+        assertTrue(zkRegCenter.isExisted("/test/deep/nested"));
+        assertFalse(zkRegCenter.isExisted("/test/notExisted"));
+    }
+    
+    @Test
+    public void assertGetDecodedFromCache() {
+        long hitCount = zkRegCenter.getDecodedCacheHitCount();
+        long missCount = zkRegCenter.getDecodedCacheMissCount();
+        StringBuilder expected = zkRegCenter.getDecoded("/test/deep/nested", DECODER);
+        assertThat(expected.toString(), is("deepNested"));
+        assertThat(zkRegCenter.getDecoded("/test/deep/nested", DECODER), sameInstance(expected));
+        assertThat(zkRegCenter.getDecodedCacheHitCount(), is(hitCount + 1));
+        assertThat(zkRegCenter.getDecodedCacheMissCount(), is(missCount + 1));
+    }
+    
+    @Test
+    public void assertGetDecodedWithoutValue() {
+        assertNull(zkRegCenter.getDecoded("/test/null", DECODER));
+    }
 }
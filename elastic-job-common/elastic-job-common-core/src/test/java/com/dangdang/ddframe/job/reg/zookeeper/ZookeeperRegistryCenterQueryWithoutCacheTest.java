@@ -66,6 +66,12 @@ public final class ZookeeperRegistryCenterQueryWithoutCacheTest {
         assertThat(zkRegCenter.getChildrenKeys("/test/notExisted"), is(Collections.<String>emptyList()));
     }
     
+    @Test
+    public void assertGetChildrenKeysDirectly() {
+        assertThat(zkRegCenter.getChildrenKeysDirectly("/test"), is(Arrays.asList("deep", "child")));
+        assertThat(zkRegCenter.getChildrenKeysDirectly("/test/notExisted"), is(Collections.<String>emptyList()));
+    }
+    
     @Test
     public void assertGetNumChildren() {
         assertThat(zkRegCenter.getNumChildren("/test"), is(2));
@@ -81,6 +87,12 @@ public final class ZookeeperRegistryCenterQueryWithoutCacheTest {
         assertFalse(zkRegCenter.isExisted("/notExisted"));
     }
     
+    @Test
+    public void assertIsExistedDirectly() {
+        assertTrue(zkRegCenter.isExistedDirectly("/test/deep/nested"));
+        assertFalse(zkRegCenter.isExistedDirectly("/notExisted"));
+    }
+    
     @Test
     public void assertGetRegistryCenterTime() {
         assertTrue(zkRegCenter.getRegistryCenterTime("/_systemTime/current") <= System.currentTimeMillis());
@@ -0,0 +1,128 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.reg.zookeeper;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+
+public final class ZookeeperRegistryCenterWriteBehindTest {
+    
+    private static ZookeeperConfiguration zkConfig = new ZookeeperConfiguration(EmbedTestingServer.getConnectionString(), ZookeeperRegistryCenterWriteBehindTest.class.getName());
+    
+    private static ZookeeperRegistryCenter zkRegCenter;
+    
+    @BeforeClass
+    public static void setUp() {
+        EmbedTestingServer.start();
+        zkConfig.setConnectionTimeoutMilliseconds(30000);
+        zkConfig.setWriteBehindFlushIntervalMilliseconds(60000);
+        zkRegCenter = new ZookeeperRegistryCenter(zkConfig);
+        zkRegCenter.init();
+        zkRegCenter.persist("/behind", "");
+        zkRegCenter.persist("/periodically", "");
+        zkRegCenter.persist("/direct", "");
+    }
+    
+    @AfterClass
+    public static void tearDown() {
+        zkRegCenter.close();
+    }
+    
+    @Test
+    public void assertPersistBehindAndFlushOnClose() {
+        ZookeeperRegistryCenter regCenter = createRegistryCenter(60000);
+        regCenter.persistBehind("/behind/coalesced", "first");
+        regCenter.persistBehind("/behind/coalesced", "second");
+        regCenter.persistBehind("/behind/other", "other");
+        assertThat(regCenter.getPendingWriteCount(), is(2));
+        assertFalse(zkRegCenter.isExistedDirectly("/behind/coalesced"));
+        regCenter.close();
+        assertThat(zkRegCenter.getDirectly("/behind/coalesced"), is("second"));
+        assertThat(zkRegCenter.getDirectly("/behind/other"), is("other"));
+    }
+    
+    @Test
+    public void assertPersistBehindFlushPeriodically() throws InterruptedException {
+        ZookeeperRegistryCenter regCenter = createRegistryCenter(50);
+        regCenter.persistBehind("/periodically/node", "value");
+        for (int i = 0; i < 100 && 0 != regCenter.getPendingWriteCount(); i++) {
+            Thread.sleep(50L);
+        }
+        assertThat(regCenter.getPendingWriteCount(), is(0));
+        assertThat(zkRegCenter.getDirectly("/periodically/node"), is("value"));
+        regCenter.close();
+    }
+    
+    @Test
+    public void assertRemoveDiscardsPendingWrites() {
+        zkRegCenter.persistBehind("/discarded/node/child", "child");
+        zkRegCenter.persistBehind("/discarded/nodeSibling", "sibling");
+        zkRegCenter.remove("/discarded/node");
+        assertThat(zkRegCenter.getPendingWriteCount(), is(1));
+        zkRegCenter.removeAsync("/discarded/nodeSibling");
+        assertThat(zkRegCenter.getPendingWriteCount(), is(0));
+    }
+    
+    @Test
+    public void assertPersistBehindNotCreateRemovedParent() {
+        ZookeeperRegistryCenter regCenter = createRegistryCenter(60000);
+        regCenter.persistBehind("/ghost/job/node", "value");
+        regCenter.persistBehind("/behind/kept", "kept");
+        regCenter.close();
+        assertFalse(zkRegCenter.isExistedDirectly("/ghost"));
+        assertThat(zkRegCenter.getDirectly("/behind/kept"), is("kept"));
+    }
+    
+    @Test
+    public void assertPersistBehindWithoutBufferNotCreateRemovedParent() throws InterruptedException {
+        ZookeeperRegistryCenter regCenter = createRegistryCenter(0);
+        regCenter.persistBehind("/ghostDirect/node", "value");
+        regCenter.persistBehind("/direct/after", "value");
+        for (int i = 0; i < 100 && !zkRegCenter.isExistedDirectly("/direct/after"); i++) {
+            Thread.sleep(50L);
+        }
+        assertFalse(zkRegCenter.isExistedDirectly("/ghostDirect"));
+        regCenter.close();
+    }
+    
+    @Test
+    public void assertPersistBehindWithoutBuffer() throws InterruptedException {
+        ZookeeperRegistryCenter regCenter = createRegistryCenter(0);
+        regCenter.persistBehind("/direct/node", "value");
+        assertThat(regCenter.getPendingWriteCount(), is(0));
+        for (int i = 0; i < 100 && !zkRegCenter.isExistedDirectly("/direct/node"); i++) {
+            Thread.sleep(50L);
+        }
+        assertThat(zkRegCenter.getDirectly("/direct/node"), is("value"));
+        regCenter.close();
+    }
+    
+    private ZookeeperRegistryCenter createRegistryCenter(final int writeBehindFlushIntervalMilliseconds) {
+        ZookeeperConfiguration config = new ZookeeperConfiguration(EmbedTestingServer.getConnectionString(), ZookeeperRegistryCenterWriteBehindTest.class.getName());
+        config.setConnectionTimeoutMilliseconds(30000);
+        config.setWriteBehindFlushIntervalMilliseconds(writeBehindFlushIntervalMilliseconds);
+        ZookeeperRegistryCenter result = new ZookeeperRegistryCenter(config);
+        result.init();
+        return result;
+    }
+}
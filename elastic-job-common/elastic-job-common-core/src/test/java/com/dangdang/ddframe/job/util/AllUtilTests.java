@@ -18,6 +18,8 @@
 package com.dangdang.ddframe.job.util;
 
 import com.dangdang.ddframe.job.util.concurrent.ExecutorServiceObjectTest;
+import com.dangdang.ddframe.job.util.concurrent.MonitoredExecutorServiceTest;
+import com.dangdang.ddframe.job.util.concurrent.QuotaExecutorServiceTest;
 import com.dangdang.ddframe.job.util.config.ShardingItemParametersTest;
 import com.dangdang.ddframe.job.util.config.ShardingItemsTest;
 import com.dangdang.ddframe.job.util.digest.EncryptionTest;
@@ -35,6 +37,8 @@ import org.junit.runners.Suite.SuiteClasses;
 @RunWith(Suite.class)
 @SuiteClasses({
         ExecutorServiceObjectTest.class, 
+        QuotaExecutorServiceTest.class, 
+        MonitoredExecutorServiceTest.class, 
         EncryptionTest.class, 
         TimeServiceTest.class, 
         LocalHostServiceTest.class, 
@@ -0,0 +1,126 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.util.concurrent;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public final class MonitoredExecutorServiceTest {
+    
+    private final ExecutorService delegate = Executors.newFixedThreadPool(4);
+    
+    @After
+    public void tearDown() {
+        delegate.shutdownNow();
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void assertNewWithNonPositiveThreadSize() {
+        new MonitoredExecutorService(delegate, 0);
+    }
+    
+    @Test
+    public void assertActiveAndIdleThreadCount() throws InterruptedException {
+        MonitoredExecutorService executorService = new MonitoredExecutorService(delegate, 4);
+        final CountDownLatch startedLatch = new CountDownLatch(3);
+        final CountDownLatch blockLatch = new CountDownLatch(1);
+        for (int i = 0; i < 3; i++) {
+            executorService.execute(new Runnable() {
+                
+                @Override
+                public void run() {
+                    startedLatch.countDown();
+                    try {
+                        blockLatch.await();
+                    } catch (final InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+        }
+        assertTrue(startedLatch.await(5L, TimeUnit.SECONDS));
+        assertThat(executorService.getActiveThreadCount(), is(3));
+        assertThat(executorService.getIdleThreadCount(), is(1));
+        blockLatch.countDown();
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(5L, TimeUnit.SECONDS));
+        assertThat(executorService.getActiveThreadCount(), is(0));
+        assertThat(executorService.getIdleThreadCount(), is(4));
+    }
+    
+    @Test
+    public void assertIdleThreadCountIsNotNegative() throws InterruptedException {
+        MonitoredExecutorService executorService = new MonitoredExecutorService(delegate, 1);
+        final CountDownLatch startedLatch = new CountDownLatch(2);
+        final CountDownLatch blockLatch = new CountDownLatch(1);
+        for (int i = 0; i < 2; i++) {
+            executorService.execute(new Runnable() {
+                
+                @Override
+                public void run() {
+                    startedLatch.countDown();
+                    try {
+                        blockLatch.await();
+                    } catch (final InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+        }
+        assertTrue(startedLatch.await(5L, TimeUnit.SECONDS));
+        assertThat(executorService.getIdleThreadCount(), is(0));
+        blockLatch.countDown();
+    }
+    
+    @Test
+    public void assertGetAndResetPeakActiveThreadCount() throws InterruptedException {
+        MonitoredExecutorService executorService = new MonitoredExecutorService(delegate, 4);
+        final CountDownLatch startedLatch = new CountDownLatch(3);
+        final CountDownLatch blockLatch = new CountDownLatch(1);
+        for (int i = 0; i < 3; i++) {
+            executorService.execute(new Runnable() {
+                
+                @Override
+                public void run() {
+                    startedLatch.countDown();
+                    try {
+                        blockLatch.await();
+                    } catch (final InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+        }
+        assertTrue(startedLatch.await(5L, TimeUnit.SECONDS));
+        blockLatch.countDown();
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(5L, TimeUnit.SECONDS));
+        assertThat(executorService.getActiveThreadCount(), is(0));
+        assertThat(executorService.getAndResetPeakActiveThreadCount(), is(3));
+        assertThat(executorService.getAndResetPeakActiveThreadCount(), is(0));
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.util.concurrent;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public final class QuotaExecutorServiceTest {
+    
+    private final ExecutorService sharedExecutor = Executors.newFixedThreadPool(4);
+    
+    @After
+    public void tearDown() {
+        sharedExecutor.shutdownNow();
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void assertNewWithNonPositiveQuota() {
+        new QuotaExecutorService(sharedExecutor, 0);
+    }
+    
+    @Test
+    public void assertExecuteWithinQuota() throws InterruptedException {
+        QuotaExecutorService executorService = new QuotaExecutorService(sharedExecutor, 2);
+        CountDownLatch blockLatch = new CountDownLatch(1);
+        CountDownLatch finishedLatch = new CountDownLatch(3);
+        for (int i = 0; i < 3; i++) {
+            executorService.execute(new BlockingTask(blockLatch, finishedLatch));
+        }
+        assertThat(executorService.getActiveCount(), is(2));
+        assertThat(executorService.getQueueSize(), is(1));
+        blockLatch.countDown();
+        assertTrue(finishedLatch.await(5L, TimeUnit.SECONDS));
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(5L, TimeUnit.SECONDS));
+        assertThat(executorService.getActiveCount(), is(0));
+        assertThat(executorService.getQueueSize(), is(0));
+    }
+    
+    @Test
+    public void assertQuotaDoesNotStarveOtherExecutorService() throws InterruptedException {
+        QuotaExecutorService burstExecutorService = new QuotaExecutorService(sharedExecutor, 2);
+        QuotaExecutorService otherExecutorService = new QuotaExecutorService(sharedExecutor, 2);
+        CountDownLatch blockLatch = new CountDownLatch(1);
+        for (int i = 0; i < 10; i++) {
+            burstExecutorService.execute(new BlockingTask(blockLatch, new CountDownLatch(1)));
+        }
+        CountDownLatch otherLatch = new CountDownLatch(1);
+        otherExecutorService.execute(new BlockingTask(new CountDownLatch(0), otherLatch));
+        assertTrue(otherLatch.await(5L, TimeUnit.SECONDS));
+        assertThat(burstExecutorService.getQueueSize(), is(8));
+        blockLatch.countDown();
+    }
+    
+    @Test
+    public void assertShutdownNow() {
+        QuotaExecutorService executorService = new QuotaExecutorService(sharedExecutor, 1);
+        CountDownLatch blockLatch = new CountDownLatch(1);
+        executorService.execute(new BlockingTask(blockLatch, new CountDownLatch(1)));
+        executorService.execute(new BlockingTask(blockLatch, new CountDownLatch(1)));
+        assertThat(executorService.shutdownNow().size(), is(1));
+        assertTrue(executorService.isShutdown());
+        assertFalse(executorService.isTerminated());
+        blockLatch.countDown();
+    }
+    
+    @Test(expected = RejectedExecutionException.class)
+    public void assertExecuteAfterShutdown() {
+        QuotaExecutorService executorService = new QuotaExecutorService(sharedExecutor, 1);
+        executorService.shutdown();
+        assertTrue(executorService.isTerminated());
+        executorService.execute(new BlockingTask(new CountDownLatch(0), new CountDownLatch(1)));
+    }
+    
+    @RequiredArgsConstructor
+    private static final class BlockingTask implements Runnable {
+        
+        private final CountDownLatch blockLatch;
+        
+        private final CountDownLatch finishedLatch;
+        
+        @Override
+        public void run() {
+            try {
+                blockLatch.await(5L, TimeUnit.SECONDS);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            finishedLatch.countDown();
+        }
+    }
+}
@@ -24,7 +24,7 @@ import com.dangdang.ddframe.job.event.JobEventBus;
 import com.dangdang.ddframe.job.event.JobEventConfiguration;
 import com.dangdang.ddframe.job.exception.JobConfigurationException;
 import com.dangdang.ddframe.job.exception.JobSystemException;
-import com.dangdang.ddframe.job.executor.JobExecutorFactory;
+import com.dangdang.ddframe.job.executor.JobExecutorHolder;
 import com.dangdang.ddframe.job.executor.JobFacade;
 import com.dangdang.ddframe.job.lite.api.listener.ElasticJobListener;
 import com.dangdang.ddframe.job.lite.config.LiteJobConfiguration;
@@ -32,6 +32,8 @@ import com.dangdang.ddframe.job.lite.internal.executor.JobExecutor;
 import com.dangdang.ddframe.job.lite.internal.schedule.JobRegistry;
 import com.dangdang.ddframe.job.lite.internal.schedule.JobScheduleController;
 import com.dangdang.ddframe.job.lite.internal.schedule.LiteJobFacade;
+import com.dangdang.ddframe.job.lite.internal.schedule.QuartzJobScheduleController;
+import com.dangdang.ddframe.job.lite.internal.schedule.TimingWheelJobScheduleController;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
 import com.google.common.base.Optional;
 import lombok.Setter;
@@ -56,9 +58,15 @@ import java.util.Properties;
  */
 public class JobScheduler {
     
+    /**
+     * 作业实例在作业数据中的键.
+     * 
+     * @deprecated 作业实例与作业门面合并为{@code JobExecutorHolder}, 以{@link #JOB_EXECUTOR_HOLDER_DATA_MAP_KEY}保存, 此键仅为兼容保留
+     */
+    @Deprecated
     public static final String ELASTIC_JOB_DATA_MAP_KEY = "elasticJob";
     
-    private static final String JOB_FACADE_DATA_MAP_KEY = "jobFacade";
+    public static final String JOB_EXECUTOR_HOLDER_DATA_MAP_KEY = "jobExecutorHolder";
     
     private final String jobName;
     
@@ -89,25 +97,40 @@ public class JobScheduler {
      */
     public void init() {
         jobExecutor.init();
-        JobTypeConfiguration jobTypeConfig = jobExecutor.getSchedulerFacade().loadJobConfiguration().getTypeConfig();
-        JobScheduleController jobScheduleController = new JobScheduleController(
-                createScheduler(jobTypeConfig.getCoreConfig().isMisfire()), createJobDetail(jobTypeConfig.getJobClass()), jobExecutor.getSchedulerFacade(), jobName);
+        LiteJobConfiguration liteJobConfig = jobExecutor.getSchedulerFacade().loadJobConfiguration();
+        JobTypeConfiguration jobTypeConfig = liteJobConfig.getTypeConfig();
+        ElasticJob elasticJob = createElasticJob(jobTypeConfig.getJobClass());
+        JobScheduleController jobScheduleController;
+        if (liteJobConfig.isSharedScheduler()) {
+            jobScheduleController = new TimingWheelJobScheduleController(elasticJob, jobFacade, jobExecutor.getSchedulerFacade(), jobName);
+        } else {
+            jobScheduleController = new QuartzJobScheduleController(
+                    createScheduler(jobTypeConfig.getCoreConfig().isMisfire()), createJobDetail(elasticJob), jobExecutor.getSchedulerFacade(), jobName);
+        }
         jobScheduleController.scheduleJob(jobTypeConfig.getCoreConfig().getCron());
         jobRegistry.addJobScheduleController(jobName, jobScheduleController);
     }
     
-    private JobDetail createJobDetail(final String jobClass) {
-        JobDetail result = JobBuilder.newJob(LiteJob.class).withIdentity(jobName).build();
-        result.getJobDataMap().put(JOB_FACADE_DATA_MAP_KEY, jobFacade);
+    private ElasticJob createElasticJob(final String jobClass) {
         Optional<ElasticJob> elasticJobInstance = createElasticJobInstance();
         if (elasticJobInstance.isPresent()) {
-            result.getJobDataMap().put(ELASTIC_JOB_DATA_MAP_KEY, elasticJobInstance.get());
-        } else if (!jobClass.equals(ScriptJob.class.getCanonicalName())) {
-            try {
-                result.getJobDataMap().put(ELASTIC_JOB_DATA_MAP_KEY, Class.forName(jobClass).newInstance());
-            } catch (final ReflectiveOperationException ex) {
-                throw new JobConfigurationException("Elastic-Job: Job class '%s' can not initialize.", jobClass);
-            }
+            return elasticJobInstance.get();
+        }
+        if (jobClass.equals(ScriptJob.class.getCanonicalName())) {
+            return null;
+        }
+        try {
+            return (ElasticJob) Class.forName(jobClass).newInstance();
+        } catch (final ReflectiveOperationException ex) {
+            throw new JobConfigurationException("Elastic-Job: Job class '%s' can not initialize.", jobClass);
+        }
+    }
+    
+    private JobDetail createJobDetail(final ElasticJob elasticJob) {
+        JobDetail result = JobBuilder.newJob(LiteJob.class).withIdentity(jobName).build();
+        result.getJobDataMap().put(JOB_EXECUTOR_HOLDER_DATA_MAP_KEY, new JobExecutorHolder(elasticJob, jobFacade));
+        if (null != elasticJob) {
+            result.getJobDataMap().put(ELASTIC_JOB_DATA_MAP_KEY, elasticJob);
         }
         return result;
     }
@@ -157,14 +180,11 @@ public class JobScheduler {
     public static final class LiteJob implements Job {
         
         @Setter
-        private ElasticJob elasticJob;
-        
-        @Setter
-        private JobFacade jobFacade;
+        private JobExecutorHolder jobExecutorHolder;
         
         @Override
         public void execute(final JobExecutionContext context) throws JobExecutionException {
-            JobExecutorFactory.getJobExecutor(elasticJob, jobFacade).execute();
+            jobExecutorHolder.getJobExecutor().execute();
         }
     }
 }
@@ -17,8 +17,12 @@
 
 package com.dangdang.ddframe.job.lite.api.strategy;
 
+import lombok.AllArgsConstructor;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 /**
  * 作业分片策略选项.
@@ -26,7 +30,7 @@ import lombok.RequiredArgsConstructor;
  * @author zhangliang
  */
 @Getter
-@RequiredArgsConstructor
+@AllArgsConstructor
 public final class JobShardingStrategyOption {
     
     /**
@@ -38,4 +42,37 @@ public final class JobShardingStrategyOption {
      * 作业分片总数.
      */
     private final int shardingTotalCount;
+    
+    /**
+     * 上次分片结果.
+     * 
+     * <p>作业服务器和分片项的对应关系, 首次分片时为空.</p>
+     */
+    private final Map<String, List<Integer>> previousShardingResult;
+    
+    /**
+     * 作业服务器权重.
+     * 
+     * <p>作业服务器和空闲处理能力的对应关系, 未上报处理能力的服务器不在其中.</p>
+     */
+    private final Map<String, Double> serverWeights;
+    
+    /**
+     * 分片项预估执行耗时.
+     * 
+     * <p>分片项和执行耗时毫秒数的对应关系, 从未执行完成的分片项不在其中.</p>
+     */
+    private final Map<Integer, Long> itemDurations;
+    
+    public JobShardingStrategyOption(final String jobName, final int shardingTotalCount) {
+        this(jobName, shardingTotalCount, Collections.<String, List<Integer>>emptyMap());
+    }
+    
+    public JobShardingStrategyOption(final String jobName, final int shardingTotalCount, final Map<String, List<Integer>> previousShardingResult) {
+        this(jobName, shardingTotalCount, previousShardingResult, Collections.<String, Double>emptyMap());
+    }
+    
+    public JobShardingStrategyOption(final String jobName, final int shardingTotalCount, final Map<String, List<Integer>> previousShardingResult, final Map<String, Double> serverWeights) {
+        this(jobName, shardingTotalCount, previousShardingResult, serverWeights, Collections.<Integer, Long>emptyMap());
+    }
 }
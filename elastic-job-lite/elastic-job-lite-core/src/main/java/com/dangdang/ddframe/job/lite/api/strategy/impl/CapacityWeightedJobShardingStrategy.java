@@ -0,0 +1,126 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.api.strategy.impl;
+
+import com.dangdang.ddframe.job.lite.api.strategy.JobShardingStrategy;
+import com.dangdang.ddframe.job.lite.api.strategy.JobShardingStrategyOption;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基于服务器空闲处理能力加权的分片策略.
+ * 
+ * <p>
+ * 每台服务器分到的分片数量与其空闲处理能力成正比, 未上报处理能力的服务器按已上报服务器的平均值计算, 均未上报时等同于平均分配.
+ * 如果上次分片结果覆盖全部分片项, 且每台服务器的分片数量与目标数量的偏差均不超过目标数量的20%(至少为1), 则保持上次分片结果不变, 避免负载的小幅波动导致分片迁移.
+ * 否则优先保留服务器上次分到的分片项, 仅迁移超出目标数量的分片项.
+ * 如:
+ * 1. 如果3台服务器的空闲处理能力为 1=4, 2=4, 3=8, 分成8片, 则每台服务器分到的分片是: 1=[0,1], 2=[2,3], 3=[4,5,6,7].
+ * </p>
+ * 
+ * @author zhangliang
+ */
+public final class CapacityWeightedJobShardingStrategy implements JobShardingStrategy {
+    
+    private static final double HYSTERESIS_RATIO = 0.2D;
+    
+    @Override
+    public Map<String, List<Integer>> sharding(final List<String> serversList, final JobShardingStrategyOption option) {
+        if (serversList.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        int shardingTotalCount = option.getShardingTotalCount();
+        StickyShardingAllocator allocator = new StickyShardingAllocator(serversList, option.getPreviousShardingResult(), shardingTotalCount);
+        int[] targets = getTargets(getWeights(serversList, option.getServerWeights()), shardingTotalCount);
+        return allocator.allocate(isWithinHysteresis(allocator, targets, shardingTotalCount) ? getRetainedCounts(allocator, serversList.size()) : targets);
+    }
+    
+    private double[] getWeights(final List<String> serversList, final Map<String, Double> serverWeights) {
+        double[] result = new double[serversList.size()];
+        double reportedWeightSum = 0D;
+        int reportedCount = 0;
+        for (int i = 0; i < serversList.size(); i++) {
+            Double weight = serverWeights.get(serversList.get(i));
+            if (null != weight && weight > 0) {
+                result[i] = weight;
+                reportedWeightSum += weight;
+                reportedCount++;
+            }
+        }
+        double defaultWeight = 0 == reportedCount ? 1D : reportedWeightSum / reportedCount;
+        for (int i = 0; i < result.length; i++) {
+            if (0D == result[i]) {
+                result[i] = defaultWeight;
+            }
+        }
+        return result;
+    }
+    
+    private int[] getTargets(final double[] weights, final int shardingTotalCount) {
+        double weightSum = 0D;
+        for (double each : weights) {
+            weightSum += each;
+        }
+        int[] result = new int[weights.length];
+        final double[] remainders = new double[weights.length];
+        int assignedCount = 0;
+        List<Integer> serverIndexes = new ArrayList<>(weights.length);
+        for (int i = 0; i < weights.length; i++) {
+            double exact = shardingTotalCount * weights[i] / weightSum;
+            result[i] = (int) exact;
+            remainders[i] = exact - result[i];
+            assignedCount += result[i];
+            serverIndexes.add(i);
+        }
+        Collections.sort(serverIndexes, new Comparator<Integer>() {
+            
+            @Override
+            public int compare(final Integer o1, final Integer o2) {
+                return Double.compare(remainders[o2], remainders[o1]);
+            }
+        });
+        for (int i = 0; i < shardingTotalCount - assignedCount; i++) {
+            result[serverIndexes.get(i % weights.length)]++;
+        }
+        return result;
+    }
+    
+    private boolean isWithinHysteresis(final StickyShardingAllocator allocator, final int[] targets, final int shardingTotalCount) {
+        int retainedCount = 0;
+        for (int i = 0; i < targets.length; i++) {
+            int retained = allocator.getRetainedCount(i);
+            if (Math.abs(retained - targets[i]) > Math.max(1, (int) (targets[i] * HYSTERESIS_RATIO))) {
+                return false;
+            }
+            retainedCount += retained;
+        }
+        return retainedCount == shardingTotalCount;
+    }
+    
+    private int[] getRetainedCounts(final StickyShardingAllocator allocator, final int serverCount) {
+        int[] result = new int[serverCount];
+        for (int i = 0; i < serverCount; i++) {
+            result[i] = allocator.getRetainedCount(i);
+        }
+        return result;
+    }
+}
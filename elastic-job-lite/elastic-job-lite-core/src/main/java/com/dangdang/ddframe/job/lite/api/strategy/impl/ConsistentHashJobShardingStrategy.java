@@ -0,0 +1,110 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.api.strategy.impl;
+
+import com.dangdang.ddframe.job.lite.api.strategy.JobShardingStrategy;
+import com.dangdang.ddframe.job.lite.api.strategy.JobShardingStrategyOption;
+import com.google.common.base.Charsets;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基于有界负载一致性哈希算法的分片策略.
+ * 
+ * <p>
+ * 每台服务器在哈希环上映射多个虚拟节点, 分片项按哈希值顺时针分配到第一台未满载的服务器.
+ * 每台服务器最多分到 ceil(分片总数 * (1 + 负载系数) / 服务器数量) 个分片, 避免分配倾斜.
+ * 服务器上下线时只有约1/N的分片需要迁移, 适用于分片较多且服务器频繁变动的场景.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+public final class ConsistentHashJobShardingStrategy implements JobShardingStrategy {
+    
+    private static final int VIRTUAL_NODE_COUNT = 160;
+    
+    private static final double LOAD_FACTOR = 0.25D;
+    
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_32();
+    
+    @Override
+    public Map<String, List<Integer>> sharding(final List<String> serversList, final JobShardingStrategyOption option) {
+        if (serversList.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        int shardingTotalCount = option.getShardingTotalCount();
+        long[] ring = createRing(serversList);
+        int capacity = (int) Math.ceil(shardingTotalCount * (1 + LOAD_FACTOR) / serversList.size());
+        int[] loads = new int[serversList.size()];
+        List<List<Integer>> shardingItems = new ArrayList<>(serversList.size());
+        for (int i = 0; i < serversList.size(); i++) {
+            shardingItems.add(new ArrayList<Integer>(capacity));
+        }
+        for (int i = 0; i < shardingTotalCount; i++) {
+            int serverIndex = locate(ring, hash(option.getJobName() + "-" + i), loads, capacity);
+            loads[serverIndex]++;
+            shardingItems.get(serverIndex).add(i);
+        }
+        Map<String, List<Integer>> result = new LinkedHashMap<>(serversList.size());
+        for (int i = 0; i < serversList.size(); i++) {
+            result.put(serversList.get(i), shardingItems.get(i));
+        }
+        return result;
+    }
+    
+    private long[] createRing(final List<String> serversList) {
+        long[] result = new long[serversList.size() * VIRTUAL_NODE_COUNT];
+        int index = 0;
+        for (int i = 0; i < serversList.size(); i++) {
+            for (int j = 0; j < VIRTUAL_NODE_COUNT; j++) {
+                result[index++] = toRingPoint(hash(serversList.get(i) + "#" + j), i);
+            }
+        }
+        Arrays.sort(result);
+        return result;
+    }
+    
+    private int locate(final long[] ring, final int hash, final int[] loads, final int capacity) {
+        int position = Arrays.binarySearch(ring, toRingPoint(hash, 0));
+        if (position < 0) {
+            position = -position - 1;
+        }
+        while (true) {
+            int serverIndex = (int) ring[position % ring.length];
+            if (loads[serverIndex] < capacity) {
+                return serverIndex;
+            }
+            position++;
+        }
+    }
+    
+    private long toRingPoint(final int hash, final int serverIndex) {
+        return (long) hash << 32 | serverIndex;
+    }
+    
+    private int hash(final String key) {
+        return HASH_FUNCTION.hashString(key, Charsets.UTF_8).asInt();
+    }
+}
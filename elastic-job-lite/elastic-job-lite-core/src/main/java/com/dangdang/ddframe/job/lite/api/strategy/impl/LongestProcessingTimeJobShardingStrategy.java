@@ -0,0 +1,109 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.api.strategy.impl;
+
+import com.dangdang.ddframe.job.lite.api.strategy.JobShardingStrategy;
+import com.dangdang.ddframe.job.lite.api.strategy.JobShardingStrategyOption;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.PriorityQueue;
+
+/**
+ * 基于最长处理时间优先算法的分片策略.
+ * 
+ * <p>
+ * 按分片项的预估执行耗时从长到短排序, 依次分配给当前预估总耗时最短的服务器, 使最慢服务器的预估耗时尽量短.
+ * 从未执行完成的分片项按已知分片项的平均耗时估算, 均未执行过时等同于按序号轮流分配.
+ * 如:
+ * 1. 如果有2台服务器, 分成4片, 耗时为 0=40, 1=10, 2=10, 3=20, 则每台服务器分到的分片是: 1=[0], 2=[1,2,3].
+ * </p>
+ * 
+ * @author zhangliang
+ */
+public final class LongestProcessingTimeJobShardingStrategy implements JobShardingStrategy {
+    
+    @Override
+    public Map<String, List<Integer>> sharding(final List<String> serversList, final JobShardingStrategyOption option) {
+        if (serversList.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        final long[] durations = getDurations(option.getItemDurations(), option.getShardingTotalCount());
+        List<Integer> items = new ArrayList<>(durations.length);
+        for (int i = 0; i < durations.length; i++) {
+            items.add(i);
+        }
+        Collections.sort(items, new Comparator<Integer>() {
+            
+            @Override
+            public int compare(final Integer o1, final Integer o2) {
+                int result = Long.compare(durations[o2], durations[o1]);
+                return 0 == result ? Integer.compare(o1, o2) : result;
+            }
+        });
+        final long[] loads = new long[serversList.size()];
+        PriorityQueue<Integer> serverIndexes = new PriorityQueue<>(serversList.size(), new Comparator<Integer>() {
+            
+            @Override
+            public int compare(final Integer o1, final Integer o2) {
+                int result = Long.compare(loads[o1], loads[o2]);
+                return 0 == result ? Integer.compare(o1, o2) : result;
+            }
+        });
+        List<List<Integer>> shardingItems = new ArrayList<>(serversList.size());
+        for (int i = 0; i < serversList.size(); i++) {
+            serverIndexes.add(i);
+            shardingItems.add(new ArrayList<Integer>());
+        }
+        for (int each : items) {
+            int serverIndex = serverIndexes.poll();
+            loads[serverIndex] += durations[each];
+            shardingItems.get(serverIndex).add(each);
+            serverIndexes.add(serverIndex);
+        }
+        Map<String, List<Integer>> result = new LinkedHashMap<>(serversList.size());
+        for (int i = 0; i < serversList.size(); i++) {
+            Collections.sort(shardingItems.get(i));
+            result.put(serversList.get(i), shardingItems.get(i));
+        }
+        return result;
+    }
+    
+    private long[] getDurations(final Map<Integer, Long> itemDurations, final int shardingTotalCount) {
+        long knownDurationSum = 0L;
+        int knownCount = 0;
+        for (Entry<Integer, Long> entry : itemDurations.entrySet()) {
+            if (entry.getKey() < shardingTotalCount) {
+                knownDurationSum += entry.getValue();
+                knownCount++;
+            }
+        }
+        long defaultDuration = 0 == knownCount ? 1L : Math.max(1L, knownDurationSum / knownCount);
+        long[] result = new long[shardingTotalCount];
+        for (int i = 0; i < shardingTotalCount; i++) {
+            Long duration = itemDurations.get(i);
+            result[i] = null == duration ? defaultDuration : Math.max(1L, duration);
+        }
+        return result;
+    }
+}
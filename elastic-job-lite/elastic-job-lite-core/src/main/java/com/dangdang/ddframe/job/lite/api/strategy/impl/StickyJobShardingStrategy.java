@@ -0,0 +1,72 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.api.strategy.impl;
+
+import com.dangdang.ddframe.job.lite.api.strategy.JobShardingStrategy;
+import com.dangdang.ddframe.job.lite.api.strategy.JobShardingStrategyOption;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基于保留上次分片结果的粘性分片策略.
+ * 
+ * <p>
+ * 每台服务器分到的分片数量与平均分配算法一致, 但优先保留服务器上次分到的分片项,
+ * 仅迁移下线服务器的分片项、超出平均数量的分片项以及新增的分片项.
+ * 如:
+ * 1. 如果3台服务器上次分片为: 1=[0,1,2], 2=[3,4,5], 3=[6,7,8], 服务器3下线, 则分片为: 1=[0,1,2,6,7], 2=[3,4,5,8].
+ * 2. 如果2台服务器上次分片为: 1=[0,1,2], 2=[3,4,5], 新增服务器3, 则分片为: 1=[0,1], 2=[3,4], 3=[2,5].
+ * </p>
+ * 
+ * @author zhangliang
+ */
+public final class StickyJobShardingStrategy implements JobShardingStrategy {
+    
+    @Override
+    public Map<String, List<Integer>> sharding(final List<String> serversList, final JobShardingStrategyOption option) {
+        if (serversList.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        StickyShardingAllocator allocator = new StickyShardingAllocator(serversList, option.getPreviousShardingResult(), option.getShardingTotalCount());
+        return allocator.allocate(getQuotas(allocator, serversList.size(), option.getShardingTotalCount()));
+    }
+    
+    private int[] getQuotas(final StickyShardingAllocator allocator, final int serverCount, final int shardingTotalCount) {
+        int[] result = new int[serverCount];
+        List<Integer> serverIndexes = new ArrayList<>(serverCount);
+        for (int i = 0; i < serverCount; i++) {
+            result[i] = shardingTotalCount / serverCount;
+            serverIndexes.add(i);
+        }
+        Collections.sort(serverIndexes, new Comparator<Integer>() {
+            
+            @Override
+            public int compare(final Integer o1, final Integer o2) {
+                return allocator.getRetainedCount(o2) - allocator.getRetainedCount(o1);
+            }
+        });
+        for (int i = 0; i < shardingTotalCount % serverCount; i++) {
+            result[serverIndexes.get(i)]++;
+        }
+        return result;
+    }
+}
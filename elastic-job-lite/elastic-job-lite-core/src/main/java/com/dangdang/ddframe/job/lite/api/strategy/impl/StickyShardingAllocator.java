@@ -0,0 +1,102 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.api.strategy.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 保留上次分片结果的分片项分配器.
+ * 
+ * <p>
+ * 优先保留服务器上次分到的分片项, 超出配额的分片项与未分配的分片项按服务器顺序补足配额.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+final class StickyShardingAllocator {
+    
+    private final List<String> serversList;
+    
+    private final boolean[] assigned;
+    
+    private final List<List<Integer>> shardingItems;
+    
+    StickyShardingAllocator(final List<String> serversList, final Map<String, List<Integer>> previousShardingResult, final int shardingTotalCount) {
+        this.serversList = serversList;
+        assigned = new boolean[shardingTotalCount];
+        shardingItems = new ArrayList<>(serversList.size());
+        for (String each : serversList) {
+            List<Integer> previousItems = previousShardingResult.get(each);
+            List<Integer> retainedItems = new ArrayList<>(null == previousItems ? 0 : previousItems.size());
+            if (null != previousItems) {
+                for (int item : previousItems) {
+                    if (item >= 0 && item < shardingTotalCount && !assigned[item]) {
+                        assigned[item] = true;
+                        retainedItems.add(item);
+                    }
+                }
+            }
+            shardingItems.add(retainedItems);
+        }
+    }
+    
+    /**
+     * 获取服务器可保留的上次分片项数量.
+     * 
+     * @param serverIndex 服务器在服务器列表中的序号
+     * @return 可保留的上次分片项数量
+     */
+    int getRetainedCount(final int serverIndex) {
+        return shardingItems.get(serverIndex).size();
+    }
+    
+    /**
+     * 按配额分配分片项.
+     * 
+     * @param quotas 每台服务器的分片项配额, 总和须等于分片总数
+     * @return 分配分片的服务器和分片集合的映射
+     */
+    Map<String, List<Integer>> allocate(final int[] quotas) {
+        for (int i = 0; i < serversList.size(); i++) {
+            List<Integer> each = shardingItems.get(i);
+            while (each.size() > quotas[i]) {
+                assigned[each.remove(each.size() - 1)] = false;
+            }
+        }
+        int serverIndex = 0;
+        for (int i = 0; i < assigned.length; i++) {
+            if (assigned[i]) {
+                continue;
+            }
+            while (shardingItems.get(serverIndex).size() >= quotas[serverIndex]) {
+                serverIndex++;
+            }
+            shardingItems.get(serverIndex).add(i);
+        }
+        Map<String, List<Integer>> result = new LinkedHashMap<>(serversList.size());
+        for (int i = 0; i < serversList.size(); i++) {
+            Collections.sort(shardingItems.get(i));
+            result.put(serversList.get(i), shardingItems.get(i));
+        }
+        return result;
+    }
+}
@@ -48,6 +48,10 @@ public class LiteJobConfiguration implements JobRootConfiguration {
     
     private final boolean overwrite;
     
+    private final boolean compactExecution;
+    
+    private final boolean sharedScheduler;
+    
     /**
      * 获取作业名称.
      * 
@@ -93,6 +97,10 @@ public class LiteJobConfiguration implements JobRootConfiguration {
         
         private boolean overwrite;
         
+        private boolean compactExecution;
+        
+        private boolean sharedScheduler;
+        
         /**
          * 设置监控作业执行时状态.
          *
@@ -189,13 +197,47 @@ public class LiteJobConfiguration implements JobRootConfiguration {
             return this;
         }
         
+        /**
+         * 设置是否使用紧凑格式记录作业运行时状态.
+         * 
+         * <p>
+         * 每台作业服务器只使用一个节点记录分片项的运行, 完成和错过执行状态以及时间戳, 适用于分片总数很大的作业.
+         * 应在作业首次启动前设置.
+         * </p>
+         *
+         * @param compactExecution 是否使用紧凑格式记录作业运行时状态
+         *
+         * @return 作业配置构建器
+         */
+        public Builder compactExecution(final boolean compactExecution) {
+            this.compactExecution = compactExecution;
+            return this;
+        }
+        
+        /**
+         * 设置是否使用共享的调度器.
+         * 
+         * <p>
+         * 同一JVM中的作业共享一个时间轮调度器和有界的作业触发线程池, 而不是为每个作业创建独立的Quartz调度器, 适用于单个JVM中作业数量很多的场景.
+         * 作业重启后生效.
+         * </p>
+         *
+         * @param sharedScheduler 是否使用共享的调度器
+         *
+         * @return 作业配置构建器
+         */
+        public Builder sharedScheduler(final boolean sharedScheduler) {
+            this.sharedScheduler = sharedScheduler;
+            return this;
+        }
+        
         /**
          * 构建作业配置对象.
          * 
          * @return 作业配置对象
          */
         public final LiteJobConfiguration build() {
-            return new LiteJobConfiguration(jobConfig, monitorExecution, maxTimeDiffSeconds, monitorPort, jobShardingStrategyClass, disabled, overwrite);
+            return new LiteJobConfiguration(jobConfig, monitorExecution, maxTimeDiffSeconds, monitorPort, jobShardingStrategyClass, disabled, overwrite, compactExecution, sharedScheduler);
         }
     }
 }
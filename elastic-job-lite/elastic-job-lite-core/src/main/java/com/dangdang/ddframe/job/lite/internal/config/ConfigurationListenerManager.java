@@ -45,6 +45,17 @@ public class ConfigurationListenerManager extends AbstractListenerManager {
     @Override
     public void start() {
         addDataListener(new CronSettingAndJobEventChangedJobListener());
+        addDataListener(new EligibilityChangedJobListener());
+    }
+    
+    class EligibilityChangedJobListener extends AbstractJobListener {
+        
+        @Override
+        protected void dataChanged(final CuratorFramework client, final TreeCacheEvent event, final String path) {
+            if (configNode.isConfigPath(path)) {
+                JobRegistry.getInstance().resetEligibleForJobRunning(jobName);
+            }
+        }
     }
     
     class CronSettingAndJobEventChangedJobListener extends AbstractJobListener {
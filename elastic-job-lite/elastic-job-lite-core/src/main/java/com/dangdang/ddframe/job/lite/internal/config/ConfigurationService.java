@@ -22,6 +22,7 @@ import com.dangdang.ddframe.job.exception.JobExecutionEnvironmentException;
 import com.dangdang.ddframe.job.lite.config.LiteJobConfiguration;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
+import com.google.common.base.Function;
 import com.google.common.base.Optional;
 
 /**
@@ -32,6 +33,14 @@ import com.google.common.base.Optional;
  */
 public class ConfigurationService {
     
+    private static final Function<String, LiteJobConfiguration> DECODER = new Function<String, LiteJobConfiguration>() {
+        
+        @Override
+        public LiteJobConfiguration apply(final String input) {
+            return LiteJobConfigurationGsonFactory.fromJson(input);
+        }
+    };
+    
     private final JobNodeStorage jobNodeStorage;
     
     public ConfigurationService(final CoordinatorRegistryCenter regCenter, final String jobName) {
@@ -41,20 +50,19 @@ public class ConfigurationService {
     /**
      * 读取作业配置.
      * 
+     * <p>从缓存读取时, 配置未变化则返回同一配置对象.</p>
+     * 
      * @param fromCache 是否从缓存中读取
      * @return 作业配置
      */
     public LiteJobConfiguration load(final boolean fromCache) {
-        String result;
         if (fromCache) {
-            result = jobNodeStorage.getJobNodeData(ConfigurationNode.ROOT);
-            if (null == result) {
-                result = jobNodeStorage.getJobNodeDataDirectly(ConfigurationNode.ROOT);
+            LiteJobConfiguration result = jobNodeStorage.getJobNodeDecodedData(ConfigurationNode.ROOT, DECODER);
+            if (null != result) {
+                return result;
             }
-        } else {
-            result = jobNodeStorage.getJobNodeDataDirectly(ConfigurationNode.ROOT);
         }
-        return LiteJobConfigurationGsonFactory.fromJson(result);
+        return LiteJobConfigurationGsonFactory.fromJson(jobNodeStorage.getJobNodeDataDirectly(ConfigurationNode.ROOT));
     }
     
     /**
@@ -64,7 +72,7 @@ public class ConfigurationService {
      */
     public void persist(final LiteJobConfiguration liteJobConfig) {
         checkConflictJob(liteJobConfig);
-        if (!jobNodeStorage.isJobNodeExisted(ConfigurationNode.ROOT) || liteJobConfig.isOverwrite()) {
+        if (!jobNodeStorage.isJobNodeExistedDirectly(ConfigurationNode.ROOT) || liteJobConfig.isOverwrite()) {
             jobNodeStorage.replaceJobNode(ConfigurationNode.ROOT, LiteJobConfigurationGsonFactory.toJson(liteJobConfig));
         }
     }
@@ -78,7 +86,7 @@ public class ConfigurationService {
     }
     
     private Optional<LiteJobConfiguration> find() {
-        if (!jobNodeStorage.isJobNodeExisted(ConfigurationNode.ROOT)) {
+        if (!jobNodeStorage.isJobNodeExistedDirectly(ConfigurationNode.ROOT)) {
             return Optional.absent();
         }
         LiteJobConfiguration result = LiteJobConfigurationGsonFactory.fromJson(jobNodeStorage.getJobNodeDataDirectly(ConfigurationNode.ROOT));
@@ -99,6 +99,12 @@ public final class LiteJobConfigurationGsonFactory {
                 case "overwrite":
                     customizedValueMap.put("overwrite", in.nextBoolean());
                     break;
+                case "compactExecution":
+                    customizedValueMap.put("compactExecution", in.nextBoolean());
+                    break;
+                case "sharedScheduler":
+                    customizedValueMap.put("sharedScheduler", in.nextBoolean());
+                    break;
                 default:
                     in.skipValue();
                     break;
@@ -126,6 +132,12 @@ public final class LiteJobConfigurationGsonFactory {
             if (customizedValueMap.containsKey("overwrite")) {
                 builder.overwrite((boolean) customizedValueMap.get("overwrite"));
             }
+            if (customizedValueMap.containsKey("compactExecution")) {
+                builder.compactExecution((boolean) customizedValueMap.get("compactExecution"));
+            }
+            if (customizedValueMap.containsKey("sharedScheduler")) {
+                builder.sharedScheduler((boolean) customizedValueMap.get("sharedScheduler"));
+            }
             return builder.build();
         }
     
@@ -137,6 +149,8 @@ public final class LiteJobConfigurationGsonFactory {
             out.name("jobShardingStrategyClass").value(value.getJobShardingStrategyClass());
             out.name("disabled").value(value.isDisabled());
             out.name("overwrite").value(value.isOverwrite());
+            out.name("compactExecution").value(value.isCompactExecution());
+            out.name("sharedScheduler").value(value.isSharedScheduler());
         }
     }
 }
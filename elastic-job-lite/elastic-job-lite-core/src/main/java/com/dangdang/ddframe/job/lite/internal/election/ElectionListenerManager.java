@@ -26,6 +26,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.recipes.cache.TreeCacheEvent;
 import org.apache.curator.framework.recipes.cache.TreeCacheEvent.Type;
+import org.apache.curator.framework.state.ConnectionState;
+import org.apache.curator.framework.state.ConnectionStateListener;
 
 /**
  * 主节点选举监听管理器.
@@ -50,7 +52,34 @@ public class ElectionListenerManager extends AbstractListenerManager {
     
     @Override
     public void start() {
+        addDataListener(new LeaderStateJobListener());
         addDataListener(new LeaderElectionJobListener());
+        addConnectionStateListener(new LeaderStateConnectionListener());
+    }
+    
+    class LeaderStateJobListener extends AbstractJobListener {
+        
+        @Override
+        protected void dataChanged(final CuratorFramework client, final TreeCacheEvent event, final String path) {
+            if (!electionNode.isLeaderHostPath(path)) {
+                return;
+            }
+            if (Type.NODE_ADDED == event.getType() || Type.NODE_UPDATED == event.getType()) {
+                leaderElectionService.updateLeaderState(new String(event.getData().getData()));
+            } else if (Type.NODE_REMOVED == event.getType()) {
+                leaderElectionService.updateLeaderState(null);
+            }
+        }
+    }
+    
+    class LeaderStateConnectionListener implements ConnectionStateListener {
+        
+        @Override
+        public void stateChanged(final CuratorFramework client, final ConnectionState newState) {
+            if (ConnectionState.SUSPENDED == newState || ConnectionState.LOST == newState || ConnectionState.RECONNECTED == newState) {
+                leaderElectionService.updateLeaderState(null);
+            }
+        }
     }
     
     class LeaderElectionJobListener extends AbstractJobListener {
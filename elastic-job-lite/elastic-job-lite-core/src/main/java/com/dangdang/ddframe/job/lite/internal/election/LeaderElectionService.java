@@ -22,7 +22,6 @@ import com.dangdang.ddframe.job.lite.internal.server.ServerService;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
 import com.dangdang.ddframe.job.lite.internal.storage.LeaderExecutionCallback;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
-import com.dangdang.ddframe.job.util.concurrent.BlockUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -34,6 +33,8 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class LeaderElectionService {
     
+    private static final long AWAIT_LEADER_TIMEOUT_MILLISECONDS = 1000L;
+    
     private final String jobName;
     
     private final ServerService serverService;
@@ -64,19 +65,53 @@ public class LeaderElectionService {
      * 判断当前节点是否是主节点.
      * 
      * <p>
+     * 主节点状态稳定时直接返回本地记录的状态, 由主节点选举监听器在主节点变化或会话状态变化时更新.
+     * 状态未知时读取注册中心确认.
      * 如果主节点正在选举中而导致取不到主节点, 则阻塞至主节点选举完成再返回.
+     * 等待主节点节点创建的事件, 超时仍无主节点则重新选举.
      * </p>
      * 
      * @return 当前节点是否是主节点
      */
     public Boolean isLeader() {
-        String serverName = JobRegistry.getInstance().getJobServerName(jobName);
+        Boolean result = JobRegistry.getInstance().getLeader(jobName);
+        if (null != result) {
+            return result;
+        }
         while (!hasLeader() && !serverService.getAvailableServers().isEmpty()) {
-            log.info("Leader node is electing, waiting for {} ms", 100);
-            BlockUtils.waitingShortTime();
-            leaderElection();
+            log.info("Leader node is electing, waiting for at most {} ms", AWAIT_LEADER_TIMEOUT_MILLISECONDS);
+            if (!jobNodeStorage.awaitJobNodeCreated(ElectionNode.LEADER_HOST, AWAIT_LEADER_TIMEOUT_MILLISECONDS)) {
+                leaderElection();
+            }
+        }
+        return checkLeader();
+    }
+    
+    private boolean checkLeader() {
+        String serverName = JobRegistry.getInstance().getJobServerName(jobName);
+        String leaderServerName = jobNodeStorage.getJobNodeData(ElectionNode.LEADER_HOST);
+        if (null == leaderServerName) {
+            return false;
+        }
+        boolean result = leaderServerName.equals(serverName);
+        JobRegistry.getInstance().setLeader(jobName, result);
+        if (!leaderServerName.equals(jobNodeStorage.getJobNodeData(ElectionNode.LEADER_HOST))) {
+            JobRegistry.getInstance().resetLeader(jobName);
+        }
+        return result;
+    }
+    
+    /**
+     * 根据主节点数据更新本地记录的主节点状态.
+     * 
+     * @param leaderServerName 主节点服务器名称, 主节点不存在时为null
+     */
+    public void updateLeaderState(final String leaderServerName) {
+        if (null == leaderServerName) {
+            JobRegistry.getInstance().resetLeader(jobName);
+        } else {
+            JobRegistry.getInstance().setLeader(jobName, leaderServerName.equals(JobRegistry.getInstance().getJobServerName(jobName)));
         }
-        return serverName.equals(jobNodeStorage.getJobNodeData(ElectionNode.LEADER_HOST));
     }
     
     /**
@@ -90,13 +125,14 @@ public class LeaderElectionService {
      * @return 是否已经有主节点
      */
     public boolean hasLeader() {
-        return jobNodeStorage.isJobNodeExisted(ElectionNode.LEADER_HOST);
+        return jobNodeStorage.isJobNodeExistedDirectly(ElectionNode.LEADER_HOST);
     }
     
     /**
      * 删除主节点供重新选举.
      */
     public void removeLeader() {
+        JobRegistry.getInstance().resetLeader(jobName);
         jobNodeStorage.removeJobNodeIfExisted(ElectionNode.LEADER_HOST);
     }
     
@@ -107,7 +143,7 @@ public class LeaderElectionService {
     
         @Override
         public void execute() {
-            if (!jobNodeStorage.isJobNodeExisted(ElectionNode.LEADER_HOST) && (isForceElect || serverService.isServerAvailable(JobRegistry.getInstance().getJobServerName(jobName)))) {
+            if (!jobNodeStorage.isJobNodeExistedDirectly(ElectionNode.LEADER_HOST) && (isForceElect || serverService.isServerAvailable(JobRegistry.getInstance().getJobServerName(jobName)))) {
                 jobNodeStorage.fillEphemeralJobNode(ElectionNode.LEADER_HOST, JobRegistry.getInstance().getJobServerName(jobName));
             }
         }
@@ -44,12 +44,15 @@ public class ExecutionContextService {
     
     private final ConfigurationService configService;
     
+    private final ExecutionStateService executionStateService;
+    
     private final String jobName;
     
     public ExecutionContextService(final CoordinatorRegistryCenter regCenter, final String jobName) {
         this.jobName = jobName;
         jobNodeStorage = new JobNodeStorage(regCenter, jobName);
         configService = new ConfigurationService(regCenter, jobName);
+        executionStateService = new ExecutionStateService(regCenter, jobName);
     }
     
     /**
@@ -60,7 +63,7 @@ public class ExecutionContextService {
      */
     public ShardingContexts getJobShardingContext(final List<Integer> shardingItems) {
         LiteJobConfiguration liteJobConfig = configService.load(false);
-        removeRunningIfMonitorExecution(liteJobConfig.isMonitorExecution(), shardingItems);
+        removeRunningIfMonitorExecution(liteJobConfig, shardingItems);
         if (shardingItems.isEmpty()) {
             return new ShardingContexts(buildTaskId(liteJobConfig, shardingItems), liteJobConfig.getJobName(), liteJobConfig.getTypeConfig().getCoreConfig().getShardingTotalCount(), 
                     liteJobConfig.getTypeConfig().getCoreConfig().getJobParameter(), Collections.<Integer, String>emptyMap());
@@ -74,13 +77,13 @@ public class ExecutionContextService {
         return Joiner.on("@-@").join(liteJobConfig.getJobName(), Joiner.on(",").join(shardingItems), "READY", JobRegistry.getInstance().getJobServerName(jobName), UUID.randomUUID().toString()); 
     }
     
-    private void removeRunningIfMonitorExecution(final boolean monitorExecution, final List<Integer> shardingItems) {
-        if (!monitorExecution) {
+    private void removeRunningIfMonitorExecution(final LiteJobConfiguration liteJobConfig, final List<Integer> shardingItems) {
+        if (!liteJobConfig.isMonitorExecution()) {
             return;
         }
         List<Integer> runningShardingItems = new ArrayList<>(shardingItems.size());
         for (int each : shardingItems) {
-            if (isRunning(each)) {
+            if (liteJobConfig.isCompactExecution() ? executionStateService.isRunning(each) : isRunning(each)) {
                 runningShardingItems.add(each);
             }
         }
@@ -46,6 +46,14 @@ public final class ExecutionNode {
     
     static final String MISFIRE = ROOT + "/%s/misfire";
     
+    static final String STATE_ROOT = "executionState";
+    
+    static final String STATE = STATE_ROOT + "/%s";
+    
+    static final String DURATION_ROOT = "executionDuration";
+    
+    static final String DURATION = DURATION_ROOT + "/%s";
+    
     static final String LEADER_ROOT = ElectionNode.ROOT + "/" + ROOT;
     
     static final String NECESSARY = LEADER_ROOT + "/necessary";
@@ -88,6 +96,24 @@ public final class ExecutionNode {
         return String.format(MISFIRE, item);
     }
     
+    static String getDurationNode(final String serverName) {
+        return String.format(DURATION, serverName);
+    }
+    
+    static String getStateNode(final String serverName) {
+        return String.format(STATE, serverName);
+    }
+    
+    /**
+     * 判断是否为作业服务器紧凑运行时状态路径.
+     * 
+     * @param path 节点路径
+     * @return 是否为作业服务器紧凑运行时状态路径
+     */
+    public boolean isStatePath(final String path) {
+        return path.startsWith(jobNodePath.getFullPath(STATE_ROOT) + "/");
+    }
+    
     /**
      * 根据运行中的分片路径获取分片项.
      * 
@@ -18,6 +18,8 @@
 package com.dangdang.ddframe.job.lite.internal.execution;
 
 import com.dangdang.ddframe.job.executor.ShardingContexts;
+import com.dangdang.ddframe.job.lite.api.strategy.impl.StickyJobShardingStrategy;
+import com.dangdang.ddframe.job.lite.config.LiteJobConfiguration;
 import com.dangdang.ddframe.job.lite.internal.config.ConfigurationService;
 import com.dangdang.ddframe.job.lite.internal.election.LeaderElectionService;
 import com.dangdang.ddframe.job.lite.internal.schedule.JobRegistry;
@@ -25,15 +27,21 @@ import com.dangdang.ddframe.job.lite.internal.schedule.JobScheduleController;
 import com.dangdang.ddframe.job.lite.internal.server.ServerService;
 import com.dangdang.ddframe.job.lite.internal.server.ServerStatus;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
+import com.dangdang.ddframe.job.reg.base.BatchOperation;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
 import com.dangdang.ddframe.job.util.concurrent.BlockUtils;
 import com.google.common.base.Function;
+import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
+import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 
 /**
  * 执行作业的服务.
@@ -41,8 +49,13 @@ import java.util.List;
  * @author zhangliang
  * @author caohao
  */
+@Slf4j
 public class ExecutionService {
     
+    private static final long AWAIT_TIMEOUT_MILLISECONDS = 1000L;
+    
+    private static final double DURATION_DECAY_FACTOR = 0.3D;
+    
     private final String jobName;
     
     private final JobNodeStorage jobNodeStorage;
@@ -53,12 +66,15 @@ public class ExecutionService {
     
     private final LeaderElectionService leaderElectionService;
     
+    private final ExecutionStateService executionStateService;
+    
     public ExecutionService(final CoordinatorRegistryCenter regCenter, final String jobName) {
         this.jobName = jobName;
         jobNodeStorage = new JobNodeStorage(regCenter, jobName);
         configService = new ConfigurationService(regCenter, jobName);
         serverService = new ServerService(regCenter, jobName);
         leaderElectionService = new LeaderElectionService(regCenter, jobName);
+        executionStateService = new ExecutionStateService(regCenter, jobName);
     }
     
     /**
@@ -67,47 +83,85 @@ public class ExecutionService {
      * @param shardingContexts 分片上下文
      */
     public void registerJobBegin(final ShardingContexts shardingContexts) {
-        if (!shardingContexts.getShardingItemParameters().isEmpty() && configService.load(true).isMonitorExecution()) {
+        if (shardingContexts.getShardingItemParameters().isEmpty()) {
+            return;
+        }
+        LiteJobConfiguration liteJobConfig = configService.load(true);
+        if (liteJobConfig.isMonitorExecution()) {
             serverService.updateServerStatus(ServerStatus.RUNNING);
+            if (liteJobConfig.isCompactExecution()) {
+                Date nextFireTime = getNextFireTime();
+                executionStateService.registerBegin(shardingContexts.getShardingItemParameters().keySet(), System.currentTimeMillis(), null == nextFireTime ? 0L : nextFireTime.getTime());
+                return;
+            }
+            List<BatchOperation> operations = new ArrayList<>(shardingContexts.getShardingItemParameters().size());
             for (int each : shardingContexts.getShardingItemParameters().keySet()) {
-                jobNodeStorage.fillEphemeralJobNode(ExecutionNode.getRunningNode(each), "");
-                jobNodeStorage.replaceJobNode(ExecutionNode.getLastBeginTimeNode(each), System.currentTimeMillis());
-                JobScheduleController jobScheduleController = JobRegistry.getInstance().getJobScheduleController(jobName);
-                if (null == jobScheduleController) {
-                    continue;
-                }
-                Date nextFireTime = jobScheduleController.getNextFireTime();
+                operations.add(BatchOperation.persistEphemeral(ExecutionNode.getRunningNode(each), ""));
+            }
+            jobNodeStorage.executeInBatch(operations);
+            long lastBeginTime = System.currentTimeMillis();
+            Date nextFireTime = getNextFireTime();
+            for (int each : shardingContexts.getShardingItemParameters().keySet()) {
+                jobNodeStorage.replaceJobNodeBehind(ExecutionNode.getLastBeginTimeNode(each), lastBeginTime);
                 if (null != nextFireTime) {
-                    jobNodeStorage.replaceJobNode(ExecutionNode.getNextFireTimeNode(each), nextFireTime.getTime());
+                    jobNodeStorage.replaceJobNodeBehind(ExecutionNode.getNextFireTimeNode(each), nextFireTime.getTime());
                 }
             }
         }
     }
     
+    private Date getNextFireTime() {
+        JobScheduleController jobScheduleController = JobRegistry.getInstance().getJobScheduleController(jobName);
+        return null == jobScheduleController ? null : jobScheduleController.getNextFireTime();
+    }
+    
     /**
      * 清理作业上次运行时信息.
-     * 只会在主节点进行.
+     * 
+     * <p>
+     * 默认由主节点清理全部分片项的完成状态, 其他作业服务器等待主节点清理完成.
+     * 使用粘性分片策略时分片项归属稳定, 各作业服务器只清理本机分片项的完成状态, 无需等待主节点;
+     * 分片总数变化时仍由主节点统一清理并修复运行时分片信息.
+     * 紧凑格式的运行时状态按作业服务器记录, 只需清理本机的完成状态.
+     * </p>
+     * 
+     * @param items 本机分片项
      */
-    public void cleanPreviousExecutionInfo() {
-        if (!jobNodeStorage.isJobNodeExisted(ExecutionNode.ROOT)) {
+    public void cleanPreviousExecutionInfo(final Collection<Integer> items) {
+        LiteJobConfiguration liteJobConfig = configService.load(true);
+        if (liteJobConfig.isCompactExecution()) {
+            executionStateService.clearCompleted();
+            return;
+        }
+        if (!jobNodeStorage.isJobNodeExistedDirectly(ExecutionNode.ROOT)) {
+            return;
+        }
+        if (StickyJobShardingStrategy.class.getCanonicalName().equals(liteJobConfig.getJobShardingStrategyClass()) && !jobNodeStorage.isJobNodeExistedDirectly(ExecutionNode.NECESSARY)) {
+            removeCompletedInfo(items);
             return;
         }
         if (leaderElectionService.isLeader()) {
             jobNodeStorage.fillEphemeralJobNode(ExecutionNode.CLEANING, "");
-            List<Integer> items = getAllItems();
-            for (int each : items) {
-                jobNodeStorage.removeJobNodeIfExisted(ExecutionNode.getCompletedNode(each));
-            }
-            if (jobNodeStorage.isJobNodeExisted(ExecutionNode.NECESSARY)) {
-                fixExecutionInfo(items);
+            List<Integer> allItems = getNodeItems();
+            removeCompletedInfo(allItems);
+            if (jobNodeStorage.isJobNodeExistedDirectly(ExecutionNode.NECESSARY)) {
+                fixExecutionInfo(allItems);
             }
             jobNodeStorage.removeJobNodeIfExisted(ExecutionNode.CLEANING);
         }
-        while (jobNodeStorage.isJobNodeExisted(ExecutionNode.CLEANING)) {
-            BlockUtils.waitingShortTime();
+        while (!jobNodeStorage.awaitJobNodeRemoved(ExecutionNode.CLEANING, AWAIT_TIMEOUT_MILLISECONDS)) {
+            log.debug("Job '{}' waiting until previous execution info cleaned.", jobName);
         }
     }
     
+    private void removeCompletedInfo(final Collection<Integer> items) {
+        List<BatchOperation> operations = new ArrayList<>(items.size());
+        for (int each : items) {
+            operations.add(BatchOperation.removeIfExisted(ExecutionNode.getCompletedNode(each)));
+        }
+        jobNodeStorage.executeInBatch(operations);
+    }
+    
     private void fixExecutionInfo(final List<Integer> items) {
         int newShardingTotalCount = configService.load(false).getTypeConfig().getCoreConfig().getShardingTotalCount();
         int currentShardingTotalCount = items.size();
@@ -126,24 +180,87 @@ public class ExecutionService {
     /**
      * 注册作业完成信息.
      * 
+     * <p>同时记录分片项执行耗时的指数衰减移动平均值, 供分片策略预估分片项耗时. 执行耗时按作业服务器汇总为一个临时节点, 随完成状态一起批量写入.</p>
+     * 
      * @param shardingContexts 分片上下文
      */
     public void registerJobCompleted(final ShardingContexts shardingContexts) {
-        if (!configService.load(true).isMonitorExecution()) {
+        LiteJobConfiguration liteJobConfig = configService.load(true);
+        if (!liteJobConfig.isMonitorExecution()) {
             return;
         }
         serverService.updateServerStatus(ServerStatus.READY);
+        if (liteJobConfig.isCompactExecution()) {
+            Map<Integer, Long> previousDurations = executionStateService.getItemDurations(liteJobConfig.getTypeConfig().getCoreConfig().getShardingTotalCount());
+            Map<Integer, Long> durations = new HashMap<>(shardingContexts.getItemDurations().size(), 1);
+            for (Entry<Integer, Long> entry : shardingContexts.getItemDurations().entrySet()) {
+                durations.put(entry.getKey(), getDecayedDuration(previousDurations.get(entry.getKey()), entry.getValue()));
+            }
+            executionStateService.registerCompleted(shardingContexts.getShardingItemParameters().keySet(), System.currentTimeMillis(), durations);
+            return;
+        }
+        List<BatchOperation> operations = new ArrayList<>(shardingContexts.getShardingItemParameters().size() * 2 + 1);
+        for (int each : shardingContexts.getShardingItemParameters().keySet()) {
+            operations.add(BatchOperation.createIfAbsent(ExecutionNode.getCompletedNode(each), ""));
+            operations.add(BatchOperation.removeIfExisted(ExecutionNode.getRunningNode(each)));
+        }
+        if (!shardingContexts.getItemDurations().isEmpty()) {
+            String durationNode = ExecutionNode.getDurationNode(JobRegistry.getInstance().getJobServerName(jobName));
+            operations.add(BatchOperation.persistEphemeral(durationNode, ExecutionStateCodec.encodeDurations(getDecayedDurations(durationNode, shardingContexts.getItemDurations()))));
+        }
+        jobNodeStorage.executeInBatch(operations);
+        long lastCompleteTime = System.currentTimeMillis();
         for (int each : shardingContexts.getShardingItemParameters().keySet()) {
-            jobNodeStorage.createJobNodeIfNeeded(ExecutionNode.getCompletedNode(each));
-            jobNodeStorage.removeJobNodeIfExisted(ExecutionNode.getRunningNode(each));
-            jobNodeStorage.replaceJobNode(ExecutionNode.getLastCompleteTimeNode(each), System.currentTimeMillis());
+            jobNodeStorage.replaceJobNodeBehind(ExecutionNode.getLastCompleteTimeNode(each), lastCompleteTime);
+        }
+    }
+    
+    private Map<Integer, Long> getDecayedDurations(final String durationNode, final Map<Integer, Long> itemDurations) {
+        Map<Integer, Long> result = ExecutionStateCodec.decodeDurations(jobNodeStorage.getJobNodeData(durationNode));
+        for (Entry<Integer, Long> entry : itemDurations.entrySet()) {
+            result.put(entry.getKey(), getDecayedDuration(result.get(entry.getKey()), entry.getValue()));
+        }
+        return result;
+    }
+    
+    private long getDecayedDuration(final Long previousDuration, final long duration) {
+        if (null == previousDuration) {
+            return duration;
+        }
+        return Math.round(previousDuration + DURATION_DECAY_FACTOR * (duration - previousDuration));
+    }
+    
+    /**
+     * 获取分片项的预估执行耗时.
+     * 
+     * <p>执行耗时按作业服务器汇总记录, 多台作业服务器记录了同一分片项时取较大值.</p>
+     * 
+     * @param shardingTotalCount 分片总数
+     * @return 分片项和预估执行耗时毫秒数的Map, 不包含从未执行完成的分片项
+     */
+    public Map<Integer, Long> getItemDurations(final int shardingTotalCount) {
+        if (configService.load(true).isCompactExecution()) {
+            return executionStateService.getItemDurations(shardingTotalCount);
         }
+        Map<Integer, Long> result = new HashMap<>(shardingTotalCount, 1);
+        for (String each : jobNodeStorage.getJobNodeChildrenKeys(ExecutionNode.DURATION_ROOT)) {
+            for (Entry<Integer, Long> entry : ExecutionStateCodec.decodeDurations(jobNodeStorage.getJobNodeData(ExecutionNode.getDurationNode(each))).entrySet()) {
+                Long current = result.get(entry.getKey());
+                if (entry.getKey() < shardingTotalCount && (null == current || entry.getValue() > current)) {
+                    result.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        return result;
     }
     
     /**
      * 设置修复运行时分片信息标记的状态标志位.
      */
     public void setNeedFixExecutionInfoFlag() {
+        if (configService.load(true).isCompactExecution()) {
+            return;
+        }
         jobNodeStorage.createJobNodeIfNeeded(ExecutionNode.NECESSARY);
     }
     
@@ -157,9 +274,15 @@ public class ExecutionService {
      * @param items 需要清理的分片项列表
      */
     public void clearRunningInfo(final List<Integer> items) {
+        if (configService.load(true).isCompactExecution()) {
+            executionStateService.clearRunning(items);
+            return;
+        }
+        List<BatchOperation> operations = new ArrayList<>(items.size());
         for (int each : items) {
-            jobNodeStorage.removeJobNodeIfExisted(ExecutionNode.getRunningNode(each));
+            operations.add(BatchOperation.removeIfExisted(ExecutionNode.getRunningNode(each)));
         }
+        jobNodeStorage.executeInBatch(operations);
     }
     
     /**
@@ -182,12 +305,19 @@ public class ExecutionService {
      * @param items 需要设置错过执行的任务分片项
      */
     public void setMisfire(final Collection<Integer> items) {
-        if (!configService.load(true).isMonitorExecution()) {
+        LiteJobConfiguration liteJobConfig = configService.load(true);
+        if (!liteJobConfig.isMonitorExecution()) {
+            return;
+        }
+        if (liteJobConfig.isCompactExecution()) {
+            executionStateService.setMisfire(items);
             return;
         }
+        List<BatchOperation> operations = new ArrayList<>(items.size());
         for (int each : items) {
-            jobNodeStorage.createJobNodeIfNeeded(ExecutionNode.getMisfireNode(each));
+            operations.add(BatchOperation.createIfAbsent(ExecutionNode.getMisfireNode(each), ""));
         }
+        jobNodeStorage.executeInBatch(operations);
     }
     
     /**
@@ -197,9 +327,12 @@ public class ExecutionService {
      * @return 标记被错过执行的任务分片项
      */
     public List<Integer> getMisfiredJobItems(final Collection<Integer> items) {
+        if (configService.load(true).isCompactExecution()) {
+            return executionStateService.getMisfiredItems(items);
+        }
         List<Integer> result = new ArrayList<>(items.size());
         for (int each : items) {
-            if (jobNodeStorage.isJobNodeExisted(ExecutionNode.getMisfireNode(each))) {
+            if (jobNodeStorage.isJobNodeExistedDirectly(ExecutionNode.getMisfireNode(each))) {
                 result.add(each);
             }
         }
@@ -209,12 +342,22 @@ public class ExecutionService {
     /**
      * 清除任务被错过执行的标记.
      * 
+     * <p>
+     * 同步清除, 保证随后的错过执行检查不会再次读到已清除的标记.
+     * </p>
+     * 
      * @param items 需要清除错过执行的任务分片项
      */
     public void clearMisfire(final Collection<Integer> items) {
+        if (configService.load(true).isCompactExecution()) {
+            executionStateService.clearMisfire(items);
+            return;
+        }
+        List<BatchOperation> operations = new ArrayList<>(items.size());
         for (int each : items) {
-            jobNodeStorage.removeJobNodeIfExisted(ExecutionNode.getMisfireNode(each));
+            operations.add(BatchOperation.removeIfExisted(ExecutionNode.getMisfireNode(each)));
         }
+        jobNodeStorage.executeInBatch(operations);
     }
     
     /**
@@ -222,6 +365,8 @@ public class ExecutionService {
      */
     public void removeExecutionInfo() {
         jobNodeStorage.removeJobNodeIfExisted(ExecutionNode.ROOT);
+        jobNodeStorage.removeJobNodeIfExisted(ExecutionNode.DURATION_ROOT);
+        executionStateService.removeAllStates();
     }
     
     /**
@@ -231,7 +376,10 @@ public class ExecutionService {
      * @return 该分片是否已完成
      */
     public boolean isCompleted(final int item) {
-        return jobNodeStorage.isJobNodeExisted(ExecutionNode.getCompletedNode(item));
+        if (configService.load(true).isCompactExecution()) {
+            return executionStateService.isCompleted(item);
+        }
+        return jobNodeStorage.isJobNodeExistedDirectly(ExecutionNode.getCompletedNode(item));
     }
     
     /**
@@ -241,11 +389,18 @@ public class ExecutionService {
      * @return 分片项中是否还有执行中的作业
      */
     public boolean hasRunningItems(final Collection<Integer> items) {
-        if (!configService.load(true).isMonitorExecution()) {
+        return hasRunningItems(configService.load(true), items);
+    }
+    
+    private boolean hasRunningItems(final LiteJobConfiguration liteJobConfig, final Collection<Integer> items) {
+        if (!liteJobConfig.isMonitorExecution()) {
             return false;
         }
+        if (liteJobConfig.isCompactExecution()) {
+            return executionStateService.hasRunningItems(items);
+        }
         for (int each : items) {
-            if (jobNodeStorage.isJobNodeExisted(ExecutionNode.getRunningNode(each))) {
+            if (jobNodeStorage.isJobNodeExistedDirectly(ExecutionNode.getRunningNode(each))) {
                 return true;
             }
         }
@@ -258,11 +413,52 @@ public class ExecutionService {
      * @return 是否还有执行中的作业
      */
     public boolean hasRunningItems() {
-        return hasRunningItems(getAllItems());
+        LiteJobConfiguration liteJobConfig = configService.load(true);
+        return hasRunningItems(liteJobConfig, getAllItems(liteJobConfig));
+    }
+    
+    /**
+     * 阻塞等待执行中的作业完成.
+     * 
+     * <p>紧凑格式的运行时状态没有可等待的节点删除事件, 按短间隔轮询.</p>
+     * 
+     * @param timeoutMilliseconds 超时毫秒数
+     * @return 超时前执行中的作业是否全部完成
+     */
+    public boolean awaitRunningItemsCompleted(final long timeoutMilliseconds) {
+        long deadline = System.currentTimeMillis() + timeoutMilliseconds;
+        LiteJobConfiguration liteJobConfig = configService.load(true);
+        if (liteJobConfig.isCompactExecution()) {
+            while (executionStateService.hasRunningItems(getAllItems(liteJobConfig))) {
+                if (System.currentTimeMillis() >= deadline) {
+                    return false;
+                }
+                BlockUtils.waitingShortTime();
+            }
+            return true;
+        }
+        for (int each : getNodeItems()) {
+            if (!jobNodeStorage.awaitJobNodeRemoved(ExecutionNode.getRunningNode(each), Math.max(0L, deadline - System.currentTimeMillis()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private List<Integer> getAllItems(final LiteJobConfiguration liteJobConfig) {
+        if (!liteJobConfig.isCompactExecution()) {
+            return getNodeItems();
+        }
+        int shardingTotalCount = liteJobConfig.getTypeConfig().getCoreConfig().getShardingTotalCount();
+        List<Integer> result = new ArrayList<>(shardingTotalCount);
+        for (int i = 0; i < shardingTotalCount; i++) {
+            result.add(i);
+        }
+        return result;
     }
     
-    private List<Integer> getAllItems() {
-        return Lists.transform(jobNodeStorage.getJobNodeChildrenKeys(ExecutionNode.ROOT), new Function<String, Integer>() {
+    private List<Integer> getNodeItems() {
+        return Lists.transform(jobNodeStorage.getJobNodeChildrenKeysDirectly(ExecutionNode.ROOT), new Function<String, Integer>() {
             
             @Override
             public Integer apply(final String input) {
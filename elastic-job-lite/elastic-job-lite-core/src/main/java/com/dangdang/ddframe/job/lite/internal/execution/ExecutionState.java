@@ -0,0 +1,237 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.execution;
+
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 作业服务器的紧凑运行时状态.
+ * 
+ * <p>
+ * 以位图记录作业服务器上分片项的运行, 完成和错过执行状态, 同一批次执行的分片项共用一组时间戳.
+ * 运行时状态为不可变对象, 可在线程间共享, 修改时返回新对象.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class ExecutionState {
+    
+    private static final ExecutionState EMPTY = new ExecutionState(new BitSet(), new BitSet(), new BitSet(), 0L, 0L, 0L, Collections.<Integer, Long>emptyMap());
+    
+    @Getter(AccessLevel.NONE)
+    private final BitSet running;
+    
+    @Getter(AccessLevel.NONE)
+    private final BitSet completed;
+    
+    @Getter(AccessLevel.NONE)
+    private final BitSet misfired;
+    
+    private final long lastBeginTime;
+    
+    private final long nextFireTime;
+    
+    private final long lastCompleteTime;
+    
+    private final Map<Integer, Long> durations;
+    
+    ExecutionState(final BitSet running, final BitSet completed, final BitSet misfired, 
+                   final long lastBeginTime, final long nextFireTime, final long lastCompleteTime, final Map<Integer, Long> durations) {
+        this.running = running;
+        this.completed = completed;
+        this.misfired = misfired;
+        this.lastBeginTime = lastBeginTime;
+        this.nextFireTime = nextFireTime;
+        this.lastCompleteTime = lastCompleteTime;
+        this.durations = Collections.unmodifiableMap(new TreeMap<>(durations));
+    }
+    
+    /**
+     * 获取不包含任何分片项的初始运行时状态.
+     * 
+     * @return 初始运行时状态
+     */
+    public static ExecutionState empty() {
+        return EMPTY;
+    }
+    
+    /**
+     * 判断分片项是否运行中.
+     * 
+     * @param item 分片项
+     * @return 分片项是否运行中
+     */
+    public boolean isRunning(final int item) {
+        return running.get(item);
+    }
+    
+    /**
+     * 判断分片项是否已完成.
+     * 
+     * @param item 分片项
+     * @return 分片项是否已完成
+     */
+    public boolean isCompleted(final int item) {
+        return completed.get(item);
+    }
+    
+    /**
+     * 判断分片项是否被错过执行.
+     * 
+     * @param item 分片项
+     * @return 分片项是否被错过执行
+     */
+    public boolean isMisfired(final int item) {
+        return misfired.get(item);
+    }
+    
+    /**
+     * 获取运行中的分片项位图.
+     * 
+     * @return 运行中的分片项位图副本
+     */
+    BitSet getRunning() {
+        return (BitSet) running.clone();
+    }
+    
+    /**
+     * 获取已完成的分片项位图.
+     * 
+     * @return 已完成的分片项位图副本
+     */
+    BitSet getCompleted() {
+        return (BitSet) completed.clone();
+    }
+    
+    /**
+     * 获取被错过执行的分片项位图.
+     * 
+     * @return 被错过执行的分片项位图副本
+     */
+    BitSet getMisfired() {
+        return (BitSet) misfired.clone();
+    }
+    
+    /**
+     * 获取运行中的分片项.
+     * 
+     * @return 运行中的分片项
+     */
+    public List<Integer> getRunningItems() {
+        List<Integer> result = new ArrayList<>(running.cardinality());
+        for (int i = running.nextSetBit(0); i >= 0; i = running.nextSetBit(i + 1)) {
+            result.add(i);
+        }
+        return result;
+    }
+    
+    /**
+     * 记录分片项开始运行.
+     * 
+     * @param items 分片项
+     * @param lastBeginTime 开始运行时间
+     * @param nextFireTime 下次触发时间, 无下次触发时间则为0
+     * @return 新的运行时状态
+     */
+    public ExecutionState begin(final Collection<Integer> items, final long lastBeginTime, final long nextFireTime) {
+        return new ExecutionState(with(running, items), completed, misfired, lastBeginTime, nextFireTime, lastCompleteTime, durations);
+    }
+    
+    /**
+     * 记录分片项运行完成.
+     * 
+     * @param items 分片项
+     * @param lastCompleteTime 运行完成时间
+     * @param durations 分片项和预估执行耗时毫秒数的Map
+     * @return 新的运行时状态
+     */
+    public ExecutionState complete(final Collection<Integer> items, final long lastCompleteTime, final Map<Integer, Long> durations) {
+        Map<Integer, Long> newDurations = new TreeMap<>(this.durations);
+        newDurations.putAll(durations);
+        return new ExecutionState(without(running, items), with(completed, items), misfired, lastBeginTime, nextFireTime, lastCompleteTime, newDurations);
+    }
+    
+    /**
+     * 清除分片项的运行状态.
+     * 
+     * @param items 分片项
+     * @return 新的运行时状态
+     */
+    public ExecutionState clearRunning(final Collection<Integer> items) {
+        return new ExecutionState(without(running, items), completed, misfired, lastBeginTime, nextFireTime, lastCompleteTime, durations);
+    }
+    
+    /**
+     * 清除全部分片项的完成状态.
+     * 
+     * @return 新的运行时状态
+     */
+    public ExecutionState clearCompleted() {
+        return new ExecutionState(running, new BitSet(), misfired, lastBeginTime, nextFireTime, lastCompleteTime, durations);
+    }
+    
+    /**
+     * 设置分片项被错过执行的标记.
+     * 
+     * @param items 分片项
+     * @return 新的运行时状态
+     */
+    public ExecutionState misfire(final Collection<Integer> items) {
+        return new ExecutionState(running, completed, with(misfired, items), lastBeginTime, nextFireTime, lastCompleteTime, durations);
+    }
+    
+    /**
+     * 清除分片项被错过执行的标记.
+     * 
+     * @param items 分片项
+     * @return 新的运行时状态
+     */
+    public ExecutionState clearMisfire(final Collection<Integer> items) {
+        return new ExecutionState(running, completed, without(misfired, items), lastBeginTime, nextFireTime, lastCompleteTime, durations);
+    }
+    
+    private static BitSet with(final BitSet bitSet, final Collection<Integer> items) {
+        BitSet result = (BitSet) bitSet.clone();
+        for (int each : items) {
+            result.set(each);
+        }
+        return result;
+    }
+    
+    private static BitSet without(final BitSet bitSet, final Collection<Integer> items) {
+        BitSet result = (BitSet) bitSet.clone();
+        for (int each : items) {
+            result.clear(each);
+        }
+        return result;
+    }
+}
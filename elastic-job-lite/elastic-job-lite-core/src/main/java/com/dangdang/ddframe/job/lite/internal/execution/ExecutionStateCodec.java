@@ -0,0 +1,197 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.execution;
+
+import com.google.common.base.Strings;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * 作业服务器紧凑运行时状态的编解码工具类.
+ * 
+ * <p>
+ * 每行为一项状态, 位图中连续的分片项压缩为区间, 未知的状态项在解码时忽略, 如:
+ * </p>
+ * 
+ * <pre>
+ * running=0-4,9
+ * completed=5-8
+ * misfire=
+ * lastBeginTime=1490000000000
+ * nextFireTime=1490000060000
+ * lastCompleteTime=1490000001000
+ * duration=0:120,1:135
+ * </pre>
+ * 
+ * @author zhangliang
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ExecutionStateCodec {
+    
+    private static final char LINE_SEPARATOR = '\n';
+    
+    private static final char KEY_SEPARATOR = '=';
+    
+    private static final char ITEM_SEPARATOR = ',';
+    
+    private static final char RANGE_SEPARATOR = '-';
+    
+    private static final char DURATION_SEPARATOR = ':';
+    
+    private static final String RUNNING = "running";
+    
+    private static final String COMPLETED = "completed";
+    
+    private static final String MISFIRE = "misfire";
+    
+    private static final String LAST_BEGIN_TIME = "lastBeginTime";
+    
+    private static final String NEXT_FIRE_TIME = "nextFireTime";
+    
+    private static final String LAST_COMPLETE_TIME = "lastCompleteTime";
+    
+    private static final String DURATION = "duration";
+    
+    /**
+     * 将运行时状态编码为字符串.
+     * 
+     * @param executionState 运行时状态
+     * @return 运行时状态字符串
+     */
+    public static String encode(final ExecutionState executionState) {
+        StringBuilder result = new StringBuilder();
+        appendBitSet(result, RUNNING, executionState.getRunning());
+        appendBitSet(result, COMPLETED, executionState.getCompleted());
+        appendBitSet(result, MISFIRE, executionState.getMisfired());
+        appendKey(result, LAST_BEGIN_TIME).append(executionState.getLastBeginTime());
+        appendKey(result, NEXT_FIRE_TIME).append(executionState.getNextFireTime());
+        appendKey(result, LAST_COMPLETE_TIME).append(executionState.getLastCompleteTime());
+        appendKey(result, DURATION);
+        appendDurations(result, executionState.getDurations());
+        return result.toString();
+    }
+    
+    /**
+     * 将分片项执行耗时编码为字符串.
+     * 
+     * @param durations 分片项和执行耗时毫秒数的Map
+     * @return 分片项执行耗时字符串
+     */
+    public static String encodeDurations(final Map<Integer, Long> durations) {
+        return appendDurations(new StringBuilder(), durations).toString();
+    }
+    
+    private static StringBuilder appendDurations(final StringBuilder result, final Map<Integer, Long> durations) {
+        boolean first = true;
+        for (Entry<Integer, Long> entry : durations.entrySet()) {
+            if (!first) {
+                result.append(ITEM_SEPARATOR);
+            }
+            first = false;
+            result.append(entry.getKey()).append(DURATION_SEPARATOR).append(entry.getValue());
+        }
+        return result;
+    }
+    
+    private static StringBuilder appendKey(final StringBuilder result, final String key) {
+        if (0 != result.length()) {
+            result.append(LINE_SEPARATOR);
+        }
+        return result.append(key).append(KEY_SEPARATOR);
+    }
+    
+    private static void appendBitSet(final StringBuilder result, final String key, final BitSet bitSet) {
+        appendKey(result, key);
+        int start = bitSet.nextSetBit(0);
+        while (start >= 0) {
+            int end = bitSet.nextClearBit(start) - 1;
+            result.append(start);
+            if (end != start) {
+                result.append(RANGE_SEPARATOR).append(end);
+            }
+            start = bitSet.nextSetBit(end + 1);
+            if (start >= 0) {
+                result.append(ITEM_SEPARATOR);
+            }
+        }
+    }
+    
+    /**
+     * 将字符串解码为运行时状态.
+     * 
+     * @param executionState 运行时状态字符串
+     * @return 运行时状态, 字符串为空则返回初始运行时状态
+     */
+    public static ExecutionState decode(final String executionState) {
+        if (Strings.isNullOrEmpty(executionState)) {
+            return ExecutionState.empty();
+        }
+        Map<String, String> values = new HashMap<>();
+        for (String each : executionState.split(String.valueOf(LINE_SEPARATOR))) {
+            int index = each.indexOf(KEY_SEPARATOR);
+            if (index > 0) {
+                values.put(each.substring(0, index), each.substring(index + 1).trim());
+            }
+        }
+        return new ExecutionState(parseBitSet(values.get(RUNNING)), parseBitSet(values.get(COMPLETED)), parseBitSet(values.get(MISFIRE)), 
+                parseLong(values.get(LAST_BEGIN_TIME)), parseLong(values.get(NEXT_FIRE_TIME)), parseLong(values.get(LAST_COMPLETE_TIME)), decodeDurations(values.get(DURATION)));
+    }
+    
+    private static BitSet parseBitSet(final String items) {
+        BitSet result = new BitSet();
+        if (Strings.isNullOrEmpty(items)) {
+            return result;
+        }
+        for (String each : items.split(String.valueOf(ITEM_SEPARATOR))) {
+            int index = each.indexOf(RANGE_SEPARATOR);
+            if (index < 0) {
+                result.set(Integer.parseInt(each));
+            } else {
+                result.set(Integer.parseInt(each.substring(0, index)), Integer.parseInt(each.substring(index + 1)) + 1);
+            }
+        }
+        return result;
+    }
+    
+    private static long parseLong(final String value) {
+        return Strings.isNullOrEmpty(value) ? 0L : Long.parseLong(value);
+    }
+    
+    /**
+     * 将字符串解码为分片项执行耗时.
+     * 
+     * @param durations 分片项执行耗时字符串
+     * @return 分片项和执行耗时毫秒数的Map, 字符串为空则返回空Map
+     */
+    public static Map<Integer, Long> decodeDurations(final String durations) {
+        Map<Integer, Long> result = new HashMap<>();
+        if (Strings.isNullOrEmpty(durations)) {
+            return result;
+        }
+        for (String each : durations.split(String.valueOf(ITEM_SEPARATOR))) {
+            int index = each.indexOf(DURATION_SEPARATOR);
+            result.put(Integer.parseInt(each.substring(0, index)), Long.parseLong(each.substring(index + 1)));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,305 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.execution;
+
+import com.dangdang.ddframe.job.lite.internal.schedule.JobRegistry;
+import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
+import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
+import com.google.common.base.Function;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * 作业紧凑运行时状态的服务.
+ * 
+ * <p>
+ * 每台作业服务器使用一个临时节点记录本机分片项的运行时状态, 作业服务器崩溃时状态随节点一起删除.
+ * 同一作业服务器的多个线程通过比较并写入的方式更新节点, 避免互相覆盖.
+ * 运行, 完成和错过执行的判断直接从注册中心读取, 避免看到缓存中刚被覆盖的状态; 预估执行耗时等统计数据使用缓存读取.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@Slf4j
+public class ExecutionStateService {
+    
+    private static final int MAX_UPDATE_ATTEMPTS = 10;
+    
+    private static final Function<String, ExecutionState> DECODER = new Function<String, ExecutionState>() {
+        
+        @Override
+        public ExecutionState apply(final String input) {
+            return ExecutionStateCodec.decode(input);
+        }
+    };
+    
+    private final String jobName;
+    
+    private final JobNodeStorage jobNodeStorage;
+    
+    public ExecutionStateService(final CoordinatorRegistryCenter regCenter, final String jobName) {
+        this.jobName = jobName;
+        jobNodeStorage = new JobNodeStorage(regCenter, jobName);
+    }
+    
+    /**
+     * 记录本机分片项开始运行.
+     * 
+     * @param items 分片项
+     * @param lastBeginTime 开始运行时间
+     * @param nextFireTime 下次触发时间, 无下次触发时间则为0
+     */
+    public void registerBegin(final Collection<Integer> items, final long lastBeginTime, final long nextFireTime) {
+        update(new Function<ExecutionState, ExecutionState>() {
+            
+            @Override
+            public ExecutionState apply(final ExecutionState input) {
+                return input.begin(items, lastBeginTime, nextFireTime);
+            }
+        });
+    }
+    
+    /**
+     * 记录本机分片项运行完成.
+     * 
+     * @param items 分片项
+     * @param lastCompleteTime 运行完成时间
+     * @param durations 分片项和预估执行耗时毫秒数的Map
+     */
+    public void registerCompleted(final Collection<Integer> items, final long lastCompleteTime, final Map<Integer, Long> durations) {
+        update(new Function<ExecutionState, ExecutionState>() {
+            
+            @Override
+            public ExecutionState apply(final ExecutionState input) {
+                return input.complete(items, lastCompleteTime, durations);
+            }
+        });
+    }
+    
+    /**
+     * 清除本机分片项的运行状态.
+     * 
+     * @param items 分片项
+     */
+    public void clearRunning(final Collection<Integer> items) {
+        update(new Function<ExecutionState, ExecutionState>() {
+            
+            @Override
+            public ExecutionState apply(final ExecutionState input) {
+                return input.clearRunning(items);
+            }
+        });
+    }
+    
+    /**
+     * 清除本机全部分片项的完成状态.
+     */
+    public void clearCompleted() {
+        update(new Function<ExecutionState, ExecutionState>() {
+            
+            @Override
+            public ExecutionState apply(final ExecutionState input) {
+                return input.clearCompleted();
+            }
+        });
+    }
+    
+    /**
+     * 设置本机分片项被错过执行的标记.
+     * 
+     * @param items 分片项
+     */
+    public void setMisfire(final Collection<Integer> items) {
+        update(new Function<ExecutionState, ExecutionState>() {
+            
+            @Override
+            public ExecutionState apply(final ExecutionState input) {
+                return input.misfire(items);
+            }
+        });
+    }
+    
+    /**
+     * 清除本机分片项被错过执行的标记.
+     * 
+     * @param items 分片项
+     */
+    public void clearMisfire(final Collection<Integer> items) {
+        update(new Function<ExecutionState, ExecutionState>() {
+            
+            @Override
+            public ExecutionState apply(final ExecutionState input) {
+                return input.clearMisfire(items);
+            }
+        });
+    }
+    
+    private void update(final Function<ExecutionState, ExecutionState> updater) {
+        String node = ExecutionNode.getStateNode(JobRegistry.getInstance().getJobServerName(jobName));
+        for (int i = 0; i < MAX_UPDATE_ATTEMPTS; i++) {
+            String currentValue = jobNodeStorage.getJobNodeDataDirectly(node);
+            String newValue = ExecutionStateCodec.encode(updater.apply(ExecutionStateCodec.decode(currentValue)));
+            if (newValue.equals(currentValue) || jobNodeStorage.fillEphemeralJobNodeIfUnchanged(node, currentValue, newValue)) {
+                return;
+            }
+        }
+        log.warn("Job '{}' update execution state failed after {} attempts.", jobName, MAX_UPDATE_ATTEMPTS);
+    }
+    
+    /**
+     * 获取本机运行时状态.
+     * 
+     * <p>直接从注册中心读取, 包含本机刚刚写入的状态.</p>
+     * 
+     * @return 本机运行时状态
+     */
+    public ExecutionState getLocalState() {
+        return getStateDirectly(JobRegistry.getInstance().getJobServerName(jobName));
+    }
+    
+    private ExecutionState getState(final String serverName) {
+        return jobNodeStorage.getJobNodeDecodedData(ExecutionNode.getStateNode(serverName), DECODER);
+    }
+    
+    private ExecutionState getStateDirectly(final String serverName) {
+        return ExecutionStateCodec.decode(jobNodeStorage.getJobNodeDataDirectly(ExecutionNode.getStateNode(serverName)));
+    }
+    
+    private List<ExecutionState> getAllStates() {
+        List<String> serverNames = jobNodeStorage.getJobNodeChildrenKeys(ExecutionNode.STATE_ROOT);
+        List<ExecutionState> result = new ArrayList<>(serverNames.size());
+        for (String each : serverNames) {
+            result.add(getState(each));
+        }
+        return result;
+    }
+    
+    private List<ExecutionState> getAllStatesDirectly() {
+        List<String> serverNames = jobNodeStorage.getJobNodeChildrenKeysDirectly(ExecutionNode.STATE_ROOT);
+        List<ExecutionState> result = new ArrayList<>(serverNames.size());
+        for (String each : serverNames) {
+            result.add(getStateDirectly(each));
+        }
+        return result;
+    }
+    
+    /**
+     * 判断分片项是否在任一作业服务器运行中.
+     * 
+     * @param item 分片项
+     * @return 分片项是否运行中
+     */
+    public boolean isRunning(final int item) {
+        for (ExecutionState each : getAllStatesDirectly()) {
+            if (each.isRunning(item)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * 判断分片项中是否有在任一作业服务器运行中的分片项.
+     * 
+     * @param items 分片项
+     * @return 是否有运行中的分片项
+     */
+    public boolean hasRunningItems(final Collection<Integer> items) {
+        for (ExecutionState each : getAllStatesDirectly()) {
+            for (int item : items) {
+                if (each.isRunning(item)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * 判断分片项是否在任一作业服务器已完成.
+     * 
+     * @param item 分片项
+     * @return 分片项是否已完成
+     */
+    public boolean isCompleted(final int item) {
+        for (ExecutionState each : getAllStatesDirectly()) {
+            if (each.isCompleted(item)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * 获取本机被错过执行的分片项.
+     * 
+     * @param items 需要获取的分片项
+     * @return 被错过执行的分片项
+     */
+    public List<Integer> getMisfiredItems(final Collection<Integer> items) {
+        ExecutionState localState = getLocalState();
+        List<Integer> result = new ArrayList<>(items.size());
+        for (int each : items) {
+            if (localState.isMisfired(each)) {
+                result.add(each);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * 获取分片项的预估执行耗时.
+     * 
+     * <p>多台作业服务器记录了同一分片项时, 优先使用最近执行该分片项的作业服务器的记录.</p>
+     * 
+     * @param shardingTotalCount 分片总数
+     * @return 分片项和预估执行耗时毫秒数的Map, 不包含从未执行完成的分片项
+     */
+    public Map<Integer, Long> getItemDurations(final int shardingTotalCount) {
+        Map<Integer, Long> result = new HashMap<>(shardingTotalCount, 1);
+        List<ExecutionState> states = getAllStates();
+        for (ExecutionState each : states) {
+            for (Entry<Integer, Long> entry : each.getDurations().entrySet()) {
+                if (entry.getKey() < shardingTotalCount && (each.isCompleted(entry.getKey()) || each.isRunning(entry.getKey()))) {
+                    result.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        for (ExecutionState each : states) {
+            for (Entry<Integer, Long> entry : each.getDurations().entrySet()) {
+                if (entry.getKey() < shardingTotalCount && !result.containsKey(entry.getKey())) {
+                    result.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * 删除全部作业服务器的运行时状态.
+     */
+    public void removeAllStates() {
+        jobNodeStorage.removeJobNodeIfExisted(ExecutionNode.STATE_ROOT);
+    }
+}
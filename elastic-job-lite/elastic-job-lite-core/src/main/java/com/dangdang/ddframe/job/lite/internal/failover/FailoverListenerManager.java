@@ -22,6 +22,7 @@ import com.dangdang.ddframe.job.lite.internal.config.ConfigurationService;
 import com.dangdang.ddframe.job.lite.internal.config.LiteJobConfigurationGsonFactory;
 import com.dangdang.ddframe.job.lite.internal.execution.ExecutionNode;
 import com.dangdang.ddframe.job.lite.internal.execution.ExecutionService;
+import com.dangdang.ddframe.job.lite.internal.execution.ExecutionStateCodec;
 import com.dangdang.ddframe.job.lite.internal.listener.AbstractJobListener;
 import com.dangdang.ddframe.job.lite.internal.listener.AbstractListenerManager;
 import com.dangdang.ddframe.job.lite.internal.sharding.ShardingService;
@@ -66,6 +67,7 @@ public class FailoverListenerManager extends AbstractListenerManager {
     public void start() {
         addDataListener(new JobCrashedJobListener());
         addDataListener(new FailoverJobCrashedJobListener());
+        addDataListener(new ExecutionStateCrashedJobListener());
         addDataListener(new FailoverSettingsChangedJobListener());
     }
     
@@ -99,6 +101,19 @@ public class FailoverListenerManager extends AbstractListenerManager {
         }
     }
     
+    class ExecutionStateCrashedJobListener extends AbstractJobListener {
+        
+        @Override
+        protected void dataChanged(final CuratorFramework client, final TreeCacheEvent event, final String path) {
+            if (!executionNode.isStatePath(path) || Type.NODE_REMOVED != event.getType() || null == event.getData().getData()) {
+                return;
+            }
+            for (int each : ExecutionStateCodec.decode(new String(event.getData().getData())).getRunningItems()) {
+                failover(each, event);
+            }
+        }
+    }
+    
     class FailoverSettingsChangedJobListener extends AbstractJobListener {
         
         @Override
@@ -17,13 +17,21 @@
 
 package com.dangdang.ddframe.job.lite.internal.failover;
 
+import com.dangdang.ddframe.job.executor.handler.ExecutorServiceHandlerRegistry;
+import com.dangdang.ddframe.job.lite.internal.execution.ExecutionContextService;
 import com.dangdang.ddframe.job.lite.internal.execution.ExecutionNode;
 import com.dangdang.ddframe.job.lite.internal.schedule.JobRegistry;
+import com.dangdang.ddframe.job.lite.internal.schedule.JobScheduleController;
 import com.dangdang.ddframe.job.lite.internal.server.ServerService;
 import com.dangdang.ddframe.job.lite.internal.sharding.ShardingService;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
 import com.dangdang.ddframe.job.lite.internal.storage.LeaderExecutionCallback;
+import com.dangdang.ddframe.job.reg.base.BatchOperation;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
+import com.dangdang.ddframe.job.reg.exception.RegException;
+import com.dangdang.ddframe.job.util.concurrent.MonitoredExecutorService;
+import com.google.common.base.Optional;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
@@ -47,11 +55,14 @@ public class FailoverService {
     
     private final ShardingService shardingService;
     
+    private final ExecutionContextService executionContextService;
+    
     public FailoverService(final CoordinatorRegistryCenter regCenter, final String jobName) {
         this.jobName = jobName;
         jobNodeStorage = new JobNodeStorage(regCenter, jobName);
         serverService = new ServerService(regCenter, jobName);
         shardingService = new ShardingService(regCenter, jobName);
+        executionContextService = new ExecutionContextService(regCenter, jobName);
     }
     
     /**
@@ -66,15 +77,30 @@ public class FailoverService {
     }
     
     private boolean isFailoverAssigned(final Integer item) {
-        return jobNodeStorage.isJobNodeExisted(FailoverNode.getExecutionFailoverNode(item));
+        return jobNodeStorage.isJobNodeExistedDirectly(FailoverNode.getExecutionFailoverNode(item));
     }
     
     /**
      * 如果需要失效转移, 则设置作业失效转移.
+     * 
+     * <p>主节点锁内只领取分片项, 释放锁之后再执行领取的分片项, 避免作业监听器和执行前的注册中心操作阻塞其他服务器领取.</p>
      */
     public void failoverIfNecessary() {
-        if (needFailover()) {
-            jobNodeStorage.executeInLeader(FailoverNode.LATCH, new FailoverLeaderExecutionCallback());
+        if (!needFailover()) {
+            return;
+        }
+        FailoverLeaderExecutionCallback callback = new FailoverLeaderExecutionCallback();
+        jobNodeStorage.executeInLeader(FailoverNode.LATCH, callback);
+        executeFailover(callback.getClaimedItems());
+    }
+    
+    private void executeFailover(final List<Integer> claimedItems) {
+        if (claimedItems.isEmpty()) {
+            return;
+        }
+        JobScheduleController jobScheduleController = JobRegistry.getInstance().getJobScheduleController(jobName);
+        if (null != jobScheduleController) {
+            jobScheduleController.executeFailover(executionContextService.getJobShardingContext(new ArrayList<>(claimedItems)));
         }
     }
     
@@ -88,9 +114,11 @@ public class FailoverService {
      * @param items 执行完毕失效转移的分片项集合
      */
     public void updateFailoverComplete(final Collection<Integer> items) {
+        List<BatchOperation> operations = new ArrayList<>(items.size());
         for (int each : items) {
-            jobNodeStorage.removeJobNodeIfExisted(FailoverNode.getExecutionFailoverNode(each));
+            operations.add(BatchOperation.removeIfExisted(FailoverNode.getExecutionFailoverNode(each)));
         }
+        jobNodeStorage.executeInBatch(operations);
     }
     
     /**
@@ -104,8 +132,7 @@ public class FailoverService {
         String serverName = JobRegistry.getInstance().getJobServerName(jobName);
         for (String each : items) {
             int item = Integer.parseInt(each);
-            String node = FailoverNode.getExecutionFailoverNode(item);
-            if (jobNodeStorage.isJobNodeExisted(node) && serverName.equals(jobNodeStorage.getJobNodeDataDirectly(node))) {
+            if (serverName.equals(jobNodeStorage.getJobNodeDataDirectly(FailoverNode.getExecutionFailoverNode(item)))) {
                 result.add(item);
             }
         }
@@ -122,7 +149,7 @@ public class FailoverService {
         List<Integer> shardingItems = shardingService.getLocalHostShardingItems();
         List<Integer> result = new ArrayList<>(shardingItems.size());
         for (int each : shardingItems) {
-            if (jobNodeStorage.isJobNodeExisted(FailoverNode.getExecutionFailoverNode(each))) {
+            if (jobNodeStorage.isJobNodeExistedDirectly(FailoverNode.getExecutionFailoverNode(each))) {
                 result.add(each);
             }
         }
@@ -133,24 +160,83 @@ public class FailoverService {
      * 删除作业失效转移信息.
      */
     public void removeFailoverInfo() {
-        for (String each : jobNodeStorage.getJobNodeChildrenKeys(ExecutionNode.ROOT)) {
-            jobNodeStorage.removeJobNodeIfExisted(FailoverNode.getExecutionFailoverNode(Integer.parseInt(each)));
+        List<String> items = jobNodeStorage.getJobNodeChildrenKeys(ExecutionNode.ROOT);
+        List<BatchOperation> operations = new ArrayList<>(items.size());
+        for (String each : items) {
+            operations.add(BatchOperation.removeIfExisted(FailoverNode.getExecutionFailoverNode(Integer.parseInt(each))));
+        }
+        jobNodeStorage.executeInBatch(operations);
+    }
+    
+    /**
+     * 获取本机一次可领取的失效转移分片项数量.
+     * 
+     * <p>按作业线程池的空闲线程数计算, 至少为1.</p>
+     * 
+     * @return 本机一次可领取的失效转移分片项数量
+     */
+    int getFailoverBatchSize() {
+        Optional<MonitoredExecutorService> executorService = ExecutorServiceHandlerRegistry.find(jobName);
+        return executorService.isPresent() ? Math.max(1, executorService.get().getIdleThreadCount()) : 1;
+    }
+    
+    private List<Integer> getCrashedItems() {
+        List<String> items = jobNodeStorage.getJobNodeChildrenKeysDirectly(FailoverNode.ITEMS_ROOT);
+        List<Integer> result = new ArrayList<>(items.size());
+        for (String each : items) {
+            result.add(Integer.parseInt(each));
         }
+        Collections.sort(result);
+        return result;
     }
     
+    /**
+     * 领取失效转移分片项的回调.
+     * 
+     * <p>
+     * 一次主节点锁内按本机空闲处理能力领取一批崩溃的分片项, 并在同一事务中写入.
+     * 事务结果不确定时以注册中心中的领取记录为准, 只执行确实由本机领取的分片项, 避免与其他服务器重复执行.
+     * 领取的分片项在释放主节点锁之后作为同一个分片上下文执行.
+     * </p>
+     */
     class FailoverLeaderExecutionCallback implements LeaderExecutionCallback {
         
+        @Getter
+        private List<Integer> claimedItems = Collections.emptyList();
+        
         @Override
         public void execute() {
             if (!needFailover()) {
                 return;
             }
-            int crashedItem = Integer.parseInt(jobNodeStorage.getJobNodeChildrenKeys(FailoverNode.ITEMS_ROOT).get(0));
-            log.debug("Failover job '{}' begin, crashed item '{}'", jobName, crashedItem);
-            jobNodeStorage.fillEphemeralJobNode(FailoverNode.getExecutionFailoverNode(crashedItem), JobRegistry.getInstance().getJobServerName(jobName));
-            jobNodeStorage.removeJobNodeIfExisted(FailoverNode.getItemsNode(crashedItem));
-            // TODO 不应使用triggerJob, 而是使用executor统一调度
-            JobRegistry.getInstance().getJobScheduleController(jobName).triggerJob();
+            List<Integer> crashedItems = getCrashedItems();
+            if (crashedItems.isEmpty()) {
+                return;
+            }
+            claimedItems = claim(new ArrayList<>(crashedItems.subList(0, Math.min(crashedItems.size(), getFailoverBatchSize()))));
+        }
+        
+        private List<Integer> claim(final List<Integer> items) {
+            log.debug("Failover job '{}' begin, crashed items '{}'", jobName, items);
+            String serverName = JobRegistry.getInstance().getJobServerName(jobName);
+            List<BatchOperation> operations = new ArrayList<>(items.size() * 2);
+            for (int each : items) {
+                operations.add(BatchOperation.persistEphemeral(FailoverNode.getExecutionFailoverNode(each), serverName));
+                operations.add(BatchOperation.removeIfExisted(FailoverNode.getItemsNode(each)));
+            }
+            try {
+                jobNodeStorage.executeInBatchStrictly(operations);
+                return items;
+            } catch (final RegException ex) {
+                log.warn("Elastic job: job '{}' claim failover items '{}' failure, only dispatch items already claimed.", jobName, items, ex);
+            }
+            List<Integer> result = new ArrayList<>(items.size());
+            for (int each : items) {
+                if (serverName.equals(jobNodeStorage.getJobNodeDataDirectly(FailoverNode.getExecutionFailoverNode(each)))) {
+                    result.add(each);
+                }
+            }
+            return result;
         }
     }
 }
@@ -19,9 +19,12 @@ package com.dangdang.ddframe.job.lite.internal.guarantee;
 
 import com.dangdang.ddframe.job.lite.internal.config.ConfigurationService;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
+import com.dangdang.ddframe.job.reg.base.BatchOperation;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 /**
  * 保证分布式任务全部开始和结束状态的服务.
@@ -45,9 +48,11 @@ public class GuaranteeService {
      * @param shardingItems 待注册的分片项
      */
     public void registerStart(final Collection<Integer> shardingItems) {
+        List<BatchOperation> operations = new ArrayList<>(shardingItems.size());
         for (int each : shardingItems) {
-            jobNodeStorage.createJobNodeIfNeeded(GuaranteeNode.getStartedNode(each));
+            operations.add(BatchOperation.createIfAbsent(GuaranteeNode.getStartedNode(each), ""));
         }
+        jobNodeStorage.executeInBatch(operations);
     }
     
     /**
@@ -56,8 +61,8 @@ public class GuaranteeService {
      * @return 是否所有的任务均启动完毕
      */
     public boolean isAllStarted() {
-        return jobNodeStorage.isJobNodeExisted(GuaranteeNode.STARTED_ROOT)
-                && configService.load(false).getTypeConfig().getCoreConfig().getShardingTotalCount() == jobNodeStorage.getJobNodeChildrenKeys(GuaranteeNode.STARTED_ROOT).size();
+        return jobNodeStorage.isJobNodeExistedDirectly(GuaranteeNode.STARTED_ROOT)
+                && configService.load(false).getTypeConfig().getCoreConfig().getShardingTotalCount() == jobNodeStorage.getJobNodeChildrenKeysDirectly(GuaranteeNode.STARTED_ROOT).size();
     }
     
     /**
@@ -73,9 +78,11 @@ public class GuaranteeService {
      * @param shardingItems 待注册的分片项
      */
     public void registerComplete(final Collection<Integer> shardingItems) {
+        List<BatchOperation> operations = new ArrayList<>(shardingItems.size());
         for (int each : shardingItems) {
-            jobNodeStorage.createJobNodeIfNeeded(GuaranteeNode.getCompletedNode(each));
+            operations.add(BatchOperation.createIfAbsent(GuaranteeNode.getCompletedNode(each), ""));
         }
+        jobNodeStorage.executeInBatch(operations);
     }
     
     /**
@@ -84,8 +91,8 @@ public class GuaranteeService {
      * @return 是否所有的任务均执行完毕
      */
     public boolean isAllCompleted() {
-        return jobNodeStorage.isJobNodeExisted(GuaranteeNode.COMPLETED_ROOT)
-                && configService.load(false).getTypeConfig().getCoreConfig().getShardingTotalCount() <= jobNodeStorage.getJobNodeChildrenKeys(GuaranteeNode.COMPLETED_ROOT).size();
+        return jobNodeStorage.isJobNodeExistedDirectly(GuaranteeNode.COMPLETED_ROOT)
+                && configService.load(false).getTypeConfig().getCoreConfig().getShardingTotalCount() <= jobNodeStorage.getJobNodeChildrenKeysDirectly(GuaranteeNode.COMPLETED_ROOT).size();
     }
     
     /**
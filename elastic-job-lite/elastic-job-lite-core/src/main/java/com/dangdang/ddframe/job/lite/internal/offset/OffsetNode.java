@@ -14,18 +14,23 @@
  * limitations under the License.
  * </p>
  */
+package com.dangdang.ddframe.job.lite.internal.offset;
 
-package com.dangdang.ddframe.job.lite.internal.sharding;
+import com.google.common.base.Joiner;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
 
-import org.junit.Test;
-
-import static org.hamcrest.CoreMatchers.is;
-import static org.junit.Assert.assertThat;
-
-public class ShardingNodeTest {
+/**
+ * 分片项处理进度节点名称的常量类.
+ * 
+ * @author zhangliang
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class OffsetNode {
+    
+    static final String ROOT = "offset";
     
-    @Test
-    public void assertGetShardingNode() {
-        assertThat(ShardingNode.getShardingNode("host0"), is("servers/host0/sharding"));
+    static String getItemNode(final int shardingItem) {
+        return Joiner.on("/").join(ROOT, shardingItem);
     }
 }
@@ -0,0 +1,169 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+package com.dangdang.ddframe.job.lite.internal.offset;
+
+import com.dangdang.ddframe.job.executor.OffsetStorage;
+import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
+import com.dangdang.ddframe.job.reg.base.BatchOperation;
+import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
+import com.dangdang.ddframe.job.reg.exception.RegException;
+import com.google.common.base.Optional;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 分片项处理进度服务.
+ * 
+ * <p>
+ * 同一分片项的多次提交只保留最后一次, 在首次提交后的固定间隔内以批量事务写入注册中心, 作业完成时写入剩余的处理进度.
+ * 读取时优先使用本地的处理进度, 本地没有时从注册中心读取, 因此分片项被重新分配后从最后写入注册中心的处理进度继续处理.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@Slf4j
+public class OffsetService implements OffsetStorage {
+    
+    private static final long FLUSH_INTERVAL_MILLISECONDS = 1000L;
+    
+    private static final ScheduledExecutorService FLUSH_EXECUTOR = Executors.newSingleThreadScheduledExecutor(
+            new BasicThreadFactory.Builder().namingPattern("elastic-job-offset-flush-%s").daemon(true).build());
+    
+    private final String jobName;
+    
+    private final JobNodeStorage jobNodeStorage;
+    
+    private final ConcurrentMap<Integer, Optional<String>> offsets = new ConcurrentHashMap<>();
+    
+    private final ConcurrentMap<Integer, String> pendingOffsets = new ConcurrentHashMap<>();
+    
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    
+    public OffsetService(final CoordinatorRegistryCenter regCenter, final String jobName) {
+        this.jobName = jobName;
+        jobNodeStorage = new JobNodeStorage(regCenter, jobName);
+    }
+    
+    @Override
+    public String load(final int shardingItem) {
+        Optional<String> result = offsets.get(shardingItem);
+        if (null == result) {
+            result = Optional.fromNullable(jobNodeStorage.getJobNodeDataDirectly(OffsetNode.getItemNode(shardingItem)));
+            Optional<String> previous = offsets.putIfAbsent(shardingItem, result);
+            if (null != previous) {
+                result = previous;
+            }
+        }
+        return result.orNull();
+    }
+    
+    @Override
+    public void commit(final int shardingItem, final String offset) {
+        offsets.put(shardingItem, Optional.of(offset));
+        pendingOffsets.put(shardingItem, offset);
+        scheduleFlushIfNecessary();
+    }
+    
+    private void scheduleFlushIfNecessary() {
+        if (pendingOffsets.isEmpty() || !flushScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        FLUSH_EXECUTOR.schedule(new Runnable() {
+            
+            @Override
+            public void run() {
+                flushScheduled.set(false);
+                flush();
+            }
+        }, FLUSH_INTERVAL_MILLISECONDS, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * 将尚未写入的处理进度批量写入注册中心.
+     * 
+     * <p>写入失败的处理进度保留至下次写入, 连接丢失和作业根节点不存在同样视为写入失败.</p>
+     * 
+     * @return 尚未写入的处理进度是否已全部写入
+     */
+    public synchronized boolean flush() {
+        return flush(new HashMap<>(pendingOffsets));
+    }
+    
+    private boolean flush(final Map<Integer, String> flushingOffsets) {
+        if (flushingOffsets.isEmpty()) {
+            return true;
+        }
+        List<BatchOperation> operations = new ArrayList<>(flushingOffsets.size());
+        for (Entry<Integer, String> entry : flushingOffsets.entrySet()) {
+            operations.add(BatchOperation.persist(OffsetNode.getItemNode(entry.getKey()), entry.getValue()));
+        }
+        try {
+            jobNodeStorage.executeInBatchStrictly(operations);
+        } catch (final RegException ex) {
+            log.warn("Elastic job: job '{}' flush {} offsets failure, will retry later.", jobName, operations.size(), ex);
+            scheduleFlushIfNecessary();
+            return false;
+        }
+        for (Entry<Integer, String> entry : flushingOffsets.entrySet()) {
+            pendingOffsets.remove(entry.getKey(), entry.getValue());
+        }
+        return true;
+    }
+    
+    /**
+     * 写入执行完成的分片项剩余的处理进度并清除其本地的处理进度.
+     * 
+     * <p>
+     * 作业完成后分片项可能被重新分配, 下次执行时从注册中心重新读取处理进度.
+     * 写入失败时放弃这些分片项尚未写入的处理进度, 不再重试, 避免覆盖分片项新的执行服务器写入的处理进度.
+     * 仍在执行的其他分片项, 如同时执行的失效转移分片项, 不受影响.
+     * </p>
+     * 
+     * @param items 执行完成的分片项
+     */
+    public synchronized void flushAndClear(final Collection<Integer> items) {
+        Map<Integer, String> flushingOffsets = new HashMap<>(items.size());
+        for (int each : items) {
+            String offset = pendingOffsets.get(each);
+            if (null != offset) {
+                flushingOffsets.put(each, offset);
+            }
+        }
+        if (!flush(flushingOffsets)) {
+            log.warn("Elastic job: job '{}' discard unflushed offsets of items '{}', items may be reassigned.", jobName, flushingOffsets.keySet());
+            for (Entry<Integer, String> entry : flushingOffsets.entrySet()) {
+                pendingOffsets.remove(entry.getKey(), entry.getValue());
+            }
+        }
+        for (int each : items) {
+            offsets.remove(each);
+        }
+    }
+}
@@ -38,6 +38,12 @@ public final class JobRegistry {
     
     private final Map<String, String> serverNameMap = new ConcurrentHashMap<>();
     
+    private final Map<String, Boolean> leaderMap = new ConcurrentHashMap<>();
+    
+    private final Map<String, Boolean> eligibilityMap = new ConcurrentHashMap<>();
+    
+    private final Map<String, Long> eligibilityVersionMap = new ConcurrentHashMap<>();
+    
     /**
      * 获取作业注册表实例.
      * 
@@ -82,6 +88,8 @@ public final class JobRegistry {
      */
     public void addJobServerName(String jobName, String serverName) {
         serverNameMap.put(jobName, serverName);
+        leaderMap.remove(jobName);
+        resetEligibleForJobRunning(jobName);
     }
     
     /**
@@ -94,4 +102,91 @@ public final class JobRegistry {
         return serverNameMap.get(jobName);
     }
     
+    /**
+     * 设置当前作业服务器是否为主节点.
+     * 
+     * @param jobName 作业名称
+     * @param isLeader 是否为主节点
+     */
+    public void setLeader(final String jobName, final boolean isLeader) {
+        leaderMap.put(jobName, isLeader);
+    }
+    
+    /**
+     * 获取当前作业服务器是否为主节点.
+     * 
+     * @param jobName 作业名称
+     * @return 是否为主节点, 主节点选举中或状态未知时返回null
+     */
+    public Boolean getLeader(final String jobName) {
+        return leaderMap.get(jobName);
+    }
+    
+    /**
+     * 清除当前作业服务器的主节点状态.
+     * 
+     * @param jobName 作业名称
+     */
+    public void resetLeader(final String jobName) {
+        leaderMap.remove(jobName);
+    }
+    
+    /**
+     * 获取作业运行资格状态的版本号.
+     * 
+     * <p>每次清除运行资格状态时版本号递增, 用于丢弃清除前开始计算的状态.</p>
+     * 
+     * @param jobName 作业名称
+     * @return 作业运行资格状态的版本号
+     */
+    public long getEligibilityVersion(final String jobName) {
+        Long result = eligibilityVersionMap.get(jobName);
+        return null == result ? 0L : result;
+    }
+    
+    /**
+     * 设置作业是否有资格继续运行.
+     * 
+     * <p>计算期间运行资格状态被清除时, 版本号已变化, 不记录计算结果.</p>
+     * 
+     * @param jobName 作业名称
+     * @param version 开始计算时的版本号
+     * @param isEligible 是否有资格继续运行
+     */
+    public synchronized void setEligibleForJobRunning(final String jobName, final long version, final boolean isEligible) {
+        if (version == getEligibilityVersion(jobName)) {
+            eligibilityMap.put(jobName, isEligible);
+        }
+    }
+    
+    /**
+     * 获取作业是否有资格继续运行.
+     * 
+     * @param jobName 作业名称
+     * @return 是否有资格继续运行, 状态未知时返回null
+     */
+    public Boolean getEligibleForJobRunning(final String jobName) {
+        return eligibilityMap.get(jobName);
+    }
+    
+    /**
+     * 清除作业的运行资格状态.
+     * 
+     * @param jobName 作业名称
+     */
+    public synchronized void resetEligibleForJobRunning(final String jobName) {
+        eligibilityVersionMap.put(jobName, getEligibilityVersion(jobName) + 1L);
+        eligibilityMap.remove(jobName);
+    }
+    
+    /**
+     * 删除作业的运行资格状态及其版本号, 作业关闭时调用.
+     * 
+     * @param jobName 作业名称
+     */
+    public synchronized void removeEligibility(final String jobName) {
+        eligibilityMap.remove(jobName);
+        eligibilityVersionMap.remove(jobName);
+    }
+    
 }
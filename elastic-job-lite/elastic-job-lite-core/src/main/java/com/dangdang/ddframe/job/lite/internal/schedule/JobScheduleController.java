@@ -17,157 +17,64 @@
 
 package com.dangdang.ddframe.job.lite.internal.schedule;
 
-import com.dangdang.ddframe.job.exception.JobSystemException;
-import lombok.RequiredArgsConstructor;
-import org.quartz.CronScheduleBuilder;
-import org.quartz.CronTrigger;
-import org.quartz.JobDetail;
-import org.quartz.Scheduler;
-import org.quartz.SchedulerException;
-import org.quartz.Trigger;
-import org.quartz.TriggerBuilder;
-import org.quartz.TriggerKey;
+import com.dangdang.ddframe.job.executor.ShardingContexts;
 
 import java.util.Date;
-import java.util.List;
 
 /**
  * 作业调度控制器.
  * 
  * @author zhangliang
  */
-@RequiredArgsConstructor
-public class JobScheduleController {
-    
-    private final Scheduler scheduler;
-    
-    private final JobDetail jobDetail;
-    
-    private final SchedulerFacade schedulerFacade;
-    
-    private final String triggerIdentity;
+public interface JobScheduleController {
     
     /**
      * 调度作业.
      * 
      * @param cron CRON表达式
      */
-    public void scheduleJob(final String cron) {
-        try {
-            if (!scheduler.checkExists(jobDetail.getKey())) {
-                scheduler.scheduleJob(jobDetail, createTrigger(cron));
-            }
-            scheduler.start();
-        } catch (final SchedulerException ex) {
-            throw new JobSystemException(ex);
-        }
-    }
+    void scheduleJob(String cron);
     
     /**
      * 重新调度作业.
      * 
      * @param cron CRON表达式
      */
-    public void rescheduleJob(final String cron) {
-        try {
-            CronTrigger trigger = (CronTrigger) scheduler.getTrigger(TriggerKey.triggerKey(triggerIdentity));
-            if (!scheduler.isShutdown() && null != trigger && !cron.equals(trigger.getCronExpression())) {
-                scheduler.rescheduleJob(TriggerKey.triggerKey(triggerIdentity), createTrigger(cron));
-            }
-        } catch (final SchedulerException ex) {
-            throw new JobSystemException(ex);
-        }
-    }
-    
-    private CronTrigger createTrigger(final String cron) {
-        CronScheduleBuilder cronScheduleBuilder = CronScheduleBuilder.cronSchedule(cron);
-        if (schedulerFacade.loadJobConfiguration().getTypeConfig().getCoreConfig().isMisfire()) {
-            cronScheduleBuilder = cronScheduleBuilder.withMisfireHandlingInstructionFireAndProceed();
-        } else {
-            cronScheduleBuilder = cronScheduleBuilder.withMisfireHandlingInstructionDoNothing();
-        }
-        return TriggerBuilder.newTrigger()
-                .withIdentity(triggerIdentity)
-                .withSchedule(cronScheduleBuilder).build();
-    }
+    void rescheduleJob(String cron);
     
     /**
      * 获取下次作业触发时间.
      * 
      * @return 下次作业触发时间
      */
-    public Date getNextFireTime() {
-        List<? extends Trigger> triggers;
-        try {
-            triggers = scheduler.getTriggersOfJob(jobDetail.getKey());
-        } catch (final SchedulerException ex) {
-            return null;
-        }
-        Date result = null;
-        for (Trigger each : triggers) {
-            Date nextFireTime = each.getNextFireTime();
-            if (null == nextFireTime) {
-                continue;
-            }
-            if (null == result) {
-                result = nextFireTime;
-            } else if (nextFireTime.getTime() < result.getTime()) {
-                result = nextFireTime;
-            }
-        }
-        return result;
-    }
+    Date getNextFireTime();
     
     /**
      * 暂停作业.
      */
-    public void pauseJob() {
-        try {
-            if (!scheduler.isShutdown()) {
-                scheduler.pauseAll();
-            }
-        } catch (final SchedulerException ex) {
-            throw new JobSystemException(ex);
-        }
-    }
+    void pauseJob();
     
     /**
      * 恢复作业.
      */
-    public void resumeJob() {
-        try {
-            if (!scheduler.isShutdown()) {
-                scheduler.resumeAll();
-            }
-        } catch (final SchedulerException ex) {
-            throw new JobSystemException(ex);
-        }
-    }
+    void resumeJob();
     
     /**
      * 立刻启动作业.
      */
-    public void triggerJob() {
-        try {
-            if (!scheduler.isShutdown()) {
-                scheduler.triggerJob(jobDetail.getKey());
-            }
-        } catch (final SchedulerException ex) {
-            throw new JobSystemException(ex);
-        }
-    }
+    void triggerJob();
+    
+    /**
+     * 立刻执行失效转移的作业.
+     * 
+     * <p>不经过调度线程, 直接提交至作业线程池执行.</p>
+     * 
+     * @param shardingContexts 失效转移的分片上下文
+     */
+    void executeFailover(ShardingContexts shardingContexts);
     
     /**
      * 关闭调度器.
      */
-    public void shutdown() {
-        schedulerFacade.releaseJobResource();
-        try {
-            if (!scheduler.isShutdown()) {
-                scheduler.shutdown();
-            }
-        } catch (final SchedulerException ex) {
-            throw new JobSystemException(ex);
-        }
-    }
+    void shutdown();
 }
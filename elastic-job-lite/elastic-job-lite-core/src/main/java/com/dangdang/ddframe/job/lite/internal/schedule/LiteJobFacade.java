@@ -26,6 +26,7 @@ import com.dangdang.ddframe.job.event.type.JobStatusTraceEvent.Source;
 import com.dangdang.ddframe.job.event.type.JobStatusTraceEvent.State;
 import com.dangdang.ddframe.job.exception.JobExecutionEnvironmentException;
 import com.dangdang.ddframe.job.executor.JobFacade;
+import com.dangdang.ddframe.job.executor.OffsetStorage;
 import com.dangdang.ddframe.job.executor.ShardingContexts;
 import com.dangdang.ddframe.job.lite.api.listener.ElasticJobListener;
 import com.dangdang.ddframe.job.lite.config.LiteJobConfiguration;
@@ -33,13 +34,16 @@ import com.dangdang.ddframe.job.lite.internal.config.ConfigurationService;
 import com.dangdang.ddframe.job.lite.internal.execution.ExecutionContextService;
 import com.dangdang.ddframe.job.lite.internal.execution.ExecutionService;
 import com.dangdang.ddframe.job.lite.internal.failover.FailoverService;
+import com.dangdang.ddframe.job.lite.internal.offset.OffsetService;
 import com.dangdang.ddframe.job.lite.internal.server.ServerService;
 import com.dangdang.ddframe.job.lite.internal.sharding.ShardingService;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
 import com.google.common.base.Strings;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -50,6 +54,8 @@ import java.util.List;
 @Slf4j
 public class LiteJobFacade implements JobFacade {
     
+    private final String jobName;
+    
     private final ConfigurationService configService;
     
     private final ShardingService shardingService;
@@ -62,17 +68,21 @@ public class LiteJobFacade implements JobFacade {
     
     private final FailoverService failoverService;
     
+    private final OffsetService offsetService;
+    
     private final List<ElasticJobListener> elasticJobListeners;
     
     private final JobEventBus jobEventBus;
     
     public LiteJobFacade(final CoordinatorRegistryCenter regCenter, final String jobName, final List<ElasticJobListener> elasticJobListeners, final JobEventBus jobEventBus) {
+        this.jobName = jobName;
         configService = new ConfigurationService(regCenter, jobName);
         shardingService = new ShardingService(regCenter, jobName);
         serverService = new ServerService(regCenter, jobName);
         executionContextService = new ExecutionContextService(regCenter, jobName);
         executionService = new ExecutionService(regCenter, jobName);
         failoverService = new FailoverService(regCenter, jobName);
+        offsetService = new OffsetService(regCenter, jobName);
         this.elasticJobListeners = elasticJobListeners;
         this.jobEventBus = jobEventBus;
     }
@@ -101,6 +111,7 @@ public class LiteJobFacade implements JobFacade {
     
     @Override
     public void registerJobCompleted(final ShardingContexts shardingContexts) {
+        offsetService.flushAndClear(shardingContexts.getShardingItemParameters().keySet());
         executionService.registerJobCompleted(shardingContexts);
         if (configService.load(true).isFailover()) {
             failoverService.updateFailoverComplete(shardingContexts.getShardingItemParameters().keySet());
@@ -109,16 +120,21 @@ public class LiteJobFacade implements JobFacade {
     
     public ShardingContexts getShardingContexts() {
         boolean isFailover = configService.load(true).isFailover();
+        List<Integer> failoverShardingItems = Collections.emptyList();
         if (isFailover) {
-            List<Integer> failoverShardingItems = failoverService.getLocalHostFailoverItems();
+            failoverShardingItems = failoverService.getLocalHostFailoverItems();
             if (!failoverShardingItems.isEmpty()) {
-                return executionContextService.getJobShardingContext(failoverShardingItems);
+                ShardingContexts result = executionContextService.getJobShardingContext(new ArrayList<>(failoverShardingItems));
+                if (!result.getShardingItemParameters().isEmpty()) {
+                    return result;
+                }
             }
         }
         shardingService.shardingIfNecessary();
         List<Integer> shardingItems = shardingService.getLocalHostShardingItems();
         if (isFailover) {
             shardingItems.removeAll(failoverService.getLocalHostTakeOffItems());
+            shardingItems.removeAll(failoverShardingItems);
         }
         return executionContextService.getJobShardingContext(shardingItems);
     }
@@ -133,6 +149,11 @@ public class LiteJobFacade implements JobFacade {
         executionService.clearMisfire(shardingItems);
     }
     
+    @Override
+    public OffsetStorage getOffsetStorage() {
+        return offsetService;
+    }
+    
     @Override
     public boolean isExecuteMisfired(final Collection<Integer> shardingItems) {
         return isEligibleForJobRunning() && configService.load(true).getTypeConfig().getCoreConfig().isMisfire() && !executionService.getMisfiredJobItems(shardingItems).isEmpty();
@@ -140,6 +161,17 @@ public class LiteJobFacade implements JobFacade {
     
     @Override
     public boolean isEligibleForJobRunning() {
+        Boolean result = JobRegistry.getInstance().getEligibleForJobRunning(jobName);
+        if (null != result) {
+            return result;
+        }
+        long version = JobRegistry.getInstance().getEligibilityVersion(jobName);
+        boolean isEligible = loadEligibleForJobRunning();
+        JobRegistry.getInstance().setEligibleForJobRunning(jobName, version, isEligible);
+        return isEligible;
+    }
+    
+    private boolean loadEligibleForJobRunning() {
         LiteJobConfiguration liteJobConfig = configService.load(true);
         if (liteJobConfig.getTypeConfig() instanceof DataflowJobConfiguration) {
             return !serverService.isJobPausedManually() && !shardingService.isNeedSharding() && ((DataflowJobConfiguration) liteJobConfig.getTypeConfig()).isStreamingProcess();    
@@ -154,7 +186,7 @@ public class LiteJobFacade implements JobFacade {
     
     @Override
     public void cleanPreviousExecutionInfo() {
-        executionService.cleanPreviousExecutionInfo();
+        executionService.cleanPreviousExecutionInfo(shardingService.getLocalHostShardingItems());
     }
     
     @Override
@@ -0,0 +1,168 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.schedule;
+
+import com.dangdang.ddframe.job.exception.JobSystemException;
+import com.dangdang.ddframe.job.executor.JobExecutorHolder;
+import com.dangdang.ddframe.job.executor.ShardingContexts;
+import com.dangdang.ddframe.job.lite.api.JobScheduler;
+import lombok.RequiredArgsConstructor;
+import org.quartz.CronScheduleBuilder;
+import org.quartz.CronTrigger;
+import org.quartz.JobDetail;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.quartz.TriggerKey;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 基于Quartz的作业调度控制器.
+ * 
+ * @author zhangliang
+ */
+@RequiredArgsConstructor
+public final class QuartzJobScheduleController implements JobScheduleController {
+    
+    private final Scheduler scheduler;
+    
+    private final JobDetail jobDetail;
+    
+    private final SchedulerFacade schedulerFacade;
+    
+    private final String triggerIdentity;
+    
+    @Override
+    public void scheduleJob(final String cron) {
+        try {
+            if (!scheduler.checkExists(jobDetail.getKey())) {
+                scheduler.scheduleJob(jobDetail, createTrigger(cron));
+            }
+            scheduler.start();
+        } catch (final SchedulerException ex) {
+            throw new JobSystemException(ex);
+        }
+    }
+    
+    @Override
+    public void rescheduleJob(final String cron) {
+        try {
+            CronTrigger trigger = (CronTrigger) scheduler.getTrigger(TriggerKey.triggerKey(triggerIdentity));
+            if (!scheduler.isShutdown() && null != trigger && !cron.equals(trigger.getCronExpression())) {
+                scheduler.rescheduleJob(TriggerKey.triggerKey(triggerIdentity), createTrigger(cron));
+            }
+        } catch (final SchedulerException ex) {
+            throw new JobSystemException(ex);
+        }
+    }
+    
+    private CronTrigger createTrigger(final String cron) {
+        CronScheduleBuilder cronScheduleBuilder = CronScheduleBuilder.cronSchedule(cron);
+        if (schedulerFacade.loadJobConfiguration().getTypeConfig().getCoreConfig().isMisfire()) {
+            cronScheduleBuilder = cronScheduleBuilder.withMisfireHandlingInstructionFireAndProceed();
+        } else {
+            cronScheduleBuilder = cronScheduleBuilder.withMisfireHandlingInstructionDoNothing();
+        }
+        return TriggerBuilder.newTrigger()
+                .withIdentity(triggerIdentity)
+                .withSchedule(cronScheduleBuilder).build();
+    }
+    
+    @Override
+    public Date getNextFireTime() {
+        List<? extends Trigger> triggers;
+        try {
+            triggers = scheduler.getTriggersOfJob(jobDetail.getKey());
+        } catch (final SchedulerException ex) {
+            return null;
+        }
+        Date result = null;
+        for (Trigger each : triggers) {
+            Date nextFireTime = each.getNextFireTime();
+            if (null == nextFireTime) {
+                continue;
+            }
+            if (null == result) {
+                result = nextFireTime;
+            } else if (nextFireTime.getTime() < result.getTime()) {
+                result = nextFireTime;
+            }
+        }
+        return result;
+    }
+    
+    @Override
+    public void pauseJob() {
+        try {
+            if (!scheduler.isShutdown()) {
+                scheduler.pauseAll();
+            }
+        } catch (final SchedulerException ex) {
+            throw new JobSystemException(ex);
+        }
+    }
+    
+    @Override
+    public void resumeJob() {
+        try {
+            if (!scheduler.isShutdown()) {
+                scheduler.resumeAll();
+            }
+        } catch (final SchedulerException ex) {
+            throw new JobSystemException(ex);
+        }
+    }
+    
+    @Override
+    public void triggerJob() {
+        try {
+            if (!scheduler.isShutdown()) {
+                scheduler.triggerJob(jobDetail.getKey());
+            }
+        } catch (final SchedulerException ex) {
+            throw new JobSystemException(ex);
+        }
+    }
+    
+    @Override
+    public void executeFailover(final ShardingContexts shardingContexts) {
+        try {
+            if (scheduler.isShutdown()) {
+                return;
+            }
+        } catch (final SchedulerException ex) {
+            throw new JobSystemException(ex);
+        }
+        ((JobExecutorHolder) jobDetail.getJobDataMap().get(JobScheduler.JOB_EXECUTOR_HOLDER_DATA_MAP_KEY)).getJobExecutor().executeFailover(shardingContexts);
+    }
+    
+    @Override
+    public void shutdown() {
+        schedulerFacade.releaseJobResource();
+        try {
+            if (!scheduler.isShutdown()) {
+                scheduler.shutdown();
+            }
+        } catch (final SchedulerException ex) {
+            throw new JobSystemException(ex);
+        }
+    }
+}
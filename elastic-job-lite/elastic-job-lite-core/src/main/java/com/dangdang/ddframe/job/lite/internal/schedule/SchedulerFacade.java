@@ -17,6 +17,8 @@
 
 package com.dangdang.ddframe.job.lite.internal.schedule;
 
+import com.dangdang.ddframe.job.executor.handler.ExecutorServiceHandlerRegistry;
+import com.dangdang.ddframe.job.executor.handler.impl.ForkJoinPoolExecutorServiceHandler;
 import com.dangdang.ddframe.job.lite.api.listener.ElasticJobListener;
 import com.dangdang.ddframe.job.lite.config.LiteJobConfiguration;
 import com.dangdang.ddframe.job.lite.internal.config.ConfigurationService;
@@ -37,6 +39,8 @@ import java.util.List;
  */
 public class SchedulerFacade {
     
+    private final String jobName;
+    
     private final ConfigurationService configService;
     
     private final LeaderElectionService leaderElectionService;
@@ -52,6 +56,7 @@ public class SchedulerFacade {
     private final ListenerManager listenerManager;
     
     public SchedulerFacade(final CoordinatorRegistryCenter regCenter, final String jobName, final List<ElasticJobListener> elasticJobListeners) {
+        this.jobName = jobName;
         configService = new ConfigurationService(regCenter, jobName);
         leaderElectionService = new LeaderElectionService(regCenter, jobName);
         serverService = new ServerService(regCenter, jobName);
@@ -88,6 +93,9 @@ public class SchedulerFacade {
     public void releaseJobResource() {
         monitorService.close();
         serverService.removeServerData();
+        ExecutorServiceHandlerRegistry.remove(jobName);
+        ForkJoinPoolExecutorServiceHandler.removeJobExecutorService(jobName);
+        JobRegistry.getInstance().removeEligibility(jobName);
     }
     
     /**
@@ -99,6 +107,13 @@ public class SchedulerFacade {
         return configService.load(false);
     }
     
+    /**
+     * 设置本作业服务器分片项的错过执行标记.
+     */
+    public void setMisfire() {
+        executionService.setMisfire(shardingService.getLocalHostShardingItems());
+    }
+    
     /**
      * 获取作业触发监听器.
      * 
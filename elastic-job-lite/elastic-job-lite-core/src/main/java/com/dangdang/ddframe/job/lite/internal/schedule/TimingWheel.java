@@ -0,0 +1,117 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.schedule;
+
+import java.util.concurrent.DelayQueue;
+
+/**
+ * 分层时间轮.
+ * 
+ * <p>
+ * 每层由固定数量的时间格组成, 超出本层范围的定时任务放入以本层一圈为一格的上层时间轮, 上层时间轮按需创建.
+ * 只有非空的时间格才放入延迟队列, 因此时钟只在有任务到期时推进, 没有空转.
+ * 上层时间格到期时, 其中的任务重新放入下层时间轮, 逐层降级直至到期.
+ * 非线程安全, 由调用方加锁.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+final class TimingWheel {
+    
+    private final long tickMilliseconds;
+    
+    private final int wheelSize;
+    
+    private final long intervalMilliseconds;
+    
+    private final TimingWheelBucket[] buckets;
+    
+    private final DelayQueue<TimingWheelBucket> delayQueue;
+    
+    private long currentTime;
+    
+    private TimingWheel overflowWheel;
+    
+    TimingWheel(final long tickMilliseconds, final int wheelSize, final long startMilliseconds, final DelayQueue<TimingWheelBucket> delayQueue) {
+        this.tickMilliseconds = tickMilliseconds;
+        this.wheelSize = wheelSize;
+        this.delayQueue = delayQueue;
+        intervalMilliseconds = tickMilliseconds * wheelSize;
+        buckets = new TimingWheelBucket[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new TimingWheelBucket();
+        }
+        currentTime = startMilliseconds - startMilliseconds % tickMilliseconds;
+    }
+    
+    /**
+     * 添加定时任务.
+     * 
+     * @param timeout 定时任务
+     * @return 是否已放入时间轮, 已到期时返回false, 由调用方执行
+     */
+    boolean add(final TimingWheelTimeout timeout) {
+        long deadline = timeout.getDeadline();
+        if (timeout.isCancelled()) {
+            return true;
+        }
+        if (deadline < currentTime + tickMilliseconds) {
+            return false;
+        }
+        if (deadline < currentTime + intervalMilliseconds) {
+            long virtualId = deadline / tickMilliseconds;
+            TimingWheelBucket bucket = buckets[(int) (virtualId % wheelSize)];
+            bucket.add(timeout);
+            if (bucket.setExpiration(virtualId * tickMilliseconds)) {
+                delayQueue.offer(bucket);
+            }
+            return true;
+        }
+        return getOverflowWheel().add(timeout);
+    }
+    
+    private TimingWheel getOverflowWheel() {
+        if (null == overflowWheel) {
+            overflowWheel = new TimingWheel(intervalMilliseconds, wheelSize, currentTime, delayQueue);
+        }
+        return overflowWheel;
+    }
+    
+    /**
+     * 推进时钟.
+     * 
+     * @param timeMilliseconds 到期时间格的到期时间
+     */
+    void advanceClock(final long timeMilliseconds) {
+        if (timeMilliseconds >= currentTime + tickMilliseconds) {
+            currentTime = timeMilliseconds - timeMilliseconds % tickMilliseconds;
+            if (null != overflowWheel) {
+                overflowWheel.advanceClock(currentTime);
+            }
+        }
+    }
+    
+    /**
+     * 获取时间轮的层数.
+     * 
+     * @return 时间轮的层数
+     */
+    int getLevels() {
+        return null == overflowWheel ? 1 : 1 + overflowWheel.getLevels();
+    }
+}
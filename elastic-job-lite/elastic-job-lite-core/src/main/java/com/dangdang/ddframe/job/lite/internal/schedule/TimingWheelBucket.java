@@ -0,0 +1,90 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.schedule;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 时间轮的时间格.
+ * 
+ * <p>时间格中的定时任务由时间轮的锁保护.</p>
+ * 
+ * @author zhangliang
+ */
+final class TimingWheelBucket implements Delayed {
+    
+    private final AtomicLong expiration = new AtomicLong(-1L);
+    
+    private final List<TimingWheelTimeout> timeouts = new ArrayList<>();
+    
+    /**
+     * 添加定时任务.
+     * 
+     * @param timeout 定时任务
+     */
+    void add(final TimingWheelTimeout timeout) {
+        timeouts.add(timeout);
+    }
+    
+    /**
+     * 设置到期时间.
+     * 
+     * @param expiration 到期时间的毫秒数
+     * @return 到期时间是否变化, 变化时需重新放入延迟队列
+     */
+    boolean setExpiration(final long expiration) {
+        return this.expiration.getAndSet(expiration) != expiration;
+    }
+    
+    /**
+     * 获取到期时间.
+     * 
+     * @return 到期时间的毫秒数
+     */
+    long getExpiration() {
+        return expiration.get();
+    }
+    
+    /**
+     * 取出全部定时任务并重置到期时间.
+     * 
+     * @return 全部定时任务
+     */
+    List<TimingWheelTimeout> flush() {
+        List<TimingWheelTimeout> result = new ArrayList<>(timeouts);
+        timeouts.clear();
+        expiration.set(-1L);
+        return result;
+    }
+    
+    @Override
+    public long getDelay(final TimeUnit unit) {
+        return unit.convert(Math.max(getExpiration() - System.currentTimeMillis(), 0L), TimeUnit.MILLISECONDS);
+    }
+    
+    @Override
+    public int compareTo(final Delayed o) {
+        long other = ((TimingWheelBucket) o).getExpiration();
+        long current = getExpiration();
+        return current < other ? -1 : (current == other ? 0 : 1);
+    }
+}
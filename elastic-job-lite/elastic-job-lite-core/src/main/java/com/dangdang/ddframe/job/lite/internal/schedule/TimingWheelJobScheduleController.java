@@ -0,0 +1,269 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.schedule;
+
+import com.dangdang.ddframe.job.api.ElasticJob;
+import com.dangdang.ddframe.job.exception.JobConfigurationException;
+import com.dangdang.ddframe.job.executor.JobExecutorHolder;
+import com.dangdang.ddframe.job.executor.JobFacade;
+import com.dangdang.ddframe.job.executor.ShardingContexts;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.CronExpression;
+
+import java.text.ParseException;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 基于共享时间轮的作业调度控制器.
+ * 
+ * <p>
+ * 与Quartz调度器保持一致的语义:
+ * 同一作业同时只有一次执行, 触发时上次执行仍未结束则视为错过执行, 设置错过执行标记, 开启错过任务重新执行时在上次执行结束后立即补执行一次;
+ * 暂停期间不触发, 恢复时如暂停期间错过了触发且开启了错过任务重新执行, 或暂停期间被立刻启动过, 则立即执行一次;
+ * 立刻启动作业时上次执行仍未结束则在结束后执行;
+ * 时钟线程停顿导致错过多次触发时, 错过的触发合并为一次错过执行, 开启错过任务重新执行时立即补执行一次, 否则不执行, 下次触发时间从当前时间开始计算.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@Slf4j
+public final class TimingWheelJobScheduleController implements JobScheduleController {
+    
+    private final TimingWheelScheduler timingWheelScheduler;
+    
+    private final JobExecutorHolder jobExecutorHolder;
+    
+    private final SchedulerFacade schedulerFacade;
+    
+    private final String jobName;
+    
+    private final AtomicBoolean running = new AtomicBoolean();
+    
+    private final AtomicBoolean pendingFire = new AtomicBoolean();
+    
+    private volatile boolean paused;
+    
+    private volatile boolean shutdown;
+    
+    private boolean missedWhilePaused;
+    
+    private boolean triggeredWhilePaused;
+    
+    private boolean misfire;
+    
+    private CronExpression cronExpression;
+    
+    private Date nextFireTime;
+    
+    private TimingWheelTimeout timeout;
+    
+    public TimingWheelJobScheduleController(final ElasticJob elasticJob, final JobFacade jobFacade, final SchedulerFacade schedulerFacade, final String jobName) {
+        this(TimingWheelScheduler.getInstance(), elasticJob, jobFacade, schedulerFacade, jobName);
+    }
+    
+    TimingWheelJobScheduleController(final TimingWheelScheduler timingWheelScheduler, final ElasticJob elasticJob, final JobFacade jobFacade, 
+                                     final SchedulerFacade schedulerFacade, final String jobName) {
+        this.timingWheelScheduler = timingWheelScheduler;
+        jobExecutorHolder = new JobExecutorHolder(elasticJob, jobFacade);
+        this.schedulerFacade = schedulerFacade;
+        this.jobName = jobName;
+    }
+    
+    @Override
+    public synchronized void scheduleJob(final String cron) {
+        if (shutdown || null != cronExpression) {
+            return;
+        }
+        schedule(cron);
+    }
+    
+    @Override
+    public synchronized void rescheduleJob(final String cron) {
+        if (shutdown || null == cronExpression || cron.equals(cronExpression.getCronExpression())) {
+            return;
+        }
+        cancelTimeout();
+        schedule(cron);
+    }
+    
+    private void schedule(final String cron) {
+        try {
+            cronExpression = new CronExpression(cron);
+        } catch (final ParseException ex) {
+            throw new JobConfigurationException("Cron expression '%s' is invalid.", cron);
+        }
+        misfire = schedulerFacade.loadJobConfiguration().getTypeConfig().getCoreConfig().isMisfire();
+        scheduleNext(new Date());
+    }
+    
+    private void scheduleNext(final Date after) {
+        nextFireTime = cronExpression.getNextValidTimeAfter(after);
+        timeout = null == nextFireTime ? null : timingWheelScheduler.schedule(new CronFireTask(cronExpression, nextFireTime.getTime()), nextFireTime.getTime());
+    }
+    
+    private void cancelTimeout() {
+        if (null != timeout) {
+            timeout.cancel();
+            timeout = null;
+        }
+    }
+    
+    @Override
+    public synchronized Date getNextFireTime() {
+        return nextFireTime;
+    }
+    
+    @Override
+    public void pauseJob() {
+        paused = true;
+    }
+    
+    @Override
+    public void resumeJob() {
+        synchronized (this) {
+            if (!paused) {
+                return;
+            }
+            paused = false;
+            if (triggeredWhilePaused || misfire && missedWhilePaused) {
+                pendingFire.set(true);
+            }
+            triggeredWhilePaused = false;
+            missedWhilePaused = false;
+        }
+        launchPending();
+    }
+    
+    @Override
+    public void triggerJob() {
+        if (shutdown) {
+            return;
+        }
+        synchronized (this) {
+            if (paused) {
+                triggeredWhilePaused = true;
+                return;
+            }
+        }
+        pendingFire.set(true);
+        launchPending();
+    }
+    
+    @Override
+    public void executeFailover(final ShardingContexts shardingContexts) {
+        if (shutdown) {
+            return;
+        }
+        jobExecutorHolder.getJobExecutor().executeFailover(shardingContexts);
+    }
+    
+    @Override
+    public void shutdown() {
+        schedulerFacade.releaseJobResource();
+        synchronized (this) {
+            shutdown = true;
+            cancelTimeout();
+            nextFireTime = null;
+        }
+    }
+    
+    private void fire(final CronExpression firedCronExpression, final long fireTime) {
+        boolean stalled;
+        synchronized (this) {
+            if (shutdown || firedCronExpression != cronExpression || null == nextFireTime || fireTime != nextFireTime.getTime()) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            Date missedFireTime = cronExpression.getNextValidTimeAfter(new Date(fireTime));
+            stalled = null != missedFireTime && missedFireTime.getTime() <= now;
+            scheduleNext(new Date(Math.max(fireTime, now)));
+            if (paused) {
+                missedWhilePaused = true;
+                return;
+            }
+        }
+        if (!stalled && launch()) {
+            return;
+        }
+        misfire();
+    }
+    
+    private void misfire() {
+        timingWheelScheduler.dispatch(new Runnable() {
+            
+            @Override
+            public void run() {
+                schedulerFacade.setMisfire();
+            }
+        });
+        if (misfire) {
+            pendingFire.set(true);
+            launchPending();
+        }
+    }
+    
+    private void launchPending() {
+        if (!paused && pendingFire.getAndSet(false) && !launch()) {
+            pendingFire.set(true);
+        }
+    }
+    
+    private boolean launch() {
+        if (shutdown || !running.compareAndSet(false, true)) {
+            return false;
+        }
+        timingWheelScheduler.dispatch(new Runnable() {
+            
+            @Override
+            public void run() {
+                execute();
+            }
+        });
+        return true;
+    }
+    
+    private void execute() {
+        try {
+            if (!shutdown) {
+                jobExecutorHolder.getJobExecutor().execute();
+            }
+            //CHECKSTYLE:OFF
+        } catch (final Throwable cause) {
+            //CHECKSTYLE:ON
+            log.error("Elastic-Job: job '{}' execute failure.", jobName, cause);
+        } finally {
+            running.set(false);
+            launchPending();
+        }
+    }
+    
+    @RequiredArgsConstructor
+    private final class CronFireTask implements Runnable {
+        
+        private final CronExpression firedCronExpression;
+        
+        private final long fireTime;
+        
+        @Override
+        public void run() {
+            fire(firedCronExpression, fireTime);
+        }
+    }
+}
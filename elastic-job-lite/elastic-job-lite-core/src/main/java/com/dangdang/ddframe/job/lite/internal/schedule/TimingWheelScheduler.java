@@ -0,0 +1,169 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.schedule;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 共享的时间轮调度器.
+ * 
+ * <p>
+ * 同一JVM中的作业共享一个时钟线程和一个有界的触发线程池.
+ * 时钟线程只等待最近到期的时间格, 到期任务在时钟线程中执行, 因此到期任务不能阻塞, 耗时的操作应通过{@code dispatch}提交至触发线程池.
+ * 到期时间按时间格向上取整, 任务不会早于预定时间执行.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@Slf4j
+final class TimingWheelScheduler {
+    
+    static final long TICK_MILLISECONDS = 10L;
+    
+    private static final int WHEEL_SIZE = 64;
+    
+    private static final int DISPATCHER_THREADS_PER_PROCESSOR = 4;
+    
+    private static volatile TimingWheelScheduler instance;
+    
+    private final DelayQueue<TimingWheelBucket> delayQueue = new DelayQueue<>();
+    
+    private final TimingWheel timingWheel;
+    
+    private final ExecutorService dispatcher;
+    
+    private final Thread tickerThread;
+    
+    TimingWheelScheduler(final int dispatcherThreads) {
+        timingWheel = new TimingWheel(TICK_MILLISECONDS, WHEEL_SIZE, System.currentTimeMillis(), delayQueue);
+        dispatcher = new ThreadPoolExecutor(dispatcherThreads, dispatcherThreads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(), 
+                new BasicThreadFactory.Builder().namingPattern("elastic-job-timing-wheel-dispatcher-%s").daemon(true).build());
+        tickerThread = new BasicThreadFactory.Builder().namingPattern("elastic-job-timing-wheel-ticker-%s").daemon(true).build().newThread(new Ticker());
+        tickerThread.start();
+    }
+    
+    /**
+     * 获取共享的时间轮调度器实例.
+     * 
+     * @return 共享的时间轮调度器实例
+     */
+    static TimingWheelScheduler getInstance() {
+        if (null == instance) {
+            synchronized (TimingWheelScheduler.class) {
+                if (null == instance) {
+                    instance = new TimingWheelScheduler(Runtime.getRuntime().availableProcessors() * DISPATCHER_THREADS_PER_PROCESSOR);
+                }
+            }
+        }
+        return instance;
+    }
+    
+    /**
+     * 在指定时间执行任务.
+     * 
+     * @param task 到期时在时钟线程中执行的任务, 不能阻塞
+     * @param fireTimeMilliseconds 预定执行时间的毫秒数
+     * @return 定时任务
+     */
+    TimingWheelTimeout schedule(final Runnable task, final long fireTimeMilliseconds) {
+        long deadline = (fireTimeMilliseconds + TICK_MILLISECONDS - 1) / TICK_MILLISECONDS * TICK_MILLISECONDS;
+        TimingWheelTimeout result = new TimingWheelTimeout(deadline, task);
+        boolean added;
+        synchronized (timingWheel) {
+            added = timingWheel.add(result);
+        }
+        if (!added) {
+            run(result);
+        }
+        return result;
+    }
+    
+    /**
+     * 提交任务至触发线程池.
+     * 
+     * @param task 任务
+     */
+    void dispatch(final Runnable task) {
+        dispatcher.execute(task);
+    }
+    
+    /**
+     * 关闭调度器.
+     * 
+     * <p>仅用于非共享的实例.</p>
+     */
+    void shutdown() {
+        tickerThread.interrupt();
+        dispatcher.shutdown();
+    }
+    
+    private void advance(final TimingWheelBucket firstBucket) {
+        List<TimingWheelTimeout> expiredTimeouts = new LinkedList<>();
+        synchronized (timingWheel) {
+            TimingWheelBucket bucket = firstBucket;
+            while (null != bucket) {
+                timingWheel.advanceClock(bucket.getExpiration());
+                for (TimingWheelTimeout each : bucket.flush()) {
+                    if (!timingWheel.add(each)) {
+                        expiredTimeouts.add(each);
+                    }
+                }
+                bucket = delayQueue.poll();
+            }
+        }
+        for (TimingWheelTimeout each : expiredTimeouts) {
+            run(each);
+        }
+    }
+    
+    private void run(final TimingWheelTimeout timeout) {
+        if (timeout.isCancelled()) {
+            return;
+        }
+        try {
+            timeout.getTask().run();
+            //CHECKSTYLE:OFF
+        } catch (final Throwable cause) {
+            //CHECKSTYLE:ON
+            log.error("Elastic-Job: timing wheel task failure.", cause);
+        }
+    }
+    
+    private final class Ticker implements Runnable {
+        
+        @Override
+        public void run() {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    advance(delayQueue.take());
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
@@ -61,6 +61,8 @@ public class JobOperationListenerManager extends AbstractListenerManager {
     public void start() {
         addConnectionStateListener(new ConnectionLostListener());
         addDataListener(new JobStatusJobListener());
+        addDataListener(new EligibilityChangedJobListener());
+        addConnectionStateListener(new EligibilityConnectionListener());
     }
     
     class ConnectionLostListener implements ConnectionStateListener {
@@ -118,4 +120,24 @@ public class JobOperationListenerManager extends AbstractListenerManager {
             }
         }
     }
+    
+    class EligibilityChangedJobListener extends AbstractJobListener {
+        
+        @Override
+        protected void dataChanged(final CuratorFramework client, final TreeCacheEvent event, final String path) {
+            if (serverNode.isLocalJobPath(path)) {
+                JobRegistry.getInstance().resetEligibleForJobRunning(jobName);
+            }
+        }
+    }
+    
+    class EligibilityConnectionListener implements ConnectionStateListener {
+        
+        @Override
+        public void stateChanged(final CuratorFramework client, final ConnectionState newState) {
+            if (ConnectionState.SUSPENDED == newState || ConnectionState.LOST == newState || ConnectionState.RECONNECTED == newState) {
+                JobRegistry.getInstance().resetEligibleForJobRunning(jobName);
+            }
+        }
+    }
 }
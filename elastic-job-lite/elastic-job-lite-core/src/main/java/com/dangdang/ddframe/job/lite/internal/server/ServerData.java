@@ -52,15 +52,30 @@ public class ServerData {
 
     private ServerStatus status = ServerStatus.READY;
 
-    private String sharding;
-
     private String changedItem;
 
+    private int capacity;
+
+    private double load;
+
     public ServerData(String hostName, String hostIP, boolean disabled) {
         this.hostName = hostName;
         this.hostIP = hostIP;
         this.disabled = disabled;
     }
+    
+    public ServerData(final ServerData data) {
+        hostName = data.hostName;
+        hostIP = data.hostIP;
+        trigger = data.trigger;
+        paused = data.paused;
+        disabled = data.disabled;
+        shutdown = data.shutdown;
+        status = data.status;
+        changedItem = data.changedItem;
+        capacity = data.capacity;
+        load = data.load;
+    }
 
     public void removeTriggeredMark() {
         this.trigger = false;
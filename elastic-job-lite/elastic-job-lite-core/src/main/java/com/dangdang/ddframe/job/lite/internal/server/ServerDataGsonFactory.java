@@ -68,12 +68,13 @@ public final class ServerDataGsonFactory {
             out.name("hostName").value(value.getHostName());
             out.name("hostIP").value(value.getHostIP());
             out.name("status").value(value.getStatus().name());
-            out.name("sharding").value(value.getSharding());
             out.name("disabled").value(value.isDisabled());
             out.name("paused").value(value.isPaused());
             out.name("shutdown").value(value.isShutdown());
             out.name("trigger").value(value.isTrigger());
             out.name("changedItem").value(value.getChangedItem());
+            out.name("capacity").value(value.getCapacity());
+            out.name("load").value(value.getLoad());
             out.endObject();
 
         }
@@ -106,13 +107,17 @@ public final class ServerDataGsonFactory {
                     case "trigger":
                         data.setTrigger(in.nextBoolean());
                         break;
-                    case "sharding":
-                        data.setSharding(in.nextString());
-                        break;
                     case "changedItem":
                         data.setChangedItem(in.nextString());
                         break;
+                    case "capacity":
+                        data.setCapacity(in.nextInt());
+                        break;
+                    case "load":
+                        data.setLoad(in.nextDouble());
+                        break;
                     default:
+                        in.skipValue();
                         break;
                 }
             }
@@ -0,0 +1,79 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.server;
+
+import com.dangdang.ddframe.job.executor.handler.ExecutorServiceHandlerRegistry;
+import com.dangdang.ddframe.job.util.concurrent.MonitoredExecutorService;
+import com.google.common.base.Optional;
+import lombok.RequiredArgsConstructor;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+
+/**
+ * 作业服务器负载服务.
+ * 
+ * <p>
+ * 处理能力为可用处理器数量. 负载取每个处理器的系统平均负载和作业线程池的活跃线程比例中的较大值, 取值范围为0到1.
+ * 负载在作业开始和完成执行时采样, 此时作业线程池通常没有活跃线程, 因此活跃线程比例取上次采样以来的峰值, 反映执行期间的负载.
+ * 负载按作业分别做指数平滑以免抖动.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@RequiredArgsConstructor
+public class ServerLoadService {
+    
+    private static final double SMOOTHING_FACTOR = 0.3D;
+    
+    private static final OperatingSystemMXBean OPERATING_SYSTEM_MX_BEAN = ManagementFactory.getOperatingSystemMXBean();
+    
+    private final String jobName;
+    
+    private double smoothedLoad = -1D;
+    
+    /**
+     * 获取本机处理能力.
+     * 
+     * @return 本机处理能力
+     */
+    public int getCapacity() {
+        return OPERATING_SYSTEM_MX_BEAN.getAvailableProcessors();
+    }
+    
+    /**
+     * 采样并获取本机平滑后的负载.
+     * 
+     * @return 本机负载, 无法获取系统平均负载且作业线程池未创建时返回0
+     */
+    public synchronized double getLoad() {
+        double sample = Math.max(getSystemLoad(), getExecutorLoad());
+        smoothedLoad = smoothedLoad < 0 ? sample : smoothedLoad + SMOOTHING_FACTOR * (sample - smoothedLoad);
+        return smoothedLoad;
+    }
+    
+    private double getSystemLoad() {
+        double systemLoadAverage = OPERATING_SYSTEM_MX_BEAN.getSystemLoadAverage();
+        return systemLoadAverage < 0 ? 0D : Math.min(1D, systemLoadAverage / getCapacity());
+    }
+    
+    private double getExecutorLoad() {
+        Optional<MonitoredExecutorService> executorService = ExecutorServiceHandlerRegistry.find(jobName);
+        return executorService.isPresent() ? Math.min(1D, (double) executorService.get().getAndResetPeakActiveThreadCount() / executorService.get().getThreadSize()) : 0D;
+    }
+}
@@ -26,6 +26,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import com.google.common.base.Function;
 import com.google.common.base.Strings;
 
 /**
@@ -36,17 +37,30 @@ import com.google.common.base.Strings;
  */
 public class ServerService {
     
+    private static final double MIN_SPARE_RATIO = 0.1D;
+    
+    private static final Function<String, ServerData> DECODER = new Function<String, ServerData>() {
+        
+        @Override
+        public ServerData apply(final String input) {
+            return ServerDataGsonFactory.fromJson(input);
+        }
+    };
+    
     private final String jobName;
     
     private final JobNodeStorage jobNodeStorage;
     
     private final LocalHostService localHostService = new LocalHostService();
     
+    private final ServerLoadService serverLoadService;
+    
     private final JobRegistry jobRegistry;
     
     public ServerService(final CoordinatorRegistryCenter regCenter, final String jobName) {
         this.jobName = jobName;
         jobNodeStorage = new JobNodeStorage(regCenter, jobName);
+        serverLoadService = new ServerLoadService(jobName);
         jobRegistry = JobRegistry.getInstance();
     }
     
@@ -65,7 +79,7 @@ public class ServerService {
      * @param enabled 是否启用job
      */
     public void repairServerNode(final boolean enabled) {
-        if (!jobNodeStorage.isJobNodeExisted(ServerNode.getServerNode(jobRegistry.getJobServerName(jobName)))) {
+        if (!jobNodeStorage.isJobNodeExistedDirectly(ServerNode.getServerNode(jobRegistry.getJobServerName(jobName)))) {
             createServerData(enabled);
         } else {
             ServerData data = loadServerData();
@@ -74,18 +88,25 @@ public class ServerService {
             } else {
                 data = new ServerData(localHostService.getHostName(), localHostService.getIp(), !enabled);
             }
+            refreshServerLoad(data);
             updateServerData(data);
         }
     }
     
     private void createServerData(final boolean enabled) {
         ServerData data = new ServerData(localHostService.getHostName(), localHostService.getIp(), !enabled);
+        refreshServerLoad(data);
         String serverNodePath = jobNodeStorage.fillEphemeralSequentialJobNode(ServerNode.getServerBaseNode(localHostService.getIp()), ServerDataGsonFactory.toJson(data));
         if (!Strings.isNullOrEmpty(serverNodePath)) {
             jobRegistry.addJobServerName(jobName, serverNodePath.substring(serverNodePath.indexOf(localHostService.getIp())));
         }
     }
     
+    private void refreshServerLoad(final ServerData data) {
+        data.setCapacity(serverLoadService.getCapacity());
+        data.setLoad(serverLoadService.getLoad());
+    }
+    
     /**
      * 清除作业状态变更的标记.
      */
@@ -104,7 +125,7 @@ public class ServerService {
      * @return 是否是手工暂停的作业
      */
     public boolean isJobPausedManually() {
-        ServerData data = loadServerData();
+        ServerData data = findServerData(jobRegistry.getJobServerName(jobName));
         if (data == null) {
             return false;
         }
@@ -114,15 +135,27 @@ public class ServerService {
     /**
      * 在开始或结束执行作业时更新服务器状态.
      * 
+     * <p>异步更新, 不等待注册中心响应. 基于注册中心的最新数据按版本条件更新, 不覆盖控制台同时写入的暂停和禁用等标记.</p>
+     * 
      * @param status 服务器状态
      */
     public void updateServerStatus(final ServerStatus status) {
-        ServerData data = loadServerData();
-        if (data == null) {
-            return;
-        }
-        data.setStatus(status);
-        updateServerData(data);
+        final int capacity = serverLoadService.getCapacity();
+        final double load = serverLoadService.getLoad();
+        jobNodeStorage.updateJobNodeAsync(ServerNode.getServerNode(jobRegistry.getJobServerName(jobName)), new Function<String, String>() {
+            
+            @Override
+            public String apply(final String input) {
+                ServerData data = ServerDataGsonFactory.fromJson(input);
+                if (null == data) {
+                    return null;
+                }
+                data.setStatus(status);
+                data.setCapacity(capacity);
+                data.setLoad(load);
+                return ServerDataGsonFactory.toJson(data);
+            }
+        });
     }
     
     /**
@@ -152,6 +185,22 @@ public class ServerService {
         return result;
     }
     
+    /**
+     * 获取作业服务器的空闲处理能力.
+     * 
+     * <p>为避免满载的服务器完全分不到分片, 空闲比例最低按10%计算.</p>
+     * 
+     * @param serverName 作业服务器名称
+     * @return 空闲处理能力, 服务器未上报处理能力时返回0
+     */
+    public double getSpareCapacity(final String serverName) {
+        ServerData data = findServerData(serverName);
+        if (null == data || data.getCapacity() <= 0) {
+            return 0D;
+        }
+        return data.getCapacity() * Math.max(MIN_SPARE_RATIO, 1D - data.getLoad());
+    }
+    
     /**
      * 判断作业服务器是否可分片.
      * 
@@ -159,7 +208,7 @@ public class ServerService {
      * @return 作业服务器是否可分片
      */
     public boolean isShardingServerAvailable(final String serverName) {
-        ServerData data = loadServerData(serverName);
+        ServerData data = findServerData(serverName);
         return data != null && !data.isDisabled() && !data.isShutdown();
     }
     
@@ -195,7 +244,7 @@ public class ServerService {
      * @return 作业服务器是否可用
      */
     public boolean isServerAvailable(final String serverName) {
-        ServerData data = loadServerData(serverName);
+        ServerData data = findServerData(serverName);
         return data != null && !data.isDisabled() && !data.isPaused() && !data.isShutdown();
     }
     
@@ -205,7 +254,7 @@ public class ServerService {
      * @return 当前服务器是否是等待执行的状态
      */
     public boolean isServerReady() {
-        ServerData data = loadServerData(jobRegistry.getJobServerName(jobName));
+        ServerData data = findServerData(jobRegistry.getJobServerName(jobName));
         return data != null && !data.isDisabled() && !data.isPaused() && !data.isShutdown() && ServerStatus.READY == data.getStatus();
     }
     
@@ -221,6 +270,8 @@ public class ServerService {
     /**
      * 加载指定服务器数据.
      * 
+     * <p>每次返回新解析的对象, 可修改后回写.</p>
+     * 
      * @param serverName 指定服务器名称
      * @return 指定服务器数据
      */
@@ -228,6 +279,19 @@ public class ServerService {
         return ServerDataGsonFactory.fromJson(jobNodeStorage.getJobNodeData(ServerNode.getServerNode(serverName)));
     }
     
+    /**
+     * 查找指定服务器数据.
+     * 
+     * <p>节点未变化时复用缓存的解码结果, 返回其副本, 调用方修改不影响缓存.</p>
+     * 
+     * @param serverName 指定服务器名称
+     * @return 指定服务器数据
+     */
+    public ServerData findServerData(final String serverName) {
+        ServerData result = jobNodeStorage.getJobNodeDecodedData(ServerNode.getServerNode(serverName), DECODER);
+        return null == result ? null : new ServerData(result);
+    }
+    
     /**
      * 更新当前服务器数据
      * 
@@ -265,7 +329,7 @@ public class ServerService {
      * @return 服务器是否变为不可用状态
      */
     public boolean isShardingServerOff(final String serverName) {
-        ServerData data = loadServerData(serverName);
+        ServerData data = findServerData(serverName);
         return data == null || data.isDisabledWithMark() || data.isShutdownWithMark();
     }
     
@@ -278,7 +342,7 @@ public class ServerService {
      * @return 服务器是否变为不可用状态
      */
     public boolean isShardingServerOn(final String serverName) {
-        ServerData data = loadServerData(serverName);
+        ServerData data = findServerData(serverName);
         return data != null && data.isEnabledWithMark();
     }
     
@@ -298,7 +362,7 @@ public class ServerService {
      * @return 服务器是否变为停止运行状态
      */
     public boolean isServerOff(final String serverName) {
-        ServerData data = loadServerData(serverName);
+        ServerData data = findServerData(serverName);
         return data == null || data.isDisabledWithMark() || data.isPausedWithMark() || data.isShutdownWithMark();
     }
     
@@ -318,7 +382,7 @@ public class ServerService {
      * @return 服务器是否变为停止运行状态
      */
     public boolean isServerOn(final String serverName) {
-        ServerData data = loadServerData(serverName);
+        ServerData data = findServerData(serverName);
         return data != null && (data.isEnabledWithMark() || data.isResumedWithMark());
     }
     
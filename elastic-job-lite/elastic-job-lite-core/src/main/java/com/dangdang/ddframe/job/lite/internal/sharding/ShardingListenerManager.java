@@ -22,8 +22,10 @@ import com.dangdang.ddframe.job.lite.internal.config.LiteJobConfigurationGsonFac
 import com.dangdang.ddframe.job.lite.internal.execution.ExecutionService;
 import com.dangdang.ddframe.job.lite.internal.listener.AbstractJobListener;
 import com.dangdang.ddframe.job.lite.internal.listener.AbstractListenerManager;
+import com.dangdang.ddframe.job.lite.internal.schedule.JobRegistry;
 import com.dangdang.ddframe.job.lite.internal.server.ServerNode;
 import com.dangdang.ddframe.job.lite.internal.server.ServerService;
+import com.dangdang.ddframe.job.lite.internal.storage.JobNodePath;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
 import lombok.Setter;
 import org.apache.curator.framework.CuratorFramework;
@@ -46,6 +48,8 @@ public class ShardingListenerManager extends AbstractListenerManager {
     
     private final ServerNode serverNode;
     
+    private final String necessaryPath;
+    
     @Setter
     private int currentShardingTotalCount;
     
@@ -56,12 +60,14 @@ public class ShardingListenerManager extends AbstractListenerManager {
         serverService = new ServerService(regCenter, jobName);
         configNode = new ConfigurationNode(jobName);
         serverNode = new ServerNode(jobName);
+        necessaryPath = new JobNodePath(jobName).getFullPath(ShardingNode.NECESSARY);
     }
     
     @Override
     public void start() {
         addDataListener(new ShardingTotalCountChangedJobListener());
         addDataListener(new ListenServersChangedJobListener());
+        addDataListener(new EligibilityChangedJobListener());
     }
     
     class ShardingTotalCountChangedJobListener extends AbstractJobListener {
@@ -93,4 +99,14 @@ public class ShardingListenerManager extends AbstractListenerManager {
             }
         }
     }
+    
+    class EligibilityChangedJobListener extends AbstractJobListener {
+        
+        @Override
+        protected void dataChanged(final CuratorFramework client, final TreeCacheEvent event, final String path) {
+            if (necessaryPath.equals(path)) {
+                JobRegistry.getInstance().resetEligibleForJobRunning(jobName);
+            }
+        }
+    }
 }
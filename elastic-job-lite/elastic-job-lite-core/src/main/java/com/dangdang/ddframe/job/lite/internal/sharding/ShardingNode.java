@@ -18,7 +18,7 @@
 package com.dangdang.ddframe.job.lite.internal.sharding;
 
 import com.dangdang.ddframe.job.lite.internal.election.ElectionNode;
-import com.dangdang.ddframe.job.lite.internal.server.ServerNode;
+import com.dangdang.ddframe.job.lite.internal.storage.JobNodePath;
 
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
@@ -37,12 +37,5 @@ final class ShardingNode {
     
     static final String PROCESSING = LEADER_SHARDING_ROOT + "/processing";
     
-    static final String SERVER_SHARDING_APPENDIX = "sharding";
-    
-    private static final String SERVER_SHARDING = ServerNode.ROOT + "/%s/sharding";
-    
-    @Deprecated
-    static String getShardingNode(final String ip) {
-        return String.format(SERVER_SHARDING, ip);
-    }
+    static final String PLAN = JobNodePath.SHARDING_PLAN_NODE;
 }
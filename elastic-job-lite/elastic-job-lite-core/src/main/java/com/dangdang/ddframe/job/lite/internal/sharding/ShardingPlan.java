@@ -0,0 +1,90 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.sharding;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+/**
+ * 作业分片计划.
+ * 
+ * <p>
+ * 记录全部作业服务器的分片项, 作为一个节点整体写入注册中心. 每次重新分片版本号加一.
+ * 分片计划为不可变对象, 可在线程间共享.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class ShardingPlan {
+    
+    private static final ShardingPlan EMPTY = new ShardingPlan(0L, Collections.<String, List<Integer>>emptyMap());
+    
+    private final long version;
+    
+    private final Map<String, List<Integer>> assignments;
+    
+    public ShardingPlan(final long version, final Map<String, List<Integer>> assignments) {
+        this.version = version;
+        Map<String, List<Integer>> result = new TreeMap<>();
+        for (Entry<String, List<Integer>> entry : assignments.entrySet()) {
+            result.put(entry.getKey(), Collections.unmodifiableList(new ArrayList<>(entry.getValue())));
+        }
+        this.assignments = Collections.unmodifiableMap(result);
+    }
+    
+    /**
+     * 获取不包含任何分片项的初始分片计划.
+     * 
+     * @return 初始分片计划
+     */
+    public static ShardingPlan empty() {
+        return EMPTY;
+    }
+    
+    /**
+     * 获取作业服务器的分片项.
+     * 
+     * @param serverName 作业服务器名称
+     * @return 分片项, 未分配则返回空列表
+     */
+    public List<Integer> getShardingItems(final String serverName) {
+        List<Integer> result = assignments.get(serverName);
+        return null == result ? Collections.<Integer>emptyList() : result;
+    }
+    
+    /**
+     * 根据新的分片结果生成下一版本的分片计划.
+     * 
+     * @param assignments 作业服务器和分片项的对应关系
+     * @return 下一版本的分片计划
+     */
+    public ShardingPlan next(final Map<String, List<Integer>> assignments) {
+        return new ShardingPlan(version + 1, assignments);
+    }
+}
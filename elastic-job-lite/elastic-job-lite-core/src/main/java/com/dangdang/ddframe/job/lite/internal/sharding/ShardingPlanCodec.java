@@ -0,0 +1,133 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.sharding;
+
+import com.google.common.base.Strings;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * 作业分片计划的编解码工具类.
+ * 
+ * <p>
+ * 首行为版本号, 其后每行为一个作业服务器的分片项, 连续的分片项压缩为区间, 如:
+ * </p>
+ * 
+ * <pre>
+ * 3
+ * 192.168.1.1_0000000001=0-4,9
+ * 192.168.1.2_0000000002=5-8
+ * </pre>
+ * 
+ * @author zhangliang
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ShardingPlanCodec {
+    
+    private static final char LINE_SEPARATOR = '\n';
+    
+    private static final char SERVER_SEPARATOR = '=';
+    
+    private static final char ITEM_SEPARATOR = ',';
+    
+    private static final char RANGE_SEPARATOR = '-';
+    
+    /**
+     * 将分片计划编码为字符串.
+     * 
+     * @param shardingPlan 分片计划
+     * @return 分片计划字符串
+     */
+    public static String encode(final ShardingPlan shardingPlan) {
+        StringBuilder result = new StringBuilder();
+        result.append(shardingPlan.getVersion());
+        for (Entry<String, List<Integer>> entry : shardingPlan.getAssignments().entrySet()) {
+            result.append(LINE_SEPARATOR).append(entry.getKey()).append(SERVER_SEPARATOR);
+            appendItems(result, entry.getValue());
+        }
+        return result.toString();
+    }
+    
+    private static void appendItems(final StringBuilder result, final List<Integer> items) {
+        List<Integer> sortedItems = new ArrayList<>(items);
+        Collections.sort(sortedItems);
+        boolean first = true;
+        int i = 0;
+        while (i < sortedItems.size()) {
+            int start = sortedItems.get(i);
+            int end = start;
+            while (i + 1 < sortedItems.size() && sortedItems.get(i + 1) <= end + 1) {
+                end = sortedItems.get(++i);
+            }
+            if (!first) {
+                result.append(ITEM_SEPARATOR);
+            }
+            first = false;
+            result.append(start);
+            if (end != start) {
+                result.append(RANGE_SEPARATOR).append(end);
+            }
+            i++;
+        }
+    }
+    
+    /**
+     * 将字符串解码为分片计划.
+     * 
+     * @param shardingPlan 分片计划字符串
+     * @return 分片计划, 字符串为空则返回初始分片计划
+     */
+    public static ShardingPlan decode(final String shardingPlan) {
+        if (Strings.isNullOrEmpty(shardingPlan)) {
+            return ShardingPlan.empty();
+        }
+        String[] lines = shardingPlan.split(String.valueOf(LINE_SEPARATOR));
+        Map<String, List<Integer>> assignments = new LinkedHashMap<>(lines.length, 1);
+        for (int i = 1; i < lines.length; i++) {
+            int index = lines[i].lastIndexOf(SERVER_SEPARATOR);
+            assignments.put(lines[i].substring(0, index), parseItems(lines[i].substring(index + 1)));
+        }
+        return new ShardingPlan(Long.parseLong(lines[0].trim()), assignments);
+    }
+    
+    private static List<Integer> parseItems(final String items) {
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Integer> result = new ArrayList<>();
+        for (String each : items.split(String.valueOf(ITEM_SEPARATOR))) {
+            int index = each.indexOf(RANGE_SEPARATOR);
+            if (index < 0) {
+                result.add(Integer.parseInt(each));
+                continue;
+            }
+            int end = Integer.parseInt(each.substring(index + 1));
+            for (int item = Integer.parseInt(each.substring(0, index)); item <= end; item++) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+}
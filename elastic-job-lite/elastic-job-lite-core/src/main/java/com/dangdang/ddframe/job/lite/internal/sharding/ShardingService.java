@@ -25,23 +25,22 @@ import com.dangdang.ddframe.job.lite.internal.config.ConfigurationService;
 import com.dangdang.ddframe.job.lite.internal.election.LeaderElectionService;
 import com.dangdang.ddframe.job.lite.internal.execution.ExecutionService;
 import com.dangdang.ddframe.job.lite.internal.schedule.JobRegistry;
-import com.dangdang.ddframe.job.lite.internal.server.ServerData;
 import com.dangdang.ddframe.job.lite.internal.server.ServerService;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodePath;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
 import com.dangdang.ddframe.job.lite.internal.storage.TransactionExecutionCallback;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
-import com.dangdang.ddframe.job.util.concurrent.BlockUtils;
-import com.dangdang.ddframe.job.util.config.ShardingItems;
-import com.google.common.base.Strings;
+import com.google.common.base.Charsets;
+import com.google.common.base.Function;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.curator.framework.api.transaction.CuratorTransactionFinal;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 
 /**
  * 作业分片服务.
@@ -51,6 +50,16 @@ import java.util.Map.Entry;
 @Slf4j
 public class ShardingService {
     
+    private static final long AWAIT_TIMEOUT_MILLISECONDS = 1000L;
+    
+    private static final Function<String, ShardingPlan> DECODER = new Function<String, ShardingPlan>() {
+        
+        @Override
+        public ShardingPlan apply(final String input) {
+            return ShardingPlanCodec.decode(input);
+        }
+    };
+    
     private final String jobName;
     
     private final JobNodeStorage jobNodeStorage;
@@ -88,7 +97,7 @@ public class ShardingService {
      * @return 是否需要重分片
      */
     public boolean isNeedSharding() {
-        return jobNodeStorage.isJobNodeExisted(ShardingNode.NECESSARY);
+        return jobNodeStorage.isJobNodeExistedDirectly(ShardingNode.NECESSARY);
     }
     
     /**
@@ -114,60 +123,83 @@ public class ShardingService {
         }
         log.debug("Job '{}' sharding begin.", jobName);
         jobNodeStorage.fillEphemeralJobNode(ShardingNode.PROCESSING, "");
-        clearShardingInfo();
         JobShardingStrategy jobShardingStrategy = JobShardingStrategyFactory.getStrategy(liteJobConfig.getJobShardingStrategyClass());
-        JobShardingStrategyOption option = new JobShardingStrategyOption(jobName, liteJobConfig.getTypeConfig().getCoreConfig().getShardingTotalCount());
-        jobNodeStorage.executeInTransaction(new PersistShardingInfoTransactionExecutionCallback(jobShardingStrategy.sharding(availableShardingServers, option)));
+        ShardingPlan previousShardingPlan = ShardingPlanCodec.decode(jobNodeStorage.getJobNodeDataDirectly(ShardingNode.PLAN));
+        int shardingTotalCount = liteJobConfig.getTypeConfig().getCoreConfig().getShardingTotalCount();
+        JobShardingStrategyOption option = new JobShardingStrategyOption(
+                jobName, shardingTotalCount, previousShardingPlan.getAssignments(), getServerWeights(availableShardingServers), executionService.getItemDurations(shardingTotalCount));
+        ShardingPlan shardingPlan = previousShardingPlan.next(jobShardingStrategy.sharding(availableShardingServers, option));
+        jobNodeStorage.executeInTransaction(new PersistShardingInfoTransactionExecutionCallback(shardingPlan));
         log.debug("Job '{}' sharding complete.", jobName);
     }
     
+    private Map<String, Double> getServerWeights(final List<String> servers) {
+        Map<String, Double> result = new HashMap<>(servers.size(), 1);
+        for (String each : servers) {
+            double spareCapacity = serverService.getSpareCapacity(each);
+            if (spareCapacity > 0) {
+                result.put(each, spareCapacity);
+            }
+        }
+        return result;
+    }
+    
     private void blockUntilShardingCompleted() {
-        while (!leaderElectionService.isLeader() && (jobNodeStorage.isJobNodeExisted(ShardingNode.NECESSARY) || jobNodeStorage.isJobNodeExisted(ShardingNode.PROCESSING))) {
-            log.debug("Job '{}' sleep short time until sharding completed.", jobName);
-            BlockUtils.waitingShortTime();
+        while (!leaderElectionService.isLeader() && (jobNodeStorage.isJobNodeExistedDirectly(ShardingNode.NECESSARY) || jobNodeStorage.isJobNodeExistedDirectly(ShardingNode.PROCESSING))) {
+            log.debug("Job '{}' waiting until sharding completed.", jobName);
+            if (jobNodeStorage.awaitJobNodeRemoved(ShardingNode.NECESSARY, AWAIT_TIMEOUT_MILLISECONDS)) {
+                jobNodeStorage.awaitJobNodeRemoved(ShardingNode.PROCESSING, AWAIT_TIMEOUT_MILLISECONDS);
+            }
         }
     }
     
     private void waitingOtherJobCompleted() {
         while (executionService.hasRunningItems()) {
-            log.debug("Job '{}' sleep short time until other job completed.", jobName);
-            BlockUtils.waitingShortTime();
+            log.debug("Job '{}' waiting until other job completed.", jobName);
+            executionService.awaitRunningItemsCompleted(AWAIT_TIMEOUT_MILLISECONDS);
         }
     }
     
     private void clearShardingInfo() {
-        for (String each : serverService.getAllServers()) {
-            ServerData data = serverService.loadServerData(each);
-            data.setSharding(null);
-            serverService.updateServerData(each, data);
+        ShardingPlan shardingPlan = getShardingPlan();
+        if (!shardingPlan.getAssignments().isEmpty()) {
+            jobNodeStorage.replaceJobNode(ShardingNode.PLAN, ShardingPlanCodec.encode(shardingPlan.next(Collections.<String, List<Integer>>emptyMap())));
         }
     }
     
+    /**
+     * 获取分片计划.
+     * 
+     * <p>分片计划未变化时返回本地缓存的同一解码对象.</p>
+     * 
+     * @return 分片计划
+     */
+    public ShardingPlan getShardingPlan() {
+        return jobNodeStorage.getJobNodeDecodedData(ShardingNode.PLAN, DECODER);
+    }
+    
     /**
      * 获取运行在本作业服务器的分片序列号.
      * 
      * @return 运行在本作业服务器的分片序列号
      */
     public List<Integer> getLocalHostShardingItems() {
-        String serverName = JobRegistry.getInstance().getJobServerName(jobName);
-        ServerData data = serverService.loadServerData(serverName);
-        if (data == null || Strings.isNullOrEmpty(data.getSharding())) {
-            return Collections.emptyList();
-        }
-        return ShardingItems.toItemList(data.getSharding());
+        return new ArrayList<>(getShardingPlan().getShardingItems(JobRegistry.getInstance().getJobServerName(jobName)));
     }
     
     @RequiredArgsConstructor
     class PersistShardingInfoTransactionExecutionCallback implements TransactionExecutionCallback {
         
-        private final Map<String, List<Integer>> shardingItems;
+        private final ShardingPlan shardingPlan;
         
         @Override
         public void execute(final CuratorTransactionFinal curatorTransactionFinal) throws Exception {
-            for (Entry<String, List<Integer>> entry : shardingItems.entrySet()) {
-                ServerData data = serverService.loadServerData(entry.getKey());
-                data.setSharding(ShardingItems.toItemsString(entry.getValue()));
-                serverService.updateServerData(entry.getKey(), data);
+            String shardingPlanNodePath = jobNodePath.getFullPath(ShardingNode.PLAN);
+            byte[] data = ShardingPlanCodec.encode(shardingPlan).getBytes(Charsets.UTF_8);
+            if (jobNodeStorage.isJobNodeExistedDirectly(ShardingNode.PLAN)) {
+                curatorTransactionFinal.setData().forPath(shardingPlanNodePath, data).and();
+            } else {
+                curatorTransactionFinal.create().forPath(shardingPlanNodePath, data).and();
             }
             curatorTransactionFinal.delete().forPath(jobNodePath.getFullPath(ShardingNode.NECESSARY)).and();
             curatorTransactionFinal.delete().forPath(jobNodePath.getFullPath(ShardingNode.PROCESSING)).and();
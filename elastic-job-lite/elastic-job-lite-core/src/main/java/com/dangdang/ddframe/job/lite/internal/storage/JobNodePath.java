@@ -61,6 +61,11 @@ public final class JobNodePath {
     @Deprecated
     public static final String STATUS_NODE = "status";
     
+    /**
+     * 分片计划节点名称.
+     */
+    public static final String SHARDING_PLAN_NODE = "sharding";
+    
     private static final String LEADER_HOST_NODE = "leader/election/host";
     
     private static final String CONFIG_NODE = "config";
@@ -69,6 +74,8 @@ public final class JobNodePath {
     
     private static final String EXECUTION_NODE = "execution";
     
+    private static final String EXECUTION_STATE_NODE = "executionState";
+    
     private final String jobName;
     
     /**
@@ -99,6 +106,15 @@ public final class JobNodePath {
         return String.format("/%s/%s", jobName, LEADER_HOST_NODE);
     }
     
+    /**
+     * 获取分片计划节点路径.
+     *
+     * @return 分片计划节点路径
+     */
+    public String getShardingPlanNodePath() {
+        return String.format("/%s/%s", jobName, SHARDING_PLAN_NODE);
+    }
+    
     /**
      * 获取作业服务器节点根路径.
      *
@@ -149,4 +165,23 @@ public final class JobNodePath {
     public String getExecutionNodePath(final String item, final String nodeName) {
         return String.format("%s/%s/%s", getExecutionNodePath(), item, nodeName);
     }
+    
+    /**
+     * 获取紧凑运行状态根路径.
+     *
+     * @return 紧凑运行状态根路径
+     */
+    public String getExecutionStateNodePath() {
+        return String.format("/%s/%s", jobName, EXECUTION_STATE_NODE);
+    }
+    
+    /**
+     * 获取作业服务器紧凑运行状态路径.
+     *
+     * @param serverName 作业服务器名称
+     * @return 作业服务器紧凑运行状态路径
+     */
+    public String getExecutionStateNodePath(final String serverName) {
+        return String.format("%s/%s", getExecutionStateNodePath(), serverName);
+    }
 }
@@ -18,8 +18,14 @@
 package com.dangdang.ddframe.job.lite.internal.storage;
 
 import com.dangdang.ddframe.job.exception.JobSystemException;
+import com.dangdang.ddframe.job.reg.base.BatchOperation;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
+import com.dangdang.ddframe.job.reg.exception.RegException;
 import com.dangdang.ddframe.job.reg.exception.RegExceptionHandler;
+import com.google.common.base.Function;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.api.transaction.CuratorTransactionFinal;
 import org.apache.curator.framework.recipes.cache.TreeCache;
@@ -27,6 +33,7 @@ import org.apache.curator.framework.recipes.cache.TreeCacheListener;
 import org.apache.curator.framework.recipes.leader.LeaderLatch;
 import org.apache.curator.framework.state.ConnectionStateListener;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -55,6 +62,8 @@ public class JobNodeStorage {
     /**
      * 判断作业节点是否存在.
      * 
+     * <p>作业节点在本地缓存中, 结果可能短暂落后于注册中心.</p>
+     * 
      * @param node 作业节点名称
      * @return 作业节点是否存在
      */
@@ -62,6 +71,38 @@ public class JobNodeStorage {
         return regCenter.isExisted(jobNodePath.getFullPath(node));
     }
     
+    /**
+     * 直接从注册中心而非本地缓存判断作业节点是否存在.
+     * 
+     * @param node 作业节点名称
+     * @return 作业节点是否存在
+     */
+    public boolean isJobNodeExistedDirectly(final String node) {
+        return regCenter.isExistedDirectly(jobNodePath.getFullPath(node));
+    }
+    
+    /**
+     * 阻塞等待作业节点被创建.
+     * 
+     * @param node 作业节点名称
+     * @param timeoutMilliseconds 超时毫秒数
+     * @return 超时前作业节点是否已存在
+     */
+    public boolean awaitJobNodeCreated(final String node, final long timeoutMilliseconds) {
+        return regCenter.awaitCreated(jobNodePath.getFullPath(node), timeoutMilliseconds);
+    }
+    
+    /**
+     * 阻塞等待作业节点被删除.
+     * 
+     * @param node 作业节点名称
+     * @param timeoutMilliseconds 超时毫秒数
+     * @return 超时前作业节点是否已不存在
+     */
+    public boolean awaitJobNodeRemoved(final String node, final long timeoutMilliseconds) {
+        return regCenter.awaitRemoved(jobNodePath.getFullPath(node), timeoutMilliseconds);
+    }
+    
     /**
      * 获取作业节点数据.
      * 
@@ -72,6 +113,20 @@ public class JobNodeStorage {
         return regCenter.get(jobNodePath.getFullPath(node));
     }
     
+    /**
+     * 获取解码后的作业节点数据.
+     * 
+     * <p>作业节点未变化时返回同一解码对象, 解码结果必须是不可变对象.</p>
+     * 
+     * @param node 作业节点名称
+     * @param decoder 解码器
+     * @param <T> 解码结果类型
+     * @return 解码后的作业节点数据
+     */
+    public <T> T getJobNodeDecodedData(final String node, final Function<String, T> decoder) {
+        return regCenter.getDecoded(jobNodePath.getFullPath(node), decoder);
+    }
+    
     /**
      * 直接从注册中心而非本地缓存获取作业节点数据.
      * 
@@ -85,6 +140,8 @@ public class JobNodeStorage {
     /**
      * 获取作业节点子节点名称列表.
      * 
+     * <p>作业节点在本地缓存中, 结果可能短暂落后于注册中心.</p>
+     * 
      * @param node 作业节点名称
      * @return 作业节点子节点名称列表
      */
@@ -92,6 +149,16 @@ public class JobNodeStorage {
         return regCenter.getChildrenKeys(jobNodePath.getFullPath(node));
     }
     
+    /**
+     * 直接从注册中心而非本地缓存获取作业节点子节点名称列表.
+     * 
+     * @param node 作业节点名称
+     * @return 作业节点子节点名称列表
+     */
+    public List<String> getJobNodeChildrenKeysDirectly(final String node) {
+        return regCenter.getChildrenKeysDirectly(jobNodePath.getFullPath(node));
+    }
+    
     /**
      * 如果存在则创建作业节点.
      * 
@@ -100,7 +167,7 @@ public class JobNodeStorage {
      * @param node 作业节点名称
      */
     public void createJobNodeIfNeeded(final String node) {
-        if (isJobRootNodeExisted() && !isJobNodeExisted(node)) {
+        if (isJobRootNodeExisted() && !isJobNodeExistedDirectly(node)) {
             regCenter.persist(jobNodePath.getFullPath(node), "");
         }
     }
@@ -130,7 +197,7 @@ public class JobNodeStorage {
      * @param node 作业节点名称
      */
     public void removeJobNodeIfExisted(final String node) {
-        if (isJobNodeExisted(node)) {
+        if (isJobNodeExistedDirectly(node)) {
             regCenter.remove(jobNodePath.getFullPath(node));
         }
     }
@@ -155,6 +222,18 @@ public class JobNodeStorage {
         regCenter.persistEphemeral(jobNodePath.getFullPath(node), value.toString());
     }
     
+    /**
+     * 比较并填充临时节点数据.
+     * 
+     * @param node 作业节点名称
+     * @param expectedValue 期望的作业节点数据值, null表示节点不存在
+     * @param value 作业节点数据值
+     * @return 节点数据仍为期望值且写入成功返回true, 否则返回false
+     */
+    public boolean fillEphemeralJobNodeIfUnchanged(final String node, final String expectedValue, final Object value) {
+        return regCenter.persistEphemeralIfUnchanged(jobNodePath.getFullPath(node), expectedValue, value.toString());
+    }
+    
     /**
      * 更新节点数据.
      * 
@@ -175,6 +254,86 @@ public class JobNodeStorage {
         regCenter.persist(jobNodePath.getFullPath(node), value.toString());
     }
 
+    /**
+     * 延迟替换作业节点数据.
+     * 
+     * <p>用于仅供展示的记录类数据, 同一节点的多次写入合并后批量写入注册中心.</p>
+     * 
+     * @param node 作业节点名称
+     * @param value 待替换的数据
+     */
+    public void replaceJobNodeBehind(final String node, final Object value) {
+        regCenter.persistBehind(jobNodePath.getFullPath(node), value.toString());
+    }
+    
+    /**
+     * 异步读取并按版本条件更新作业节点数据.
+     * 
+     * <p>用于无需等待注册中心响应的数据, 不覆盖其他客户端同时写入的数据, 失败只记录日志.</p>
+     * 
+     * @param node 作业节点名称
+     * @param updater 根据当前值计算新值的函数
+     * @return 操作结果
+     */
+    public ListenableFuture<Void> updateJobNodeAsync(final String node, final Function<String, String> updater) {
+        return logFailure(regCenter.compareAndUpdateAsync(jobNodePath.getFullPath(node), updater));
+    }
+    
+    private ListenableFuture<Void> logFailure(final ListenableFuture<Void> future) {
+        Futures.addCallback(future, new FutureCallback<Void>() {
+            
+            @Override
+            public void onSuccess(final Void result) {
+            }
+            
+            @Override
+            public void onFailure(final Throwable cause) {
+                RegExceptionHandler.logException(cause);
+            }
+        });
+        return future;
+    }
+    
+    /**
+     * 批量执行作业节点操作.
+     * 
+     * <p>如果作业根节点不存在表示作业已经停止, 不再继续操作.</p>
+     * 
+     * @param operations 以作业节点名称为键的批量操作
+     */
+    public void executeInBatch(final List<BatchOperation> operations) {
+        if (operations.isEmpty() || !isJobRootNodeExisted()) {
+            return;
+        }
+        regCenter.executeInBatch(toFullPathOperations(operations));
+    }
+    
+    /**
+     * 批量执行作业节点操作, 任何注册中心异常都抛给调用方.
+     * 
+     * <p>作业根节点不存在时同样抛出异常, 调用方据此判断操作未写入.</p>
+     * 
+     * @param operations 以作业节点名称为键的批量操作
+     * @throws RegException 注册中心异常或作业根节点不存在
+     */
+    public void executeInBatchStrictly(final List<BatchOperation> operations) {
+        if (operations.isEmpty()) {
+            return;
+        }
+        if (!isJobRootNodeExisted()) {
+            throw new RegException("Job '%s' root node does not exist.", jobName);
+        }
+        regCenter.executeInBatchStrictly(toFullPathOperations(operations));
+    }
+    
+    private List<BatchOperation> toFullPathOperations(final List<BatchOperation> operations) {
+        List<BatchOperation> result = new ArrayList<>(operations.size());
+        for (BatchOperation each : operations) {
+            result.add(each.withKey(jobNodePath.getFullPath(each.getKey())));
+        }
+        return result;
+    }
+    
     /**
      * 在事务中执行操作.
      * 
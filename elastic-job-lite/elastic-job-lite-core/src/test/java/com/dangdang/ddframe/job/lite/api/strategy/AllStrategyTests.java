@@ -18,8 +18,12 @@
 package com.dangdang.ddframe.job.lite.api.strategy;
 
 import com.dangdang.ddframe.job.lite.api.strategy.impl.AverageAllocationJobShardingStrategyTest;
+import com.dangdang.ddframe.job.lite.api.strategy.impl.CapacityWeightedJobShardingStrategyTest;
+import com.dangdang.ddframe.job.lite.api.strategy.impl.ConsistentHashJobShardingStrategyTest;
+import com.dangdang.ddframe.job.lite.api.strategy.impl.LongestProcessingTimeJobShardingStrategyTest;
 import com.dangdang.ddframe.job.lite.api.strategy.impl.OdevitySortByNameJobShardingStrategyTest;
 import com.dangdang.ddframe.job.lite.api.strategy.impl.RotateServerByNameJobShardingStrategyTest;
+import com.dangdang.ddframe.job.lite.api.strategy.impl.StickyJobShardingStrategyTest;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
@@ -28,8 +32,12 @@ import org.junit.runners.Suite.SuiteClasses;
 @SuiteClasses({
         JobShardingStrategyFactoryTest.class, 
         AverageAllocationJobShardingStrategyTest.class, 
+        CapacityWeightedJobShardingStrategyTest.class, 
+        ConsistentHashJobShardingStrategyTest.class, 
+        LongestProcessingTimeJobShardingStrategyTest.class, 
         OdevitySortByNameJobShardingStrategyTest.class, 
-        RotateServerByNameJobShardingStrategyTest.class
+        RotateServerByNameJobShardingStrategyTest.class, 
+        StickyJobShardingStrategyTest.class
     })
 public final class AllStrategyTests {
 }
@@ -0,0 +1,118 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.api.strategy.impl;
+
+import com.dangdang.ddframe.job.lite.api.strategy.JobShardingStrategy;
+import com.dangdang.ddframe.job.lite.api.strategy.JobShardingStrategyOption;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public final class CapacityWeightedJobShardingStrategyTest {
+    
+    private final JobShardingStrategy jobShardingStrategy = new CapacityWeightedJobShardingStrategy();
+    
+    @Test
+    public void shardingForZeroServer() {
+        assertThat(jobShardingStrategy.sharding(Collections.<String>emptyList(), getJobShardingStrategyOption(3, Collections.<String, List<Integer>>emptyMap(),
+                Collections.<String, Double>emptyMap())), is(Collections.EMPTY_MAP));
+    }
+    
+    @Test
+    public void shardingWithoutServerWeights() {
+        Map<String, List<Integer>> expected = new LinkedHashMap<>(3);
+        expected.put("host0", Arrays.asList(0, 1, 2));
+        expected.put("host1", Arrays.asList(3, 4, 5));
+        expected.put("host2", Arrays.asList(6, 7, 8));
+        assertThat(jobShardingStrategy.sharding(Arrays.asList("host0", "host1", "host2"), getJobShardingStrategyOption(9, Collections.<String, List<Integer>>emptyMap(),
+                Collections.<String, Double>emptyMap())), is(expected));
+    }
+    
+    @Test
+    public void shardingWithServerWeights() {
+        Map<String, List<Integer>> expected = new LinkedHashMap<>(3);
+        expected.put("host0", Arrays.asList(0, 1));
+        expected.put("host1", Arrays.asList(2, 3));
+        expected.put("host2", Arrays.asList(4, 5, 6, 7));
+        assertThat(jobShardingStrategy.sharding(Arrays.asList("host0", "host1", "host2"), getJobShardingStrategyOption(8, Collections.<String, List<Integer>>emptyMap(),
+                createServerWeights(4D, 4D, 8D))), is(expected));
+    }
+    
+    @Test
+    public void shardingWithPartialServerWeights() {
+        Map<String, Double> serverWeights = new HashMap<>(2);
+        serverWeights.put("host0", 2D);
+        serverWeights.put("host1", 6D);
+        Map<String, List<Integer>> expected = new LinkedHashMap<>(3);
+        expected.put("host0", Arrays.asList(0, 1));
+        expected.put("host1", Arrays.asList(2, 3, 4, 5, 6, 7));
+        expected.put("host2", Arrays.asList(8, 9, 10, 11));
+        assertThat(jobShardingStrategy.sharding(Arrays.asList("host0", "host1", "host2"), getJobShardingStrategyOption(12, Collections.<String, List<Integer>>emptyMap(), serverWeights)), is(expected));
+    }
+    
+    @Test
+    public void shardingWhenLoadChangeWithinHysteresis() {
+        Map<String, List<Integer>> previous = new LinkedHashMap<>(2);
+        previous.put("host0", Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9));
+        previous.put("host1", Arrays.asList(10, 11, 12, 13, 14, 15, 16, 17, 18, 19));
+        assertThat(jobShardingStrategy.sharding(Arrays.asList("host0", "host1"), getJobShardingStrategyOption(20, previous, createServerWeights(5.5D, 4.5D))), is(previous));
+    }
+    
+    @Test
+    public void shardingWhenLoadChangeBeyondHysteresis() {
+        Map<String, List<Integer>> previous = new LinkedHashMap<>(2);
+        previous.put("host0", Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9));
+        previous.put("host1", Arrays.asList(10, 11, 12, 13, 14, 15, 16, 17, 18, 19));
+        Map<String, List<Integer>> expected = new LinkedHashMap<>(2);
+        expected.put("host0", Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 15, 16, 17, 18, 19));
+        expected.put("host1", Arrays.asList(10, 11, 12, 13, 14));
+        assertThat(jobShardingStrategy.sharding(Arrays.asList("host0", "host1"), getJobShardingStrategyOption(20, previous, createServerWeights(3D, 1D))), is(expected));
+    }
+    
+    @Test
+    public void shardingWhenServerOnline() {
+        Map<String, List<Integer>> previous = new LinkedHashMap<>(2);
+        previous.put("host0", Arrays.asList(0, 1, 2, 3));
+        previous.put("host1", Arrays.asList(4, 5, 6, 7));
+        Map<String, List<Integer>> expected = new LinkedHashMap<>(3);
+        expected.put("host0", Arrays.asList(0, 1));
+        expected.put("host1", Arrays.asList(4, 5));
+        expected.put("host2", Arrays.asList(2, 3, 6, 7));
+        assertThat(jobShardingStrategy.sharding(Arrays.asList("host0", "host1", "host2"), getJobShardingStrategyOption(8, previous, createServerWeights(4D, 4D, 8D))), is(expected));
+    }
+    
+    private Map<String, Double> createServerWeights(final double... weights) {
+        Map<String, Double> result = new HashMap<>(weights.length);
+        for (int i = 0; i < weights.length; i++) {
+            result.put("host" + i, weights[i]);
+        }
+        return result;
+    }
+    
+    private JobShardingStrategyOption getJobShardingStrategyOption(final int shardingTotalCount, final Map<String, List<Integer>> previousShardingResult, final Map<String, Double> serverWeights) {
+        return new JobShardingStrategyOption("test_job", shardingTotalCount, previousShardingResult, serverWeights);
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.api.strategy.impl;
+
+import com.dangdang.ddframe.job.lite.api.strategy.JobShardingStrategy;
+import com.dangdang.ddframe.job.lite.api.strategy.JobShardingStrategyOption;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分片策略的性能基准.
+ * 
+ * <p>
+ * 对比平均分配策略与一致性哈希策略的分片耗时, 并输出服务器上下线时需迁移的分片比例.
+ * 运行方式: 执行本类的main方法.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConsistentHashJobShardingStrategyBenchmark {
+    
+    private static final int SHARDING_TOTAL_COUNT = 10000;
+    
+    private static final int SERVER_COUNT = 500;
+    
+    private final JobShardingStrategy averageAllocationStrategy = new AverageAllocationJobShardingStrategy();
+    
+    private final JobShardingStrategy consistentHashStrategy = new ConsistentHashJobShardingStrategy();
+    
+    private List<String> servers;
+    
+    private JobShardingStrategyOption option;
+    
+    @Setup
+    public void setUp() {
+        servers = createServers(SERVER_COUNT);
+        option = new JobShardingStrategyOption("test_job", SHARDING_TOTAL_COUNT);
+    }
+    
+    @Benchmark
+    public Map<String, List<Integer>> averageAllocation() {
+        return averageAllocationStrategy.sharding(servers, option);
+    }
+    
+    @Benchmark
+    public Map<String, List<Integer>> consistentHash() {
+        return consistentHashStrategy.sharding(servers, option);
+    }
+    
+    /**
+     * 计算服务器列表变化前后需迁移的分片比例.
+     * 
+     * @param strategy 分片策略
+     * @param before 变化前的服务器列表
+     * @param after 变化后的服务器列表
+     * @param option 分片策略选项
+     * @return 需迁移的分片比例
+     */
+    static double calculateMovementRatio(final JobShardingStrategy strategy, final List<String> before, final List<String> after, final JobShardingStrategyOption option) {
+        Map<Integer, String> beforeOwners = toOwners(strategy.sharding(before, option));
+        Map<Integer, String> afterOwners = toOwners(strategy.sharding(after, option));
+        int moved = 0;
+        for (Entry<Integer, String> entry : afterOwners.entrySet()) {
+            if (!entry.getValue().equals(beforeOwners.get(entry.getKey()))) {
+                moved++;
+            }
+        }
+        return (double) moved / option.getShardingTotalCount();
+    }
+    
+    private static Map<Integer, String> toOwners(final Map<String, List<Integer>> shardingResult) {
+        Map<Integer, String> result = new HashMap<>();
+        for (Entry<String, List<Integer>> entry : shardingResult.entrySet()) {
+            for (int each : entry.getValue()) {
+                result.put(each, entry.getKey());
+            }
+        }
+        return result;
+    }
+    
+    static List<String> createServers(final int serverCount) {
+        List<String> result = new ArrayList<>(serverCount);
+        for (int i = 0; i < serverCount; i++) {
+            result.add("192.168." + i / 256 + "." + i % 256 + "@-@0");
+        }
+        return result;
+    }
+    
+    private static void printMovementRatio(final String strategyName, final JobShardingStrategy strategy) {
+        JobShardingStrategyOption option = new JobShardingStrategyOption("test_job", SHARDING_TOTAL_COUNT);
+        List<String> servers = createServers(SERVER_COUNT);
+        List<String> serversWithoutOne = new ArrayList<>(servers);
+        serversWithoutOne.remove(SERVER_COUNT / 2);
+        List<String> serversWithOneMore = createServers(SERVER_COUNT + 1);
+        System.out.printf("%s: server offline moves %.2f%%, server online moves %.2f%%, ideal %.2f%%%n", strategyName,
+                calculateMovementRatio(strategy, servers, serversWithoutOne, option) * 100, calculateMovementRatio(strategy, servers, serversWithOneMore, option) * 100, 100D / SERVER_COUNT);
+    }
+    
+    public static void main(final String[] args) throws RunnerException {
+        printMovementRatio("AverageAllocation", new AverageAllocationJobShardingStrategy());
+        printMovementRatio("ConsistentHash", new ConsistentHashJobShardingStrategy());
+        new Runner(new OptionsBuilder().include(ConsistentHashJobShardingStrategyBenchmark.class.getSimpleName()).build()).run();
+    }
+}
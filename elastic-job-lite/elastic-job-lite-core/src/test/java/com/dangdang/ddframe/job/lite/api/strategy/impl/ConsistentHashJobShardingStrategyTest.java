@@ -0,0 +1,106 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.api.strategy.impl;
+
+import com.dangdang.ddframe.job.lite.api.strategy.JobShardingStrategy;
+import com.dangdang.ddframe.job.lite.api.strategy.JobShardingStrategyOption;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public final class ConsistentHashJobShardingStrategyTest {
+    
+    private final JobShardingStrategy jobShardingStrategy = new ConsistentHashJobShardingStrategy();
+    
+    @Test
+    public void shardingForZeroServer() {
+        assertThat(jobShardingStrategy.sharding(Collections.<String>emptyList(), getJobShardingStrategyOption(3)), is(Collections.EMPTY_MAP));
+    }
+    
+    @Test
+    public void shardingForOneServer() {
+        Map<String, List<Integer>> expected = new LinkedHashMap<>(1);
+        expected.put("host0", Arrays.asList(0, 1, 2));
+        assertThat(jobShardingStrategy.sharding(Collections.singletonList("host0"), getJobShardingStrategyOption(3)), is(expected));
+    }
+    
+    @Test
+    public void shardingForServersMoreThanShardingCount() {
+        Map<String, List<Integer>> actual = jobShardingStrategy.sharding(Arrays.asList("host0", "host1", "host2"), getJobShardingStrategyOption(2));
+        assertThat(actual.keySet().size(), is(3));
+        assertAllItemsAssignedOnce(actual, 2);
+        for (List<Integer> each : actual.values()) {
+            assertTrue(each.size() <= 1);
+        }
+    }
+    
+    @Test
+    public void shardingWithBoundedLoad() {
+        Map<String, List<Integer>> actual = jobShardingStrategy.sharding(ConsistentHashJobShardingStrategyBenchmark.createServers(10), getJobShardingStrategyOption(100));
+        assertAllItemsAssignedOnce(actual, 100);
+        for (List<Integer> each : actual.values()) {
+            assertTrue(each.size() <= 13);
+        }
+    }
+    
+    @Test
+    public void shardingIsStable() {
+        List<String> servers = ConsistentHashJobShardingStrategyBenchmark.createServers(10);
+        assertThat(jobShardingStrategy.sharding(servers, getJobShardingStrategyOption(100)), is(jobShardingStrategy.sharding(new ArrayList<>(servers), getJobShardingStrategyOption(100))));
+    }
+    
+    @Test
+    public void shardingWhenServerOffline() {
+        List<String> servers = ConsistentHashJobShardingStrategyBenchmark.createServers(100);
+        List<String> serversWithoutOne = new ArrayList<>(servers);
+        serversWithoutOne.remove(50);
+        assertTrue(ConsistentHashJobShardingStrategyBenchmark.calculateMovementRatio(jobShardingStrategy, servers, serversWithoutOne, getJobShardingStrategyOption(2000)) < 0.05D);
+    }
+    
+    @Test
+    public void shardingWhenServerOnline() {
+        assertTrue(ConsistentHashJobShardingStrategyBenchmark.calculateMovementRatio(jobShardingStrategy,
+                ConsistentHashJobShardingStrategyBenchmark.createServers(100), ConsistentHashJobShardingStrategyBenchmark.createServers(101), getJobShardingStrategyOption(2000)) < 0.05D);
+    }
+    
+    private void assertAllItemsAssignedOnce(final Map<String, List<Integer>> actual, final int shardingTotalCount) {
+        List<Integer> items = new ArrayList<>(shardingTotalCount);
+        for (List<Integer> each : actual.values()) {
+            items.addAll(each);
+        }
+        Collections.sort(items);
+        List<Integer> expected = new ArrayList<>(shardingTotalCount);
+        for (int i = 0; i < shardingTotalCount; i++) {
+            expected.add(i);
+        }
+        assertThat(items, is(expected));
+    }
+    
+    private JobShardingStrategyOption getJobShardingStrategyOption(final int shardingTotalCount) {
+        return new JobShardingStrategyOption("test_job", shardingTotalCount);
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.api.strategy.impl;
+
+import com.dangdang.ddframe.job.lite.api.strategy.JobShardingStrategy;
+import com.dangdang.ddframe.job.lite.api.strategy.JobShardingStrategyOption;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public final class LongestProcessingTimeJobShardingStrategyTest {
+    
+    private final JobShardingStrategy jobShardingStrategy = new LongestProcessingTimeJobShardingStrategy();
+    
+    @Test
+    public void shardingForZeroServer() {
+        assertThat(jobShardingStrategy.sharding(Collections.<String>emptyList(), getJobShardingStrategyOption(3, Collections.<Integer, Long>emptyMap())), is(Collections.EMPTY_MAP));
+    }
+    
+    @Test
+    public void shardingWithoutItemDurations() {
+        Map<String, List<Integer>> expected = new LinkedHashMap<>(3);
+        expected.put("host0", Arrays.asList(0, 3, 6));
+        expected.put("host1", Arrays.asList(1, 4, 7));
+        expected.put("host2", Arrays.asList(2, 5));
+        assertThat(jobShardingStrategy.sharding(Arrays.asList("host0", "host1", "host2"), getJobShardingStrategyOption(8, Collections.<Integer, Long>emptyMap())), is(expected));
+    }
+    
+    @Test
+    public void shardingWithItemDurations() {
+        Map<String, List<Integer>> expected = new LinkedHashMap<>(2);
+        expected.put("host0", Collections.singletonList(0));
+        expected.put("host1", Arrays.asList(1, 2, 3));
+        assertThat(jobShardingStrategy.sharding(Arrays.asList("host0", "host1"), getJobShardingStrategyOption(4, createItemDurations(40L, 10L, 10L, 20L))), is(expected));
+    }
+    
+    @Test
+    public void shardingWithSkewedItemDurations() {
+        Map<String, List<Integer>> expected = new LinkedHashMap<>(3);
+        expected.put("host0", Collections.singletonList(0));
+        expected.put("host1", Collections.singletonList(1));
+        expected.put("host2", Arrays.asList(2, 3, 4, 5, 6, 7, 8, 9));
+        assertThat(jobShardingStrategy.sharding(Arrays.asList("host0", "host1", "host2"),
+                getJobShardingStrategyOption(10, createItemDurations(2400L, 2400L, 30L, 30L, 30L, 30L, 30L, 30L, 30L, 30L))), is(expected));
+    }
+    
+    @Test
+    public void shardingWithPartialItemDurations() {
+        Map<Integer, Long> itemDurations = new HashMap<>(2);
+        itemDurations.put(0, 30L);
+        itemDurations.put(1, 10L);
+        Map<String, List<Integer>> expected = new LinkedHashMap<>(2);
+        expected.put("host0", Collections.singletonList(0));
+        expected.put("host1", Arrays.asList(1, 2));
+        assertThat(jobShardingStrategy.sharding(Arrays.asList("host0", "host1"), getJobShardingStrategyOption(3, itemDurations)), is(expected));
+    }
+    
+    private Map<Integer, Long> createItemDurations(final long... durations) {
+        Map<Integer, Long> result = new HashMap<>(durations.length);
+        for (int i = 0; i < durations.length; i++) {
+            result.put(i, durations[i]);
+        }
+        return result;
+    }
+    
+    private JobShardingStrategyOption getJobShardingStrategyOption(final int shardingTotalCount, final Map<Integer, Long> itemDurations) {
+        return new JobShardingStrategyOption("test_job", shardingTotalCount, Collections.<String, List<Integer>>emptyMap(), Collections.<String, Double>emptyMap(), itemDurations);
+    }
+}
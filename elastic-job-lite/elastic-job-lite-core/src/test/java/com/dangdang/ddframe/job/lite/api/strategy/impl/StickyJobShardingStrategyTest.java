@@ -0,0 +1,100 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.api.strategy.impl;
+
+import com.dangdang.ddframe.job.lite.api.strategy.JobShardingStrategy;
+import com.dangdang.ddframe.job.lite.api.strategy.JobShardingStrategyOption;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public final class StickyJobShardingStrategyTest {
+    
+    private final JobShardingStrategy jobShardingStrategy = new StickyJobShardingStrategy();
+    
+    @Test
+    public void shardingForZeroServer() {
+        assertThat(jobShardingStrategy.sharding(Collections.<String>emptyList(), getJobShardingStrategyOption(3, Collections.<String, List<Integer>>emptyMap())), is(Collections.EMPTY_MAP));
+    }
+    
+    @Test
+    public void shardingWithoutPreviousResult() {
+        Map<String, List<Integer>> expected = new LinkedHashMap<>(3);
+        expected.put("host0", Arrays.asList(0, 1, 2, 3));
+        expected.put("host1", Arrays.asList(4, 5, 6));
+        expected.put("host2", Arrays.asList(7, 8, 9));
+        assertThat(jobShardingStrategy.sharding(Arrays.asList("host0", "host1", "host2"), getJobShardingStrategyOption(10, Collections.<String, List<Integer>>emptyMap())), is(expected));
+    }
+    
+    @Test
+    public void shardingWhenServerOffline() {
+        Map<String, List<Integer>> previous = new LinkedHashMap<>(3);
+        previous.put("host0", Arrays.asList(0, 1, 2));
+        previous.put("host1", Arrays.asList(3, 4, 5));
+        previous.put("host2", Arrays.asList(6, 7, 8));
+        Map<String, List<Integer>> expected = new LinkedHashMap<>(2);
+        expected.put("host0", Arrays.asList(0, 1, 2, 6, 7));
+        expected.put("host1", Arrays.asList(3, 4, 5, 8));
+        assertThat(jobShardingStrategy.sharding(Arrays.asList("host0", "host1"), getJobShardingStrategyOption(9, previous)), is(expected));
+    }
+    
+    @Test
+    public void shardingWhenServerOnline() {
+        Map<String, List<Integer>> previous = new LinkedHashMap<>(2);
+        previous.put("host0", Arrays.asList(0, 1, 2));
+        previous.put("host1", Arrays.asList(3, 4, 5));
+        Map<String, List<Integer>> expected = new LinkedHashMap<>(3);
+        expected.put("host0", Arrays.asList(0, 1));
+        expected.put("host1", Arrays.asList(3, 4));
+        expected.put("host2", Arrays.asList(2, 5));
+        assertThat(jobShardingStrategy.sharding(Arrays.asList("host0", "host1", "host2"), getJobShardingStrategyOption(6, previous)), is(expected));
+    }
+    
+    @Test
+    public void shardingWhenShardingTotalCountChanged() {
+        Map<String, List<Integer>> previous = new LinkedHashMap<>(2);
+        previous.put("host0", Arrays.asList(0, 1, 2));
+        previous.put("host1", Arrays.asList(3, 4, 5));
+        Map<String, List<Integer>> expected = new LinkedHashMap<>(2);
+        expected.put("host0", Arrays.asList(0, 1));
+        expected.put("host1", Arrays.asList(2, 3));
+        assertThat(jobShardingStrategy.sharding(Arrays.asList("host0", "host1"), getJobShardingStrategyOption(4, previous)), is(expected));
+    }
+    
+    @Test
+    public void shardingWhenPreviousResultUnbalanced() {
+        Map<String, List<Integer>> previous = new LinkedHashMap<>(2);
+        previous.put("host0", Arrays.asList(0, 1, 2, 3, 4));
+        previous.put("host1", Collections.singletonList(5));
+        Map<String, List<Integer>> expected = new LinkedHashMap<>(2);
+        expected.put("host0", Arrays.asList(0, 1, 2));
+        expected.put("host1", Arrays.asList(3, 4, 5));
+        assertThat(jobShardingStrategy.sharding(Arrays.asList("host0", "host1"), getJobShardingStrategyOption(6, previous)), is(expected));
+    }
+    
+    private JobShardingStrategyOption getJobShardingStrategyOption(final int shardingTotalCount, final Map<String, List<Integer>> previousShardingResult) {
+        return new JobShardingStrategyOption("test_job", shardingTotalCount, previousShardingResult);
+    }
+}
@@ -33,13 +33,15 @@ public final class LiteJobConfigurationTest {
     public void assertBuildAllProperties() {
         LiteJobConfiguration actual = LiteJobConfiguration.newBuilder(
                 new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).build(), TestSimpleJob.class.getCanonicalName()))
-                .monitorExecution(false).maxTimeDiffSeconds(1000).monitorPort(8888).jobShardingStrategyClass("testClass").disabled(true).overwrite(true).build();
+                .monitorExecution(false).maxTimeDiffSeconds(1000).monitorPort(8888).jobShardingStrategyClass("testClass").disabled(true).overwrite(true).compactExecution(true).sharedScheduler(true).build();
         assertFalse(actual.isMonitorExecution());
         assertThat(actual.getMaxTimeDiffSeconds(), is(1000));
         assertThat(actual.getMonitorPort(), is(8888));
         assertThat(actual.getJobShardingStrategyClass(), is("testClass"));
         assertTrue(actual.isDisabled());
         assertTrue(actual.isOverwrite());
+        assertTrue(actual.isCompactExecution());
+        assertTrue(actual.isSharedScheduler());
     }
     
     @Test
@@ -52,6 +54,8 @@ public final class LiteJobConfigurationTest {
         assertThat(actual.getJobShardingStrategyClass(), is(""));
         assertFalse(actual.isDisabled());
         assertFalse(actual.isOverwrite());
+        assertFalse(actual.isCompactExecution());
+        assertFalse(actual.isSharedScheduler());
     }
     
     @Test
@@ -28,6 +28,9 @@ import com.dangdang.ddframe.job.lite.internal.execution.ExecutionContextServiceT
 import com.dangdang.ddframe.job.lite.internal.execution.ExecutionListenerManagerTest;
 import com.dangdang.ddframe.job.lite.internal.execution.ExecutionNodeTest;
 import com.dangdang.ddframe.job.lite.internal.execution.ExecutionServiceTest;
+import com.dangdang.ddframe.job.lite.internal.execution.ExecutionStateCodecTest;
+import com.dangdang.ddframe.job.lite.internal.execution.ExecutionStateServiceTest;
+import com.dangdang.ddframe.job.lite.internal.execution.ExecutionStateTest;
 import com.dangdang.ddframe.job.lite.internal.executor.JobExecutorTest;
 import com.dangdang.ddframe.job.lite.internal.failover.FailoverListenerManagerTest;
 import com.dangdang.ddframe.job.lite.internal.failover.FailoverNodeTest;
@@ -38,16 +41,22 @@ import com.dangdang.ddframe.job.lite.internal.listener.JobListenerTest;
 import com.dangdang.ddframe.job.lite.internal.listener.ListenerManagerTest;
 import com.dangdang.ddframe.job.lite.internal.monitor.MonitorServiceDisableTest;
 import com.dangdang.ddframe.job.lite.internal.monitor.MonitorServiceEnableTest;
+import com.dangdang.ddframe.job.lite.internal.offset.OffsetServiceTest;
 import com.dangdang.ddframe.job.lite.internal.schedule.JobRegistryTest;
-import com.dangdang.ddframe.job.lite.internal.schedule.JobScheduleControllerTest;
 import com.dangdang.ddframe.job.lite.internal.schedule.JobTriggerListenerTest;
 import com.dangdang.ddframe.job.lite.internal.schedule.LiteJobFacadeTest;
+import com.dangdang.ddframe.job.lite.internal.schedule.QuartzJobScheduleControllerTest;
 import com.dangdang.ddframe.job.lite.internal.schedule.SchedulerFacadeTest;
+import com.dangdang.ddframe.job.lite.internal.schedule.TimingWheelJobScheduleControllerTest;
+import com.dangdang.ddframe.job.lite.internal.schedule.TimingWheelSchedulerTest;
+import com.dangdang.ddframe.job.lite.internal.schedule.TimingWheelTest;
 import com.dangdang.ddframe.job.lite.internal.server.JobOperationListenerManagerTest;
+import com.dangdang.ddframe.job.lite.internal.server.ServerLoadServiceTest;
 import com.dangdang.ddframe.job.lite.internal.server.ServerNodeTest;
 import com.dangdang.ddframe.job.lite.internal.server.ServerServiceTest;
 import com.dangdang.ddframe.job.lite.internal.sharding.ShardingListenerManagerTest;
-import com.dangdang.ddframe.job.lite.internal.sharding.ShardingNodeTest;
+import com.dangdang.ddframe.job.lite.internal.sharding.ShardingPlanCodecTest;
+import com.dangdang.ddframe.job.lite.internal.sharding.ShardingPlanTest;
 import com.dangdang.ddframe.job.lite.internal.sharding.ShardingServiceTest;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodePathTest;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorageTest;
@@ -69,20 +78,25 @@ import org.junit.runners.Suite.SuiteClasses;
     ElectionNodeTest.class,
     ElectionListenerManagerTest.class, 
     ServerServiceTest.class, 
+    ServerLoadServiceTest.class, 
     ServerNodeTest.class,
     JobOperationListenerManagerTest.class, 
     ShardingServiceTest.class, 
-    ShardingNodeTest.class,
+    ShardingPlanTest.class, 
+    ShardingPlanCodecTest.class, 
     ShardingListenerManagerTest.class, 
     ExecutionContextServiceTest.class, 
     ExecutionServiceTest.class, 
+    ExecutionStateTest.class, 
+    ExecutionStateCodecTest.class, 
+    ExecutionStateServiceTest.class, 
     ExecutionNodeTest.class,
     ExecutionListenerManagerTest.class, 
     FailoverServiceTest.class, 
     FailoverNodeTest.class,
     FailoverListenerManagerTest.class, 
     JobRegistryTest.class,
-    JobScheduleControllerTest.class, 
+    QuartzJobScheduleControllerTest.class, 
     JobTriggerListenerTest.class, 
     ListenerManagerTest.class, 
     JobListenerTest.class,
@@ -90,7 +104,11 @@ import org.junit.runners.Suite.SuiteClasses;
     MonitorServiceDisableTest.class, 
     GuaranteeNodeTest.class,
     GuaranteeServiceTest.class, 
+    OffsetServiceTest.class, 
     SchedulerFacadeTest.class,
+    TimingWheelTest.class, 
+    TimingWheelSchedulerTest.class, 
+    TimingWheelJobScheduleControllerTest.class, 
     LiteJobFacadeTest.class, 
     JobExecutorTest.class
     })
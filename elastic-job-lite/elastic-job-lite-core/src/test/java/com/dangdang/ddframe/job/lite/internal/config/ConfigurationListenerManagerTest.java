@@ -19,7 +19,7 @@ package com.dangdang.ddframe.job.lite.internal.config;
 
 import com.dangdang.ddframe.job.event.JobEventBus;
 import com.dangdang.ddframe.job.lite.fixture.LiteJsonConstants;
-import com.dangdang.ddframe.job.lite.internal.config.ConfigurationListenerManager.CronSettingAndJobEventChangedJobListener;
+import com.dangdang.ddframe.job.lite.internal.listener.AbstractJobListener;
 import com.dangdang.ddframe.job.lite.internal.schedule.JobRegistry;
 import com.dangdang.ddframe.job.lite.internal.schedule.JobScheduleController;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
@@ -32,6 +32,9 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.unitils.util.ReflectionUtils;
 
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -57,7 +60,7 @@ public final class ConfigurationListenerManagerTest {
     @Test
     public void assertStart() {
         configurationListenerManager.start();
-        verify(jobNodeStorage).addDataListener(Matchers.<CronSettingAndJobEventChangedJobListener>any());
+        verify(jobNodeStorage, times(2)).addDataListener(Matchers.<AbstractJobListener>any());
     }
     
     @Test
@@ -88,4 +91,20 @@ public final class ConfigurationListenerManagerTest {
                 TreeCacheEvent.Type.NODE_UPDATED, new ChildData("/test_job/config", null, LiteJsonConstants.getJobJson().getBytes())), "/test_job/config");
         verify(jobScheduleController).rescheduleJob("0/1 * * * * ?");
     }
+    
+    @Test
+    public void assertEligibilityChangedJobListenerWhenIsNotConfigPath() {
+        JobRegistry.getInstance().setEligibleForJobRunning("test_job", JobRegistry.getInstance().getEligibilityVersion("test_job"), true);
+        configurationListenerManager.new EligibilityChangedJobListener().dataChanged(null, new TreeCacheEvent(
+                TreeCacheEvent.Type.NODE_UPDATED, new ChildData("/test_job/config/other", null, "".getBytes())), "/test_job/config/other");
+        assertThat(JobRegistry.getInstance().getEligibleForJobRunning("test_job"), is(true));
+    }
+    
+    @Test
+    public void assertEligibilityChangedJobListenerWhenIsConfigPath() {
+        JobRegistry.getInstance().setEligibleForJobRunning("test_job", JobRegistry.getInstance().getEligibilityVersion("test_job"), true);
+        configurationListenerManager.new EligibilityChangedJobListener().dataChanged(null, new TreeCacheEvent(
+                TreeCacheEvent.Type.NODE_UPDATED, new ChildData("/test_job/config", null, LiteJsonConstants.getJobJson().getBytes())), "/test_job/config");
+        assertNull(JobRegistry.getInstance().getEligibleForJobRunning("test_job"));
+    }
 }
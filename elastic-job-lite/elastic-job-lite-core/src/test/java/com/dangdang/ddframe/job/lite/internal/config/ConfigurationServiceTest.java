@@ -23,14 +23,17 @@ import com.dangdang.ddframe.job.lite.config.LiteJobConfiguration;
 import com.dangdang.ddframe.job.lite.fixture.LiteJsonConstants;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
 import com.dangdang.ddframe.job.lite.fixture.util.JobConfigurationUtil;
+import com.google.common.base.Function;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.unitils.util.ReflectionUtils;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -58,7 +61,7 @@ public final class ConfigurationServiceTest {
     
     @Test
     public void assertLoadFromCache() {
-        when(jobNodeStorage.getJobNodeData(ConfigurationNode.ROOT)).thenReturn(LiteJsonConstants.getJobJson());
+        when(jobNodeStorage.getJobNodeDecodedData(eq(ConfigurationNode.ROOT), anyDecoder())).thenReturn(LiteJobConfigurationGsonFactory.fromJson(LiteJsonConstants.getJobJson()));
         LiteJobConfiguration actual = configService.load(true);
         assertThat(actual.getJobName(), is("test_job"));
         assertThat(actual.getTypeConfig().getCoreConfig().getCron(), is("0/1 * * * * ?"));
@@ -67,7 +70,7 @@ public final class ConfigurationServiceTest {
     
     @Test
     public void assertLoadFromCacheButNull() {
-        when(jobNodeStorage.getJobNodeData(ConfigurationNode.ROOT)).thenReturn(null);
+        when(jobNodeStorage.getJobNodeDecodedData(eq(ConfigurationNode.ROOT), anyDecoder())).thenReturn(null);
         when(jobNodeStorage.getJobNodeDataDirectly(ConfigurationNode.ROOT)).thenReturn(LiteJsonConstants.getJobJson());
         LiteJobConfiguration actual = configService.load(true);
         assertThat(actual.getJobName(), is("test_job"));
@@ -77,12 +80,12 @@ public final class ConfigurationServiceTest {
     
     @Test(expected = JobConfigurationException.class)
     public void assertPersistJobConfigurationForJobConflict() {
-        when(jobNodeStorage.isJobNodeExisted(ConfigurationNode.ROOT)).thenReturn(true);
+        when(jobNodeStorage.isJobNodeExistedDirectly(ConfigurationNode.ROOT)).thenReturn(true);
         when(jobNodeStorage.getJobNodeDataDirectly(ConfigurationNode.ROOT)).thenReturn(LiteJsonConstants.getJobJson("com.dangdang.ddframe.job.api.script.api.ScriptJob"));
         try {
             configService.persist(JobConfigurationUtil.createSimpleLiteJobConfiguration());
         } finally {
-            verify(jobNodeStorage).isJobNodeExisted(ConfigurationNode.ROOT);
+            verify(jobNodeStorage).isJobNodeExistedDirectly(ConfigurationNode.ROOT);
             verify(jobNodeStorage).getJobNodeDataDirectly(ConfigurationNode.ROOT);
         }
     }
@@ -96,7 +99,7 @@ public final class ConfigurationServiceTest {
     
     @Test
     public void assertPersistExistedJobConfiguration() throws NoSuchFieldException {
-        when(jobNodeStorage.isJobNodeExisted(ConfigurationNode.ROOT)).thenReturn(true);
+        when(jobNodeStorage.isJobNodeExistedDirectly(ConfigurationNode.ROOT)).thenReturn(true);
         when(jobNodeStorage.getJobNodeDataDirectly(ConfigurationNode.ROOT)).thenReturn(LiteJsonConstants.getJobJson());
         LiteJobConfiguration liteJobConfig = JobConfigurationUtil.createSimpleLiteJobConfiguration(true);
         configService.persist(liteJobConfig);
@@ -105,13 +108,13 @@ public final class ConfigurationServiceTest {
     
     @Test
     public void assertIsMaxTimeDiffSecondsTolerableWithDefaultValue() throws JobExecutionEnvironmentException {
-        when(jobNodeStorage.getJobNodeData(ConfigurationNode.ROOT)).thenReturn(LiteJsonConstants.getJobJson(-1));
+        when(jobNodeStorage.getJobNodeDecodedData(eq(ConfigurationNode.ROOT), anyDecoder())).thenReturn(LiteJobConfigurationGsonFactory.fromJson(LiteJsonConstants.getJobJson(-1)));
         configService.checkMaxTimeDiffSecondsTolerable();
     }
     
     @Test
     public void assertIsMaxTimeDiffSecondsTolerable() throws JobExecutionEnvironmentException {
-        when(jobNodeStorage.getJobNodeData(ConfigurationNode.ROOT)).thenReturn(LiteJsonConstants.getJobJson());
+        when(jobNodeStorage.getJobNodeDecodedData(eq(ConfigurationNode.ROOT), anyDecoder())).thenReturn(LiteJobConfigurationGsonFactory.fromJson(LiteJsonConstants.getJobJson()));
         when(jobNodeStorage.getRegistryCenterTime()).thenReturn(System.currentTimeMillis());
         configService.checkMaxTimeDiffSecondsTolerable();
         verify(jobNodeStorage).getRegistryCenterTime();
@@ -119,7 +122,7 @@ public final class ConfigurationServiceTest {
     
     @Test(expected = JobExecutionEnvironmentException.class)
     public void assertIsNotMaxTimeDiffSecondsTolerable() throws JobExecutionEnvironmentException {
-        when(jobNodeStorage.getJobNodeData(ConfigurationNode.ROOT)).thenReturn(LiteJsonConstants.getJobJson());
+        when(jobNodeStorage.getJobNodeDecodedData(eq(ConfigurationNode.ROOT), anyDecoder())).thenReturn(LiteJobConfigurationGsonFactory.fromJson(LiteJsonConstants.getJobJson()));
         when(jobNodeStorage.getRegistryCenterTime()).thenReturn(0L);
         try {
             configService.checkMaxTimeDiffSecondsTolerable();
@@ -127,4 +130,8 @@ public final class ConfigurationServiceTest {
             verify(jobNodeStorage).getRegistryCenterTime();
         }
     }
+    
+    private static Function<String, LiteJobConfiguration> anyDecoder() {
+        return Matchers.any();
+    }
 }
@@ -17,12 +17,13 @@
 
 package com.dangdang.ddframe.job.lite.internal.election;
 
-import com.dangdang.ddframe.job.lite.internal.election.ElectionListenerManager.LeaderElectionJobListener;
-import com.dangdang.ddframe.job.lite.internal.server.ServerNode;
+import com.dangdang.ddframe.job.lite.internal.election.ElectionListenerManager.LeaderStateConnectionListener;
 import com.dangdang.ddframe.job.lite.internal.server.ServerService;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
 import org.apache.curator.framework.recipes.cache.ChildData;
 import org.apache.curator.framework.recipes.cache.TreeCacheEvent;
+import org.apache.curator.framework.recipes.cache.TreeCacheListener;
+import org.apache.curator.framework.state.ConnectionState;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Matchers;
@@ -41,9 +42,6 @@ public final class ElectionListenerManagerTest {
     @Mock
     private JobNodeStorage jobNodeStorage;
     
-    @Mock
-    private ServerNode serverNode;
-    
     @Mock
     private LeaderElectionService leaderElectionService;
     
@@ -56,7 +54,6 @@ public final class ElectionListenerManagerTest {
     public void setUp() throws NoSuchFieldException {
         MockitoAnnotations.initMocks(this);
         ReflectionUtils.setFieldValue(electionListenerManager, electionListenerManager.getClass().getSuperclass().getDeclaredField("jobNodeStorage"), jobNodeStorage);
-        ReflectionUtils.setFieldValue(electionListenerManager, "serverNode", serverNode);
         ReflectionUtils.setFieldValue(electionListenerManager, "leaderElectionService", leaderElectionService);
         ReflectionUtils.setFieldValue(electionListenerManager, "serverService", serverService);
     }
@@ -64,7 +61,47 @@ public final class ElectionListenerManagerTest {
     @Test
     public void assertStart() {
         electionListenerManager.start();
-        verify(jobNodeStorage).addDataListener(Matchers.<LeaderElectionJobListener>any());
+        verify(jobNodeStorage, times(2)).addDataListener(Matchers.<TreeCacheListener>any());
+        verify(jobNodeStorage).addConnectionStateListener(Matchers.<LeaderStateConnectionListener>any());
+    }
+    
+    @Test
+    public void assertLeaderStateJobListenerWhenIsNotLeaderHostPath() {
+        electionListenerManager.new LeaderStateJobListener().dataChanged(null, new TreeCacheEvent(
+                TreeCacheEvent.Type.NODE_ADDED, new ChildData("/test_job/leader/election/other", null, "localhost".getBytes())), "/test_job/leader/election/other");
+        verify(leaderElectionService, times(0)).updateLeaderState(Matchers.anyString());
+    }
+    
+    @Test
+    public void assertLeaderStateJobListenerWhenLeaderHostAdded() {
+        electionListenerManager.new LeaderStateJobListener().dataChanged(null, new TreeCacheEvent(
+                TreeCacheEvent.Type.NODE_ADDED, new ChildData("/test_job/leader/election/host", null, "localhost".getBytes())), "/test_job/leader/election/host");
+        verify(leaderElectionService).updateLeaderState("localhost");
+    }
+    
+    @Test
+    public void assertLeaderStateJobListenerWhenLeaderHostRemoved() {
+        electionListenerManager.new LeaderStateJobListener().dataChanged(null, new TreeCacheEvent(
+                TreeCacheEvent.Type.NODE_REMOVED, new ChildData("/test_job/leader/election/host", null, "localhost".getBytes())), "/test_job/leader/election/host");
+        verify(leaderElectionService).updateLeaderState(null);
+    }
+    
+    @Test
+    public void assertLeaderStateConnectionListenerWhenConnectionSuspended() {
+        electionListenerManager.new LeaderStateConnectionListener().stateChanged(null, ConnectionState.SUSPENDED);
+        verify(leaderElectionService).updateLeaderState(null);
+    }
+    
+    @Test
+    public void assertLeaderStateConnectionListenerWhenConnectionReconnected() {
+        electionListenerManager.new LeaderStateConnectionListener().stateChanged(null, ConnectionState.RECONNECTED);
+        verify(leaderElectionService).updateLeaderState(null);
+    }
+    
+    @Test
+    public void assertLeaderStateConnectionListenerWhenConnected() {
+        electionListenerManager.new LeaderStateConnectionListener().stateChanged(null, ConnectionState.CONNECTED);
+        verify(leaderElectionService, times(0)).updateLeaderState(Matchers.anyString());
     }
     
     @Test
@@ -124,7 +161,7 @@ public final class ElectionListenerManagerTest {
     @Test
     public void assertLeaderElectionJobListenerWhenJobShutdownAndIsLeader() {
         when(leaderElectionService.isLeader()).thenReturn(true);
-        //when(serverNode.isLocalJobPausedPath("/test_job/server/mockedIP/shutdown")).thenReturn(true);
+        when(serverService.isServerOff()).thenReturn(true);
         electionListenerManager.new LeaderElectionJobListener().dataChanged(null, new TreeCacheEvent(
                 TreeCacheEvent.Type.NODE_ADDED, new ChildData("/test_job/server/mockedIP/shutdown", null, "localhost".getBytes())), "/test_job/server/mockedIP/shutdown");
         verify(leaderElectionService).removeLeader();
@@ -18,9 +18,9 @@
 package com.dangdang.ddframe.job.lite.internal.election;
 
 import com.dangdang.ddframe.job.lite.internal.election.LeaderElectionService.LeaderElectionExecutionCallback;
+import com.dangdang.ddframe.job.lite.internal.schedule.JobRegistry;
 import com.dangdang.ddframe.job.lite.internal.server.ServerService;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
-import com.dangdang.ddframe.job.util.env.LocalHostService;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Matchers;
@@ -31,7 +31,9 @@ import org.unitils.util.ReflectionUtils;
 import java.util.Collections;
 
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -42,9 +44,6 @@ public final class LeaderElectionServiceTest {
     @Mock
     private JobNodeStorage jobNodeStorage;
     
-    @Mock
-    private LocalHostService localHostService;
-    
     @Mock
     private ServerService serverService;
     
@@ -54,10 +53,9 @@ public final class LeaderElectionServiceTest {
     public void setUp() throws NoSuchFieldException {
         MockitoAnnotations.initMocks(this);
         ReflectionUtils.setFieldValue(leaderElectionService, "jobNodeStorage", jobNodeStorage);
-        ReflectionUtils.setFieldValue(leaderElectionService, "localHostService", localHostService);
         ReflectionUtils.setFieldValue(leaderElectionService, "serverService", serverService);
-        when(localHostService.getIp()).thenReturn("mockedIP");
-        when(localHostService.getHostName()).thenReturn("mockedHostName");
+        JobRegistry.getInstance().addJobServerName("test_job", "mockedIP");
+        JobRegistry.getInstance().resetLeader("test_job");
     }
     
     @Test
@@ -74,63 +72,103 @@ public final class LeaderElectionServiceTest {
     
     @Test
     public void assertLeaderElectionExecutionCallbackWithLeader() {
-        when(jobNodeStorage.isJobNodeExisted("leader/election/host")).thenReturn(true);
+        when(jobNodeStorage.isJobNodeExistedDirectly("leader/election/host")).thenReturn(true);
         leaderElectionService.new LeaderElectionExecutionCallback(false).execute();
-        verify(jobNodeStorage).isJobNodeExisted("leader/election/host");
+        verify(jobNodeStorage).isJobNodeExistedDirectly("leader/election/host");
         verify(jobNodeStorage, times(0)).fillEphemeralJobNode("leader/election/host", "mockedIP");
     }
     
     @Test
     public void assertLeaderElectionExecutionCallbackWithoutLeaderAndIsAvailableServer() {
-        when(jobNodeStorage.isJobNodeExisted("leader/election/host")).thenReturn(false);
+        when(jobNodeStorage.isJobNodeExistedDirectly("leader/election/host")).thenReturn(false);
         when(serverService.isServerAvailable("mockedIP")).thenReturn(true);
         leaderElectionService.new LeaderElectionExecutionCallback(false).execute();
-        verify(jobNodeStorage).isJobNodeExisted("leader/election/host");
+        verify(jobNodeStorage).isJobNodeExistedDirectly("leader/election/host");
         verify(jobNodeStorage).fillEphemeralJobNode("leader/election/host", "mockedIP");
     }
     
     @Test
     public void assertLeaderElectionExecutionCallbackWithoutLeaderAndIsNotAvailableServer() {
-        when(jobNodeStorage.isJobNodeExisted("leader/election/host")).thenReturn(false);
+        when(jobNodeStorage.isJobNodeExistedDirectly("leader/election/host")).thenReturn(false);
         when(serverService.isServerAvailable("mockedIP")).thenReturn(false);
         leaderElectionService.new LeaderElectionExecutionCallback(false).execute();
-        verify(jobNodeStorage).isJobNodeExisted("leader/election/host");
+        verify(jobNodeStorage).isJobNodeExistedDirectly("leader/election/host");
         verify(jobNodeStorage, times(0)).fillEphemeralJobNode("leader/election/host", "mockedIP");
     }
     
     @Test
     public void assertLeaderForceElectionExecutionCallbackWithoutLeaderAndIsNotAvailableServer() {
-        when(jobNodeStorage.isJobNodeExisted("leader/election/host")).thenReturn(false);
+        when(jobNodeStorage.isJobNodeExistedDirectly("leader/election/host")).thenReturn(false);
         when(serverService.isServerAvailable("mockedIP")).thenReturn(false);
         leaderElectionService.new LeaderElectionExecutionCallback(true).execute();
-        verify(jobNodeStorage).isJobNodeExisted("leader/election/host");
+        verify(jobNodeStorage).isJobNodeExistedDirectly("leader/election/host");
         verify(jobNodeStorage).fillEphemeralJobNode("leader/election/host", "mockedIP");
     }
     
     @Test
     public void assertIsLeader() {
-        when(jobNodeStorage.isJobNodeExisted("leader/election/host")).thenReturn(false, true);
+        when(jobNodeStorage.isJobNodeExistedDirectly("leader/election/host")).thenReturn(false, true);
         when(serverService.getAvailableServers()).thenReturn(Collections.singletonList("mockedIP"));
         when(jobNodeStorage.getJobNodeData("leader/election/host")).thenReturn("mockedIP");
         assertTrue(leaderElectionService.isLeader());
+        verify(jobNodeStorage).awaitJobNodeCreated(eq("leader/election/host"), anyLong());
+        verify(jobNodeStorage).executeInLeader(eq("leader/election/latch"), Matchers.<LeaderElectionExecutionCallback>any());
+        assertTrue(JobRegistry.getInstance().getLeader("test_job"));
     }
     
     @Test
     public void assertIsNotLeader() {
-        when(jobNodeStorage.isJobNodeExisted("leader/election/host")).thenReturn(false);
+        when(jobNodeStorage.isJobNodeExistedDirectly("leader/election/host")).thenReturn(false);
         when(serverService.getAvailableServers()).thenReturn(Collections.<String>emptyList());
         assertFalse(leaderElectionService.isLeader());
+        assertNull(JobRegistry.getInstance().getLeader("test_job"));
+    }
+    
+    @Test
+    public void assertIsNotLeaderWhenOtherServerIsLeader() {
+        when(jobNodeStorage.isJobNodeExistedDirectly("leader/election/host")).thenReturn(true);
+        when(jobNodeStorage.getJobNodeData("leader/election/host")).thenReturn("otherIP");
+        assertFalse(leaderElectionService.isLeader());
+        assertFalse(JobRegistry.getInstance().getLeader("test_job"));
+    }
+    
+    @Test
+    public void assertIsLeaderWithLocalLeaderState() {
+        JobRegistry.getInstance().setLeader("test_job", true);
+        assertTrue(leaderElectionService.isLeader());
+        verify(jobNodeStorage, times(0)).isJobNodeExistedDirectly("leader/election/host");
+        verify(jobNodeStorage, times(0)).getJobNodeData("leader/election/host");
+    }
+    
+    @Test
+    public void assertIsLeaderWhenLeaderChangedDuringCheck() {
+        when(jobNodeStorage.isJobNodeExistedDirectly("leader/election/host")).thenReturn(true);
+        when(jobNodeStorage.getJobNodeData("leader/election/host")).thenReturn("mockedIP", "otherIP");
+        assertTrue(leaderElectionService.isLeader());
+        assertNull(JobRegistry.getInstance().getLeader("test_job"));
+    }
+    
+    @Test
+    public void assertUpdateLeaderState() {
+        leaderElectionService.updateLeaderState("mockedIP");
+        assertTrue(JobRegistry.getInstance().getLeader("test_job"));
+        leaderElectionService.updateLeaderState("otherIP");
+        assertFalse(JobRegistry.getInstance().getLeader("test_job"));
+        leaderElectionService.updateLeaderState(null);
+        assertNull(JobRegistry.getInstance().getLeader("test_job"));
     }
     
     @Test
     public void assertHasLeader() {
-        when(jobNodeStorage.isJobNodeExisted("leader/election/host")).thenReturn(true);
+        when(jobNodeStorage.isJobNodeExistedDirectly("leader/election/host")).thenReturn(true);
         assertTrue(leaderElectionService.hasLeader());
     }
     
     @Test
     public void assertRemoveLeader() {
+        JobRegistry.getInstance().setLeader("test_job", true);
         leaderElectionService.removeLeader();
         verify(jobNodeStorage).removeJobNodeIfExisted("leader/election/host");
+        assertNull(JobRegistry.getInstance().getLeader("test_job"));
     }
 }
@@ -40,6 +40,7 @@ import java.util.Map;
 import static junit.framework.TestCase.assertTrue;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -54,6 +55,9 @@ public final class ExecutionContextServiceTest {
     @Mock
     private ConfigurationService configService;
     
+    @Mock
+    private ExecutionStateService executionStateService;
+    
     private final ExecutionContextService executionContextService = new ExecutionContextService(null, "test_job");
     
     @Before
@@ -61,6 +65,7 @@ public final class ExecutionContextServiceTest {
         MockitoAnnotations.initMocks(this);
         ReflectionUtils.setFieldValue(executionContextService, "jobNodeStorage", jobNodeStorage);
         ReflectionUtils.setFieldValue(executionContextService, "configService", configService);
+        ReflectionUtils.setFieldValue(executionContextService, "executionStateService", executionStateService);
         when(localHostService.getIp()).thenReturn("mockedIP");
         when(localHostService.getHostName()).thenReturn("mockedHostName");
     }
@@ -102,6 +107,21 @@ public final class ExecutionContextServiceTest {
         verify(jobNodeStorage).isJobNodeExisted("execution/1/running");
     }
     
+    @Test
+    public void assertGetShardingContextWhenHasRunningItemsInCompactExecutionState() {
+        when(configService.load(false)).thenReturn(LiteJobConfiguration.newBuilder(new DataflowJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3)
+                .shardingItemParameters("0=A,1=B,2=C").build(), TestDataflowJob.class.getCanonicalName(), true)).monitorExecution(true).compactExecution(true).build());
+        when(executionStateService.isRunning(0)).thenReturn(true);
+        when(executionStateService.isRunning(1)).thenReturn(false);
+        Map<Integer, String> map = new HashMap<>(1, 1);
+        map.put(1, "B");
+        ShardingContexts expected = new ShardingContexts("fake_task_id", "test_job", 3, "", map);
+        assertShardingContext(executionContextService.getJobShardingContext(Lists.newArrayList(0, 1)), expected);
+        verify(executionStateService).isRunning(0);
+        verify(executionStateService).isRunning(1);
+        verify(jobNodeStorage, times(0)).isJobNodeExisted("execution/0/running");
+    }
+    
     private void assertShardingContext(final ShardingContexts actual, final ShardingContexts expected) {
         assertThat(actual.getJobName(), is(expected.getJobName()));
         assertThat(actual.getShardingTotalCount(), is(expected.getShardingTotalCount()));
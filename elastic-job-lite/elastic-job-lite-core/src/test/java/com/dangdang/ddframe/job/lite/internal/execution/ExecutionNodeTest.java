@@ -20,8 +20,10 @@ package com.dangdang.ddframe.job.lite.internal.execution;
 import org.junit.Test;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 
 public final class ExecutionNodeTest {
     
@@ -57,6 +59,11 @@ public final class ExecutionNodeTest {
         assertThat(ExecutionNode.getMisfireNode(0), is("execution/0/misfire"));
     }
     
+    @Test
+    public void assertGetDurationNode() {
+        assertThat(ExecutionNode.getDurationNode("host0_0001"), is("executionDuration/host0_0001"));
+    }
+    
     @Test
     public void assertGetItemWhenNotRunningItemPath() {
         assertNull(executionNode.getItemByRunningItemPath("/test_job/execution/0/completed"));
@@ -66,4 +73,16 @@ public final class ExecutionNodeTest {
     public void assertGetItemByRunningItemPath() {
         assertThat(executionNode.getItemByRunningItemPath("/test_job/execution/0/running"), is(0));
     }
+    
+    @Test
+    public void assertGetStateNode() {
+        assertThat(ExecutionNode.getStateNode("host0"), is("executionState/host0"));
+    }
+    
+    @Test
+    public void assertIsStatePath() {
+        assertTrue(executionNode.isStatePath("/test_job/executionState/host0"));
+        assertFalse(executionNode.isStatePath("/test_job/executionState"));
+        assertFalse(executionNode.isStatePath("/test_job/execution/0/running"));
+    }
 }
@@ -20,6 +20,7 @@ package com.dangdang.ddframe.job.lite.internal.execution;
 import com.dangdang.ddframe.job.config.JobCoreConfiguration;
 import com.dangdang.ddframe.job.config.simple.SimpleJobConfiguration;
 import com.dangdang.ddframe.job.executor.ShardingContexts;
+import com.dangdang.ddframe.job.lite.api.strategy.impl.StickyJobShardingStrategy;
 import com.dangdang.ddframe.job.lite.config.LiteJobConfiguration;
 import com.dangdang.ddframe.job.lite.fixture.TestSimpleJob;
 import com.dangdang.ddframe.job.lite.internal.config.ConfigurationService;
@@ -29,9 +30,11 @@ import com.dangdang.ddframe.job.lite.internal.schedule.JobScheduleController;
 import com.dangdang.ddframe.job.lite.internal.server.ServerService;
 import com.dangdang.ddframe.job.lite.internal.server.ServerStatus;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
+import com.dangdang.ddframe.job.reg.base.BatchOperation;
 import com.dangdang.ddframe.job.util.env.LocalHostService;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.unitils.util.ReflectionUtils;
@@ -40,12 +43,14 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.times;
@@ -72,6 +77,9 @@ public final class ExecutionServiceTest {
     @Mock
     private JobScheduleController jobScheduleController;
     
+    @Mock
+    private ExecutionStateService executionStateService;
+    
     private final ExecutionService executionService = new ExecutionService(null, "test_job");
     
     @Before
@@ -81,6 +89,9 @@ public final class ExecutionServiceTest {
         ReflectionUtils.setFieldValue(executionService, "configService", configService);
         ReflectionUtils.setFieldValue(executionService, "serverService", serverService);
         ReflectionUtils.setFieldValue(executionService, "leaderElectionService", leaderElectionService);
+        ReflectionUtils.setFieldValue(executionService, "executionStateService", executionStateService);
+        when(configService.load(true)).thenReturn(LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).build(),
+                TestSimpleJob.class.getCanonicalName())).build());
         when(localHostService.getIp()).thenReturn("mockedIP");
         when(localHostService.getHostName()).thenReturn("mockedHostName");
     }
@@ -108,12 +119,12 @@ public final class ExecutionServiceTest {
         executionService.registerJobBegin(getShardingContext());
         verify(configService).load(true);
         verify(serverService).updateServerStatus(ServerStatus.RUNNING);
-        verify(jobNodeStorage).fillEphemeralJobNode("execution/0/running", "");
-        verify(jobNodeStorage).fillEphemeralJobNode("execution/1/running", "");
-        verify(jobNodeStorage).fillEphemeralJobNode("execution/2/running", "");
-        verify(jobNodeStorage).replaceJobNode(eq("execution/0/lastBeginTime"), anyLong());
-        verify(jobNodeStorage).replaceJobNode(eq("execution/1/lastBeginTime"), anyLong());
-        verify(jobNodeStorage).replaceJobNode(eq("execution/2/lastBeginTime"), anyLong());
+        verify(jobNodeStorage).executeInBatch(Arrays.asList(BatchOperation.persistEphemeral("execution/0/running", ""),
+                BatchOperation.persistEphemeral("execution/1/running", ""), BatchOperation.persistEphemeral("execution/2/running", "")));
+        verify(jobNodeStorage).replaceJobNodeBehind(eq("execution/0/lastBeginTime"), anyLong());
+        verify(jobNodeStorage).replaceJobNodeBehind(eq("execution/1/lastBeginTime"), anyLong());
+        verify(jobNodeStorage).replaceJobNodeBehind(eq("execution/2/lastBeginTime"), anyLong());
+        verify(jobNodeStorage, times(0)).replaceJobNodeBehind(eq("execution/0/nextFireTime"), any());
     }
     
     @Test
@@ -125,15 +136,14 @@ public final class ExecutionServiceTest {
         executionService.registerJobBegin(getShardingContext());
         verify(configService).load(true);
         verify(serverService).updateServerStatus(ServerStatus.RUNNING);
-        verify(jobNodeStorage).fillEphemeralJobNode("execution/0/running", "");
-        verify(jobNodeStorage).fillEphemeralJobNode("execution/1/running", "");
-        verify(jobNodeStorage).fillEphemeralJobNode("execution/2/running", "");
-        verify(jobNodeStorage).replaceJobNode(eq("execution/0/lastBeginTime"), anyLong());
-        verify(jobNodeStorage).replaceJobNode(eq("execution/1/lastBeginTime"), anyLong());
-        verify(jobNodeStorage).replaceJobNode(eq("execution/2/lastBeginTime"), anyLong());
-        verify(jobNodeStorage).replaceJobNode("execution/0/nextFireTime", 0L);
-        verify(jobNodeStorage).replaceJobNode("execution/1/nextFireTime", 0L);
-        verify(jobNodeStorage).replaceJobNode("execution/2/nextFireTime", 0L);
+        verify(jobNodeStorage).executeInBatch(Arrays.asList(BatchOperation.persistEphemeral("execution/0/running", ""),
+                BatchOperation.persistEphemeral("execution/1/running", ""), BatchOperation.persistEphemeral("execution/2/running", "")));
+        verify(jobNodeStorage).replaceJobNodeBehind(eq("execution/0/lastBeginTime"), anyLong());
+        verify(jobNodeStorage).replaceJobNodeBehind(eq("execution/1/lastBeginTime"), anyLong());
+        verify(jobNodeStorage).replaceJobNodeBehind(eq("execution/2/lastBeginTime"), anyLong());
+        verify(jobNodeStorage).replaceJobNodeBehind("execution/0/nextFireTime", 0L);
+        verify(jobNodeStorage).replaceJobNodeBehind("execution/1/nextFireTime", 0L);
+        verify(jobNodeStorage).replaceJobNodeBehind("execution/2/nextFireTime", 0L);
     }
     
     @Test
@@ -151,124 +161,177 @@ public final class ExecutionServiceTest {
                 TestSimpleJob.class.getCanonicalName())).monitorExecution(true).build());
         executionService.registerJobCompleted(getShardingContext());
         verify(serverService).updateServerStatus(ServerStatus.READY);
-        verify(jobNodeStorage).createJobNodeIfNeeded("execution/0/completed");
-        verify(jobNodeStorage).createJobNodeIfNeeded("execution/1/completed");
-        verify(jobNodeStorage).createJobNodeIfNeeded("execution/2/completed");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/0/running");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/1/running");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/2/running");
-        verify(jobNodeStorage).replaceJobNode(eq("execution/0/lastCompleteTime"), anyLong());
-        verify(jobNodeStorage).replaceJobNode(eq("execution/1/lastCompleteTime"), anyLong());
-        verify(jobNodeStorage).replaceJobNode(eq("execution/2/lastCompleteTime"), anyLong());
+        verify(jobNodeStorage).executeInBatch(Arrays.asList(
+                BatchOperation.createIfAbsent("execution/0/completed", ""), BatchOperation.removeIfExisted("execution/0/running"),
+                BatchOperation.createIfAbsent("execution/1/completed", ""), BatchOperation.removeIfExisted("execution/1/running"),
+                BatchOperation.createIfAbsent("execution/2/completed", ""), BatchOperation.removeIfExisted("execution/2/running")));
+        verify(jobNodeStorage).replaceJobNodeBehind(eq("execution/0/lastCompleteTime"), anyLong());
+        verify(jobNodeStorage).replaceJobNodeBehind(eq("execution/1/lastCompleteTime"), anyLong());
+        verify(jobNodeStorage).replaceJobNodeBehind(eq("execution/2/lastCompleteTime"), anyLong());
+    }
+    
+    @Test
+    public void assertRegisterJobCompletedWithItemDurations() {
+        when(configService.load(true)).thenReturn(LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).build(),
+                TestSimpleJob.class.getCanonicalName())).monitorExecution(true).build());
+        JobRegistry.getInstance().addJobServerName("test_job", "host0_0001");
+        when(jobNodeStorage.getJobNodeData("executionDuration/host0_0001")).thenReturn("1:1000,2:800");
+        ShardingContexts shardingContexts = getShardingContext();
+        shardingContexts.getItemDurations().put(0, 500L);
+        shardingContexts.getItemDurations().put(1, 2000L);
+        executionService.registerJobCompleted(shardingContexts);
+        verify(jobNodeStorage).executeInBatch(Arrays.asList(
+                BatchOperation.createIfAbsent("execution/0/completed", ""), BatchOperation.removeIfExisted("execution/0/running"),
+                BatchOperation.createIfAbsent("execution/1/completed", ""), BatchOperation.removeIfExisted("execution/1/running"),
+                BatchOperation.createIfAbsent("execution/2/completed", ""), BatchOperation.removeIfExisted("execution/2/running"),
+                BatchOperation.persistEphemeral("executionDuration/host0_0001", "0:500,1:1300,2:800")));
+    }
+    
+    @Test
+    public void assertGetItemDurations() {
+        when(jobNodeStorage.getJobNodeChildrenKeys("executionDuration")).thenReturn(Arrays.asList("host0_0001", "host1_0001"));
+        when(jobNodeStorage.getJobNodeData("executionDuration/host0_0001")).thenReturn("0:500,2:1000,5:100");
+        when(jobNodeStorage.getJobNodeData("executionDuration/host1_0001")).thenReturn("2:1300");
+        Map<Integer, Long> expected = new HashMap<>(2, 1);
+        expected.put(0, 500L);
+        expected.put(2, 1300L);
+        assertThat(executionService.getItemDurations(3), is(expected));
     }
     
     @Test
     public void assertCleanPreviousExecutionInfoWhenNotMonitorExecution() {
-        when(jobNodeStorage.isJobNodeExisted("execution")).thenReturn(false);
-        executionService.cleanPreviousExecutionInfo();
-        verify(jobNodeStorage).isJobNodeExisted("execution");
+        when(jobNodeStorage.isJobNodeExistedDirectly("execution")).thenReturn(false);
+        executionService.cleanPreviousExecutionInfo(Arrays.asList(0, 1));
+        verify(jobNodeStorage).isJobNodeExistedDirectly("execution");
         verify(leaderElectionService, times(0)).isLeader();
     }
     
     @Test
     public void assertCleanPreviousExecutionInfoWhenIsNotLeader() {
-        when(jobNodeStorage.isJobNodeExisted("execution")).thenReturn(true);
+        when(jobNodeStorage.isJobNodeExistedDirectly("execution")).thenReturn(true);
+        when(jobNodeStorage.isJobNodeExistedDirectly("leader/execution/necessary")).thenReturn(true);
         when(leaderElectionService.isLeader()).thenReturn(false);
-        when(jobNodeStorage.isJobNodeExisted("leader/execution/cleaning")).thenReturn(true, false);
-        executionService.cleanPreviousExecutionInfo();
-        verify(jobNodeStorage).isJobNodeExisted("execution");
+        when(jobNodeStorage.awaitJobNodeRemoved(eq("leader/execution/cleaning"), anyLong())).thenReturn(false, true);
+        executionService.cleanPreviousExecutionInfo(Arrays.asList(0, 1));
+        verify(jobNodeStorage).isJobNodeExistedDirectly("execution");
         verify(leaderElectionService).isLeader();
-        verify(jobNodeStorage, times(2)).isJobNodeExisted("leader/execution/cleaning");
+        verify(jobNodeStorage, times(2)).awaitJobNodeRemoved(eq("leader/execution/cleaning"), anyLong());
     }
     
     @Test
     public void assertCleanPreviousExecutionInfoWhenIsLeaderButNotNeedFixExecutionInfo() {
-        when(jobNodeStorage.isJobNodeExisted("execution")).thenReturn(true);
+        when(jobNodeStorage.isJobNodeExistedDirectly("execution")).thenReturn(true);
         when(leaderElectionService.isLeader()).thenReturn(true);
-        when(jobNodeStorage.getJobNodeChildrenKeys("execution")).thenReturn(Arrays.asList("0", "1", "2"));
-        when(jobNodeStorage.isJobNodeExisted("leader/execution/necessary")).thenReturn(false);
-        executionService.cleanPreviousExecutionInfo();
-        verify(jobNodeStorage).isJobNodeExisted("execution");
+        when(jobNodeStorage.awaitJobNodeRemoved(eq("leader/execution/cleaning"), anyLong())).thenReturn(true);
+        when(jobNodeStorage.getJobNodeChildrenKeysDirectly("execution")).thenReturn(Arrays.asList("0", "1", "2"));
+        when(jobNodeStorage.isJobNodeExistedDirectly("leader/execution/necessary")).thenReturn(false);
+        executionService.cleanPreviousExecutionInfo(Arrays.asList(0, 1));
+        verify(jobNodeStorage).isJobNodeExistedDirectly("execution");
         verify(leaderElectionService).isLeader();
         verify(jobNodeStorage).fillEphemeralJobNode("leader/execution/cleaning", "");
-        verify(jobNodeStorage).getJobNodeChildrenKeys("execution");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/0/completed");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/1/completed");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/2/completed");
-        verify(jobNodeStorage).isJobNodeExisted("leader/execution/necessary");
+        verify(jobNodeStorage).getJobNodeChildrenKeysDirectly("execution");
+        verify(jobNodeStorage).executeInBatch(Arrays.asList(
+                BatchOperation.removeIfExisted("execution/0/completed"), BatchOperation.removeIfExisted("execution/1/completed"), BatchOperation.removeIfExisted("execution/2/completed")));
+        verify(jobNodeStorage).isJobNodeExistedDirectly("leader/execution/necessary");
         verify(jobNodeStorage).removeJobNodeIfExisted("leader/execution/cleaning");
-        verify(jobNodeStorage).isJobNodeExisted("leader/execution/cleaning");
+        verify(jobNodeStorage).awaitJobNodeRemoved(eq("leader/execution/cleaning"), anyLong());
+    }
+    
+    @Test
+    public void assertCleanPreviousExecutionInfoWithStickyStrategyWhenNotNeedFixExecutionInfo() {
+        when(configService.load(true)).thenReturn(createStickyLiteJobConfiguration());
+        when(jobNodeStorage.isJobNodeExistedDirectly("execution")).thenReturn(true);
+        when(jobNodeStorage.isJobNodeExistedDirectly("leader/execution/necessary")).thenReturn(false);
+        executionService.cleanPreviousExecutionInfo(Arrays.asList(0, 1));
+        verify(jobNodeStorage).isJobNodeExistedDirectly("execution");
+        verify(jobNodeStorage).executeInBatch(Arrays.asList(BatchOperation.removeIfExisted("execution/0/completed"), BatchOperation.removeIfExisted("execution/1/completed")));
+        verify(leaderElectionService, times(0)).isLeader();
+        verify(jobNodeStorage, times(0)).fillEphemeralJobNode("leader/execution/cleaning", "");
+        verify(jobNodeStorage, times(0)).awaitJobNodeRemoved(eq("leader/execution/cleaning"), anyLong());
+    }
+    
+    @Test
+    public void assertCleanPreviousExecutionInfoWithStickyStrategyWhenNeedFixExecutionInfo() {
+        when(configService.load(true)).thenReturn(createStickyLiteJobConfiguration());
+        when(jobNodeStorage.isJobNodeExistedDirectly("execution")).thenReturn(true);
+        when(jobNodeStorage.isJobNodeExistedDirectly("leader/execution/necessary")).thenReturn(true);
+        when(leaderElectionService.isLeader()).thenReturn(false);
+        when(jobNodeStorage.awaitJobNodeRemoved(eq("leader/execution/cleaning"), anyLong())).thenReturn(true);
+        executionService.cleanPreviousExecutionInfo(Arrays.asList(0, 1));
+        verify(leaderElectionService).isLeader();
+        verify(jobNodeStorage, times(0)).executeInBatch(Arrays.asList(BatchOperation.removeIfExisted("execution/0/completed"), BatchOperation.removeIfExisted("execution/1/completed")));
+        verify(jobNodeStorage).awaitJobNodeRemoved(eq("leader/execution/cleaning"), anyLong());
     }
     
     @Test
     public void assertCleanPreviousExecutionInfoWhenNeedFixExecutionInfoForNewValuesGreater() {
-        when(jobNodeStorage.isJobNodeExisted("execution")).thenReturn(true);
+        when(jobNodeStorage.isJobNodeExistedDirectly("execution")).thenReturn(true);
+        when(jobNodeStorage.isJobNodeExistedDirectly("leader/execution/necessary")).thenReturn(true);
         when(leaderElectionService.isLeader()).thenReturn(true);
-        when(jobNodeStorage.getJobNodeChildrenKeys("execution")).thenReturn(Arrays.asList("0", "1", "2"));
-        when(jobNodeStorage.isJobNodeExisted("leader/execution/necessary")).thenReturn(true);
+        when(jobNodeStorage.awaitJobNodeRemoved(eq("leader/execution/cleaning"), anyLong())).thenReturn(true);
+        when(jobNodeStorage.getJobNodeChildrenKeysDirectly("execution")).thenReturn(Arrays.asList("0", "1", "2"));
         when(configService.load(false)).thenReturn(LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 4).build(),
                 TestSimpleJob.class.getCanonicalName())).build());
-        executionService.cleanPreviousExecutionInfo();
-        verify(jobNodeStorage).isJobNodeExisted("execution");
+        executionService.cleanPreviousExecutionInfo(Arrays.asList(0, 1));
+        verify(jobNodeStorage).isJobNodeExistedDirectly("execution");
         verify(leaderElectionService).isLeader();
         verify(jobNodeStorage).fillEphemeralJobNode("leader/execution/cleaning", "");
-        verify(jobNodeStorage).getJobNodeChildrenKeys("execution");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/0/completed");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/1/completed");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/2/completed");
-        verify(jobNodeStorage).isJobNodeExisted("leader/execution/necessary");
+        verify(jobNodeStorage).getJobNodeChildrenKeysDirectly("execution");
+        verify(jobNodeStorage).executeInBatch(Arrays.asList(
+                BatchOperation.removeIfExisted("execution/0/completed"), BatchOperation.removeIfExisted("execution/1/completed"), BatchOperation.removeIfExisted("execution/2/completed")));
+        verify(jobNodeStorage).isJobNodeExistedDirectly("leader/execution/necessary");
         verify(configService).load(false);
         verify(jobNodeStorage).createJobNodeIfNeeded("execution/3");
         verify(jobNodeStorage).removeJobNodeIfExisted("leader/execution/necessary");
         verify(jobNodeStorage).removeJobNodeIfExisted("leader/execution/cleaning");
-        verify(jobNodeStorage).isJobNodeExisted("leader/execution/cleaning");
+        verify(jobNodeStorage).awaitJobNodeRemoved(eq("leader/execution/cleaning"), anyLong());
     }
     
     @Test
     public void assertCleanPreviousExecutionInfoWhenNeedFixExecutionInfoForNewValuesLess() {
-        when(jobNodeStorage.isJobNodeExisted("execution")).thenReturn(true);
+        when(jobNodeStorage.isJobNodeExistedDirectly("execution")).thenReturn(true);
+        when(jobNodeStorage.isJobNodeExistedDirectly("leader/execution/necessary")).thenReturn(true);
         when(leaderElectionService.isLeader()).thenReturn(true);
-        when(jobNodeStorage.getJobNodeChildrenKeys("execution")).thenReturn(Arrays.asList("0", "1", "2"));
-        when(jobNodeStorage.isJobNodeExisted("leader/execution/necessary")).thenReturn(true);
+        when(jobNodeStorage.awaitJobNodeRemoved(eq("leader/execution/cleaning"), anyLong())).thenReturn(true);
+        when(jobNodeStorage.getJobNodeChildrenKeysDirectly("execution")).thenReturn(Arrays.asList("0", "1", "2"));
         when(configService.load(false)).thenReturn(LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 2).build(),
                 TestSimpleJob.class.getCanonicalName())).build());
-        executionService.cleanPreviousExecutionInfo();
-        verify(jobNodeStorage).isJobNodeExisted("execution");
+        executionService.cleanPreviousExecutionInfo(Arrays.asList(0, 1));
+        verify(jobNodeStorage).isJobNodeExistedDirectly("execution");
         verify(leaderElectionService).isLeader();
         verify(jobNodeStorage).fillEphemeralJobNode("leader/execution/cleaning", "");
-        verify(jobNodeStorage).getJobNodeChildrenKeys("execution");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/0/completed");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/1/completed");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/2/completed");
-        verify(jobNodeStorage).isJobNodeExisted("leader/execution/necessary");
+        verify(jobNodeStorage).getJobNodeChildrenKeysDirectly("execution");
+        verify(jobNodeStorage).executeInBatch(Arrays.asList(
+                BatchOperation.removeIfExisted("execution/0/completed"), BatchOperation.removeIfExisted("execution/1/completed"), BatchOperation.removeIfExisted("execution/2/completed")));
+        verify(jobNodeStorage).isJobNodeExistedDirectly("leader/execution/necessary");
         verify(configService).load(false);
         verify(jobNodeStorage).removeJobNodeIfExisted("execution/2");
         verify(jobNodeStorage).removeJobNodeIfExisted("leader/execution/necessary");
         verify(jobNodeStorage).removeJobNodeIfExisted("leader/execution/cleaning");
-        verify(jobNodeStorage).isJobNodeExisted("leader/execution/cleaning");
+        verify(jobNodeStorage).awaitJobNodeRemoved(eq("leader/execution/cleaning"), anyLong());
     }
     
     @Test
     public void assertCleanPreviousExecutionInfoWhenNeedFixExecutionInfoForNewValuesEqual() {
-        when(jobNodeStorage.isJobNodeExisted("execution")).thenReturn(true);
+        when(jobNodeStorage.isJobNodeExistedDirectly("execution")).thenReturn(true);
+        when(jobNodeStorage.isJobNodeExistedDirectly("leader/execution/necessary")).thenReturn(true);
         when(leaderElectionService.isLeader()).thenReturn(true);
-        when(jobNodeStorage.getJobNodeChildrenKeys("execution")).thenReturn(Arrays.asList("0", "1", "2"));
-        when(jobNodeStorage.isJobNodeExisted("leader/execution/necessary")).thenReturn(true);
+        when(jobNodeStorage.awaitJobNodeRemoved(eq("leader/execution/cleaning"), anyLong())).thenReturn(true);
+        when(jobNodeStorage.getJobNodeChildrenKeysDirectly("execution")).thenReturn(Arrays.asList("0", "1", "2"));
         when(configService.load(false)).thenReturn(LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).build(),
                 TestSimpleJob.class.getCanonicalName())).build());
-        executionService.cleanPreviousExecutionInfo();
-        verify(jobNodeStorage).isJobNodeExisted("execution");
+        executionService.cleanPreviousExecutionInfo(Arrays.asList(0, 1));
+        verify(jobNodeStorage).isJobNodeExistedDirectly("execution");
         verify(leaderElectionService).isLeader();
         verify(jobNodeStorage).fillEphemeralJobNode("leader/execution/cleaning", "");
-        verify(jobNodeStorage).getJobNodeChildrenKeys("execution");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/0/completed");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/1/completed");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/2/completed");
-        verify(jobNodeStorage).isJobNodeExisted("leader/execution/necessary");
+        verify(jobNodeStorage).getJobNodeChildrenKeysDirectly("execution");
+        verify(jobNodeStorage).executeInBatch(Arrays.asList(
+                BatchOperation.removeIfExisted("execution/0/completed"), BatchOperation.removeIfExisted("execution/1/completed"), BatchOperation.removeIfExisted("execution/2/completed")));
+        verify(jobNodeStorage).isJobNodeExistedDirectly("leader/execution/necessary");
         verify(configService).load(false);
         verify(jobNodeStorage).removeJobNodeIfExisted("leader/execution/necessary");
         verify(jobNodeStorage).removeJobNodeIfExisted("leader/execution/cleaning");
-        verify(jobNodeStorage).isJobNodeExisted("leader/execution/cleaning");
+        verify(jobNodeStorage).awaitJobNodeRemoved(eq("leader/execution/cleaning"), anyLong());
     }
     
     @Test
@@ -280,9 +343,8 @@ public final class ExecutionServiceTest {
     @Test
     public void assertClearRunningInfo() {
         executionService.clearRunningInfo(Arrays.asList(0, 1, 2));
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/0/running");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/1/running");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/2/running");
+        verify(jobNodeStorage).executeInBatch(Arrays.asList(
+                BatchOperation.removeIfExisted("execution/0/running"), BatchOperation.removeIfExisted("execution/1/running"), BatchOperation.removeIfExisted("execution/2/running")));
     }
     
     @Test
@@ -297,29 +359,28 @@ public final class ExecutionServiceTest {
     public void assertMisfireIfNotNecessary() {
         when(configService.load(true)).thenReturn(LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 4).build(),
                 TestSimpleJob.class.getCanonicalName())).monitorExecution(true).build());
-        when(jobNodeStorage.isJobNodeExisted("execution/0/running")).thenReturn(false);
-        when(jobNodeStorage.isJobNodeExisted("execution/1/running")).thenReturn(false);
-        when(jobNodeStorage.isJobNodeExisted("execution/2/running")).thenReturn(false);
+        when(jobNodeStorage.isJobNodeExistedDirectly("execution/0/running")).thenReturn(false);
+        when(jobNodeStorage.isJobNodeExistedDirectly("execution/1/running")).thenReturn(false);
+        when(jobNodeStorage.isJobNodeExistedDirectly("execution/2/running")).thenReturn(false);
         assertFalse(executionService.misfireIfNecessary(Arrays.asList(0, 1, 2)));
         verify(configService).load(true);
-        verify(jobNodeStorage).isJobNodeExisted("execution/0/running");
-        verify(jobNodeStorage).isJobNodeExisted("execution/1/running");
-        verify(jobNodeStorage).isJobNodeExisted("execution/2/running");
+        verify(jobNodeStorage).isJobNodeExistedDirectly("execution/0/running");
+        verify(jobNodeStorage).isJobNodeExistedDirectly("execution/1/running");
+        verify(jobNodeStorage).isJobNodeExistedDirectly("execution/2/running");
     }
     
     @Test
     public void assertMisfireIfNecessary() {
         when(configService.load(true)).thenReturn(LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 4).build(),
                 TestSimpleJob.class.getCanonicalName())).monitorExecution(true).build());
-        when(jobNodeStorage.isJobNodeExisted("execution/0/running")).thenReturn(false);
-        when(jobNodeStorage.isJobNodeExisted("execution/1/running")).thenReturn(true);
+        when(jobNodeStorage.isJobNodeExistedDirectly("execution/0/running")).thenReturn(false);
+        when(jobNodeStorage.isJobNodeExistedDirectly("execution/1/running")).thenReturn(true);
         assertTrue(executionService.misfireIfNecessary(Arrays.asList(0, 1, 2)));
         verify(configService, times(2)).load(true);
-        verify(jobNodeStorage).isJobNodeExisted("execution/0/running");
-        verify(jobNodeStorage).isJobNodeExisted("execution/1/running");
-        verify(jobNodeStorage).createJobNodeIfNeeded("execution/0/misfire");
-        verify(jobNodeStorage).createJobNodeIfNeeded("execution/1/misfire");
-        verify(jobNodeStorage).createJobNodeIfNeeded("execution/2/misfire");
+        verify(jobNodeStorage).isJobNodeExistedDirectly("execution/0/running");
+        verify(jobNodeStorage).isJobNodeExistedDirectly("execution/1/running");
+        verify(jobNodeStorage).executeInBatch(Arrays.asList(
+                BatchOperation.createIfAbsent("execution/0/misfire", ""), BatchOperation.createIfAbsent("execution/1/misfire", ""), BatchOperation.createIfAbsent("execution/2/misfire", "")));
     }
     
     @Test
@@ -328,9 +389,7 @@ public final class ExecutionServiceTest {
                 TestSimpleJob.class.getCanonicalName())).monitorExecution(false).build());
         executionService.setMisfire(Arrays.asList(0, 1, 2));
         verify(configService).load(true);
-        verify(jobNodeStorage, times(0)).createJobNodeIfNeeded("execution/0/misfire");
-        verify(jobNodeStorage, times(0)).createJobNodeIfNeeded("execution/1/misfire");
-        verify(jobNodeStorage, times(0)).createJobNodeIfNeeded("execution/2/misfire");
+        verify(jobNodeStorage, times(0)).executeInBatch(Matchers.<List<BatchOperation>>any());
     }
     
     @Test
@@ -339,39 +398,38 @@ public final class ExecutionServiceTest {
                 TestSimpleJob.class.getCanonicalName())).monitorExecution(true).build());
         executionService.setMisfire(Arrays.asList(0, 1, 2));
         verify(configService).load(true);
-        verify(jobNodeStorage).createJobNodeIfNeeded("execution/0/misfire");
-        verify(jobNodeStorage).createJobNodeIfNeeded("execution/1/misfire");
-        verify(jobNodeStorage).createJobNodeIfNeeded("execution/2/misfire");
+        verify(jobNodeStorage).executeInBatch(Arrays.asList(
+                BatchOperation.createIfAbsent("execution/0/misfire", ""), BatchOperation.createIfAbsent("execution/1/misfire", ""), BatchOperation.createIfAbsent("execution/2/misfire", "")));
     }
     
     @Test
     public void assertGetMisfiredJobItems() {
-        when(jobNodeStorage.isJobNodeExisted("execution/0/misfire")).thenReturn(true);
-        when(jobNodeStorage.isJobNodeExisted("execution/1/misfire")).thenReturn(true);
-        when(jobNodeStorage.isJobNodeExisted("execution/2/misfire")).thenReturn(false);
+        when(jobNodeStorage.isJobNodeExistedDirectly("execution/0/misfire")).thenReturn(true);
+        when(jobNodeStorage.isJobNodeExistedDirectly("execution/1/misfire")).thenReturn(true);
+        when(jobNodeStorage.isJobNodeExistedDirectly("execution/2/misfire")).thenReturn(false);
         assertThat(executionService.getMisfiredJobItems(Arrays.asList(0, 1, 2)), is(Arrays.asList(0, 1)));
-        verify(jobNodeStorage).isJobNodeExisted("execution/0/misfire");
-        verify(jobNodeStorage).isJobNodeExisted("execution/1/misfire");
-        verify(jobNodeStorage).isJobNodeExisted("execution/2/misfire");
+        verify(jobNodeStorage).isJobNodeExistedDirectly("execution/0/misfire");
+        verify(jobNodeStorage).isJobNodeExistedDirectly("execution/1/misfire");
+        verify(jobNodeStorage).isJobNodeExistedDirectly("execution/2/misfire");
     }
     
     @Test
     public void assertClearMisfire() {
         executionService.clearMisfire(Arrays.asList(0, 1, 2));
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/0/misfire");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/1/misfire");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/2/misfire");
+        verify(jobNodeStorage).executeInBatch(Arrays.asList(
+                BatchOperation.removeIfExisted("execution/0/misfire"), BatchOperation.removeIfExisted("execution/1/misfire"), BatchOperation.removeIfExisted("execution/2/misfire")));
     }
     
     @Test
     public void assertRemoveExecutionInfo() {
         executionService.removeExecutionInfo();
         verify(jobNodeStorage).removeJobNodeIfExisted("execution");
+        verify(jobNodeStorage).removeJobNodeIfExisted("executionDuration");
     }
     
     @Test
     public void assertIsCompleted() {
-        when(jobNodeStorage.isJobNodeExisted("execution/0/completed")).thenReturn(true);
+        when(jobNodeStorage.isJobNodeExistedDirectly("execution/0/completed")).thenReturn(true);
         assertTrue(executionService.isCompleted(0));
     }
     
@@ -381,75 +439,210 @@ public final class ExecutionServiceTest {
                 TestSimpleJob.class.getCanonicalName())).monitorExecution(false).build());
         assertFalse(executionService.hasRunningItems(Arrays.asList(0, 1, 2)));
         verify(configService).load(true);
-        verify(jobNodeStorage, times(0)).isJobNodeExisted("execution/0/running");
-        verify(jobNodeStorage, times(0)).isJobNodeExisted("execution/1/running");
-        verify(jobNodeStorage, times(0)).isJobNodeExisted("execution/2/running");
+        verify(jobNodeStorage, times(0)).isJobNodeExistedDirectly("execution/0/running");
+        verify(jobNodeStorage, times(0)).isJobNodeExistedDirectly("execution/1/running");
+        verify(jobNodeStorage, times(0)).isJobNodeExistedDirectly("execution/2/running");
     }
     
     @Test
     public void assertHasRunningItems() {
         when(configService.load(true)).thenReturn(LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 4).build(),
                 TestSimpleJob.class.getCanonicalName())).monitorExecution(true).build());
-        when(jobNodeStorage.isJobNodeExisted("execution/0/running")).thenReturn(false);
-        when(jobNodeStorage.isJobNodeExisted("execution/1/running")).thenReturn(true);
+        when(jobNodeStorage.isJobNodeExistedDirectly("execution/0/running")).thenReturn(false);
+        when(jobNodeStorage.isJobNodeExistedDirectly("execution/1/running")).thenReturn(true);
         assertTrue(executionService.hasRunningItems(Arrays.asList(0, 1, 2)));
         verify(configService).load(true);
-        verify(jobNodeStorage).isJobNodeExisted("execution/0/running");
-        verify(jobNodeStorage).isJobNodeExisted("execution/1/running");
+        verify(jobNodeStorage).isJobNodeExistedDirectly("execution/0/running");
+        verify(jobNodeStorage).isJobNodeExistedDirectly("execution/1/running");
     }
     
     @Test
     public void assertNotHaveRunningItems() {
         when(configService.load(true)).thenReturn(LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 4).build(),
                 TestSimpleJob.class.getCanonicalName())).monitorExecution(true).build());
-        when(jobNodeStorage.isJobNodeExisted("execution/0/running")).thenReturn(false);
-        when(jobNodeStorage.isJobNodeExisted("execution/1/running")).thenReturn(false);
-        when(jobNodeStorage.isJobNodeExisted("execution/2/running")).thenReturn(false);
+        when(jobNodeStorage.isJobNodeExistedDirectly("execution/0/running")).thenReturn(false);
+        when(jobNodeStorage.isJobNodeExistedDirectly("execution/1/running")).thenReturn(false);
+        when(jobNodeStorage.isJobNodeExistedDirectly("execution/2/running")).thenReturn(false);
         assertFalse(executionService.hasRunningItems(Arrays.asList(0, 1, 2)));
         verify(configService).load(true);
-        verify(jobNodeStorage).isJobNodeExisted("execution/0/running");
-        verify(jobNodeStorage).isJobNodeExisted("execution/1/running");
-        verify(jobNodeStorage).isJobNodeExisted("execution/2/running");
+        verify(jobNodeStorage).isJobNodeExistedDirectly("execution/0/running");
+        verify(jobNodeStorage).isJobNodeExistedDirectly("execution/1/running");
+        verify(jobNodeStorage).isJobNodeExistedDirectly("execution/2/running");
     }
     
     @Test
     public void assertNotHaveRunningItemsWhenJNotMonitorExecutionForAll() {
         when(configService.load(true)).thenReturn(LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 4).build(),
                 TestSimpleJob.class.getCanonicalName())).monitorExecution(false).build());
-        when(jobNodeStorage.getJobNodeChildrenKeys("execution")).thenReturn(Arrays.asList("0", "1", "2"));
+        when(jobNodeStorage.getJobNodeChildrenKeysDirectly("execution")).thenReturn(Arrays.asList("0", "1", "2"));
         assertFalse(executionService.hasRunningItems());
         verify(configService).load(true);
-        verify(jobNodeStorage).getJobNodeChildrenKeys("execution");
+        verify(jobNodeStorage).getJobNodeChildrenKeysDirectly("execution");
     }
     
     @Test
     public void assertHasRunningItemsForAll() {
         when(configService.load(true)).thenReturn(LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 4).build(),
                 TestSimpleJob.class.getCanonicalName())).monitorExecution(true).build());
-        when(jobNodeStorage.getJobNodeChildrenKeys("execution")).thenReturn(Arrays.asList("0", "1", "2"));
-        when(jobNodeStorage.isJobNodeExisted("execution/0/running")).thenReturn(false);
-        when(jobNodeStorage.isJobNodeExisted("execution/1/running")).thenReturn(true);
+        when(jobNodeStorage.getJobNodeChildrenKeysDirectly("execution")).thenReturn(Arrays.asList("0", "1", "2"));
+        when(jobNodeStorage.isJobNodeExistedDirectly("execution/0/running")).thenReturn(false);
+        when(jobNodeStorage.isJobNodeExistedDirectly("execution/1/running")).thenReturn(true);
         assertTrue(executionService.hasRunningItems());
         verify(configService).load(true);
-        verify(jobNodeStorage).getJobNodeChildrenKeys("execution");
-        verify(jobNodeStorage).isJobNodeExisted("execution/0/running");
-        verify(jobNodeStorage).isJobNodeExisted("execution/1/running");
+        verify(jobNodeStorage).getJobNodeChildrenKeysDirectly("execution");
+        verify(jobNodeStorage).isJobNodeExistedDirectly("execution/0/running");
+        verify(jobNodeStorage).isJobNodeExistedDirectly("execution/1/running");
     }
     
     @Test
     public void assertNotHaveRunningItemsForAll() {
         when(configService.load(true)).thenReturn(LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 4).build(),
                 TestSimpleJob.class.getCanonicalName())).monitorExecution(true).build());
-        when(jobNodeStorage.getJobNodeChildrenKeys("execution")).thenReturn(Arrays.asList("0", "1", "2"));
-        when(jobNodeStorage.isJobNodeExisted("execution/0/running")).thenReturn(false);
-        when(jobNodeStorage.isJobNodeExisted("execution/1/running")).thenReturn(false);
-        when(jobNodeStorage.isJobNodeExisted("execution/2/running")).thenReturn(false);
+        when(jobNodeStorage.getJobNodeChildrenKeysDirectly("execution")).thenReturn(Arrays.asList("0", "1", "2"));
+        when(jobNodeStorage.isJobNodeExistedDirectly("execution/0/running")).thenReturn(false);
+        when(jobNodeStorage.isJobNodeExistedDirectly("execution/1/running")).thenReturn(false);
+        when(jobNodeStorage.isJobNodeExistedDirectly("execution/2/running")).thenReturn(false);
         assertFalse(executionService.hasRunningItems());
         verify(configService).load(true);
-        verify(jobNodeStorage).getJobNodeChildrenKeys("execution");
-        verify(jobNodeStorage).isJobNodeExisted("execution/0/running");
-        verify(jobNodeStorage).isJobNodeExisted("execution/1/running");
-        verify(jobNodeStorage).isJobNodeExisted("execution/2/running");
+        verify(jobNodeStorage).getJobNodeChildrenKeysDirectly("execution");
+        verify(jobNodeStorage).isJobNodeExistedDirectly("execution/0/running");
+        verify(jobNodeStorage).isJobNodeExistedDirectly("execution/1/running");
+        verify(jobNodeStorage).isJobNodeExistedDirectly("execution/2/running");
+    }
+    
+    @Test
+    public void assertAwaitRunningItemsCompleted() {
+        when(jobNodeStorage.getJobNodeChildrenKeysDirectly("execution")).thenReturn(Arrays.asList("0", "1"));
+        when(jobNodeStorage.awaitJobNodeRemoved(eq("execution/0/running"), anyLong())).thenReturn(true);
+        when(jobNodeStorage.awaitJobNodeRemoved(eq("execution/1/running"), anyLong())).thenReturn(true);
+        assertTrue(executionService.awaitRunningItemsCompleted(1000L));
+        verify(jobNodeStorage).awaitJobNodeRemoved(eq("execution/0/running"), anyLong());
+        verify(jobNodeStorage).awaitJobNodeRemoved(eq("execution/1/running"), anyLong());
+    }
+    
+    @Test
+    public void assertAwaitRunningItemsCompletedTimeout() {
+        when(jobNodeStorage.getJobNodeChildrenKeysDirectly("execution")).thenReturn(Arrays.asList("0", "1"));
+        when(jobNodeStorage.awaitJobNodeRemoved(eq("execution/0/running"), anyLong())).thenReturn(false);
+        assertFalse(executionService.awaitRunningItemsCompleted(1000L));
+        verify(jobNodeStorage).awaitJobNodeRemoved(eq("execution/0/running"), anyLong());
+        verify(jobNodeStorage, times(0)).awaitJobNodeRemoved(eq("execution/1/running"), anyLong());
+    }
+    
+    @Test
+    public void assertRegisterJobBeginInCompactExecutionState() {
+        when(configService.load(true)).thenReturn(createCompactLiteJobConfiguration());
+        JobRegistry.getInstance().addJobScheduleController("test_job", jobScheduleController);
+        when(jobScheduleController.getNextFireTime()).thenReturn(new Date(2000L));
+        ShardingContexts shardingContexts = getShardingContext();
+        executionService.registerJobBegin(shardingContexts);
+        verify(serverService).updateServerStatus(ServerStatus.RUNNING);
+        verify(executionStateService).registerBegin(eq(shardingContexts.getShardingItemParameters().keySet()), anyLong(), eq(2000L));
+        verify(jobNodeStorage, times(0)).executeInBatch(Matchers.<List<BatchOperation>>any());
+    }
+    
+    @Test
+    public void assertRegisterJobCompletedInCompactExecutionState() {
+        when(configService.load(true)).thenReturn(createCompactLiteJobConfiguration());
+        when(executionStateService.getItemDurations(3)).thenReturn(Collections.singletonMap(1, 1000L));
+        ShardingContexts shardingContexts = getShardingContext();
+        shardingContexts.getItemDurations().put(0, 500L);
+        shardingContexts.getItemDurations().put(1, 2000L);
+        executionService.registerJobCompleted(shardingContexts);
+        Map<Integer, Long> expectedDurations = new HashMap<>(2, 1);
+        expectedDurations.put(0, 500L);
+        expectedDurations.put(1, 1300L);
+        verify(serverService).updateServerStatus(ServerStatus.READY);
+        verify(executionStateService).registerCompleted(eq(shardingContexts.getShardingItemParameters().keySet()), anyLong(), eq(expectedDurations));
+        verify(jobNodeStorage, times(0)).executeInBatch(Matchers.<List<BatchOperation>>any());
+    }
+    
+    @Test
+    public void assertGetItemDurationsInCompactExecutionState() {
+        when(configService.load(true)).thenReturn(createCompactLiteJobConfiguration());
+        when(executionStateService.getItemDurations(3)).thenReturn(Collections.singletonMap(1, 1000L));
+        assertThat(executionService.getItemDurations(3), is(Collections.singletonMap(1, 1000L)));
+    }
+    
+    @Test
+    public void assertCleanPreviousExecutionInfoInCompactExecutionState() {
+        when(configService.load(true)).thenReturn(createCompactLiteJobConfiguration());
+        executionService.cleanPreviousExecutionInfo(Arrays.asList(0, 1));
+        verify(executionStateService).clearCompleted();
+        verify(leaderElectionService, times(0)).isLeader();
+        verify(jobNodeStorage, times(0)).executeInBatch(Matchers.<List<BatchOperation>>any());
+    }
+    
+    @Test
+    public void assertSetNeedFixExecutionInfoFlagInCompactExecutionState() {
+        when(configService.load(true)).thenReturn(createCompactLiteJobConfiguration());
+        executionService.setNeedFixExecutionInfoFlag();
+        verify(jobNodeStorage, times(0)).createJobNodeIfNeeded("leader/execution/necessary");
+    }
+    
+    @Test
+    public void assertClearRunningInfoInCompactExecutionState() {
+        when(configService.load(true)).thenReturn(createCompactLiteJobConfiguration());
+        executionService.clearRunningInfo(Arrays.asList(0, 1));
+        verify(executionStateService).clearRunning(Arrays.asList(0, 1));
+    }
+    
+    @Test
+    public void assertMisfireInCompactExecutionState() {
+        when(configService.load(true)).thenReturn(createCompactLiteJobConfiguration());
+        when(executionStateService.getMisfiredItems(Arrays.asList(0, 1))).thenReturn(Collections.singletonList(1));
+        executionService.setMisfire(Arrays.asList(0, 1));
+        assertThat(executionService.getMisfiredJobItems(Arrays.asList(0, 1)), is(Collections.singletonList(1)));
+        executionService.clearMisfire(Arrays.asList(0, 1));
+        verify(executionStateService).setMisfire(Arrays.asList(0, 1));
+        verify(executionStateService).clearMisfire(Arrays.asList(0, 1));
+    }
+    
+    @Test
+    public void assertIsCompletedInCompactExecutionState() {
+        when(configService.load(true)).thenReturn(createCompactLiteJobConfiguration());
+        when(executionStateService.isCompleted(0)).thenReturn(true);
+        assertTrue(executionService.isCompleted(0));
+        verify(jobNodeStorage, times(0)).isJobNodeExistedDirectly("execution/0/completed");
+    }
+    
+    @Test
+    public void assertHasRunningItemsForAllInCompactExecutionState() {
+        when(configService.load(true)).thenReturn(createCompactLiteJobConfiguration());
+        when(executionStateService.hasRunningItems(Arrays.asList(0, 1, 2))).thenReturn(true);
+        assertTrue(executionService.hasRunningItems());
+        verify(jobNodeStorage, times(0)).getJobNodeChildrenKeysDirectly("execution");
+    }
+    
+    @Test
+    public void assertAwaitRunningItemsCompletedInCompactExecutionState() {
+        when(configService.load(true)).thenReturn(createCompactLiteJobConfiguration());
+        when(executionStateService.hasRunningItems(Arrays.asList(0, 1, 2))).thenReturn(true, false);
+        assertTrue(executionService.awaitRunningItemsCompleted(1000L));
+        verify(executionStateService, times(2)).hasRunningItems(Arrays.asList(0, 1, 2));
+    }
+    
+    @Test
+    public void assertAwaitRunningItemsCompletedTimeoutInCompactExecutionState() {
+        when(configService.load(true)).thenReturn(createCompactLiteJobConfiguration());
+        when(executionStateService.hasRunningItems(Arrays.asList(0, 1, 2))).thenReturn(true);
+        assertFalse(executionService.awaitRunningItemsCompleted(0L));
+    }
+    
+    @Test
+    public void assertRemoveExecutionInfoWithCompactExecutionState() {
+        executionService.removeExecutionInfo();
+        verify(executionStateService).removeAllStates();
+    }
+    
+    private LiteJobConfiguration createStickyLiteJobConfiguration() {
+        return LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).build(),
+                TestSimpleJob.class.getCanonicalName())).jobShardingStrategyClass(StickyJobShardingStrategy.class.getCanonicalName()).build();
+    }
+    
+    private LiteJobConfiguration createCompactLiteJobConfiguration() {
+        return LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).build(),
+                TestSimpleJob.class.getCanonicalName())).monitorExecution(true).compactExecution(true).build();
     }
     
     private ShardingContexts getShardingContext() {
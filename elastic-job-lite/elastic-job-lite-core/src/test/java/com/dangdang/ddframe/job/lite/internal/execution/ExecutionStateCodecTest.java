@@ -0,0 +1,104 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.execution;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public final class ExecutionStateCodecTest {
+    
+    @Test
+    public void assertEncode() {
+        Map<Integer, Long> durations = new HashMap<>(2, 1);
+        durations.put(1, 135L);
+        durations.put(0, 120L);
+        ExecutionState executionState = ExecutionState.empty().begin(Arrays.asList(0, 1, 2, 3, 4, 9, 5, 6, 7, 8), 100L, 200L)
+                .complete(Arrays.asList(5, 6, 7, 8), 300L, durations).misfire(Collections.singletonList(2));
+        assertThat(ExecutionStateCodec.encode(executionState),
+                is("running=0-4,9\ncompleted=5-8\nmisfire=2\nlastBeginTime=100\nnextFireTime=200\nlastCompleteTime=300\nduration=0:120,1:135"));
+    }
+    
+    @Test
+    public void assertEncodeEmpty() {
+        assertThat(ExecutionStateCodec.encode(ExecutionState.empty()),
+                is("running=\ncompleted=\nmisfire=\nlastBeginTime=0\nnextFireTime=0\nlastCompleteTime=0\nduration="));
+    }
+    
+    @Test
+    public void assertDecode() {
+        ExecutionState actual = ExecutionStateCodec.decode("running=0-4,9\ncompleted=5-8\nmisfire=2\nlastBeginTime=100\nnextFireTime=200\nlastCompleteTime=300\nduration=0:120,1:135");
+        assertThat(actual.getRunningItems(), is(Arrays.asList(0, 1, 2, 3, 4, 9)));
+        assertTrue(actual.isCompleted(5));
+        assertTrue(actual.isCompleted(8));
+        assertFalse(actual.isCompleted(9));
+        assertTrue(actual.isMisfired(2));
+        assertThat(actual.getLastBeginTime(), is(100L));
+        assertThat(actual.getNextFireTime(), is(200L));
+        assertThat(actual.getLastCompleteTime(), is(300L));
+        assertThat(actual.getDurations().get(0), is(120L));
+        assertThat(actual.getDurations().get(1), is(135L));
+    }
+    
+    @Test
+    public void assertDecodeNullOrEmpty() {
+        assertThat(ExecutionStateCodec.decode(null), is(ExecutionState.empty()));
+        assertThat(ExecutionStateCodec.decode(""), is(ExecutionState.empty()));
+    }
+    
+    @Test
+    public void assertDecodeWithMissingAndUnknownKeys() {
+        ExecutionState actual = ExecutionStateCodec.decode("running=1\nunknown=abc\nlastBeginTime=100");
+        assertThat(actual.getRunningItems(), is(Collections.singletonList(1)));
+        assertThat(actual.getLastBeginTime(), is(100L));
+        assertThat(actual.getLastCompleteTime(), is(0L));
+        assertTrue(actual.getDurations().isEmpty());
+    }
+    
+    @Test
+    public void assertEncodeAndDecode() {
+        ExecutionState expected = ExecutionState.empty().begin(Arrays.asList(0, 2, 4, 1000), 100L, 200L).complete(Collections.singletonList(4), 300L, Collections.singletonMap(4, 50L));
+        assertThat(ExecutionStateCodec.decode(ExecutionStateCodec.encode(expected)), is(expected));
+    }
+    
+    @Test
+    public void assertEncodeDurations() {
+        Map<Integer, Long> durations = new HashMap<>(2, 1);
+        durations.put(1, 135L);
+        durations.put(0, 120L);
+        assertThat(ExecutionStateCodec.encodeDurations(durations), is("0:120,1:135"));
+        assertThat(ExecutionStateCodec.encodeDurations(Collections.<Integer, Long>emptyMap()), is(""));
+    }
+    
+    @Test
+    public void assertDecodeDurations() {
+        Map<Integer, Long> expected = new HashMap<>(2, 1);
+        expected.put(0, 120L);
+        expected.put(1, 135L);
+        assertThat(ExecutionStateCodec.decodeDurations("0:120,1:135"), is(expected));
+        assertTrue(ExecutionStateCodec.decodeDurations(null).isEmpty());
+    }
+}
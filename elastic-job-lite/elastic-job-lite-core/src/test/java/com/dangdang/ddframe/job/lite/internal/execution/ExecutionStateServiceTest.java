@@ -0,0 +1,173 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.execution;
+
+import com.dangdang.ddframe.job.lite.internal.schedule.JobRegistry;
+import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
+import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
+import com.google.common.base.Function;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.unitils.util.ReflectionUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public final class ExecutionStateServiceTest {
+    
+    @Mock
+    private JobNodeStorage jobNodeStorage;
+    
+    private final ExecutionStateService executionStateService = new ExecutionStateService(mock(CoordinatorRegistryCenter.class), "test_job");
+    
+    @Before
+    public void setUp() throws NoSuchFieldException {
+        MockitoAnnotations.initMocks(this);
+        ReflectionUtils.setFieldValue(executionStateService, "jobNodeStorage", jobNodeStorage);
+        JobRegistry.getInstance().addJobServerName("test_job", "host0");
+    }
+    
+    @Test
+    public void assertRegisterBeginWhenStateNotExisted() {
+        when(jobNodeStorage.fillEphemeralJobNodeIfUnchanged(eq("executionState/host0"), eq((String) null), anyString())).thenReturn(true);
+        executionStateService.registerBegin(Arrays.asList(0, 1), 100L, 200L);
+        verify(jobNodeStorage).fillEphemeralJobNodeIfUnchanged("executionState/host0", null,
+                "running=0-1\ncompleted=\nmisfire=\nlastBeginTime=100\nnextFireTime=200\nlastCompleteTime=0\nduration=");
+    }
+    
+    @Test
+    public void assertRegisterCompletedWithRetry() {
+        String firstValue = "running=0-1\ncompleted=\nmisfire=\nlastBeginTime=100\nnextFireTime=200\nlastCompleteTime=0\nduration=";
+        String secondValue = "running=0-2\ncompleted=\nmisfire=\nlastBeginTime=100\nnextFireTime=200\nlastCompleteTime=0\nduration=";
+        when(jobNodeStorage.getJobNodeDataDirectly("executionState/host0")).thenReturn(firstValue, secondValue);
+        when(jobNodeStorage.fillEphemeralJobNodeIfUnchanged(eq("executionState/host0"), eq(firstValue), anyString())).thenReturn(false);
+        when(jobNodeStorage.fillEphemeralJobNodeIfUnchanged(eq("executionState/host0"), eq(secondValue), anyString())).thenReturn(true);
+        executionStateService.registerCompleted(Arrays.asList(0, 1), 300L, Collections.singletonMap(0, 50L));
+        verify(jobNodeStorage).fillEphemeralJobNodeIfUnchanged("executionState/host0", secondValue,
+                "running=2\ncompleted=0-1\nmisfire=\nlastBeginTime=100\nnextFireTime=200\nlastCompleteTime=300\nduration=0:50");
+    }
+    
+    @Test
+    public void assertClearRunningWhenUnchanged() {
+        String value = "running=\ncompleted=0\nmisfire=\nlastBeginTime=100\nnextFireTime=200\nlastCompleteTime=300\nduration=";
+        when(jobNodeStorage.getJobNodeDataDirectly("executionState/host0")).thenReturn(value);
+        executionStateService.clearRunning(Collections.singletonList(1));
+        verify(jobNodeStorage, times(0)).fillEphemeralJobNodeIfUnchanged(anyString(), anyString(), anyString());
+    }
+    
+    @Test
+    public void assertUpdateFailedAfterMaxAttempts() {
+        when(jobNodeStorage.fillEphemeralJobNodeIfUnchanged(eq("executionState/host0"), eq((String) null), anyString())).thenReturn(false);
+        executionStateService.setMisfire(Collections.singletonList(0));
+        verify(jobNodeStorage, times(10)).fillEphemeralJobNodeIfUnchanged(eq("executionState/host0"), eq((String) null), anyString());
+    }
+    
+    @Test
+    public void assertClearCompletedAndMisfire() {
+        String value = "running=\ncompleted=0\nmisfire=1\nlastBeginTime=100\nnextFireTime=200\nlastCompleteTime=300\nduration=";
+        when(jobNodeStorage.getJobNodeDataDirectly("executionState/host0")).thenReturn(value);
+        when(jobNodeStorage.fillEphemeralJobNodeIfUnchanged(eq("executionState/host0"), eq(value), anyString())).thenReturn(true);
+        executionStateService.clearCompleted();
+        executionStateService.clearMisfire(Collections.singletonList(1));
+        verify(jobNodeStorage).fillEphemeralJobNodeIfUnchanged("executionState/host0", value,
+                "running=\ncompleted=\nmisfire=1\nlastBeginTime=100\nnextFireTime=200\nlastCompleteTime=300\nduration=");
+        verify(jobNodeStorage).fillEphemeralJobNodeIfUnchanged("executionState/host0", value,
+                "running=\ncompleted=0\nmisfire=\nlastBeginTime=100\nnextFireTime=200\nlastCompleteTime=300\nduration=");
+    }
+    
+    @Test
+    public void assertIsRunningAndHasRunningItems() {
+        mockStates();
+        assertTrue(executionStateService.isRunning(0));
+        assertTrue(executionStateService.isRunning(3));
+        assertFalse(executionStateService.isRunning(1));
+        assertTrue(executionStateService.hasRunningItems(Arrays.asList(1, 3)));
+        assertFalse(executionStateService.hasRunningItems(Arrays.asList(1, 2)));
+    }
+    
+    @Test
+    public void assertIsCompleted() {
+        mockStates();
+        assertTrue(executionStateService.isCompleted(1));
+        assertFalse(executionStateService.isCompleted(0));
+    }
+    
+    @Test
+    public void assertGetMisfiredItems() {
+        mockStates();
+        assertThat(executionStateService.getMisfiredItems(Arrays.asList(0, 1, 2)), is(Collections.singletonList(2)));
+    }
+    
+    @Test
+    public void assertGetItemDurations() {
+        mockStates();
+        Map<Integer, Long> expected = new HashMap<>(3, 1);
+        expected.put(0, 100L);
+        expected.put(1, 200L);
+        expected.put(2, 300L);
+        assertThat(executionStateService.getItemDurations(3), is(expected));
+    }
+    
+    @Test
+    public void assertRemoveAllStates() {
+        executionStateService.removeAllStates();
+        verify(jobNodeStorage).removeJobNodeIfExisted("executionState");
+    }
+    
+    @Test
+    public void assertCoordinationReadsIgnoreStaleCache() {
+        when(jobNodeStorage.getJobNodeChildrenKeys("executionState")).thenReturn(Collections.singletonList("host0"));
+        when(jobNodeStorage.getJobNodeDecodedData(eq("executionState/host0"), anyDecoder())).thenReturn(ExecutionStateCodec.decode("running=0\ncompleted=\nmisfire=0"));
+        when(jobNodeStorage.getJobNodeChildrenKeysDirectly("executionState")).thenReturn(Collections.singletonList("host0"));
+        when(jobNodeStorage.getJobNodeDataDirectly("executionState/host0")).thenReturn("running=\ncompleted=0\nmisfire=");
+        assertTrue(executionStateService.getMisfiredItems(Collections.singletonList(0)).isEmpty());
+        assertFalse(executionStateService.hasRunningItems(Collections.singletonList(0)));
+        assertTrue(executionStateService.isCompleted(0));
+    }
+    
+    private void mockStates() {
+        String host0 = "running=0\ncompleted=1\nmisfire=2\nduration=0:100,1:200,2:999,3:50";
+        String host1 = "running=3\ncompleted=2\nmisfire=\nduration=0:900,2:300";
+        when(jobNodeStorage.getJobNodeChildrenKeys("executionState")).thenReturn(Arrays.asList("host0", "host1"));
+        when(jobNodeStorage.getJobNodeDecodedData(eq("executionState/host0"), anyDecoder())).thenReturn(ExecutionStateCodec.decode(host0));
+        when(jobNodeStorage.getJobNodeDecodedData(eq("executionState/host1"), anyDecoder())).thenReturn(ExecutionStateCodec.decode(host1));
+        when(jobNodeStorage.getJobNodeChildrenKeysDirectly("executionState")).thenReturn(Arrays.asList("host0", "host1"));
+        when(jobNodeStorage.getJobNodeDataDirectly("executionState/host0")).thenReturn(host0);
+        when(jobNodeStorage.getJobNodeDataDirectly("executionState/host1")).thenReturn(host1);
+    }
+    
+    private static Function<String, ExecutionState> anyDecoder() {
+        return Matchers.any();
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.execution;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public final class ExecutionStateTest {
+    
+    @Test
+    public void assertBegin() {
+        ExecutionState actual = ExecutionState.empty().begin(Arrays.asList(0, 2), 100L, 200L);
+        assertTrue(actual.isRunning(0));
+        assertFalse(actual.isRunning(1));
+        assertTrue(actual.isRunning(2));
+        assertThat(actual.getRunningItems(), is(Arrays.asList(0, 2)));
+        assertThat(actual.getLastBeginTime(), is(100L));
+        assertThat(actual.getNextFireTime(), is(200L));
+        assertFalse(ExecutionState.empty().isRunning(0));
+    }
+    
+    @Test
+    public void assertComplete() {
+        Map<Integer, Long> durations = new HashMap<>(2, 1);
+        durations.put(0, 10L);
+        durations.put(1, 20L);
+        ExecutionState actual = ExecutionState.empty().begin(Arrays.asList(0, 1, 2), 100L, 200L).complete(Arrays.asList(0, 1), 300L, Collections.singletonMap(0, 5L)).complete(Arrays.asList(0, 1), 400L, durations);
+        assertFalse(actual.isRunning(0));
+        assertFalse(actual.isRunning(1));
+        assertTrue(actual.isRunning(2));
+        assertTrue(actual.isCompleted(0));
+        assertTrue(actual.isCompleted(1));
+        assertFalse(actual.isCompleted(2));
+        assertThat(actual.getLastCompleteTime(), is(400L));
+        assertThat(actual.getDurations(), is(durations));
+    }
+    
+    @Test
+    public void assertClearRunning() {
+        ExecutionState actual = ExecutionState.empty().begin(Arrays.asList(0, 1), 100L, 200L).clearRunning(Collections.singletonList(0));
+        assertThat(actual.getRunningItems(), is(Collections.singletonList(1)));
+    }
+    
+    @Test
+    public void assertClearCompleted() {
+        ExecutionState actual = ExecutionState.empty().complete(Arrays.asList(0, 1), 300L, Collections.singletonMap(0, 5L)).clearCompleted();
+        assertFalse(actual.isCompleted(0));
+        assertFalse(actual.isCompleted(1));
+        assertThat(actual.getDurations(), is(Collections.singletonMap(0, 5L)));
+    }
+    
+    @Test
+    public void assertMisfire() {
+        ExecutionState actual = ExecutionState.empty().misfire(Arrays.asList(0, 1));
+        assertTrue(actual.isMisfired(0));
+        assertTrue(actual.isMisfired(1));
+        actual = actual.clearMisfire(Collections.singletonList(0));
+        assertFalse(actual.isMisfired(0));
+        assertTrue(actual.isMisfired(1));
+    }
+    
+    @Test
+    public void assertImmutable() {
+        ExecutionState empty = ExecutionState.empty();
+        empty.begin(Arrays.asList(0, 1), 100L, 200L);
+        empty.misfire(Arrays.asList(0, 1));
+        assertThat(empty, is(ExecutionState.empty()));
+        assertThat(empty.getRunningItems(), is(Collections.<Integer>emptyList()));
+        assertFalse(empty.isMisfired(0));
+    }
+    
+    @Test
+    public void assertBitSetGettersReturnCopies() {
+        ExecutionState actual = ExecutionState.empty().begin(Collections.singletonList(0), 100L, 200L).misfire(Collections.singletonList(1));
+        actual.getRunning().set(5);
+        actual.getCompleted().set(5);
+        actual.getMisfired().set(5);
+        assertFalse(actual.isRunning(5));
+        assertFalse(actual.isCompleted(5));
+        assertFalse(actual.isMisfired(5));
+        assertTrue(actual.getRunning().get(0));
+        assertTrue(actual.getMisfired().get(1));
+    }
+}
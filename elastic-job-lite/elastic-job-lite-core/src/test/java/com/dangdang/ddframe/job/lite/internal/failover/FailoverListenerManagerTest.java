@@ -74,7 +74,7 @@ public final class FailoverListenerManagerTest {
     @Test
     public void assertStart() {
         failoverListenerManager.start();
-        verify(jobNodeStorage, times(3)).addDataListener(Matchers.<AbstractJobListener>any());
+        verify(jobNodeStorage, times(4)).addDataListener(Matchers.<AbstractJobListener>any());
     }
     
     @Test
@@ -146,6 +146,29 @@ public final class FailoverListenerManagerTest {
         verify(failoverService).failoverIfNecessary();
     }
     
+    @Test
+    public void assertExecutionStateCrashedJobListenerWhenNotRemove() {
+        failoverListenerManager.new ExecutionStateCrashedJobListener().dataChanged(null, new TreeCacheEvent(
+                TreeCacheEvent.Type.NODE_UPDATED, new ChildData("/test_job/executionState/host0", null, "running=0".getBytes())), "/test_job/executionState/host0");
+        verify(executionService, times(0)).isCompleted(0);
+    }
+    
+    @Test
+    public void assertExecutionStateCrashedJobListenerWhenRemoveWithRunningItems() {
+        when(executionService.isCompleted(0)).thenReturn(false);
+        when(executionService.isCompleted(2)).thenReturn(true);
+        when(configService.load(true)).thenReturn(LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).failover(true).build(), 
+                TestSimpleJob.class.getCanonicalName())).monitorExecution(true).compactExecution(true).build());
+        when(shardingService.getLocalHostShardingItems()).thenReturn(Arrays.asList(1));
+        when(executionService.hasRunningItems(Arrays.asList(1))).thenReturn(false);
+        failoverListenerManager.new ExecutionStateCrashedJobListener().dataChanged(null, new TreeCacheEvent(
+                TreeCacheEvent.Type.NODE_REMOVED, new ChildData("/test_job/executionState/host0", null, "running=0,2\ncompleted=1".getBytes())), "/test_job/executionState/host0");
+        verify(failoverService).setCrashedFailoverFlag(0);
+        verify(failoverService, times(0)).setCrashedFailoverFlag(1);
+        verify(failoverService, times(0)).setCrashedFailoverFlag(2);
+        verify(failoverService).failoverIfNecessary();
+    }
+    
     @Test
     public void assertFailoverJobCrashedJobListenerWhenIsNotRunningItemPath() {
         failoverListenerManager.new FailoverJobCrashedJobListener().dataChanged(null, new TreeCacheEvent(
@@ -17,26 +17,45 @@
 
 package com.dangdang.ddframe.job.lite.internal.failover;
 
+import com.dangdang.ddframe.job.executor.ShardingContexts;
+import com.dangdang.ddframe.job.executor.handler.ExecutorServiceHandler;
+import com.dangdang.ddframe.job.executor.handler.ExecutorServiceHandlerRegistry;
+import com.dangdang.ddframe.job.lite.internal.execution.ExecutionContextService;
 import com.dangdang.ddframe.job.lite.internal.failover.FailoverService.FailoverLeaderExecutionCallback;
 import com.dangdang.ddframe.job.lite.internal.schedule.JobRegistry;
 import com.dangdang.ddframe.job.lite.internal.schedule.JobScheduleController;
 import com.dangdang.ddframe.job.lite.internal.server.ServerService;
 import com.dangdang.ddframe.job.lite.internal.sharding.ShardingService;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
-import com.dangdang.ddframe.job.util.env.LocalHostService;
+import com.dangdang.ddframe.job.reg.base.BatchOperation;
+import com.dangdang.ddframe.job.reg.exception.RegException;
+import lombok.RequiredArgsConstructor;
+import org.apache.zookeeper.KeeperException;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.unitils.util.ReflectionUtils;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -46,15 +65,15 @@ public final class FailoverServiceTest {
     @Mock
     private JobNodeStorage jobNodeStorage;
     
-    @Mock
-    private LocalHostService localHostService;
-    
     @Mock
     private ServerService serverService;
     
     @Mock
     private ShardingService shardingService;
     
+    @Mock
+    private ExecutionContextService executionContextService;
+    
     @Mock
     private JobScheduleController jobScheduleController;
     
@@ -64,27 +83,34 @@ public final class FailoverServiceTest {
     public void setUp() throws NoSuchFieldException {
         MockitoAnnotations.initMocks(this);
         ReflectionUtils.setFieldValue(failoverService, "jobNodeStorage", jobNodeStorage);
-        ReflectionUtils.setFieldValue(failoverService, "localHostService", localHostService);
         ReflectionUtils.setFieldValue(failoverService, "serverService", serverService);
         ReflectionUtils.setFieldValue(failoverService, "shardingService", shardingService);
+        ReflectionUtils.setFieldValue(failoverService, "executionContextService", executionContextService);
         ReflectionUtils.setFieldValue(failoverService, "jobName", "test_job");
-        when(localHostService.getIp()).thenReturn("mockedIP");
-        when(localHostService.getHostName()).thenReturn("mockedHostName");
+        JobRegistry.getInstance().addJobServerName("test_job", "mockedIP");
+    }
+    
+    @After
+    public void tearDown() {
+        if (ExecutorServiceHandlerRegistry.find("test_job").isPresent()) {
+            ExecutorServiceHandlerRegistry.find("test_job").get().shutdownNow();
+            ExecutorServiceHandlerRegistry.remove("test_job");
+        }
     }
     
     @Test
     public void assertSetCrashedFailoverFlagWhenItemIsNotAssigned() {
-        when(jobNodeStorage.isJobNodeExisted("execution/0/failover")).thenReturn(true);
+        when(jobNodeStorage.isJobNodeExistedDirectly("execution/0/failover")).thenReturn(true);
         failoverService.setCrashedFailoverFlag(0);
-        verify(jobNodeStorage).isJobNodeExisted("execution/0/failover");
+        verify(jobNodeStorage).isJobNodeExistedDirectly("execution/0/failover");
         verify(jobNodeStorage, times(0)).createJobNodeIfNeeded("leader/failover/items/0");
     }
     
     @Test
     public void assertSetCrashedFailoverFlagWhenItemIsAssigned() {
-        when(jobNodeStorage.isJobNodeExisted("execution/0/failover")).thenReturn(false);
+        when(jobNodeStorage.isJobNodeExistedDirectly("execution/0/failover")).thenReturn(false);
         failoverService.setCrashedFailoverFlag(0);
-        verify(jobNodeStorage).isJobNodeExisted("execution/0/failover");
+        verify(jobNodeStorage).isJobNodeExistedDirectly("execution/0/failover");
         verify(jobNodeStorage).createJobNodeIfNeeded("leader/failover/items/0");
     }
     
@@ -130,6 +156,28 @@ public final class FailoverServiceTest {
         verify(jobNodeStorage).executeInLeader(eq("leader/failover/latch"), Matchers.<FailoverLeaderExecutionCallback>any());
     }
     
+    @Test
+    public void assertFailoverIfNecessaryExecuteAfterLeaderLatchReleased() {
+        when(jobNodeStorage.isJobNodeExisted("leader/failover/items")).thenReturn(true);
+        when(jobNodeStorage.getJobNodeChildrenKeys("leader/failover/items")).thenReturn(Collections.singletonList("0"));
+        when(jobNodeStorage.getJobNodeChildrenKeysDirectly("leader/failover/items")).thenReturn(Collections.singletonList("0"));
+        when(serverService.isServerReady()).thenReturn(true);
+        ShardingContexts shardingContexts = new ShardingContexts("fake_task_id", "test_job", 3, "", Collections.<Integer, String>emptyMap());
+        when(executionContextService.getJobShardingContext(Collections.singletonList(0))).thenReturn(shardingContexts);
+        JobRegistry.getInstance().addJobScheduleController("test_job", jobScheduleController);
+        doAnswer(new Answer<Void>() {
+            
+            @Override
+            public Void answer(final InvocationOnMock invocation) {
+                ((FailoverLeaderExecutionCallback) invocation.getArguments()[1]).execute();
+                verify(jobScheduleController, times(0)).executeFailover(Matchers.<ShardingContexts>any());
+                return null;
+            }
+        }).when(jobNodeStorage).executeInLeader(eq("leader/failover/latch"), Matchers.<FailoverLeaderExecutionCallback>any());
+        failoverService.failoverIfNecessary();
+        verify(jobScheduleController).executeFailover(shardingContexts);
+    }
+    
     @Test
     public void assertFailoverLeaderExecutionCallbackIfNotNecessary() {
         when(jobNodeStorage.isJobNodeExisted("leader/failover/items")).thenReturn(false);
@@ -142,52 +190,119 @@ public final class FailoverServiceTest {
     public void assertFailoverLeaderExecutionCallbackIfNecessary() {
         when(jobNodeStorage.isJobNodeExisted("leader/failover/items")).thenReturn(true);
         when(jobNodeStorage.getJobNodeChildrenKeys("leader/failover/items")).thenReturn(Arrays.asList("0", "1", "2"));
+        when(jobNodeStorage.getJobNodeChildrenKeysDirectly("leader/failover/items")).thenReturn(Arrays.asList("0", "1", "2"));
         when(serverService.isServerReady()).thenReturn(true);
+        ExecutorServiceHandlerRegistry.getExecutorServiceHandler("test_job", new FixedExecutorServiceHandler(2));
         JobRegistry.getInstance().addJobScheduleController("test_job", jobScheduleController);
-        failoverService.new FailoverLeaderExecutionCallback().execute();
+        FailoverLeaderExecutionCallback callback = failoverService.new FailoverLeaderExecutionCallback();
+        callback.execute();
+        assertThat(callback.getClaimedItems(), is(Arrays.asList(0, 1)));
         verify(jobNodeStorage).isJobNodeExisted("leader/failover/items");
-        verify(jobNodeStorage, times(2)).getJobNodeChildrenKeys("leader/failover/items");
+        verify(jobNodeStorage).getJobNodeChildrenKeys("leader/failover/items");
+        verify(jobNodeStorage).getJobNodeChildrenKeysDirectly("leader/failover/items");
         verify(serverService).isServerReady();
-        verify(jobNodeStorage).fillEphemeralJobNode("execution/0/failover", "mockedIP");
-        verify(jobNodeStorage).removeJobNodeIfExisted("leader/failover/items/0");
-        verify(jobScheduleController).triggerJob();
+        verify(jobNodeStorage).executeInBatchStrictly(Arrays.asList(
+                BatchOperation.persistEphemeral("execution/0/failover", "mockedIP"), BatchOperation.removeIfExisted("leader/failover/items/0"), 
+                BatchOperation.persistEphemeral("execution/1/failover", "mockedIP"), BatchOperation.removeIfExisted("leader/failover/items/1")));
+        verify(jobScheduleController, times(0)).executeFailover(Matchers.<ShardingContexts>any());
+        verify(jobScheduleController, times(0)).triggerJob();
+    }
+    
+    @Test
+    public void assertFailoverLeaderExecutionCallbackWhenClaimFailure() {
+        when(jobNodeStorage.isJobNodeExisted("leader/failover/items")).thenReturn(true);
+        when(jobNodeStorage.getJobNodeChildrenKeys("leader/failover/items")).thenReturn(Collections.singletonList("0"));
+        when(jobNodeStorage.getJobNodeChildrenKeysDirectly("leader/failover/items")).thenReturn(Collections.singletonList("0"));
+        when(serverService.isServerReady()).thenReturn(true);
+        doThrow(new RegException(new KeeperException.ConnectionLossException())).when(jobNodeStorage).executeInBatchStrictly(Matchers.<List<BatchOperation>>any());
+        when(jobNodeStorage.getJobNodeDataDirectly("execution/0/failover")).thenReturn("otherIP");
+        FailoverLeaderExecutionCallback callback = failoverService.new FailoverLeaderExecutionCallback();
+        callback.execute();
+        verify(jobNodeStorage).getJobNodeDataDirectly("execution/0/failover");
+        assertTrue(callback.getClaimedItems().isEmpty());
+    }
+    
+    @Test
+    public void assertFailoverLeaderExecutionCallbackWhenClaimCommittedBeforeConnectionLoss() {
+        when(jobNodeStorage.isJobNodeExisted("leader/failover/items")).thenReturn(true);
+        when(jobNodeStorage.getJobNodeChildrenKeys("leader/failover/items")).thenReturn(Collections.singletonList("0"));
+        when(jobNodeStorage.getJobNodeChildrenKeysDirectly("leader/failover/items")).thenReturn(Collections.singletonList("0"));
+        when(serverService.isServerReady()).thenReturn(true);
+        doThrow(new RegException(new KeeperException.ConnectionLossException())).when(jobNodeStorage).executeInBatchStrictly(Matchers.<List<BatchOperation>>any());
+        when(jobNodeStorage.getJobNodeDataDirectly("execution/0/failover")).thenReturn("mockedIP");
+        FailoverLeaderExecutionCallback callback = failoverService.new FailoverLeaderExecutionCallback();
+        callback.execute();
+        assertThat(callback.getClaimedItems(), is(Collections.singletonList(0)));
+    }
+    
+    @Test
+    public void assertFailoverLeaderExecutionCallbackWhenCrashedItemsEmpty() {
+        when(jobNodeStorage.isJobNodeExisted("leader/failover/items")).thenReturn(true);
+        when(jobNodeStorage.getJobNodeChildrenKeys("leader/failover/items")).thenReturn(Collections.singletonList("0"));
+        when(jobNodeStorage.getJobNodeChildrenKeysDirectly("leader/failover/items")).thenReturn(Collections.<String>emptyList());
+        when(serverService.isServerReady()).thenReturn(true);
+        FailoverLeaderExecutionCallback callback = failoverService.new FailoverLeaderExecutionCallback();
+        callback.execute();
+        verify(jobNodeStorage, times(0)).executeInBatchStrictly(Matchers.<List<BatchOperation>>any());
+        assertTrue(callback.getClaimedItems().isEmpty());
+    }
+    
+    @Test
+    public void assertGetFailoverBatchSizeWhenJobExecutorAbsent() {
+        assertThat(failoverService.getFailoverBatchSize(), is(1));
+    }
+    
+    @Test
+    public void assertGetFailoverBatchSize() throws InterruptedException {
+        ExecutorService executorService = ExecutorServiceHandlerRegistry.getExecutorServiceHandler("test_job", new FixedExecutorServiceHandler(4));
+        CountDownLatch blockLatch = new CountDownLatch(1);
+        CountDownLatch startedLatch = new CountDownLatch(1);
+        executorService.execute(new BlockingTask(startedLatch, blockLatch));
+        assertTrue(startedLatch.await(5L, TimeUnit.SECONDS));
+        assertThat(failoverService.getFailoverBatchSize(), is(3));
+        blockLatch.countDown();
+    }
+    
+    @Test
+    public void assertGetFailoverBatchSizeWhenNoIdleThread() throws InterruptedException {
+        ExecutorService executorService = ExecutorServiceHandlerRegistry.getExecutorServiceHandler("test_job", new FixedExecutorServiceHandler(1));
+        CountDownLatch blockLatch = new CountDownLatch(1);
+        CountDownLatch startedLatch = new CountDownLatch(1);
+        executorService.execute(new BlockingTask(startedLatch, blockLatch));
+        assertTrue(startedLatch.await(5L, TimeUnit.SECONDS));
+        assertThat(failoverService.getFailoverBatchSize(), is(1));
+        blockLatch.countDown();
     }
     
     @Test
     public void assertUpdateFailoverComplete() {
         failoverService.updateFailoverComplete(Arrays.asList(0, 1));
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/0/failover");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/1/failover");
+        verify(jobNodeStorage).executeInBatch(Arrays.asList(BatchOperation.removeIfExisted("execution/0/failover"), BatchOperation.removeIfExisted("execution/1/failover")));
     }
     
     @Test
     public void assertGetLocalHostFailoverItems() {
         when(jobNodeStorage.getJobNodeChildrenKeys("execution")).thenReturn(Arrays.asList("0", "1", "2"));
-        when(jobNodeStorage.isJobNodeExisted("execution/0/failover")).thenReturn(true);
-        when(jobNodeStorage.isJobNodeExisted("execution/1/failover")).thenReturn(true);
-        when(jobNodeStorage.isJobNodeExisted("execution/2/failover")).thenReturn(false);
         when(jobNodeStorage.getJobNodeDataDirectly("execution/0/failover")).thenReturn("mockedIP");
         when(jobNodeStorage.getJobNodeDataDirectly("execution/1/failover")).thenReturn("otherIP");
         assertThat(failoverService.getLocalHostFailoverItems(), is(Collections.singletonList(0)));
         verify(jobNodeStorage).getJobNodeChildrenKeys("execution");
-        verify(localHostService).getIp();
-        verify(jobNodeStorage).isJobNodeExisted("execution/0/failover");
-        verify(jobNodeStorage).isJobNodeExisted("execution/1/failover");
         verify(jobNodeStorage).getJobNodeDataDirectly("execution/0/failover");
         verify(jobNodeStorage).getJobNodeDataDirectly("execution/1/failover");
+        verify(jobNodeStorage).getJobNodeDataDirectly("execution/2/failover");
     }
     
     @Test
     public void assertGetLocalHostTakeOffItems() {
         when(shardingService.getLocalHostShardingItems()).thenReturn(Arrays.asList(0, 1, 2));
-        when(jobNodeStorage.isJobNodeExisted("execution/0/failover")).thenReturn(true);
-        when(jobNodeStorage.isJobNodeExisted("execution/1/failover")).thenReturn(true);
-        when(jobNodeStorage.isJobNodeExisted("execution/2/failover")).thenReturn(false);
+        when(jobNodeStorage.isJobNodeExistedDirectly("execution/0/failover")).thenReturn(true);
+        when(jobNodeStorage.isJobNodeExistedDirectly("execution/1/failover")).thenReturn(true);
+        when(jobNodeStorage.isJobNodeExistedDirectly("execution/2/failover")).thenReturn(false);
         assertThat(failoverService.getLocalHostTakeOffItems(), is(Arrays.asList(0, 1)));
         verify(shardingService).getLocalHostShardingItems();
-        verify(jobNodeStorage).isJobNodeExisted("execution/0/failover");
-        verify(jobNodeStorage).isJobNodeExisted("execution/1/failover");
-        verify(jobNodeStorage).isJobNodeExisted("execution/2/failover");
+        verify(jobNodeStorage).isJobNodeExistedDirectly("execution/0/failover");
+        verify(jobNodeStorage).isJobNodeExistedDirectly("execution/1/failover");
+        verify(jobNodeStorage).isJobNodeExistedDirectly("execution/2/failover");
     }
     
     @Test
@@ -195,8 +310,36 @@ public final class FailoverServiceTest {
         when(jobNodeStorage.getJobNodeChildrenKeys("execution")).thenReturn(Arrays.asList("0", "1", "2"));
         failoverService.removeFailoverInfo();
         verify(jobNodeStorage).getJobNodeChildrenKeys("execution");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/0/failover");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/1/failover");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/2/failover");
+        verify(jobNodeStorage).executeInBatch(Arrays.asList(
+                BatchOperation.removeIfExisted("execution/0/failover"), BatchOperation.removeIfExisted("execution/1/failover"), BatchOperation.removeIfExisted("execution/2/failover")));
+    }
+    
+    @RequiredArgsConstructor
+    private static final class FixedExecutorServiceHandler implements ExecutorServiceHandler {
+        
+        private final int threadSize;
+        
+        @Override
+        public ExecutorService createExecutorService(final String jobName) {
+            return new ThreadPoolExecutor(threadSize, threadSize, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>());
+        }
+    }
+    
+    @RequiredArgsConstructor
+    private static final class BlockingTask implements Runnable {
+        
+        private final CountDownLatch startedLatch;
+        
+        private final CountDownLatch blockLatch;
+        
+        @Override
+        public void run() {
+            startedLatch.countDown();
+            try {
+                blockLatch.await();
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
     }
 }
@@ -25,6 +25,7 @@ import com.dangdang.ddframe.job.lite.fixture.TestDataflowJob;
 import com.dangdang.ddframe.job.lite.fixture.TestSimpleJob;
 import com.dangdang.ddframe.job.lite.internal.config.ConfigurationService;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
+import com.dangdang.ddframe.job.reg.base.BatchOperation;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
@@ -58,13 +59,12 @@ public final class GuaranteeServiceTest {
     @Test
     public void assertRegisterStart() {
         guaranteeService.registerStart(Arrays.asList(0, 1));
-        verify(jobNodeStorage).createJobNodeIfNeeded("guarantee/started/0");
-        verify(jobNodeStorage).createJobNodeIfNeeded("guarantee/started/1");
+        verify(jobNodeStorage).executeInBatch(Arrays.asList(BatchOperation.createIfAbsent("guarantee/started/0", ""), BatchOperation.createIfAbsent("guarantee/started/1", "")));
     }
     
     @Test
     public void assertIsNotAllStartedWhenRootNodeIsNotExisted() {
-        when(jobNodeStorage.isJobNodeExisted("guarantee/started")).thenReturn(false);
+        when(jobNodeStorage.isJobNodeExistedDirectly("guarantee/started")).thenReturn(false);
         assertFalse(guaranteeService.isAllStarted());
     }
     
@@ -72,17 +72,17 @@ public final class GuaranteeServiceTest {
     public void assertIsNotAllStarted() {
         when(configService.load(false)).thenReturn(LiteJobConfiguration.newBuilder(new DataflowJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).build(),
                 TestDataflowJob.class.getCanonicalName(), true)).build());
-        when(jobNodeStorage.isJobNodeExisted("guarantee/started")).thenReturn(true);
-        when(jobNodeStorage.getJobNodeChildrenKeys("guarantee/started")).thenReturn(Arrays.asList("0", "1"));
+        when(jobNodeStorage.isJobNodeExistedDirectly("guarantee/started")).thenReturn(true);
+        when(jobNodeStorage.getJobNodeChildrenKeysDirectly("guarantee/started")).thenReturn(Arrays.asList("0", "1"));
         assertFalse(guaranteeService.isAllStarted());
     }
     
     @Test
     public void assertIsAllStarted() {
-        when(jobNodeStorage.isJobNodeExisted("guarantee/started")).thenReturn(true);
+        when(jobNodeStorage.isJobNodeExistedDirectly("guarantee/started")).thenReturn(true);
         when(configService.load(false)).thenReturn(LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).build(),
                 TestSimpleJob.class.getCanonicalName())).build());
-        when(jobNodeStorage.getJobNodeChildrenKeys("guarantee/started")).thenReturn(Arrays.asList("0", "1", "2"));
+        when(jobNodeStorage.getJobNodeChildrenKeysDirectly("guarantee/started")).thenReturn(Arrays.asList("0", "1", "2"));
         assertTrue(guaranteeService.isAllStarted());
     }
     
@@ -95,13 +95,12 @@ public final class GuaranteeServiceTest {
     @Test
     public void assertRegisterComplete() {
         guaranteeService.registerComplete(Arrays.asList(0, 1));
-        verify(jobNodeStorage).createJobNodeIfNeeded("guarantee/completed/0");
-        verify(jobNodeStorage).createJobNodeIfNeeded("guarantee/completed/1");
+        verify(jobNodeStorage).executeInBatch(Arrays.asList(BatchOperation.createIfAbsent("guarantee/completed/0", ""), BatchOperation.createIfAbsent("guarantee/completed/1", "")));
     }
     
     @Test
     public void assertIsNotAllCompletedWhenRootNodeIsNotExisted() {
-        when(jobNodeStorage.isJobNodeExisted("guarantee/completed")).thenReturn(false);
+        when(jobNodeStorage.isJobNodeExistedDirectly("guarantee/completed")).thenReturn(false);
         assertFalse(guaranteeService.isAllCompleted());
     }
     
@@ -109,17 +108,17 @@ public final class GuaranteeServiceTest {
     public void assertIsNotAllCompleted() {
         when(configService.load(false)).thenReturn(LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 10).build(),
                 TestSimpleJob.class.getCanonicalName())).build());
-        when(jobNodeStorage.isJobNodeExisted("guarantee/completed")).thenReturn(false);
-        when(jobNodeStorage.getJobNodeChildrenKeys("guarantee/completed")).thenReturn(Arrays.asList("0", "1"));
+        when(jobNodeStorage.isJobNodeExistedDirectly("guarantee/completed")).thenReturn(false);
+        when(jobNodeStorage.getJobNodeChildrenKeysDirectly("guarantee/completed")).thenReturn(Arrays.asList("0", "1"));
         assertFalse(guaranteeService.isAllCompleted());
     }
     
     @Test
     public void assertIsAllCompleted() {
-        when(jobNodeStorage.isJobNodeExisted("guarantee/completed")).thenReturn(true);
+        when(jobNodeStorage.isJobNodeExistedDirectly("guarantee/completed")).thenReturn(true);
         when(configService.load(false)).thenReturn(LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).build(),
                 TestSimpleJob.class.getCanonicalName())).build());
-        when(jobNodeStorage.getJobNodeChildrenKeys("guarantee/completed")).thenReturn(Arrays.asList("0", "1", "2"));
+        when(jobNodeStorage.getJobNodeChildrenKeysDirectly("guarantee/completed")).thenReturn(Arrays.asList("0", "1", "2"));
         assertTrue(guaranteeService.isAllCompleted());
     }
     
@@ -0,0 +1,146 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.offset;
+
+import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
+import com.dangdang.ddframe.job.reg.base.BatchOperation;
+import com.dangdang.ddframe.job.reg.exception.RegException;
+import org.apache.zookeeper.KeeperException;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.unitils.util.ReflectionUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public final class OffsetServiceTest {
+    
+    @Mock
+    private JobNodeStorage jobNodeStorage;
+    
+    private final OffsetService offsetService = new OffsetService(null, "test_job");
+    
+    @Before
+    public void setUp() throws NoSuchFieldException {
+        MockitoAnnotations.initMocks(this);
+        ReflectionUtils.setFieldValue(offsetService, "jobNodeStorage", jobNodeStorage);
+    }
+    
+    @Test
+    public void assertLoadFromRegistryCenter() {
+        when(jobNodeStorage.getJobNodeDataDirectly("offset/0")).thenReturn("10");
+        assertThat(offsetService.load(0), is("10"));
+        assertThat(offsetService.load(0), is("10"));
+        verify(jobNodeStorage).getJobNodeDataDirectly("offset/0");
+    }
+    
+    @Test
+    public void assertLoadWhenNeverCommitted() {
+        assertNull(offsetService.load(0));
+        assertNull(offsetService.load(0));
+        verify(jobNodeStorage).getJobNodeDataDirectly("offset/0");
+    }
+    
+    @Test
+    public void assertLoadAfterCommit() {
+        offsetService.commit(0, "20");
+        assertThat(offsetService.load(0), is("20"));
+        verify(jobNodeStorage, times(0)).getJobNodeDataDirectly("offset/0");
+    }
+    
+    @Test
+    public void assertFlushCoalescedOffsets() {
+        offsetService.commit(0, "1");
+        offsetService.commit(0, "2");
+        offsetService.commit(1, "5");
+        offsetService.flush();
+        offsetService.flush();
+        verify(jobNodeStorage).executeInBatchStrictly(Arrays.asList(BatchOperation.persist("offset/0", "2"), BatchOperation.persist("offset/1", "5")));
+        verify(jobNodeStorage).executeInBatchStrictly(Matchers.<List<BatchOperation>>any());
+    }
+    
+    @Test
+    public void assertFlushWhenRegistryCenterFailure() {
+        List<BatchOperation> operations = Collections.singletonList(BatchOperation.persist("offset/0", "1"));
+        doThrow(new RegException("fail")).doNothing().when(jobNodeStorage).executeInBatchStrictly(operations);
+        offsetService.commit(0, "1");
+        assertFalse(offsetService.flush());
+        assertTrue(offsetService.flush());
+        assertTrue(offsetService.flush());
+        verify(jobNodeStorage, times(2)).executeInBatchStrictly(operations);
+    }
+    
+    @Test
+    public void assertFlushAndClear() {
+        when(jobNodeStorage.getJobNodeDataDirectly("offset/0")).thenReturn("1");
+        offsetService.commit(0, "1");
+        offsetService.flushAndClear(Collections.singletonList(0));
+        verify(jobNodeStorage).executeInBatchStrictly(Collections.singletonList(BatchOperation.persist("offset/0", "1")));
+        assertThat(offsetService.load(0), is("1"));
+        verify(jobNodeStorage).getJobNodeDataDirectly("offset/0");
+    }
+    
+    @Test
+    public void assertFlushWhenConnectionLoss() {
+        List<BatchOperation> operations = Collections.singletonList(BatchOperation.persist("offset/0", "1"));
+        doThrow(new RegException(new KeeperException.ConnectionLossException())).doNothing().when(jobNodeStorage).executeInBatchStrictly(operations);
+        offsetService.commit(0, "1");
+        assertFalse(offsetService.flush());
+        assertTrue(offsetService.flush());
+        verify(jobNodeStorage, times(2)).executeInBatchStrictly(operations);
+    }
+    
+    @Test
+    public void assertFlushAndClearWhenRegistryCenterFailure() {
+        doThrow(new RegException(new KeeperException.ConnectionLossException())).when(jobNodeStorage).executeInBatchStrictly(Matchers.<List<BatchOperation>>any());
+        when(jobNodeStorage.getJobNodeDataDirectly("offset/0")).thenReturn("0");
+        offsetService.commit(0, "1");
+        offsetService.flushAndClear(Collections.singletonList(0));
+        assertTrue(offsetService.flush());
+        verify(jobNodeStorage).executeInBatchStrictly(Matchers.<List<BatchOperation>>any());
+        assertThat(offsetService.load(0), is("0"));
+    }
+    
+    @Test
+    public void assertFlushAndClearOnlyCompletedItems() {
+        when(jobNodeStorage.getJobNodeDataDirectly("offset/0")).thenReturn("1");
+        offsetService.commit(0, "1");
+        offsetService.commit(1, "2");
+        offsetService.flushAndClear(Collections.singletonList(0));
+        verify(jobNodeStorage).executeInBatchStrictly(Collections.singletonList(BatchOperation.persist("offset/0", "1")));
+        assertThat(offsetService.load(0), is("1"));
+        assertThat(offsetService.load(1), is("2"));
+        verify(jobNodeStorage, times(0)).getJobNodeDataDirectly("offset/1");
+        assertTrue(offsetService.flush());
+        verify(jobNodeStorage).executeInBatchStrictly(Collections.singletonList(BatchOperation.persist("offset/1", "2")));
+    }
+}
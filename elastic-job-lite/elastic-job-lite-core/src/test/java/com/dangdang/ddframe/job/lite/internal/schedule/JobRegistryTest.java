@@ -20,6 +20,7 @@ package com.dangdang.ddframe.job.lite.internal.schedule;
 import org.junit.Test;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
 
@@ -31,4 +32,52 @@ public final class JobRegistryTest {
         JobRegistry.getInstance().addJobScheduleController("test_job_AddJobScheduler", jobScheduleController);
         assertThat(JobRegistry.getInstance().getJobScheduleController("test_job_AddJobScheduler"), is(jobScheduleController));
     }
+    
+    @Test
+    public void assertSetLeader() {
+        JobRegistry.getInstance().setLeader("test_job_SetLeader", true);
+        assertThat(JobRegistry.getInstance().getLeader("test_job_SetLeader"), is(true));
+        JobRegistry.getInstance().setLeader("test_job_SetLeader", false);
+        assertThat(JobRegistry.getInstance().getLeader("test_job_SetLeader"), is(false));
+    }
+    
+    @Test
+    public void assertResetLeader() {
+        JobRegistry.getInstance().setLeader("test_job_ResetLeader", true);
+        JobRegistry.getInstance().resetLeader("test_job_ResetLeader");
+        assertNull(JobRegistry.getInstance().getLeader("test_job_ResetLeader"));
+    }
+    
+    @Test
+    public void assertSetEligibleForJobRunning() {
+        long version = JobRegistry.getInstance().getEligibilityVersion("test_job_SetEligible");
+        JobRegistry.getInstance().setEligibleForJobRunning("test_job_SetEligible", version, true);
+        assertThat(JobRegistry.getInstance().getEligibleForJobRunning("test_job_SetEligible"), is(true));
+        JobRegistry.getInstance().setEligibleForJobRunning("test_job_SetEligible", version, false);
+        assertThat(JobRegistry.getInstance().getEligibleForJobRunning("test_job_SetEligible"), is(false));
+    }
+    
+    @Test
+    public void assertSetEligibleForJobRunningWhenVersionChanged() {
+        long version = JobRegistry.getInstance().getEligibilityVersion("test_job_SetEligibleWhenVersionChanged");
+        JobRegistry.getInstance().resetEligibleForJobRunning("test_job_SetEligibleWhenVersionChanged");
+        JobRegistry.getInstance().setEligibleForJobRunning("test_job_SetEligibleWhenVersionChanged", version, true);
+        assertNull(JobRegistry.getInstance().getEligibleForJobRunning("test_job_SetEligibleWhenVersionChanged"));
+    }
+    
+    @Test
+    public void assertResetEligibleForJobRunning() {
+        JobRegistry.getInstance().setEligibleForJobRunning("test_job_ResetEligible", JobRegistry.getInstance().getEligibilityVersion("test_job_ResetEligible"), true);
+        JobRegistry.getInstance().resetEligibleForJobRunning("test_job_ResetEligible");
+        assertNull(JobRegistry.getInstance().getEligibleForJobRunning("test_job_ResetEligible"));
+    }
+    
+    @Test
+    public void assertRemoveEligibility() {
+        JobRegistry.getInstance().resetEligibleForJobRunning("test_job_RemoveEligibility");
+        JobRegistry.getInstance().setEligibleForJobRunning("test_job_RemoveEligibility", JobRegistry.getInstance().getEligibilityVersion("test_job_RemoveEligibility"), true);
+        JobRegistry.getInstance().removeEligibility("test_job_RemoveEligibility");
+        assertNull(JobRegistry.getInstance().getEligibleForJobRunning("test_job_RemoveEligibility"));
+        assertThat(JobRegistry.getInstance().getEligibilityVersion("test_job_RemoveEligibility"), is(0L));
+    }
 }
@@ -22,6 +22,7 @@ import com.dangdang.ddframe.job.config.dataflow.DataflowJobConfiguration;
 import com.dangdang.ddframe.job.config.simple.SimpleJobConfiguration;
 import com.dangdang.ddframe.job.event.JobEventBus;
 import com.dangdang.ddframe.job.exception.JobExecutionEnvironmentException;
+import com.dangdang.ddframe.job.executor.OffsetStorage;
 import com.dangdang.ddframe.job.executor.ShardingContexts;
 import com.dangdang.ddframe.job.lite.api.listener.ElasticJobListener;
 import com.dangdang.ddframe.job.lite.api.listener.fixture.ElasticJobListenerCaller;
@@ -33,6 +34,7 @@ import com.dangdang.ddframe.job.lite.internal.config.ConfigurationService;
 import com.dangdang.ddframe.job.lite.internal.execution.ExecutionContextService;
 import com.dangdang.ddframe.job.lite.internal.execution.ExecutionService;
 import com.dangdang.ddframe.job.lite.internal.failover.FailoverService;
+import com.dangdang.ddframe.job.lite.internal.offset.OffsetService;
 import com.dangdang.ddframe.job.lite.internal.server.ServerService;
 import com.dangdang.ddframe.job.lite.internal.sharding.ShardingService;
 import com.google.common.collect.Lists;
@@ -71,6 +73,9 @@ public class LiteJobFacadeTest {
     @Mock
     private FailoverService failoverService;
     
+    @Mock
+    private OffsetService offsetService;
+    
     @Mock
     private JobEventBus eventBus;
     
@@ -89,6 +94,8 @@ public class LiteJobFacadeTest {
         ReflectionUtils.setFieldValue(liteJobFacade, "executionContextService", executionContextService);
         ReflectionUtils.setFieldValue(liteJobFacade, "executionService", executionService);
         ReflectionUtils.setFieldValue(liteJobFacade, "failoverService", failoverService);
+        ReflectionUtils.setFieldValue(liteJobFacade, "offsetService", offsetService);
+        JobRegistry.getInstance().resetEligibleForJobRunning("test_job");
     }
     
     @Test
@@ -143,6 +150,7 @@ public class LiteJobFacadeTest {
         when(configService.load(true)).thenReturn(LiteJobConfiguration.newBuilder(
                 new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).failover(false).build(), TestSimpleJob.class.getCanonicalName())).build());
         liteJobFacade.registerJobCompleted(shardingContexts);
+        verify(offsetService).flushAndClear(shardingContexts.getShardingItemParameters().keySet());
         verify(executionService).registerJobCompleted(shardingContexts);
         verify(failoverService, times(0)).updateFailoverComplete(shardingContexts.getShardingItemParameters().keySet());
     }
@@ -153,13 +161,14 @@ public class LiteJobFacadeTest {
         when(configService.load(true)).thenReturn(LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).failover(true).build(), 
                 TestSimpleJob.class.getCanonicalName())).monitorExecution(true).build());
         liteJobFacade.registerJobCompleted(shardingContexts);
+        verify(offsetService).flushAndClear(shardingContexts.getShardingItemParameters().keySet());
         verify(executionService).registerJobCompleted(shardingContexts);
         verify(failoverService).updateFailoverComplete(shardingContexts.getShardingItemParameters().keySet());
     }
     
     @Test
     public void assertGetShardingContextWhenIsFailoverEnableAndFailover() {
-        ShardingContexts shardingContexts = new ShardingContexts("fake_task_id", "test_job", 10, "", Collections.<Integer, String>emptyMap());
+        ShardingContexts shardingContexts = new ShardingContexts("fake_task_id", "test_job", 10, "", Collections.singletonMap(1, ""));
         when(configService.load(true)).thenReturn(LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).failover(true).build(), 
                 TestSimpleJob.class.getCanonicalName())).monitorExecution(true).build());
         when(failoverService.getLocalHostFailoverItems()).thenReturn(Collections.singletonList(1));
@@ -168,6 +177,35 @@ public class LiteJobFacadeTest {
         verify(shardingService, times(0)).shardingIfNecessary();
     }
     
+    @Test
+    public void assertGetShardingContextWhenIsFailoverEnableAndFailoverItemsAreRunning() {
+        ShardingContexts failoverShardingContexts = new ShardingContexts("fake_failover_task_id", "test_job", 10, "", Collections.<Integer, String>emptyMap());
+        ShardingContexts shardingContexts = new ShardingContexts("fake_task_id", "test_job", 10, "", Collections.singletonMap(0, ""));
+        when(configService.load(true)).thenReturn(LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).failover(true).build(), 
+                TestSimpleJob.class.getCanonicalName())).monitorExecution(true).build());
+        when(failoverService.getLocalHostFailoverItems()).thenReturn(Lists.newArrayList(2));
+        when(executionContextService.getJobShardingContext(Collections.singletonList(2))).thenReturn(failoverShardingContexts);
+        when(shardingService.getLocalHostShardingItems()).thenReturn(Lists.newArrayList(0, 1));
+        when(failoverService.getLocalHostTakeOffItems()).thenReturn(Collections.singletonList(1));
+        when(executionContextService.getJobShardingContext(Collections.singletonList(0))).thenReturn(shardingContexts);
+        assertThat(liteJobFacade.getShardingContexts(), is(shardingContexts));
+        verify(shardingService).shardingIfNecessary();
+    }
+    
+    @Test
+    public void assertGetShardingContextWhenIsFailoverEnableAndFailoverItemsAreAlsoLocalShardingItems() {
+        ShardingContexts failoverShardingContexts = new ShardingContexts("fake_failover_task_id", "test_job", 10, "", Collections.<Integer, String>emptyMap());
+        ShardingContexts shardingContexts = new ShardingContexts("fake_task_id", "test_job", 10, "", Collections.singletonMap(0, ""));
+        when(configService.load(true)).thenReturn(LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).failover(true).build(), 
+                TestSimpleJob.class.getCanonicalName())).monitorExecution(true).build());
+        when(failoverService.getLocalHostFailoverItems()).thenReturn(Lists.newArrayList(2));
+        when(executionContextService.getJobShardingContext(Collections.singletonList(2))).thenReturn(failoverShardingContexts);
+        when(shardingService.getLocalHostShardingItems()).thenReturn(Lists.newArrayList(0, 1, 2));
+        when(failoverService.getLocalHostTakeOffItems()).thenReturn(Collections.singletonList(1));
+        when(executionContextService.getJobShardingContext(Collections.singletonList(0))).thenReturn(shardingContexts);
+        assertThat(liteJobFacade.getShardingContexts(), is(shardingContexts));
+    }
+    
     @Test
     public void assertGetShardingContextWhenIsFailoverEnableAndNotFailover() {
         ShardingContexts shardingContexts = new ShardingContexts("fake_task_id", "test_job", 10, "", Collections.<Integer, String>emptyMap());
@@ -212,8 +250,9 @@ public class LiteJobFacadeTest {
     
     @Test
     public void assertCleanPreviousExecutionInfo() {
+        when(shardingService.getLocalHostShardingItems()).thenReturn(Arrays.asList(0, 1));
         liteJobFacade.cleanPreviousExecutionInfo();
-        verify(executionService).cleanPreviousExecutionInfo();
+        verify(executionService).cleanPreviousExecutionInfo(Arrays.asList(0, 1));
     }
     
     @Test
@@ -266,6 +305,37 @@ public class LiteJobFacadeTest {
         verify(configService).load(true);
     }
     
+    @Test
+    public void assertEligibleForJobRunningWhenCached() {
+        when(serverService.isJobPausedManually()).thenReturn(false);
+        when(shardingService.isNeedSharding()).thenReturn(false);
+        when(configService.load(true)).thenReturn(LiteJobConfiguration.newBuilder(new DataflowJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).build(),
+                TestDataflowJob.class.getCanonicalName(), true)).build());
+        assertThat(liteJobFacade.isEligibleForJobRunning(), is(true));
+        assertThat(liteJobFacade.isEligibleForJobRunning(), is(true));
+        verify(serverService).isJobPausedManually();
+        verify(shardingService).isNeedSharding();
+        verify(configService).load(true);
+    }
+    
+    @Test
+    public void assertNotEligibleForJobRunningWhenCachedAndReset() {
+        when(serverService.isJobPausedManually()).thenReturn(false);
+        when(shardingService.isNeedSharding()).thenReturn(false, true);
+        when(configService.load(true)).thenReturn(LiteJobConfiguration.newBuilder(new DataflowJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).build(),
+                TestDataflowJob.class.getCanonicalName(), true)).build());
+        assertThat(liteJobFacade.isEligibleForJobRunning(), is(true));
+        JobRegistry.getInstance().resetEligibleForJobRunning("test_job");
+        assertThat(liteJobFacade.isEligibleForJobRunning(), is(false));
+        verify(shardingService, times(2)).isNeedSharding();
+        verify(configService, times(2)).load(true);
+    }
+    
+    @Test
+    public void assertGetOffsetStorage() {
+        assertThat(liteJobFacade.getOffsetStorage(), is((OffsetStorage) offsetService));
+    }
+    
     @Test
     public void assertPostJobExecutionEvent() {
         liteJobFacade.postJobExecutionEvent(null);
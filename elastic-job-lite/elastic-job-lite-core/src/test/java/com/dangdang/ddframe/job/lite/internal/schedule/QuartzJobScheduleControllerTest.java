@@ -19,7 +19,12 @@ package com.dangdang.ddframe.job.lite.internal.schedule;
 
 import com.dangdang.ddframe.job.config.JobCoreConfiguration;
 import com.dangdang.ddframe.job.config.simple.SimpleJobConfiguration;
+import com.dangdang.ddframe.job.event.type.JobStatusTraceEvent.State;
 import com.dangdang.ddframe.job.exception.JobSystemException;
+import com.dangdang.ddframe.job.executor.JobExecutorHolder;
+import com.dangdang.ddframe.job.executor.JobFacade;
+import com.dangdang.ddframe.job.executor.ShardingContexts;
+import com.dangdang.ddframe.job.lite.api.JobScheduler;
 import com.dangdang.ddframe.job.lite.config.LiteJobConfiguration;
 import com.dangdang.ddframe.job.lite.fixture.TestSimpleJob;
 import org.junit.Before;
@@ -27,6 +32,7 @@ import org.junit.Test;
 import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.quartz.JobDataMap;
 import org.quartz.JobDetail;
 import org.quartz.JobKey;
 import org.quartz.Scheduler;
@@ -37,6 +43,7 @@ import org.quartz.impl.triggers.CronTriggerImpl;
 import org.unitils.util.ReflectionUtils;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
@@ -50,7 +57,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-public final class JobScheduleControllerTest {
+public final class QuartzJobScheduleControllerTest {
     
     @Mock
     private SchedulerFacade schedulerFacade;
@@ -61,12 +68,12 @@ public final class JobScheduleControllerTest {
     @Mock
     private JobDetail jobDetail;
     
-    private JobScheduleController jobScheduleController;
+    private QuartzJobScheduleController jobScheduleController;
     
     @Before
     public void initMocks() throws NoSuchFieldException {
         MockitoAnnotations.initMocks(this);
-        jobScheduleController = new JobScheduleController(scheduler, jobDetail, schedulerFacade, "test_job_Trigger");
+        jobScheduleController = new QuartzJobScheduleController(scheduler, jobDetail, schedulerFacade, "test_job_Trigger");
     }
     
     @Test
@@ -139,6 +146,38 @@ public final class JobScheduleControllerTest {
         verify(scheduler).triggerJob(jobKey);
     }
     
+    @Test
+    public void assertExecuteFailoverIfShutdown() throws NoSuchFieldException, SchedulerException {
+        when(scheduler.isShutdown()).thenReturn(true);
+        ReflectionUtils.setFieldValue(jobScheduleController, "scheduler", scheduler);
+        ReflectionUtils.setFieldValue(jobScheduleController, "jobDetail", jobDetail);
+        jobScheduleController.executeFailover(new ShardingContexts("fake_task_id", "test_job", 3, "", Collections.<Integer, String>emptyMap()));
+        verify(jobDetail, times(0)).getJobDataMap();
+    }
+    
+    @Test(expected = JobSystemException.class)
+    public void assertExecuteFailoverFailure() throws NoSuchFieldException, SchedulerException {
+        doThrow(SchedulerException.class).when(scheduler).isShutdown();
+        ReflectionUtils.setFieldValue(jobScheduleController, "scheduler", scheduler);
+        jobScheduleController.executeFailover(new ShardingContexts("fake_task_id", "test_job", 3, "", Collections.<Integer, String>emptyMap()));
+    }
+    
+    @Test
+    public void assertExecuteFailoverSuccess() throws NoSuchFieldException, SchedulerException {
+        JobFacade jobFacade = mock(JobFacade.class);
+        when(jobFacade.loadJobRootConfiguration(true)).thenReturn(LiteJobConfiguration.newBuilder(
+                new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).build(), TestSimpleJob.class.getCanonicalName())).build());
+        JobDataMap jobDataMap = new JobDataMap();
+        jobDataMap.put(JobScheduler.JOB_EXECUTOR_HOLDER_DATA_MAP_KEY, new JobExecutorHolder(new TestSimpleJob(), jobFacade));
+        when(jobDetail.getJobDataMap()).thenReturn(jobDataMap);
+        when(scheduler.isShutdown()).thenReturn(false);
+        ReflectionUtils.setFieldValue(jobScheduleController, "scheduler", scheduler);
+        ReflectionUtils.setFieldValue(jobScheduleController, "jobDetail", jobDetail);
+        jobScheduleController.executeFailover(new ShardingContexts("fake_task_id", "test_job", 3, "", Collections.<Integer, String>emptyMap()));
+        verify(jobFacade).postJobStatusTraceEvent("fake_task_id", State.TASK_STAGING, "Job 'test_job' failover execute begin.");
+        verify(jobFacade).postJobStatusTraceEvent("fake_task_id", State.TASK_FINISHED, "Sharding item for job 'test_job' is empty.");
+    }
+    
     @Test
     public void assertShutdownJobIfShutdown() throws NoSuchFieldException, SchedulerException {
         ReflectionUtils.setFieldValue(jobScheduleController, "scheduler", scheduler);
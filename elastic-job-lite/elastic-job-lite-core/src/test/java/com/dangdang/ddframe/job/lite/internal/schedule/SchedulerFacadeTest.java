@@ -19,6 +19,9 @@ package com.dangdang.ddframe.job.lite.internal.schedule;
 
 import com.dangdang.ddframe.job.config.JobCoreConfiguration;
 import com.dangdang.ddframe.job.config.dataflow.DataflowJobConfiguration;
+import com.dangdang.ddframe.job.executor.handler.ExecutorServiceHandlerRegistry;
+import com.dangdang.ddframe.job.executor.handler.impl.DefaultExecutorServiceHandler;
+import com.dangdang.ddframe.job.executor.handler.impl.ForkJoinPoolExecutorServiceHandler;
 import com.dangdang.ddframe.job.lite.api.listener.ElasticJobListener;
 import com.dangdang.ddframe.job.lite.config.LiteJobConfiguration;
 import com.dangdang.ddframe.job.lite.fixture.TestDataflowJob;
@@ -36,10 +39,13 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.unitils.util.ReflectionUtils;
 
+import java.util.Arrays;
 import java.util.Collections;
 
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -108,9 +114,16 @@ public class SchedulerFacadeTest {
     
     @Test
     public void assertReleaseJobResource() {
+        new ForkJoinPoolExecutorServiceHandler().createExecutorService("test_job");
+        ExecutorServiceHandlerRegistry.getExecutorServiceHandler("test_job", new DefaultExecutorServiceHandler());
+        JobRegistry.getInstance().setEligibleForJobRunning("test_job", JobRegistry.getInstance().getEligibilityVersion("test_job"), true);
         schedulerFacade.releaseJobResource();
         verify(monitorService).close();
         verify(serverService).removeServerData();
+        assertFalse(ExecutorServiceHandlerRegistry.find("test_job").isPresent());
+        assertFalse(ForkJoinPoolExecutorServiceHandler.getJobExecutorService("test_job").isPresent());
+        assertNull(JobRegistry.getInstance().getEligibleForJobRunning("test_job"));
+        assertThat(JobRegistry.getInstance().getEligibilityVersion("test_job"), is(0L));
     }
     
     @Test
@@ -120,6 +133,13 @@ public class SchedulerFacadeTest {
         assertThat(schedulerFacade.loadJobConfiguration(), is(expected));
     }
     
+    @Test
+    public void assertSetMisfire() {
+        when(shardingService.getLocalHostShardingItems()).thenReturn(Arrays.asList(0, 1));
+        schedulerFacade.setMisfire();
+        verify(executionService).setMisfire(Arrays.asList(0, 1));
+    }
+    
     @Test
     public void assertNewJobTriggerListener() {
         assertThat(schedulerFacade.newJobTriggerListener(), instanceOf(JobTriggerListener.class));
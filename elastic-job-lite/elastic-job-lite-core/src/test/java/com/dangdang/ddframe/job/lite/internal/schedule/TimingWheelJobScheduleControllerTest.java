@@ -0,0 +1,258 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.schedule;
+
+import com.dangdang.ddframe.job.config.JobCoreConfiguration;
+import com.dangdang.ddframe.job.config.simple.SimpleJobConfiguration;
+import com.dangdang.ddframe.job.event.type.JobStatusTraceEvent.State;
+import com.dangdang.ddframe.job.executor.JobFacade;
+import com.dangdang.ddframe.job.executor.ShardingContexts;
+import com.dangdang.ddframe.job.lite.config.LiteJobConfiguration;
+import com.dangdang.ddframe.job.lite.fixture.TestSimpleJob;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public final class TimingWheelJobScheduleControllerTest {
+    
+    private static final String EVERY_SECOND_CRON = "* * * * * ?";
+    
+    private static final String NEVER_CRON = "0 0 0 1 1 ? 2099";
+    
+    @Mock
+    private JobFacade jobFacade;
+    
+    @Mock
+    private SchedulerFacade schedulerFacade;
+    
+    private final TimingWheelScheduler timingWheelScheduler = new TimingWheelScheduler(2);
+    
+    private final ShardingContexts shardingContexts = new ShardingContexts("fake_task_id", "test_job", 3, "", Collections.<Integer, String>emptyMap());
+    
+    private TimingWheelJobScheduleController jobScheduleController;
+    
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(jobFacade.loadJobRootConfiguration(true)).thenReturn(createLiteJobConfiguration(true));
+        when(jobFacade.getShardingContexts()).thenReturn(shardingContexts);
+        when(schedulerFacade.loadJobConfiguration()).thenReturn(createLiteJobConfiguration(true));
+        jobScheduleController = new TimingWheelJobScheduleController(timingWheelScheduler, new TestSimpleJob(), jobFacade, schedulerFacade, "test_job");
+    }
+    
+    @After
+    public void tearDown() {
+        timingWheelScheduler.shutdown();
+    }
+    
+    private LiteJobConfiguration createLiteJobConfiguration(final boolean misfire) {
+        return LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", EVERY_SECOND_CRON, 3).misfire(misfire).build(), 
+                TestSimpleJob.class.getCanonicalName())).sharedScheduler(true).build();
+    }
+    
+    @Test
+    public void assertScheduleJob() {
+        long now = System.currentTimeMillis();
+        jobScheduleController.scheduleJob(EVERY_SECOND_CRON);
+        Date nextFireTime = jobScheduleController.getNextFireTime();
+        assertNotNull(nextFireTime);
+        assertTrue(nextFireTime.getTime() > now && nextFireTime.getTime() <= now + 1000L);
+        verify(jobFacade, timeout(3000L)).getShardingContexts();
+    }
+    
+    @Test
+    public void assertScheduleJobTwice() {
+        jobScheduleController.scheduleJob(NEVER_CRON);
+        Date nextFireTime = jobScheduleController.getNextFireTime();
+        jobScheduleController.scheduleJob(EVERY_SECOND_CRON);
+        assertThat(jobScheduleController.getNextFireTime(), is(nextFireTime));
+    }
+    
+    @Test
+    public void assertRescheduleJob() {
+        jobScheduleController.scheduleJob(NEVER_CRON);
+        jobScheduleController.rescheduleJob(EVERY_SECOND_CRON);
+        assertTrue(jobScheduleController.getNextFireTime().getTime() <= System.currentTimeMillis() + 1000L);
+        verify(jobFacade, timeout(3000L)).getShardingContexts();
+    }
+    
+    @Test
+    public void assertRescheduleJobBeforeScheduled() {
+        jobScheduleController.rescheduleJob(EVERY_SECOND_CRON);
+        assertNull(jobScheduleController.getNextFireTime());
+    }
+    
+    @Test
+    public void assertTriggerJob() {
+        jobScheduleController.scheduleJob(NEVER_CRON);
+        jobScheduleController.triggerJob();
+        verify(jobFacade, timeout(3000L)).getShardingContexts();
+        verify(jobFacade).postJobStatusTraceEvent("fake_task_id", State.TASK_STAGING, "Job 'test_job' execute begin.");
+    }
+    
+    @Test
+    public void assertTriggerJobWhenRunning() throws InterruptedException {
+        CountDownLatch latch = blockExecution();
+        jobScheduleController.scheduleJob(NEVER_CRON);
+        jobScheduleController.triggerJob();
+        jobScheduleController.triggerJob();
+        verify(jobFacade, timeout(3000L)).getShardingContexts();
+        latch.countDown();
+        verify(jobFacade, timeout(3000L).times(2)).getShardingContexts();
+        verify(jobFacade, after(200).times(2)).getShardingContexts();
+    }
+    
+    @Test
+    public void assertTriggerJobWhenPaused() {
+        jobScheduleController.scheduleJob(NEVER_CRON);
+        jobScheduleController.pauseJob();
+        jobScheduleController.triggerJob();
+        verify(jobFacade, after(200).never()).getShardingContexts();
+        jobScheduleController.resumeJob();
+        verify(jobFacade, timeout(3000L)).getShardingContexts();
+    }
+    
+    @Test
+    public void assertMisfireWhenRunning() throws InterruptedException {
+        CountDownLatch latch = blockExecution();
+        jobScheduleController.scheduleJob(EVERY_SECOND_CRON);
+        verify(jobFacade, timeout(3000L)).getShardingContexts();
+        verify(schedulerFacade, timeout(3000L)).setMisfire();
+        latch.countDown();
+        verify(jobFacade, timeout(3000L).atLeast(2)).getShardingContexts();
+    }
+    
+    @Test
+    public void assertMisfireWhenRunningAndMisfireDisabled() throws InterruptedException {
+        when(schedulerFacade.loadJobConfiguration()).thenReturn(createLiteJobConfiguration(false));
+        CountDownLatch latch = blockExecution();
+        jobScheduleController.scheduleJob(EVERY_SECOND_CRON);
+        verify(jobFacade, timeout(3000L)).getShardingContexts();
+        verify(schedulerFacade, timeout(3000L)).setMisfire();
+        jobScheduleController.rescheduleJob(NEVER_CRON);
+        latch.countDown();
+        verify(jobFacade, after(200).times(1)).getShardingContexts();
+    }
+    
+    @Test
+    public void assertMisfireOnceAfterTickerStalled() throws InterruptedException {
+        jobScheduleController.scheduleJob(EVERY_SECOND_CRON);
+        stallTicker(jobScheduleController.getNextFireTime().getTime() + 100L, 3300L).await(5L, TimeUnit.SECONDS);
+        verify(schedulerFacade, after(300).times(1)).setMisfire();
+        verify(jobFacade, times(2)).getShardingContexts();
+    }
+    
+    @Test
+    public void assertMisfireOnceAfterTickerStalledAndMisfireDisabled() throws InterruptedException {
+        when(schedulerFacade.loadJobConfiguration()).thenReturn(createLiteJobConfiguration(false));
+        jobScheduleController.scheduleJob(EVERY_SECOND_CRON);
+        stallTicker(jobScheduleController.getNextFireTime().getTime() + 100L, 3300L).await(5L, TimeUnit.SECONDS);
+        verify(schedulerFacade, after(300).times(1)).setMisfire();
+        verify(jobFacade, times(1)).getShardingContexts();
+    }
+    
+    @Test
+    public void assertResumeJobAfterMissedWhilePaused() {
+        jobScheduleController.pauseJob();
+        jobScheduleController.scheduleJob(EVERY_SECOND_CRON);
+        verify(jobFacade, after(1500).never()).getShardingContexts();
+        jobScheduleController.resumeJob();
+        verify(jobFacade, timeout(200L)).getShardingContexts();
+    }
+    
+    @Test
+    public void assertResumeJobAfterMissedWhilePausedAndMisfireDisabled() {
+        when(schedulerFacade.loadJobConfiguration()).thenReturn(createLiteJobConfiguration(false));
+        jobScheduleController.pauseJob();
+        jobScheduleController.scheduleJob(EVERY_SECOND_CRON);
+        verify(jobFacade, after(1500).never()).getShardingContexts();
+        jobScheduleController.rescheduleJob(NEVER_CRON);
+        jobScheduleController.resumeJob();
+        verify(jobFacade, after(200).never()).getShardingContexts();
+    }
+    
+    @Test
+    public void assertExecuteFailover() {
+        jobScheduleController.executeFailover(shardingContexts);
+        verify(jobFacade).postJobStatusTraceEvent("fake_task_id", State.TASK_STAGING, "Job 'test_job' failover execute begin.");
+    }
+    
+    @Test
+    public void assertShutdown() {
+        jobScheduleController.scheduleJob(EVERY_SECOND_CRON);
+        jobScheduleController.shutdown();
+        verify(schedulerFacade).releaseJobResource();
+        assertNull(jobScheduleController.getNextFireTime());
+        jobScheduleController.triggerJob();
+        jobScheduleController.executeFailover(shardingContexts);
+        verify(jobFacade, after(1500).never()).getShardingContexts();
+        verify(jobFacade, never()).postJobStatusTraceEvent("fake_task_id", State.TASK_STAGING, "Job 'test_job' failover execute begin.");
+        verify(jobFacade, times(0)).loadJobRootConfiguration(true);
+    }
+    
+    private CountDownLatch stallTicker(final long stallTime, final long stallMilliseconds) {
+        final CountDownLatch result = new CountDownLatch(1);
+        timingWheelScheduler.schedule(new Runnable() {
+            
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(stallMilliseconds);
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                result.countDown();
+            }
+        }, stallTime);
+        return result;
+    }
+    
+    private CountDownLatch blockExecution() {
+        final CountDownLatch result = new CountDownLatch(1);
+        when(jobFacade.getShardingContexts()).thenAnswer(new Answer<ShardingContexts>() {
+            
+            @Override
+            public ShardingContexts answer(final InvocationOnMock invocation) throws InterruptedException {
+                result.await(5L, TimeUnit.SECONDS);
+                return shardingContexts;
+            }
+        });
+        return result;
+    }
+}
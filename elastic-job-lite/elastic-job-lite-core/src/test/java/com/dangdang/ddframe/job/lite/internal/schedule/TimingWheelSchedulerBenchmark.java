@@ -0,0 +1,218 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.schedule;
+
+import org.quartz.CronExpression;
+import org.quartz.CronScheduleBuilder;
+import org.quartz.Job;
+import org.quartz.JobBuilder;
+import org.quartz.JobExecutionContext;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.TriggerBuilder;
+import org.quartz.impl.StdSchedulerFactory;
+import org.quartz.simpl.SimpleThreadPool;
+
+import java.lang.management.ManagementFactory;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 作业调度引擎的资源与触发精度基准.
+ * 
+ * <p>
+ * 对比每个作业独占一个Quartz调度器与所有作业共享时间轮调度器时, 大量作业的线程数, 堆内存占用与触发延迟.
+ * 运行方式: 执行本类的main方法, 可通过参数指定作业数量和观测秒数, 默认为5000个作业观测10秒.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+public final class TimingWheelSchedulerBenchmark {
+    
+    private static final String CRON = "* * * * * ?";
+    
+    private static final String RECORDER_KEY = "recorder";
+    
+    public static void main(final String[] args) throws Exception {
+        int jobCount = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        runTimingWheel(jobCount, seconds);
+        runQuartz(jobCount, seconds);
+    }
+    
+    private static void runTimingWheel(final int jobCount, final int seconds) throws ParseException, InterruptedException {
+        Snapshot before = Snapshot.take();
+        TimingWheelScheduler scheduler = new TimingWheelScheduler(Runtime.getRuntime().availableProcessors() * 4);
+        Recorder recorder = new Recorder();
+        for (int i = 0; i < jobCount; i++) {
+            new CronTask(scheduler, new CronExpression(CRON), recorder).scheduleNext(new Date());
+        }
+        Snapshot after = Snapshot.take();
+        recorder.observe(seconds);
+        print("TimingWheel", jobCount, before, after, recorder);
+        scheduler.shutdown();
+    }
+    
+    private static void runQuartz(final int jobCount, final int seconds) throws SchedulerException, InterruptedException {
+        Snapshot before = Snapshot.take();
+        Recorder recorder = new Recorder();
+        List<Scheduler> schedulers = new ArrayList<>(jobCount);
+        for (int i = 0; i < jobCount; i++) {
+            Scheduler scheduler = createQuartzScheduler("benchmark_job_" + i);
+            scheduler.getContext().put(RECORDER_KEY, recorder);
+            scheduler.scheduleJob(JobBuilder.newJob(QuartzJob.class).build(), TriggerBuilder.newTrigger().withSchedule(CronScheduleBuilder.cronSchedule(CRON)).build());
+            scheduler.start();
+            schedulers.add(scheduler);
+        }
+        Snapshot after = Snapshot.take();
+        recorder.observe(seconds);
+        print("Quartz", jobCount, before, after, recorder);
+        for (Scheduler each : schedulers) {
+            each.shutdown();
+        }
+    }
+    
+    private static Scheduler createQuartzScheduler(final String jobName) throws SchedulerException {
+        Properties props = new Properties();
+        props.put("org.quartz.threadPool.class", SimpleThreadPool.class.getName());
+        props.put("org.quartz.threadPool.threadCount", "1");
+        props.put("org.quartz.scheduler.instanceName", jobName);
+        StdSchedulerFactory factory = new StdSchedulerFactory();
+        factory.initialize(props);
+        return factory.getScheduler();
+    }
+    
+    private static void print(final String engine, final int jobCount, final Snapshot before, final Snapshot after, final Recorder recorder) {
+        long[] latencies = recorder.sortedLatencies();
+        System.out.printf("%s: %d jobs, threads +%d, heap +%d KB, fires %d, latency p50 %d ms, p99 %d ms, max %d ms%n", engine, jobCount, 
+                after.threads - before.threads, (after.heap - before.heap) / 1024, latencies.length, percentile(latencies, 50), percentile(latencies, 99), percentile(latencies, 100));
+    }
+    
+    private static long percentile(final long[] sorted, final int percent) {
+        if (0 == sorted.length) {
+            return 0L;
+        }
+        return sorted[Math.max(0, (int) Math.ceil(sorted.length * percent / 100D) - 1)];
+    }
+    
+    private static final class Snapshot {
+        
+        private final int threads;
+        
+        private final long heap;
+        
+        private Snapshot(final int threads, final long heap) {
+            this.threads = threads;
+            this.heap = heap;
+        }
+        
+        static Snapshot take() throws InterruptedException {
+            System.gc();
+            Thread.sleep(200L);
+            return new Snapshot(ManagementFactory.getThreadMXBean().getThreadCount(), ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+        }
+    }
+    
+    private static final class Recorder {
+        
+        private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        
+        private volatile boolean recording;
+        
+        void record(final long scheduledFireTime) {
+            if (recording) {
+                latencies.add(System.currentTimeMillis() - scheduledFireTime);
+            }
+        }
+        
+        void observe(final int seconds) throws InterruptedException {
+            Thread.sleep(1000L);
+            recording = true;
+            Thread.sleep(seconds * 1000L);
+            recording = false;
+        }
+        
+        long[] sortedLatencies() {
+            long[] result = new long[latencies.size()];
+            int i = 0;
+            for (Long each : latencies) {
+                if (i < result.length) {
+                    result[i++] = each;
+                }
+            }
+            Arrays.sort(result);
+            return result;
+        }
+    }
+    
+    private static final class CronTask implements Runnable {
+        
+        private final TimingWheelScheduler scheduler;
+        
+        private final CronExpression cronExpression;
+        
+        private final Recorder recorder;
+        
+        private volatile long scheduledFireTime;
+        
+        private CronTask(final TimingWheelScheduler scheduler, final CronExpression cronExpression, final Recorder recorder) {
+            this.scheduler = scheduler;
+            this.cronExpression = cronExpression;
+            this.recorder = recorder;
+        }
+        
+        void scheduleNext(final Date after) {
+            Date next = cronExpression.getNextValidTimeAfter(after);
+            scheduledFireTime = next.getTime();
+            scheduler.schedule(this, scheduledFireTime);
+        }
+        
+        @Override
+        public void run() {
+            final long fireTime = scheduledFireTime;
+            scheduleNext(new Date(fireTime));
+            scheduler.dispatch(new Runnable() {
+                
+                @Override
+                public void run() {
+                    recorder.record(fireTime);
+                }
+            });
+        }
+    }
+    
+    /**
+     * 记录触发延迟的Quartz作业.
+     */
+    public static final class QuartzJob implements Job {
+        
+        @Override
+        public void execute(final JobExecutionContext context) {
+            try {
+                ((Recorder) context.getScheduler().getContext().get(RECORDER_KEY)).record(context.getScheduledFireTime().getTime());
+            } catch (final SchedulerException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
+}
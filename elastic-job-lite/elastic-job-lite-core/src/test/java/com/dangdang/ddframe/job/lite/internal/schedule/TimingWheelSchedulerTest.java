@@ -0,0 +1,99 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.schedule;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public final class TimingWheelSchedulerTest {
+    
+    private final TimingWheelScheduler timingWheelScheduler = new TimingWheelScheduler(2);
+    
+    @After
+    public void tearDown() {
+        timingWheelScheduler.shutdown();
+    }
+    
+    @Test
+    public void assertScheduleNotEarlierThanFireTime() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicLong actualFireTime = new AtomicLong();
+        long fireTime = System.currentTimeMillis() + 55L;
+        timingWheelScheduler.schedule(new Runnable() {
+            
+            @Override
+            public void run() {
+                actualFireTime.set(System.currentTimeMillis());
+                latch.countDown();
+            }
+        }, fireTime);
+        assertTrue(latch.await(5L, TimeUnit.SECONDS));
+        assertTrue(actualFireTime.get() >= fireTime);
+    }
+    
+    @Test
+    public void assertScheduleExpiredTask() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        timingWheelScheduler.schedule(new CountDownTask(latch), System.currentTimeMillis() - 1000L);
+        assertTrue(latch.await(5L, TimeUnit.SECONDS));
+    }
+    
+    @Test
+    public void assertScheduleInOverflowWheel() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        timingWheelScheduler.schedule(new CountDownTask(latch), System.currentTimeMillis() + TimingWheelScheduler.TICK_MILLISECONDS * 64L + 100L);
+        assertTrue(latch.await(5L, TimeUnit.SECONDS));
+    }
+    
+    @Test
+    public void assertCancel() throws InterruptedException {
+        CountDownLatch cancelledLatch = new CountDownLatch(1);
+        CountDownLatch latch = new CountDownLatch(1);
+        long fireTime = System.currentTimeMillis() + 50L;
+        timingWheelScheduler.schedule(new CountDownTask(cancelledLatch), fireTime).cancel();
+        timingWheelScheduler.schedule(new CountDownTask(latch), fireTime + 50L);
+        assertTrue(latch.await(5L, TimeUnit.SECONDS));
+        assertFalse(cancelledLatch.await(0L, TimeUnit.MILLISECONDS));
+    }
+    
+    @Test
+    public void assertDispatch() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        timingWheelScheduler.dispatch(new CountDownTask(latch));
+        assertTrue(latch.await(5L, TimeUnit.SECONDS));
+    }
+    
+    @RequiredArgsConstructor
+    private static final class CountDownTask implements Runnable {
+        
+        private final CountDownLatch latch;
+        
+        @Override
+        public void run() {
+            latch.countDown();
+        }
+    }
+}
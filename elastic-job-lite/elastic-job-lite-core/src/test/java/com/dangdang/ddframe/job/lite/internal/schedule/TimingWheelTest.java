@@ -0,0 +1,98 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.schedule;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.DelayQueue;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public final class TimingWheelTest {
+    
+    private static final Runnable NOOP = new Runnable() {
+        
+        @Override
+        public void run() {
+        }
+    };
+    
+    private final DelayQueue<TimingWheelBucket> delayQueue = new DelayQueue<>();
+    
+    private TimingWheel timingWheel;
+    
+    @Before
+    public void setUp() {
+        timingWheel = new TimingWheel(10L, 8, 1000L, delayQueue);
+    }
+    
+    @Test
+    public void assertAddExpiredTimeout() {
+        assertFalse(timingWheel.add(new TimingWheelTimeout(1000L, NOOP)));
+        assertFalse(timingWheel.add(new TimingWheelTimeout(990L, NOOP)));
+        assertTrue(delayQueue.isEmpty());
+    }
+    
+    @Test
+    public void assertAddCancelledTimeout() {
+        TimingWheelTimeout timeout = new TimingWheelTimeout(1000L, NOOP);
+        timeout.cancel();
+        assertTrue(timingWheel.add(timeout));
+        assertTrue(delayQueue.isEmpty());
+    }
+    
+    @Test
+    public void assertAddTimeoutInCurrentWheel() {
+        assertTrue(timingWheel.add(new TimingWheelTimeout(1030L, NOOP)));
+        assertTrue(timingWheel.add(new TimingWheelTimeout(1030L, NOOP)));
+        assertThat(delayQueue.size(), is(1));
+        assertThat(delayQueue.peek().getExpiration(), is(1030L));
+        assertThat(timingWheel.getLevels(), is(1));
+    }
+    
+    @Test
+    public void assertAddTimeoutInOverflowWheel() {
+        assertTrue(timingWheel.add(new TimingWheelTimeout(1080L, NOOP)));
+        assertThat(timingWheel.getLevels(), is(2));
+        assertThat(delayQueue.peek().getExpiration(), is(1040L));
+        assertTrue(timingWheel.add(new TimingWheelTimeout(1000L + 80L * 8L, NOOP)));
+        assertThat(timingWheel.getLevels(), is(3));
+    }
+    
+    @Test
+    public void assertCascadeToLowerWheelAfterAdvanceClock() {
+        TimingWheelTimeout timeout = new TimingWheelTimeout(1090L, NOOP);
+        assertTrue(timingWheel.add(timeout));
+        TimingWheelBucket overflowBucket = delayQueue.peek();
+        assertThat(overflowBucket.getExpiration(), is(1040L));
+        delayQueue.clear();
+        timingWheel.advanceClock(overflowBucket.getExpiration());
+        List<TimingWheelTimeout> timeouts = overflowBucket.flush();
+        assertThat(timeouts.size(), is(1));
+        assertTrue(timingWheel.add(timeouts.get(0)));
+        assertThat(delayQueue.peek().getExpiration(), is(1090L));
+        delayQueue.clear();
+        timingWheel.advanceClock(1090L);
+        assertFalse(timingWheel.add(timeout));
+    }
+}
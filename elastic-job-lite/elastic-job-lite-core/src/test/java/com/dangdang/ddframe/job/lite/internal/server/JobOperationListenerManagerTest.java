@@ -22,15 +22,15 @@ import com.dangdang.ddframe.job.config.simple.SimpleJobConfiguration;
 import com.dangdang.ddframe.job.lite.config.LiteJobConfiguration;
 import com.dangdang.ddframe.job.lite.internal.config.ConfigurationService;
 import com.dangdang.ddframe.job.lite.internal.execution.ExecutionService;
+import com.dangdang.ddframe.job.lite.internal.listener.AbstractJobListener;
 import com.dangdang.ddframe.job.lite.internal.schedule.JobRegistry;
 import com.dangdang.ddframe.job.lite.internal.schedule.JobScheduleController;
-import com.dangdang.ddframe.job.lite.internal.server.JobOperationListenerManager.ConnectionLostListener;
-import com.dangdang.ddframe.job.lite.internal.server.JobOperationListenerManager.JobStatusJobListener;
 import com.dangdang.ddframe.job.lite.internal.sharding.ShardingService;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
 import org.apache.curator.framework.recipes.cache.ChildData;
 import org.apache.curator.framework.recipes.cache.TreeCacheEvent;
 import org.apache.curator.framework.state.ConnectionState;
+import org.apache.curator.framework.state.ConnectionStateListener;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Matchers;
@@ -40,6 +40,9 @@ import org.unitils.util.ReflectionUtils;
 
 import java.util.Arrays;
 
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -80,8 +83,8 @@ public final class JobOperationListenerManagerTest {
     @Test
     public void assertStart() {
         jobOperationListenerManager.start();
-        verify(jobNodeStorage).addConnectionStateListener(Matchers.<ConnectionLostListener>any());
-        verify(jobNodeStorage).addDataListener(Matchers.<JobStatusJobListener>any());
+        verify(jobNodeStorage, times(2)).addConnectionStateListener(Matchers.<ConnectionStateListener>any());
+        verify(jobNodeStorage, times(2)).addDataListener(Matchers.<AbstractJobListener>any());
     }
     
     @Test
@@ -284,4 +287,34 @@ public final class JobOperationListenerManagerTest {
         verify(jobScheduleController, times(0)).pauseJob();
         verify(jobScheduleController, times(0)).resumeJob();
     }
+    
+    @Test
+    public void assertEligibilityChangedJobListenerWhenIsNotLocalJobPath() {
+        JobRegistry.getInstance().setEligibleForJobRunning("test_job", JobRegistry.getInstance().getEligibilityVersion("test_job"), true);
+        jobOperationListenerManager.new EligibilityChangedJobListener().dataChanged(null, new TreeCacheEvent(
+                TreeCacheEvent.Type.NODE_UPDATED, new ChildData("/test_job/servers/host0_0002", null, "".getBytes())), "/test_job/servers/host0_0002");
+        assertThat(JobRegistry.getInstance().getEligibleForJobRunning("test_job"), is(true));
+    }
+    
+    @Test
+    public void assertEligibilityChangedJobListenerWhenIsLocalJobPath() {
+        JobRegistry.getInstance().setEligibleForJobRunning("test_job", JobRegistry.getInstance().getEligibilityVersion("test_job"), true);
+        jobOperationListenerManager.new EligibilityChangedJobListener().dataChanged(null, new TreeCacheEvent(
+                TreeCacheEvent.Type.NODE_UPDATED, new ChildData("/test_job/servers/host0_0001", null, "".getBytes())), "/test_job/servers/host0_0001");
+        assertNull(JobRegistry.getInstance().getEligibleForJobRunning("test_job"));
+    }
+    
+    @Test
+    public void assertEligibilityConnectionListenerWhenConnectionStateIsConnected() {
+        JobRegistry.getInstance().setEligibleForJobRunning("test_job", JobRegistry.getInstance().getEligibilityVersion("test_job"), true);
+        jobOperationListenerManager.new EligibilityConnectionListener().stateChanged(null, ConnectionState.CONNECTED);
+        assertThat(JobRegistry.getInstance().getEligibleForJobRunning("test_job"), is(true));
+    }
+    
+    @Test
+    public void assertEligibilityConnectionListenerWhenConnectionStateIsReconnected() {
+        JobRegistry.getInstance().setEligibleForJobRunning("test_job", JobRegistry.getInstance().getEligibilityVersion("test_job"), true);
+        jobOperationListenerManager.new EligibilityConnectionListener().stateChanged(null, ConnectionState.RECONNECTED);
+        assertNull(JobRegistry.getInstance().getEligibleForJobRunning("test_job"));
+    }
 }
@@ -0,0 +1,98 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.server;
+
+import com.dangdang.ddframe.job.executor.handler.ExecutorServiceHandler;
+import com.dangdang.ddframe.job.executor.handler.ExecutorServiceHandlerRegistry;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public final class ServerLoadServiceTest {
+    
+    @After
+    public void tearDown() {
+        ExecutorServiceHandlerRegistry.find("test_job").get().shutdownNow();
+        ExecutorServiceHandlerRegistry.remove("test_job");
+    }
+    
+    @Test
+    public void assertGetLoadWhenJobExecutorIsIdle() {
+        ExecutorServiceHandlerRegistry.getExecutorServiceHandler("test_job", new SingleThreadExecutorServiceHandler());
+        double actual = new ServerLoadService("test_job").getLoad();
+        assertTrue(actual >= 0D && actual <= 1D);
+    }
+    
+    @Test
+    public void assertGetLoadWhenJobExecutorIsBusy() throws InterruptedException {
+        ExecutorService executorService = ExecutorServiceHandlerRegistry.getExecutorServiceHandler("test_job", new SingleThreadExecutorServiceHandler());
+        final CountDownLatch startedLatch = new CountDownLatch(1);
+        final CountDownLatch blockLatch = new CountDownLatch(1);
+        executorService.execute(new Runnable() {
+            
+            @Override
+            public void run() {
+                startedLatch.countDown();
+                try {
+                    blockLatch.await();
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        assertTrue(startedLatch.await(5L, TimeUnit.SECONDS));
+        assertThat(new ServerLoadService("test_job").getLoad(), is(1D));
+        blockLatch.countDown();
+    }
+    
+    @Test
+    public void assertGetLoadAfterJobExecutorBecameIdle() throws InterruptedException {
+        ExecutorService executorService = ExecutorServiceHandlerRegistry.getExecutorServiceHandler("test_job", new SingleThreadExecutorServiceHandler());
+        final CountDownLatch finishedLatch = new CountDownLatch(1);
+        executorService.execute(new Runnable() {
+            
+            @Override
+            public void run() {
+                finishedLatch.countDown();
+            }
+        });
+        assertTrue(finishedLatch.await(5L, TimeUnit.SECONDS));
+        for (int i = 0; i < 100 && 0 != ExecutorServiceHandlerRegistry.find("test_job").get().getActiveThreadCount(); i++) {
+            Thread.sleep(10L);
+        }
+        ServerLoadService serverLoadService = new ServerLoadService("test_job");
+        assertThat(serverLoadService.getLoad(), is(1D));
+    }
+    
+    private static final class SingleThreadExecutorServiceHandler implements ExecutorServiceHandler {
+        
+        @Override
+        public ExecutorService createExecutorService(final String jobName) {
+            return new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>());
+        }
+    }
+}
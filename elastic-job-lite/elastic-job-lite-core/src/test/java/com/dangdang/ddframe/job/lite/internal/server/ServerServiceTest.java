@@ -21,7 +21,10 @@ import com.dangdang.ddframe.job.lite.internal.schedule.JobRegistry;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
 import com.dangdang.ddframe.job.util.env.LocalHostService;
 import org.junit.Before;
+import com.google.common.base.Function;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.unitils.util.ReflectionUtils;
@@ -29,9 +32,13 @@ import org.unitils.util.ReflectionUtils;
 import java.util.Arrays;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -44,6 +51,9 @@ public final class ServerServiceTest {
     @Mock
     private LocalHostService localHostService;
     
+    @Mock
+    private ServerLoadService serverLoadService;
+    
     private final ServerService serverService = new ServerService(null, "test_job");
     
     @Before
@@ -51,6 +61,7 @@ public final class ServerServiceTest {
         MockitoAnnotations.initMocks(this);
         ReflectionUtils.setFieldValue(serverService, "jobNodeStorage", jobNodeStorage);
         ReflectionUtils.setFieldValue(serverService, "localHostService", localHostService);
+        ReflectionUtils.setFieldValue(serverService, "serverLoadService", serverLoadService);
         when(localHostService.getIp()).thenReturn("mockedIP");
         when(localHostService.getHostName()).thenReturn("mockedHostName");
     }
@@ -68,7 +79,7 @@ public final class ServerServiceTest {
     public void assertPrepareServerNodeWhenConnectionStateIsReconnectedAndIsJobNodeNotExisted() {
         JobRegistry.getInstance().addJobServerName("test_job", "mockedIP_0001");
         serverService.prepareServerNode(true);
-        verify(jobNodeStorage).isJobNodeExisted("servers/mockedIP_0001");
+        verify(jobNodeStorage).isJobNodeExistedDirectly("servers/mockedIP_0001");
         ServerData data = new ServerData("mockedHostName", "mockedIP", false);
         verify(jobNodeStorage).fillEphemeralSequentialJobNode("servers/mockedIP_", ServerDataGsonFactory.toJson(data));
         verify(localHostService, times(2)).getIp();
@@ -78,9 +89,9 @@ public final class ServerServiceTest {
     @Test
     public void assertPrepareServerNodeWhenConnectionStateIsReconnectedAndIsJobNodeExisted() {
         JobRegistry.getInstance().addJobServerName("test_job", "mockedIP_0001");
-        when(jobNodeStorage.isJobNodeExisted("servers/mockedIP_0001")).thenReturn(true);
+        when(jobNodeStorage.isJobNodeExistedDirectly("servers/mockedIP_0001")).thenReturn(true);
         serverService.prepareServerNode(true);
-        verify(jobNodeStorage).isJobNodeExisted("servers/mockedIP_0001");
+        verify(jobNodeStorage).isJobNodeExistedDirectly("servers/mockedIP_0001");
         verify(jobNodeStorage).getJobNodeData("servers/mockedIP_0001");
         ServerData data = new ServerData("mockedHostName", "mockedIP", false);
         jobNodeStorage.updateJobNode("servers/mockedIP_0001", ServerDataGsonFactory.toJson(data));
@@ -93,20 +104,98 @@ public final class ServerServiceTest {
         JobRegistry.getInstance().addJobServerName("test_job", "mockedIP_0001");
         ServerData data = new ServerData("mockedHostName", "mockedIP", false);
         data.markPaused();
-        when(jobNodeStorage.getJobNodeData("servers/mockedIP_0001")).thenReturn(ServerDataGsonFactory.toJson(data));
+        when(jobNodeStorage.getJobNodeDecodedData(eq("servers/mockedIP_0001"), anyDecoder())).thenReturn(data);
         assertTrue(serverService.isJobPausedManually());
-        verify(jobNodeStorage).getJobNodeData("servers/mockedIP_0001");
+        verify(jobNodeStorage).getJobNodeDecodedData(eq("servers/mockedIP_0001"), anyDecoder());
     }
     
     @Test
     public void assertUpdateServerStatus() {
         JobRegistry.getInstance().addJobServerName("test_job", "mockedIP_0001");
         ServerData data = new ServerData("mockedHostName", "mockedIP", false);
-        when(jobNodeStorage.getJobNodeData("servers/mockedIP_0001")).thenReturn(ServerDataGsonFactory.toJson(data));
         serverService.updateServerStatus(ServerStatus.RUNNING);
-        verify(jobNodeStorage).getJobNodeData("servers/mockedIP_0001");
+        String actual = captureServerStatusUpdater().apply(ServerDataGsonFactory.toJson(data));
+        data.setStatus(ServerStatus.RUNNING);
+        assertThat(actual, is(ServerDataGsonFactory.toJson(data)));
+    }
+    
+    @Test
+    public void assertUpdateServerStatusWithServerLoad() {
+        JobRegistry.getInstance().addJobServerName("test_job", "mockedIP_0001");
+        ServerData data = new ServerData("mockedHostName", "mockedIP", false);
+        when(serverLoadService.getCapacity()).thenReturn(8);
+        when(serverLoadService.getLoad()).thenReturn(0.5D);
+        serverService.updateServerStatus(ServerStatus.RUNNING);
+        String actual = captureServerStatusUpdater().apply(ServerDataGsonFactory.toJson(data));
         data.setStatus(ServerStatus.RUNNING);
-        verify(jobNodeStorage).updateJobNode("servers/mockedIP_0001", ServerDataGsonFactory.toJson(data));
+        data.setCapacity(8);
+        data.setLoad(0.5D);
+        assertThat(actual, is(ServerDataGsonFactory.toJson(data)));
+    }
+    
+    @Test
+    public void assertUpdateServerStatusKeepConcurrentPause() {
+        JobRegistry.getInstance().addJobServerName("test_job", "mockedIP_0001");
+        ServerData data = new ServerData("mockedHostName", "mockedIP", false);
+        data.markPaused();
+        serverService.updateServerStatus(ServerStatus.READY);
+        ServerData actual = ServerDataGsonFactory.fromJson(captureServerStatusUpdater().apply(ServerDataGsonFactory.toJson(data)));
+        assertTrue(actual.isPaused());
+        assertThat(actual.getStatus(), is(ServerStatus.READY));
+    }
+    
+    @Test
+    public void assertUpdateServerStatusWhenServerNodeIsEmpty() {
+        JobRegistry.getInstance().addJobServerName("test_job", "mockedIP_0001");
+        serverService.updateServerStatus(ServerStatus.RUNNING);
+        assertNull(captureServerStatusUpdater().apply(""));
+    }
+    
+    @SuppressWarnings("unchecked")
+    private Function<String, String> captureServerStatusUpdater() {
+        ArgumentCaptor<Function> captor = ArgumentCaptor.forClass(Function.class);
+        verify(jobNodeStorage).updateJobNodeAsync(eq("servers/mockedIP_0001"), captor.capture());
+        return captor.getValue();
+    }
+    
+    @Test
+    public void assertGetSpareCapacity() {
+        ServerData data = new ServerData("mockedHostName", "mockedIP", false);
+        data.setCapacity(8);
+        data.setLoad(0.25D);
+        when(jobNodeStorage.getJobNodeDecodedData(eq("servers/host0_001"), anyDecoder())).thenReturn(data);
+        assertThat(serverService.getSpareCapacity("host0_001"), is(6D));
+    }
+    
+    @Test
+    public void assertGetSpareCapacityWhenFullyLoaded() {
+        ServerData data = new ServerData("mockedHostName", "mockedIP", false);
+        data.setCapacity(8);
+        data.setLoad(1D);
+        when(jobNodeStorage.getJobNodeDecodedData(eq("servers/host0_001"), anyDecoder())).thenReturn(data);
+        assertThat(serverService.getSpareCapacity("host0_001"), is(0.8D));
+    }
+    
+    @Test
+    public void assertGetSpareCapacityWhenCapacityNotReported() {
+        when(jobNodeStorage.getJobNodeDecodedData(eq("servers/host0_001"), anyDecoder())).thenReturn(new ServerData("mockedHostName", "mockedIP", false));
+        assertThat(serverService.getSpareCapacity("host0_001"), is(0D));
+    }
+    
+    @Test
+    public void assertFindServerDataReturnsCopyOfCachedData() {
+        ServerData cached = new ServerData("mockedHostName", "mockedIP", false);
+        when(jobNodeStorage.getJobNodeDecodedData(eq("servers/host0_001"), anyDecoder())).thenReturn(cached);
+        ServerData actual = serverService.findServerData("host0_001");
+        assertThat(actual, not(sameInstance(cached)));
+        actual.markDisabled();
+        assertFalse(cached.isDisabled());
+        assertThat(actual.getHostIP(), is("mockedIP"));
+    }
+    
+    @Test
+    public void assertFindServerDataWhenNodeNotExisted() {
+        assertNull(serverService.findServerData("host0_001"));
     }
     
     @Test
@@ -125,18 +214,18 @@ public final class ServerServiceTest {
         ServerData data1 = new ServerData("host0", "host1", false);
         ServerData data2 = new ServerData("host0", "host2", false);
         data2.markShutdown();
-        when(jobNodeStorage.getJobNodeData("servers/host0_001")).thenReturn(ServerDataGsonFactory.toJson(data0_0));
-        when(jobNodeStorage.getJobNodeData("servers/host0_002")).thenReturn(ServerDataGsonFactory.toJson(data0_1));
-        when(jobNodeStorage.getJobNodeData("servers/host1_001")).thenReturn(ServerDataGsonFactory.toJson(data1));
-        when(jobNodeStorage.getJobNodeData("servers/host2_001")).thenReturn(ServerDataGsonFactory.toJson(data2));
-        when(jobNodeStorage.getJobNodeData("servers/host3_001")).thenReturn(null);
+        when(jobNodeStorage.getJobNodeDecodedData(eq("servers/host0_001"), anyDecoder())).thenReturn(data0_0);
+        when(jobNodeStorage.getJobNodeDecodedData(eq("servers/host0_002"), anyDecoder())).thenReturn(data0_1);
+        when(jobNodeStorage.getJobNodeDecodedData(eq("servers/host1_001"), anyDecoder())).thenReturn(data1);
+        when(jobNodeStorage.getJobNodeDecodedData(eq("servers/host2_001"), anyDecoder())).thenReturn(data2);
+        when(jobNodeStorage.getJobNodeDecodedData(eq("servers/host3_001"), anyDecoder())).thenReturn(null);
         assertThat(serverService.getAvailableShardingServers(), is(Arrays.asList("host0_002", "host1_001")));
         verify(jobNodeStorage).getJobNodeChildrenKeys("servers");
-        verify(jobNodeStorage).getJobNodeData("servers/host0_001");
-        verify(jobNodeStorage).getJobNodeData("servers/host0_002");
-        verify(jobNodeStorage).getJobNodeData("servers/host1_001");
-        verify(jobNodeStorage).getJobNodeData("servers/host2_001");
-        verify(jobNodeStorage).getJobNodeData("servers/host3_001");
+        verify(jobNodeStorage).getJobNodeDecodedData(eq("servers/host0_001"), anyDecoder());
+        verify(jobNodeStorage).getJobNodeDecodedData(eq("servers/host0_002"), anyDecoder());
+        verify(jobNodeStorage).getJobNodeDecodedData(eq("servers/host1_001"), anyDecoder());
+        verify(jobNodeStorage).getJobNodeDecodedData(eq("servers/host2_001"), anyDecoder());
+        verify(jobNodeStorage).getJobNodeDecodedData(eq("servers/host3_001"), anyDecoder());
     }
     
     @Test
@@ -150,43 +239,43 @@ public final class ServerServiceTest {
         data2.markShutdown();
         ServerData data4 = new ServerData("host0", "host4", false);
         data4.markPaused();
-        when(jobNodeStorage.getJobNodeData("servers/host0_001")).thenReturn(ServerDataGsonFactory.toJson(data0_0));
-        when(jobNodeStorage.getJobNodeData("servers/host0_002")).thenReturn(ServerDataGsonFactory.toJson(data0_1));
-        when(jobNodeStorage.getJobNodeData("servers/host1_001")).thenReturn(ServerDataGsonFactory.toJson(data1));
-        when(jobNodeStorage.getJobNodeData("servers/host2_001")).thenReturn(ServerDataGsonFactory.toJson(data2));
-        when(jobNodeStorage.getJobNodeData("servers/host3_001")).thenReturn(null);
+        when(jobNodeStorage.getJobNodeDecodedData(eq("servers/host0_001"), anyDecoder())).thenReturn(data0_0);
+        when(jobNodeStorage.getJobNodeDecodedData(eq("servers/host0_002"), anyDecoder())).thenReturn(data0_1);
+        when(jobNodeStorage.getJobNodeDecodedData(eq("servers/host1_001"), anyDecoder())).thenReturn(data1);
+        when(jobNodeStorage.getJobNodeDecodedData(eq("servers/host2_001"), anyDecoder())).thenReturn(data2);
+        when(jobNodeStorage.getJobNodeDecodedData(eq("servers/host3_001"), anyDecoder())).thenReturn(null);
         assertThat(serverService.getAvailableServers(), is(Arrays.asList("host0_002", "host1_001")));
         verify(jobNodeStorage).getJobNodeChildrenKeys("servers");
-        verify(jobNodeStorage).getJobNodeData("servers/host0_001");
-        verify(jobNodeStorage).getJobNodeData("servers/host0_002");
-        verify(jobNodeStorage).getJobNodeData("servers/host1_001");
-        verify(jobNodeStorage).getJobNodeData("servers/host2_001");
-        verify(jobNodeStorage).getJobNodeData("servers/host3_001");
+        verify(jobNodeStorage).getJobNodeDecodedData(eq("servers/host0_001"), anyDecoder());
+        verify(jobNodeStorage).getJobNodeDecodedData(eq("servers/host0_002"), anyDecoder());
+        verify(jobNodeStorage).getJobNodeDecodedData(eq("servers/host1_001"), anyDecoder());
+        verify(jobNodeStorage).getJobNodeDecodedData(eq("servers/host2_001"), anyDecoder());
+        verify(jobNodeStorage).getJobNodeDecodedData(eq("servers/host3_001"), anyDecoder());
     }
     
     @Test
     public void assertIsAvailableServer() {
         JobRegistry.getInstance().addJobServerName("test_job", "host0_0001");
         ServerData data = new ServerData("host0", "host0", false);
-        when(jobNodeStorage.getJobNodeData("servers/host0_0001")).thenReturn(ServerDataGsonFactory.toJson(data));
+        when(jobNodeStorage.getJobNodeDecodedData(eq("servers/host0_0001"), anyDecoder())).thenReturn(data);
         assertTrue(serverService.isServerAvailable());
-        verify(jobNodeStorage).getJobNodeData("servers/host0_0001");
+        verify(jobNodeStorage).getJobNodeDecodedData(eq("servers/host0_0001"), anyDecoder());
     }
     
     @Test
     public void assertIsAvailableServerForOther() {
         ServerData data = new ServerData("host0", "host0", false);
-        when(jobNodeStorage.getJobNodeData("servers/host0_0001")).thenReturn(ServerDataGsonFactory.toJson(data));
+        when(jobNodeStorage.getJobNodeDecodedData(eq("servers/host0_0001"), anyDecoder())).thenReturn(data);
         assertTrue(serverService.isServerAvailable("host0_0001"));
-        verify(jobNodeStorage).getJobNodeData("servers/host0_0001");
+        verify(jobNodeStorage).getJobNodeDecodedData(eq("servers/host0_0001"), anyDecoder());
     }
     
     @Test
     public void assertIsLocalhostServerReadyWhenServerCrashed() {
         JobRegistry.getInstance().addJobServerName("test_job", "host0_0001");
-        when(jobNodeStorage.getJobNodeData("servers/host0_0001")).thenReturn(null);
+        when(jobNodeStorage.getJobNodeDecodedData(eq("servers/host0_0001"), anyDecoder())).thenReturn(null);
         assertFalse(serverService.isServerReady());
-        verify(jobNodeStorage).getJobNodeData("servers/host0_0001");
+        verify(jobNodeStorage).getJobNodeDecodedData(eq("servers/host0_0001"), anyDecoder());
     }
     
     @Test
@@ -194,9 +283,9 @@ public final class ServerServiceTest {
         JobRegistry.getInstance().addJobServerName("test_job", "host0_0001");
         ServerData data = new ServerData("host0", "host0", false);
         data.markPaused();
-        when(jobNodeStorage.getJobNodeData("servers/host0_0001")).thenReturn(ServerDataGsonFactory.toJson(data));
+        when(jobNodeStorage.getJobNodeDecodedData(eq("servers/host0_0001"), anyDecoder())).thenReturn(data);
         assertFalse(serverService.isServerReady());
-        verify(jobNodeStorage).getJobNodeData("servers/host0_0001");
+        verify(jobNodeStorage).getJobNodeDecodedData(eq("servers/host0_0001"), anyDecoder());
     }
     
     @Test
@@ -204,9 +293,9 @@ public final class ServerServiceTest {
         JobRegistry.getInstance().addJobServerName("test_job", "host0_0001");
         ServerData data = new ServerData("host0", "host0", false);
         data.markDisabled();
-        when(jobNodeStorage.getJobNodeData("servers/host0_0001")).thenReturn(ServerDataGsonFactory.toJson(data));
+        when(jobNodeStorage.getJobNodeDecodedData(eq("servers/host0_0001"), anyDecoder())).thenReturn(data);
         assertFalse(serverService.isServerReady());
-        verify(jobNodeStorage).getJobNodeData("servers/host0_0001");
+        verify(jobNodeStorage).getJobNodeDecodedData(eq("servers/host0_0001"), anyDecoder());
     }
     
     @Test
@@ -214,9 +303,9 @@ public final class ServerServiceTest {
         JobRegistry.getInstance().addJobServerName("test_job", "host0_0001");
         ServerData data = new ServerData("host0", "host0", false);
         data.markShutdown();
-        when(jobNodeStorage.getJobNodeData("servers/host0_0001")).thenReturn(ServerDataGsonFactory.toJson(data));
+        when(jobNodeStorage.getJobNodeDecodedData(eq("servers/host0_0001"), anyDecoder())).thenReturn(data);
         assertFalse(serverService.isServerReady());
-        verify(jobNodeStorage).getJobNodeData("servers/host0_0001");
+        verify(jobNodeStorage).getJobNodeDecodedData(eq("servers/host0_0001"), anyDecoder());
     }
     
     @Test
@@ -224,18 +313,21 @@ public final class ServerServiceTest {
         JobRegistry.getInstance().addJobServerName("test_job", "host0_0001");
         ServerData data = new ServerData("host0", "host0", false);
         data.setStatus(ServerStatus.RUNNING);
-        when(jobNodeStorage.getJobNodeData("servers/host0_0001")).thenReturn(ServerDataGsonFactory.toJson(data));
+        when(jobNodeStorage.getJobNodeDecodedData(eq("servers/host0_0001"), anyDecoder())).thenReturn(data);
         assertFalse(serverService.isServerReady());
-        verify(jobNodeStorage).getJobNodeData("servers/host0_0001");
+        verify(jobNodeStorage).getJobNodeDecodedData(eq("servers/host0_0001"), anyDecoder());
     }
     
     @Test
     public void assertIsLocalhostServerReadyWhenServerReady() {
         JobRegistry.getInstance().addJobServerName("test_job", "host0_0001");
         ServerData data = new ServerData("host0", "host0", false);
-        when(jobNodeStorage.getJobNodeData("servers/host0_0001")).thenReturn(ServerDataGsonFactory.toJson(data));
+        when(jobNodeStorage.getJobNodeDecodedData(eq("servers/host0_0001"), anyDecoder())).thenReturn(data);
         assertTrue(serverService.isServerReady());
-        verify(jobNodeStorage).getJobNodeData("servers/host0_0001");
+        verify(jobNodeStorage).getJobNodeDecodedData(eq("servers/host0_0001"), anyDecoder());
     }
     
+    private static Function<String, ServerData> anyDecoder() {
+        return Matchers.any();
+    }
 }
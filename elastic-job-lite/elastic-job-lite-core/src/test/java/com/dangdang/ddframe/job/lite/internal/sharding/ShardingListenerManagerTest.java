@@ -20,6 +20,7 @@ package com.dangdang.ddframe.job.lite.internal.sharding;
 import com.dangdang.ddframe.job.lite.fixture.LiteJsonConstants;
 import com.dangdang.ddframe.job.lite.internal.execution.ExecutionService;
 import com.dangdang.ddframe.job.lite.internal.listener.AbstractJobListener;
+import com.dangdang.ddframe.job.lite.internal.schedule.JobRegistry;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
 import com.dangdang.ddframe.job.util.env.LocalHostService;
 import org.apache.curator.framework.recipes.cache.ChildData;
@@ -32,6 +33,7 @@ import org.mockito.MockitoAnnotations;
 import org.unitils.util.ReflectionUtils;
 
 import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -62,7 +64,7 @@ public final class ShardingListenerManagerTest {
     @Test
     public void assertStart() {
         shardingListenerManager.start();
-        verify(jobNodeStorage, times(2)).addDataListener(Matchers.<AbstractJobListener>any());
+        verify(jobNodeStorage, times(3)).addDataListener(Matchers.<AbstractJobListener>any());
     }
     
     @Test
@@ -126,4 +128,20 @@ public final class ShardingListenerManagerTest {
                 TreeCacheEvent.Type.NODE_UPDATED, new ChildData("/test_job/servers/" + ip + "/disabled", null, "".getBytes())), "/test_job/servers/" + ip + "/disabled");
         verify(shardingService).setReshardingFlag();
     }
+    
+    @Test
+    public void assertEligibilityChangedJobListenerWhenIsNotNecessaryPath() {
+        JobRegistry.getInstance().setEligibleForJobRunning("test_job", JobRegistry.getInstance().getEligibilityVersion("test_job"), true);
+        shardingListenerManager.new EligibilityChangedJobListener().dataChanged(null, new TreeCacheEvent(
+                TreeCacheEvent.Type.NODE_ADDED, new ChildData("/test_job/leader/sharding/processing", null, "".getBytes())), "/test_job/leader/sharding/processing");
+        assertThat(JobRegistry.getInstance().getEligibleForJobRunning("test_job"), is(true));
+    }
+    
+    @Test
+    public void assertEligibilityChangedJobListenerWhenIsNecessaryPath() {
+        JobRegistry.getInstance().setEligibleForJobRunning("test_job", JobRegistry.getInstance().getEligibilityVersion("test_job"), true);
+        shardingListenerManager.new EligibilityChangedJobListener().dataChanged(null, new TreeCacheEvent(
+                TreeCacheEvent.Type.NODE_ADDED, new ChildData("/test_job/leader/sharding/necessary", null, "".getBytes())), "/test_job/leader/sharding/necessary");
+        assertNull(JobRegistry.getInstance().getEligibleForJobRunning("test_job"));
+    }
 }
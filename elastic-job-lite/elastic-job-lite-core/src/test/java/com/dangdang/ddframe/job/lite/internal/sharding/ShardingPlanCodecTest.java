@@ -0,0 +1,70 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.sharding;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public final class ShardingPlanCodecTest {
+    
+    @Test
+    public void assertEncode() {
+        Map<String, List<Integer>> assignments = new LinkedHashMap<>(3, 1);
+        assignments.put("host1", Arrays.asList(9, 5, 6, 7));
+        assignments.put("host0", Arrays.asList(0, 1, 2, 3, 4, 8));
+        assignments.put("host2", Collections.<Integer>emptyList());
+        assertThat(ShardingPlanCodec.encode(new ShardingPlan(3L, assignments)), is("3\nhost0=0-4,8\nhost1=5-7,9\nhost2="));
+    }
+    
+    @Test
+    public void assertEncodeEmpty() {
+        assertThat(ShardingPlanCodec.encode(ShardingPlan.empty()), is("0"));
+    }
+    
+    @Test
+    public void assertDecode() {
+        ShardingPlan actual = ShardingPlanCodec.decode("3\nhost0=0-4,8\nhost1=5-7,9\nhost2=");
+        assertThat(actual.getVersion(), is(3L));
+        assertThat(actual.getShardingItems("host0"), is(Arrays.asList(0, 1, 2, 3, 4, 8)));
+        assertThat(actual.getShardingItems("host1"), is(Arrays.asList(5, 6, 7, 9)));
+        assertThat(actual.getShardingItems("host2"), is(Collections.<Integer>emptyList()));
+        assertThat(actual.getShardingItems("host3"), is(Collections.<Integer>emptyList()));
+    }
+    
+    @Test
+    public void assertDecodeNull() {
+        assertThat(ShardingPlanCodec.decode(null), is(ShardingPlan.empty()));
+    }
+    
+    @Test
+    public void assertEncodeAndDecode() {
+        Map<String, List<Integer>> assignments = new LinkedHashMap<>(2, 1);
+        assignments.put("192.168.1.1_0000000001", Arrays.asList(0, 2, 4));
+        assignments.put("192.168.1.2_0000000002", Arrays.asList(1, 3, 5));
+        ShardingPlan expected = new ShardingPlan(10L, assignments);
+        assertThat(ShardingPlanCodec.decode(ShardingPlanCodec.encode(expected)), is(expected));
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.sharding;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public final class ShardingPlanTest {
+    
+    @Test
+    public void assertNext() {
+        ShardingPlan actual = ShardingPlan.empty().next(Collections.singletonMap("host0", Arrays.asList(0, 1)));
+        assertThat(actual.getVersion(), is(1L));
+        assertThat(actual.getShardingItems("host0"), is(Arrays.asList(0, 1)));
+        assertThat(actual.next(Collections.<String, List<Integer>>emptyMap()).getVersion(), is(2L));
+    }
+    
+    @Test(expected = UnsupportedOperationException.class)
+    public void assertAssignmentsUnmodifiable() {
+        Map<String, List<Integer>> assignments = Collections.singletonMap("host0", Arrays.asList(0, 1));
+        new ShardingPlan(1L, assignments).getShardingItems("host0").add(2);
+    }
+}
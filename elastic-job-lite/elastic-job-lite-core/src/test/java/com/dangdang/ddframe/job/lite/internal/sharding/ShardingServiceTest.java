@@ -25,30 +25,33 @@ import com.dangdang.ddframe.job.lite.fixture.TestSimpleJob;
 import com.dangdang.ddframe.job.lite.internal.config.ConfigurationService;
 import com.dangdang.ddframe.job.lite.internal.election.LeaderElectionService;
 import com.dangdang.ddframe.job.lite.internal.execution.ExecutionService;
+import com.dangdang.ddframe.job.lite.internal.schedule.JobRegistry;
 import com.dangdang.ddframe.job.lite.internal.server.ServerService;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
 import com.dangdang.ddframe.job.lite.internal.storage.TransactionExecutionCallback;
-import com.dangdang.ddframe.job.util.env.LocalHostService;
+import com.google.common.base.Function;
 import org.apache.curator.framework.api.transaction.CuratorTransactionBridge;
 import org.apache.curator.framework.api.transaction.CuratorTransactionFinal;
 import org.apache.curator.framework.api.transaction.TransactionCreateBuilder;
 import org.apache.curator.framework.api.transaction.TransactionDeleteBuilder;
+import org.apache.curator.framework.api.transaction.TransactionSetDataBuilder;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.unitils.util.ReflectionUtils;
 
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyLong;
+import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -59,9 +62,6 @@ public final class ShardingServiceTest {
     @Mock
     private JobNodeStorage jobNodeStorage;
     
-    @Mock
-    private LocalHostService localHostService;
-    
     @Mock
     private LeaderElectionService leaderElectionService;
     
@@ -80,13 +80,10 @@ public final class ShardingServiceTest {
     public void setUp() throws NoSuchFieldException {
         MockitoAnnotations.initMocks(this);
         ReflectionUtils.setFieldValue(shardingService, "jobNodeStorage", jobNodeStorage);
-        ReflectionUtils.setFieldValue(shardingService, "localHostService", localHostService);
         ReflectionUtils.setFieldValue(shardingService, "leaderElectionService", leaderElectionService);
         ReflectionUtils.setFieldValue(shardingService, "configService", configService);
         ReflectionUtils.setFieldValue(shardingService, "executionService", executionService);
         ReflectionUtils.setFieldValue(shardingService, "serverService", serverService);
-        when(localHostService.getIp()).thenReturn("mockedIP");
-        when(localHostService.getHostName()).thenReturn("mockedHostName");
     }
     
     @Test
@@ -97,61 +94,68 @@ public final class ShardingServiceTest {
     
     @Test
     public void assertIsNeedSharding() {
-        when(jobNodeStorage.isJobNodeExisted("leader/sharding/necessary")).thenReturn(true);
+        when(jobNodeStorage.isJobNodeExistedDirectly("leader/sharding/necessary")).thenReturn(true);
         assertTrue(shardingService.isNeedSharding());
-        verify(jobNodeStorage).isJobNodeExisted("leader/sharding/necessary");
+        verify(jobNodeStorage).isJobNodeExistedDirectly("leader/sharding/necessary");
     }
     
     @Test
     public void assertShardingWhenUnnecessary() {
         when(serverService.getAvailableShardingServers()).thenReturn(Collections.singletonList("mockedIP"));
-        when(jobNodeStorage.isJobNodeExisted("leader/sharding/necessary")).thenReturn(false);
+        when(jobNodeStorage.isJobNodeExistedDirectly("leader/sharding/necessary")).thenReturn(false);
         shardingService.shardingIfNecessary();
         verify(serverService).getAvailableShardingServers();
-        verify(jobNodeStorage).isJobNodeExisted("leader/sharding/necessary");
+        verify(jobNodeStorage).isJobNodeExistedDirectly("leader/sharding/necessary");
     }
     
     @Test
     public void assertShardingWithoutAvailableServers() {
-        when(serverService.getAllServers()).thenReturn(Arrays.asList("ip1", "ip2"));
         when(serverService.getAvailableShardingServers()).thenReturn(Collections.<String>emptyList());
+        when(jobNodeStorage.getJobNodeDecodedData(eq("sharding"), anyDecoder())).thenReturn(ShardingPlanCodec.decode("1\nip1=0-1\nip2=2"));
         shardingService.shardingIfNecessary();
         verify(serverService).getAvailableShardingServers();
-        verify(serverService).getAllServers();
-        verify(jobNodeStorage).removeJobNodeIfExisted("servers/ip1/sharding");
-        verify(jobNodeStorage).removeJobNodeIfExisted("servers/ip2/sharding");
-        verify(jobNodeStorage, times(0)).isJobNodeExisted("leader/sharding/necessary");
+        verify(jobNodeStorage).replaceJobNode("sharding", "2");
+        verify(jobNodeStorage, times(0)).isJobNodeExistedDirectly("leader/sharding/necessary");
+    }
+    
+    @Test
+    public void assertShardingWithoutAvailableServersAndShardingPlanIsEmpty() {
+        when(serverService.getAvailableShardingServers()).thenReturn(Collections.<String>emptyList());
+        when(jobNodeStorage.getJobNodeDecodedData(eq("sharding"), anyDecoder())).thenReturn(ShardingPlan.empty());
+        shardingService.shardingIfNecessary();
+        verify(jobNodeStorage, times(0)).replaceJobNode(eq("sharding"), any());
     }
     
     @Test
     public void assertShardingWhenIsNotLeaderAndIsShardingProcessing() {
         when(serverService.getAvailableShardingServers()).thenReturn(Collections.singletonList("mockedIP"));
-        when(jobNodeStorage.isJobNodeExisted("leader/sharding/necessary")).thenReturn(true, true, false, false);
+        when(jobNodeStorage.isJobNodeExistedDirectly("leader/sharding/necessary")).thenReturn(true, true, false, false);
         when(leaderElectionService.isLeader()).thenReturn(false);
-        when(jobNodeStorage.isJobNodeExisted("leader/sharding/processing")).thenReturn(true, false);
+        when(jobNodeStorage.isJobNodeExistedDirectly("leader/sharding/processing")).thenReturn(true, false);
         shardingService.shardingIfNecessary();
         verify(serverService).getAvailableShardingServers();
-        verify(jobNodeStorage, times(4)).isJobNodeExisted("leader/sharding/necessary");
-        verify(jobNodeStorage, times(2)).isJobNodeExisted("leader/sharding/processing");
+        verify(jobNodeStorage, times(4)).isJobNodeExistedDirectly("leader/sharding/necessary");
+        verify(jobNodeStorage, times(2)).isJobNodeExistedDirectly("leader/sharding/processing");
+        verify(jobNodeStorage, times(2)).awaitJobNodeRemoved(eq("leader/sharding/necessary"), anyLong());
     }
     
     @Test
     public void assertShardingNecessaryWhenMonitorExecutionEnabled() {
         when(serverService.getAvailableShardingServers()).thenReturn(Collections.singletonList("mockedIP"));
-        when(jobNodeStorage.isJobNodeExisted("leader/sharding/necessary")).thenReturn(true);
+        when(jobNodeStorage.isJobNodeExistedDirectly("leader/sharding/necessary")).thenReturn(true);
         when(leaderElectionService.isLeader()).thenReturn(true);
         when(configService.load(false)).thenReturn(LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).build(),
                 TestSimpleJob.class.getCanonicalName())).monitorExecution(true).jobShardingStrategyClass(AverageAllocationJobShardingStrategy.class.getCanonicalName()).build());
-        when(serverService.getAllServers()).thenReturn(Arrays.asList("ip1", "ip2"));
+        when(jobNodeStorage.getJobNodeDataDirectly("sharding")).thenReturn("1\nip1=0-2");
         when(executionService.hasRunningItems()).thenReturn(true, false);
         shardingService.shardingIfNecessary();
         verify(serverService).getAvailableShardingServers();
-        verify(jobNodeStorage).isJobNodeExisted("leader/sharding/necessary");
+        verify(jobNodeStorage).isJobNodeExistedDirectly("leader/sharding/necessary");
         verify(leaderElectionService).isLeader();
         verify(configService).load(false);
         verify(executionService, times(2)).hasRunningItems();
-        verify(jobNodeStorage).removeJobNodeIfExisted("servers/ip1/sharding");
-        verify(jobNodeStorage).removeJobNodeIfExisted("servers/ip2/sharding");
+        verify(executionService).awaitRunningItemsCompleted(anyLong());
+        verify(jobNodeStorage).getJobNodeDataDirectly("sharding");
         verify(jobNodeStorage).fillEphemeralJobNode("leader/sharding/processing", "");
         verify(jobNodeStorage).executeInTransaction(any(TransactionExecutionCallback.class));
     }
@@ -159,36 +163,36 @@ public final class ShardingServiceTest {
     @Test
     public void assertShardingNecessaryWhenMonitorExecutionDisabled() throws Exception {
         when(serverService.getAvailableShardingServers()).thenReturn(Collections.singletonList("mockedIP"));
-        when(jobNodeStorage.isJobNodeExisted("leader/sharding/necessary")).thenReturn(true);
+        when(jobNodeStorage.isJobNodeExistedDirectly("leader/sharding/necessary")).thenReturn(true);
         when(leaderElectionService.isLeader()).thenReturn(true);
         when(configService.load(false)).thenReturn(LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).build(),
                 TestSimpleJob.class.getCanonicalName())).monitorExecution(false).jobShardingStrategyClass(AverageAllocationJobShardingStrategy.class.getCanonicalName()).build());
-        when(serverService.getAllServers()).thenReturn(Arrays.asList("ip1", "ip2"));
+        when(jobNodeStorage.getJobNodeDataDirectly("sharding")).thenReturn("1\nip1=0-2");
         shardingService.shardingIfNecessary();
         verify(serverService).getAvailableShardingServers();
-        verify(jobNodeStorage).isJobNodeExisted("leader/sharding/necessary");
+        verify(jobNodeStorage).isJobNodeExistedDirectly("leader/sharding/necessary");
         verify(leaderElectionService).isLeader();
         verify(configService).load(false);
-        verify(jobNodeStorage).removeJobNodeIfExisted("servers/ip1/sharding");
-        verify(jobNodeStorage).removeJobNodeIfExisted("servers/ip2/sharding");
+        verify(jobNodeStorage).getJobNodeDataDirectly("sharding");
         verify(jobNodeStorage).fillEphemeralJobNode("leader/sharding/processing", "");
         verify(jobNodeStorage).executeInTransaction(any(TransactionExecutionCallback.class));
     }
     
     @Test
-    public void assertGetLocalHostShardingItemsWhenNodeExisted() {
-        when(jobNodeStorage.isJobNodeExisted("servers/mockedIP/sharding")).thenReturn(true);
-        when(jobNodeStorage.getJobNodeDataDirectly("servers/mockedIP/sharding")).thenReturn("0,1,2");
+    public void assertGetLocalHostShardingItems() {
+        JobRegistry.getInstance().addJobServerName("test_job", "mockedIP_0001");
+        when(jobNodeStorage.getJobNodeDecodedData(eq("sharding"), anyDecoder())).thenReturn(ShardingPlanCodec.decode("1\nmockedIP_0001=0-2\nmockedIP_0002=3"));
+        List<Integer> actual = shardingService.getLocalHostShardingItems();
+        assertThat(actual, is(Arrays.asList(0, 1, 2)));
+        actual.remove(Integer.valueOf(0));
         assertThat(shardingService.getLocalHostShardingItems(), is(Arrays.asList(0, 1, 2)));
-        verify(jobNodeStorage).isJobNodeExisted("servers/mockedIP/sharding");
-        verify(jobNodeStorage).getJobNodeDataDirectly("servers/mockedIP/sharding");
     }
     
     @Test
-    public void assertGetLocalHostShardingWhenNodeNotExisted() {
-        when(jobNodeStorage.isJobNodeExisted("servers/mockedIP/sharding")).thenReturn(false);
-        assertThat(shardingService.getLocalHostShardingItems(), is(Collections.EMPTY_LIST));
-        verify(jobNodeStorage).isJobNodeExisted("servers/mockedIP/sharding");
+    public void assertGetLocalHostShardingItemsWhenNotAssigned() {
+        JobRegistry.getInstance().addJobServerName("test_job", "mockedIP_0001");
+        when(jobNodeStorage.getJobNodeDecodedData(eq("sharding"), anyDecoder())).thenReturn(ShardingPlan.empty());
+        assertThat(shardingService.getLocalHostShardingItems(), is(Collections.<Integer>emptyList()));
     }
     
     @Test
@@ -198,23 +202,43 @@ public final class ShardingServiceTest {
         TransactionDeleteBuilder transactionDeleteBuilder = mock(TransactionDeleteBuilder.class);
         CuratorTransactionBridge curatorTransactionBridge = mock(CuratorTransactionBridge.class);
         when(curatorTransactionFinal.create()).thenReturn(transactionCreateBuilder);
-        when(transactionCreateBuilder.forPath("/test_job/servers/host0/sharding", "0,1,2".getBytes())).thenReturn(curatorTransactionBridge);
+        when(transactionCreateBuilder.forPath("/test_job/sharding", "1\nhost0=0-2".getBytes())).thenReturn(curatorTransactionBridge);
         when(curatorTransactionBridge.and()).thenReturn(curatorTransactionFinal);
         when(curatorTransactionFinal.delete()).thenReturn(transactionDeleteBuilder);
         when(transactionDeleteBuilder.forPath("/test_job/leader/sharding/necessary")).thenReturn(curatorTransactionBridge);
-        when(curatorTransactionBridge.and()).thenReturn(curatorTransactionFinal);
-        when(curatorTransactionFinal.delete()).thenReturn(transactionDeleteBuilder);
         when(transactionDeleteBuilder.forPath("/test_job/leader/sharding/processing")).thenReturn(curatorTransactionBridge);
-        when(curatorTransactionBridge.and()).thenReturn(curatorTransactionFinal);
-        Map<String, List<Integer>> shardingItems = new HashMap<>(1);
-        shardingItems.put("host0", Arrays.asList(0, 1, 2));
-        ShardingService.PersistShardingInfoTransactionExecutionCallback actual = shardingService.new PersistShardingInfoTransactionExecutionCallback(shardingItems);
+        ShardingService.PersistShardingInfoTransactionExecutionCallback actual = shardingService.new PersistShardingInfoTransactionExecutionCallback(ShardingPlanCodec.decode("1\nhost0=0-2"));
         actual.execute(curatorTransactionFinal);
+        verify(jobNodeStorage).isJobNodeExistedDirectly("sharding");
         verify(curatorTransactionFinal).create();
-        verify(transactionCreateBuilder).forPath("/test_job/servers/host0/sharding", "0,1,2".getBytes());
+        verify(transactionCreateBuilder).forPath("/test_job/sharding", "1\nhost0=0-2".getBytes());
         verify(curatorTransactionFinal, times(2)).delete();
         verify(transactionDeleteBuilder).forPath("/test_job/leader/sharding/necessary");
         verify(transactionDeleteBuilder).forPath("/test_job/leader/sharding/processing");
         verify(curatorTransactionBridge, times(3)).and();
     }
+    
+    @Test
+    public void assertPersistShardingInfoTransactionExecutionCallbackWhenShardingPlanExisted() throws Exception {
+        CuratorTransactionFinal curatorTransactionFinal = mock(CuratorTransactionFinal.class);
+        TransactionSetDataBuilder transactionSetDataBuilder = mock(TransactionSetDataBuilder.class);
+        TransactionDeleteBuilder transactionDeleteBuilder = mock(TransactionDeleteBuilder.class);
+        CuratorTransactionBridge curatorTransactionBridge = mock(CuratorTransactionBridge.class);
+        when(jobNodeStorage.isJobNodeExistedDirectly("sharding")).thenReturn(true);
+        when(curatorTransactionFinal.setData()).thenReturn(transactionSetDataBuilder);
+        when(transactionSetDataBuilder.forPath("/test_job/sharding", "2\nhost0=0-2".getBytes())).thenReturn(curatorTransactionBridge);
+        when(curatorTransactionBridge.and()).thenReturn(curatorTransactionFinal);
+        when(curatorTransactionFinal.delete()).thenReturn(transactionDeleteBuilder);
+        when(transactionDeleteBuilder.forPath("/test_job/leader/sharding/necessary")).thenReturn(curatorTransactionBridge);
+        when(transactionDeleteBuilder.forPath("/test_job/leader/sharding/processing")).thenReturn(curatorTransactionBridge);
+        ShardingService.PersistShardingInfoTransactionExecutionCallback actual = shardingService.new PersistShardingInfoTransactionExecutionCallback(ShardingPlanCodec.decode("2\nhost0=0-2"));
+        actual.execute(curatorTransactionFinal);
+        verify(curatorTransactionFinal, times(0)).create();
+        verify(transactionSetDataBuilder).forPath("/test_job/sharding", "2\nhost0=0-2".getBytes());
+        verify(curatorTransactionBridge, times(3)).and();
+    }
+    
+    private static Function<String, ShardingPlan> anyDecoder() {
+        return Matchers.any();
+    }
 }
@@ -31,6 +31,11 @@ public final class JobNodePathTest {
         assertThat(jobNodePath.getFullPath("node"), is("/test_job/node"));
     }
     
+    @Test
+    public void assertGetShardingPlanNodePath() {
+        assertThat(jobNodePath.getShardingPlanNodePath(), is("/test_job/sharding"));
+    }
+    
     @Test
     public void assertGetServerNodePath() {
         assertThat(jobNodePath.getServerNodePath(), is("/test_job/servers"));
@@ -56,6 +61,12 @@ public final class JobNodePathTest {
         assertThat(jobNodePath.getExecutionNodePath("0", "running"), is("/test_job/execution/0/running"));
     }
     
+    @Test
+    public void assertGetExecutionStateNodePath() {
+        assertThat(jobNodePath.getExecutionStateNodePath(), is("/test_job/executionState"));
+        assertThat(jobNodePath.getExecutionStateNodePath("host0"), is("/test_job/executionState/host0"));
+    }
+    
     @Test
     public void assertGetLeaderIpNodePath() {
         assertThat(jobNodePath.getLeaderHostNodePath(), is("/test_job/leader/election/host"));
@@ -17,7 +17,12 @@
 
 package com.dangdang.ddframe.job.lite.internal.storage;
 
+import com.dangdang.ddframe.job.reg.base.BatchOperation;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
+import com.dangdang.ddframe.job.reg.exception.RegException;
+import com.google.common.base.Function;
+import com.google.common.base.Functions;
+import com.google.common.util.concurrent.Futures;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.api.transaction.CuratorTransaction;
 import org.apache.curator.framework.api.transaction.CuratorTransactionBridge;
@@ -30,13 +35,17 @@ import org.apache.curator.framework.recipes.cache.TreeCacheListener;
 import org.apache.curator.framework.state.ConnectionStateListener;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.unitils.util.ReflectionUtils;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -64,6 +73,13 @@ public final class JobNodeStorageTest {
         verify(regCenter).isExisted("/test_job/config");
     }
     
+    @Test
+    public void assertIsJobNodeExistedDirectly() {
+        when(regCenter.isExistedDirectly("/test_job/config")).thenReturn(true);
+        assertTrue(jobNodeStorage.isJobNodeExistedDirectly("config"));
+        verify(regCenter).isExistedDirectly("/test_job/config");
+    }
+    
     @Test
     public void assertGetJobNodeData() {
         when(regCenter.get("/test_job/config/cron")).thenReturn("0/1 * * * * ?");
@@ -71,6 +87,34 @@ public final class JobNodeStorageTest {
         verify(regCenter).get("/test_job/config/cron");
     }
     
+    @Test
+    public void assertAwaitJobNodeCreated() {
+        when(regCenter.awaitCreated("/test_job/leader/election/host", 1000L)).thenReturn(true);
+        assertTrue(jobNodeStorage.awaitJobNodeCreated("leader/election/host", 1000L));
+        verify(regCenter).awaitCreated("/test_job/leader/election/host", 1000L);
+    }
+    
+    @Test
+    public void assertAwaitJobNodeRemoved() {
+        when(regCenter.awaitRemoved("/test_job/leader/sharding/necessary", 1000L)).thenReturn(true);
+        assertTrue(jobNodeStorage.awaitJobNodeRemoved("leader/sharding/necessary", 1000L));
+        verify(regCenter).awaitRemoved("/test_job/leader/sharding/necessary", 1000L);
+    }
+    
+    @Test
+    public void assertGetJobNodeDecodedData() {
+        Function<String, Integer> decoder = new Function<String, Integer>() {
+            
+            @Override
+            public Integer apply(final String input) {
+                return Integer.parseInt(input);
+            }
+        };
+        when(regCenter.getDecoded("/test_job/config/sharding_total_count", decoder)).thenReturn(3);
+        assertThat(jobNodeStorage.getJobNodeDecodedData("config/sharding_total_count", decoder), is(3));
+        verify(regCenter).getDecoded("/test_job/config/sharding_total_count", decoder);
+    }
+    
     @Test
     public void assertGetJobNodeDataDirectly() {
         when(regCenter.getDirectly("/test_job/config/cron")).thenReturn("0/1 * * * * ?");
@@ -85,49 +129,56 @@ public final class JobNodeStorageTest {
         verify(regCenter).getChildrenKeys("/test_job/servers");
     }
     
+    @Test
+    public void assertGetJobNodeChildrenKeysDirectly() {
+        when(regCenter.getChildrenKeysDirectly("/test_job/servers")).thenReturn(Arrays.asList("host0", "host1"));
+        assertThat(jobNodeStorage.getJobNodeChildrenKeysDirectly("servers"), is(Arrays.asList("host0", "host1")));
+        verify(regCenter).getChildrenKeysDirectly("/test_job/servers");
+    }
+    
     @Test
     public void assertCreateJobNodeIfNeeded() {
         when(regCenter.isExisted("/test_job")).thenReturn(true);
-        when(regCenter.isExisted("/test_job/config")).thenReturn(false);
+        when(regCenter.isExistedDirectly("/test_job/config")).thenReturn(false);
         jobNodeStorage.createJobNodeIfNeeded("config");
         verify(regCenter).isExisted("/test_job");
-        verify(regCenter).isExisted("/test_job/config");
+        verify(regCenter).isExistedDirectly("/test_job/config");
         verify(regCenter).persist("/test_job/config", "");
     }
     
     @Test
     public void assertCreateJobNodeIfRootJobNodeIsNotExist() {
         when(regCenter.isExisted("/test_job")).thenReturn(false);
-        when(regCenter.isExisted("/test_job/config")).thenReturn(true);
+        when(regCenter.isExistedDirectly("/test_job/config")).thenReturn(true);
         jobNodeStorage.createJobNodeIfNeeded("config");
         verify(regCenter).isExisted("/test_job");
-        verify(regCenter, times(0)).isExisted("/test_job/config");
+        verify(regCenter, times(0)).isExistedDirectly("/test_job/config");
         verify(regCenter, times(0)).persist("/test_job/config", "");
     }
     
     @Test
     public void assertCreateJobNodeIfNotNeeded() {
         when(regCenter.isExisted("/test_job")).thenReturn(true);
-        when(regCenter.isExisted("/test_job/config")).thenReturn(true);
+        when(regCenter.isExistedDirectly("/test_job/config")).thenReturn(true);
         jobNodeStorage.createJobNodeIfNeeded("config");
         verify(regCenter).isExisted("/test_job");
-        verify(regCenter).isExisted("/test_job/config");
+        verify(regCenter).isExistedDirectly("/test_job/config");
         verify(regCenter, times(0)).persist("/test_job/config", "");
     }
     
     @Test
     public void assertRemoveJobNodeIfNeeded() {
-        when(regCenter.isExisted("/test_job/config")).thenReturn(true);
+        when(regCenter.isExistedDirectly("/test_job/config")).thenReturn(true);
         jobNodeStorage.removeJobNodeIfExisted("config");
-        verify(regCenter).isExisted("/test_job/config");
+        verify(regCenter).isExistedDirectly("/test_job/config");
         verify(regCenter).remove("/test_job/config");
     }
     
     @Test
     public void assertRemoveJobNodeIfNotNeeded() {
-        when(regCenter.isExisted("/test_job/config")).thenReturn(false);
+        when(regCenter.isExistedDirectly("/test_job/config")).thenReturn(false);
         jobNodeStorage.removeJobNodeIfExisted("config");
-        verify(regCenter).isExisted("/test_job/config");
+        verify(regCenter).isExistedDirectly("/test_job/config");
         verify(regCenter, times(0)).remove("/test_job/config");
     }
     
@@ -143,6 +194,62 @@ public final class JobNodeStorageTest {
         verify(regCenter).persistEphemeral("/test_job/config/cron", "0/1 * * * * ?");
     }
     
+    @Test
+    public void assertFillEphemeralJobNodeIfUnchanged() {
+        when(regCenter.persistEphemeralIfUnchanged("/test_job/executionState/host0", "before", "after")).thenReturn(true);
+        assertTrue(jobNodeStorage.fillEphemeralJobNodeIfUnchanged("executionState/host0", "before", "after"));
+        assertFalse(jobNodeStorage.fillEphemeralJobNodeIfUnchanged("executionState/host0", null, "after"));
+    }
+    
+    @Test
+    public void assertReplaceJobNodeBehind() {
+        jobNodeStorage.replaceJobNodeBehind("execution/0/lastCompleteTime", 0L);
+        verify(regCenter).persistBehind("/test_job/execution/0/lastCompleteTime", "0");
+    }
+    
+    @Test
+    public void assertUpdateJobNodeAsync() throws Exception {
+        Function<String, String> updater = Functions.identity();
+        when(regCenter.compareAndUpdateAsync("/test_job/servers/host0", updater)).thenReturn(Futures.<Void>immediateFuture(null));
+        jobNodeStorage.updateJobNodeAsync("servers/host0", updater).get();
+        verify(regCenter).compareAndUpdateAsync("/test_job/servers/host0", updater);
+    }
+    
+    @Test
+    public void assertUpdateJobNodeAsyncFailure() {
+        Function<String, String> updater = Functions.identity();
+        when(regCenter.compareAndUpdateAsync("/test_job/servers/host0", updater)).thenReturn(Futures.<Void>immediateFailedFuture(new RegException(new RuntimeException())));
+        jobNodeStorage.updateJobNodeAsync("servers/host0", updater);
+        verify(regCenter).compareAndUpdateAsync("/test_job/servers/host0", updater);
+    }
+    
+    @Test
+    public void assertExecuteInBatch() {
+        when(regCenter.isExisted("/test_job")).thenReturn(true);
+        jobNodeStorage.executeInBatch(Arrays.asList(BatchOperation.createIfAbsent("execution/0/completed", ""), BatchOperation.removeIfExisted("execution/0/running")));
+        verify(regCenter).executeInBatch(Arrays.asList(BatchOperation.createIfAbsent("/test_job/execution/0/completed", ""), BatchOperation.removeIfExisted("/test_job/execution/0/running")));
+    }
+    
+    @Test
+    public void assertExecuteInBatchIfJobRootNodeIsNotExist() {
+        when(regCenter.isExisted("/test_job")).thenReturn(false);
+        jobNodeStorage.executeInBatch(Collections.singletonList(BatchOperation.createIfAbsent("execution/0/completed", "")));
+        verify(regCenter, times(0)).executeInBatch(Matchers.<List<BatchOperation>>any());
+    }
+    
+    @Test
+    public void assertExecuteInBatchStrictly() {
+        when(regCenter.isExisted("/test_job")).thenReturn(true);
+        jobNodeStorage.executeInBatchStrictly(Collections.singletonList(BatchOperation.persist("offset/0", "1")));
+        verify(regCenter).executeInBatchStrictly(Collections.singletonList(BatchOperation.persist("/test_job/offset/0", "1")));
+    }
+    
+    @Test(expected = RegException.class)
+    public void assertExecuteInBatchStrictlyIfJobRootNodeIsNotExist() {
+        when(regCenter.isExisted("/test_job")).thenReturn(false);
+        jobNodeStorage.executeInBatchStrictly(Collections.singletonList(BatchOperation.persist("offset/0", "1")));
+    }
+    
     @Test
     public void assertUpdateJobNode() {
         jobNodeStorage.updateJobNode("config/cron", "0/1 * * * * ?");
@@ -52,8 +52,22 @@ public final class JobSettings implements Serializable {
     
     private boolean monitorExecution;
     
+    private boolean compactExecution;
+    
+    private boolean sharedScheduler;
+    
     private boolean streamingProcess;
     
+    private int prefetchDepth;
+    
+    private int processParallelism;
+    
+    private int minBatchSize;
+    
+    private int maxBatchSize;
+    
+    private long targetProcessMilliseconds;
+    
     private int maxTimeDiffSeconds;
     
     private int monitorPort = -1;
@@ -65,6 +65,8 @@ public final class JobSettingsAPIImpl implements JobSettingsAPI {
         result.setShardingItemParameters(liteJobConfig.getTypeConfig().getCoreConfig().getShardingItemParameters());
         result.setJobParameter(liteJobConfig.getTypeConfig().getCoreConfig().getJobParameter());
         result.setMonitorExecution(liteJobConfig.isMonitorExecution());
+        result.setCompactExecution(liteJobConfig.isCompactExecution());
+        result.setSharedScheduler(liteJobConfig.isSharedScheduler());
         result.setMaxTimeDiffSeconds(liteJobConfig.getMaxTimeDiffSeconds());
         result.setMonitorPort(liteJobConfig.getMonitorPort());
         result.setFailover(liteJobConfig.getTypeConfig().getCoreConfig().isFailover());
@@ -78,6 +80,11 @@ public final class JobSettingsAPIImpl implements JobSettingsAPI {
     
     private void buildDataflowJobSettings(final JobSettings result, final DataflowJobConfiguration config) {
         result.setStreamingProcess(config.isStreamingProcess());
+        result.setPrefetchDepth(config.getPrefetchDepth());
+        result.setProcessParallelism(config.getProcessParallelism());
+        result.setMinBatchSize(config.getMinBatchSize());
+        result.setMaxBatchSize(config.getMaxBatchSize());
+        result.setTargetProcessMilliseconds(config.getTargetProcessMilliseconds());
     }
     
     private void buildScriptJobSettings(final JobSettings result, final ScriptJobConfiguration config) {
@@ -19,25 +19,32 @@ package com.dangdang.ddframe.job.lite.lifecycle.internal.statistics;
 
 import com.dangdang.ddframe.job.lite.config.LiteJobConfiguration;
 import com.dangdang.ddframe.job.lite.internal.config.LiteJobConfigurationGsonFactory;
+import com.dangdang.ddframe.job.lite.internal.execution.ExecutionState;
+import com.dangdang.ddframe.job.lite.internal.execution.ExecutionStateCodec;
 import com.dangdang.ddframe.job.lite.internal.server.ServerData;
 import com.dangdang.ddframe.job.lite.internal.server.ServerDataGsonFactory;
+import com.dangdang.ddframe.job.lite.internal.sharding.ShardingPlan;
+import com.dangdang.ddframe.job.lite.internal.sharding.ShardingPlanCodec;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodePath;
 import com.dangdang.ddframe.job.lite.lifecycle.api.JobStatisticsAPI;
 import com.dangdang.ddframe.job.lite.lifecycle.domain.ExecutionInfo;
 import com.dangdang.ddframe.job.lite.lifecycle.domain.JobBriefInfo;
 import com.dangdang.ddframe.job.lite.lifecycle.domain.ServerInfo;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
+import com.dangdang.ddframe.job.util.config.ShardingItems;
 import lombok.RequiredArgsConstructor;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 作业状态展示的实现类.
- *
+ * 
  * @author zhangliang
  */
 @RequiredArgsConstructor
@@ -100,14 +107,15 @@ public final class JobStatisticsAPIImpl implements JobStatisticsAPI {
     public Collection<ServerInfo> getServers(final String jobName) {
         JobNodePath jobNodePath = new JobNodePath(jobName);
         List<String> serverNames = regCenter.getChildrenKeys(jobNodePath.getServerNodePath());
+        ShardingPlan shardingPlan = ShardingPlanCodec.decode(regCenter.get(jobNodePath.getShardingPlanNodePath()));
         Collection<ServerInfo> result = new ArrayList<>(serverNames.size());
         for (String each : serverNames) {
-            result.add(getJobServer(jobName, each));
+            result.add(getJobServer(jobName, each, shardingPlan));
         }
         return result;
     }
     
-    private ServerInfo getJobServer(final String jobName, final String serverName) {
+    private ServerInfo getJobServer(final String jobName, final String serverName, final ShardingPlan shardingPlan) {
         ServerInfo result = new ServerInfo();
         JobNodePath jobNodePath = new JobNodePath(jobName);
         result.setJobName(jobName);
@@ -116,7 +124,7 @@ public final class JobStatisticsAPIImpl implements JobStatisticsAPI {
         //TODO 这里有可能空指针
         result.setIp(data.getHostIP());
         result.setHostName(data.getHostName());
-        result.setSharding(data.getSharding());
+        result.setSharding(ShardingItems.toItemsString(shardingPlan.getShardingItems(serverName)));
         result.setStatus(getServerStatus(data));
         return result;
     }
@@ -127,7 +135,11 @@ public final class JobStatisticsAPIImpl implements JobStatisticsAPI {
     
     @Override
     public Collection<ExecutionInfo> getExecutionInfo(final String jobName) {
-        String executionRootPath = new JobNodePath(jobName).getExecutionNodePath();
+        JobNodePath jobNodePath = new JobNodePath(jobName);
+        if (regCenter.isExisted(jobNodePath.getExecutionStateNodePath())) {
+            return getCompactExecutionInfo(jobName);
+        }
+        String executionRootPath = jobNodePath.getExecutionNodePath();
         if (!regCenter.isExisted(executionRootPath)) {
             return Collections.emptyList();
         }
@@ -158,4 +170,74 @@ public final class JobStatisticsAPIImpl implements JobStatisticsAPI {
         result.setLastCompleteTime(null == lastCompleteTime ? null : new Date(Long.parseLong(lastCompleteTime)));
         return result;
     }
+    
+    private Collection<ExecutionInfo> getCompactExecutionInfo(final String jobName) {
+        JobNodePath jobNodePath = new JobNodePath(jobName);
+        String liteJobConfigJson = regCenter.get(jobNodePath.getConfigNodePath());
+        if (null == liteJobConfigJson) {
+            return Collections.emptyList();
+        }
+        int shardingTotalCount = LiteJobConfigurationGsonFactory.fromJson(liteJobConfigJson).getTypeConfig().getCoreConfig().getShardingTotalCount();
+        ShardingPlan shardingPlan = ShardingPlanCodec.decode(regCenter.get(jobNodePath.getShardingPlanNodePath()));
+        List<String> serverNames = regCenter.getChildrenKeys(jobNodePath.getExecutionStateNodePath());
+        Map<String, ExecutionState> executionStates = new HashMap<>(serverNames.size(), 1);
+        Map<Integer, String> itemServers = new HashMap<>(shardingTotalCount, 1);
+        for (String each : serverNames) {
+            executionStates.put(each, ExecutionStateCodec.decode(regCenter.get(jobNodePath.getExecutionStateNodePath(each))));
+            for (int item : shardingPlan.getShardingItems(each)) {
+                itemServers.put(item, each);
+            }
+        }
+        Map<Integer, String> failoverServers = getFailoverServers(jobNodePath);
+        List<ExecutionInfo> result = new ArrayList<>(shardingTotalCount);
+        for (int i = 0; i < shardingTotalCount; i++) {
+            result.add(getCompactExecutionInfo(i, itemServers.get(i), failoverServers.get(i), executionStates));
+        }
+        return result;
+    }
+    
+    private Map<Integer, String> getFailoverServers(final JobNodePath jobNodePath) {
+        String executionRootPath = jobNodePath.getExecutionNodePath();
+        if (!regCenter.isExisted(executionRootPath)) {
+            return Collections.emptyMap();
+        }
+        List<String> items = regCenter.getChildrenKeys(executionRootPath);
+        Map<Integer, String> result = new HashMap<>(items.size(), 1);
+        for (String each : items) {
+            String failoverServer = regCenter.get(jobNodePath.getExecutionNodePath(each, "failover"));
+            if (null != failoverServer) {
+                result.put(Integer.parseInt(each), failoverServer);
+            }
+        }
+        return result;
+    }
+    
+    private ExecutionInfo getCompactExecutionInfo(final int item, final String itemServer, final String failoverServer, final Map<String, ExecutionState> executionStates) {
+        ExecutionInfo result = new ExecutionInfo();
+        result.setItem(item);
+        boolean running = false;
+        boolean completed = false;
+        ExecutionState itemState = null == itemServer ? null : executionStates.get(itemServer);
+        for (ExecutionState each : executionStates.values()) {
+            boolean itemRunning = each.isRunning(item);
+            boolean itemCompleted = each.isCompleted(item);
+            running = running || itemRunning;
+            completed = completed || itemCompleted;
+            if (null == itemState && (itemRunning || itemCompleted)) {
+                itemState = each;
+            }
+        }
+        result.setStatus(ExecutionInfo.ExecutionStatus.getExecutionStatus(running, completed));
+        result.setFailoverIp(failoverServer);
+        if (null != itemState) {
+            result.setLastBeginTime(toDate(itemState.getLastBeginTime()));
+            result.setNextFireTime(toDate(itemState.getNextFireTime()));
+            result.setLastCompleteTime(toDate(itemState.getLastCompleteTime()));
+        }
+        return result;
+    }
+    
+    private Date toDate(final long timestamp) {
+        return 0L == timestamp ? null : new Date(timestamp);
+    }
 }
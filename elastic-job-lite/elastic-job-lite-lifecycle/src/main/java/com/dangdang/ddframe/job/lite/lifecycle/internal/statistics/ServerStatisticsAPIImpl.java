@@ -19,11 +19,13 @@ package com.dangdang.ddframe.job.lite.lifecycle.internal.statistics;
 
 import com.dangdang.ddframe.job.lite.internal.server.ServerData;
 import com.dangdang.ddframe.job.lite.internal.server.ServerDataGsonFactory;
+import com.dangdang.ddframe.job.lite.internal.sharding.ShardingPlanCodec;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodePath;
 import com.dangdang.ddframe.job.lite.lifecycle.api.ServerStatisticsAPI;
 import com.dangdang.ddframe.job.lite.lifecycle.domain.ServerBriefInfo;
 import com.dangdang.ddframe.job.lite.lifecycle.domain.ServerInfo;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
+import com.dangdang.ddframe.job.util.config.ShardingItems;
 import lombok.RequiredArgsConstructor;
 
 import java.util.ArrayList;
@@ -103,7 +105,7 @@ public final class ServerStatisticsAPIImpl implements ServerStatisticsAPI {
         ServerData data = ServerDataGsonFactory.fromJson(regCenter.get(jobNodePath.getServerNodePath(serverName)));
         result.setIp(data.getHostIP());
         result.setHostName(data.getHostName());
-        result.setSharding(data.getSharding());
+        result.setSharding(ShardingItems.toItemsString(ShardingPlanCodec.decode(regCenter.get(jobNodePath.getShardingPlanNodePath())).getShardingItems(serverName)));
         result.setStatus(getServerStatus(data));
         return result;
     }
@@ -74,6 +74,8 @@ public class JobSettingsAPIImplTest {
         assertThat(jobSettings.getShardingItemParameters(), is(""));
         assertThat(jobSettings.getJobParameter(), is("param"));
         assertThat(jobSettings.isMonitorExecution(), is(true));
+        assertFalse(jobSettings.isCompactExecution());
+        assertFalse(jobSettings.isSharedScheduler());
         assertThat(jobSettings.getMaxTimeDiffSeconds(), is(-1));
         assertThat(jobSettings.getMonitorPort(), is(8888));
         assertFalse(jobSettings.isFailover());
@@ -99,6 +101,7 @@ public class JobSettingsAPIImplTest {
         jobSettings.setShardingTotalCount(10);
         jobSettings.setMaxTimeDiffSeconds(-1);
         jobSettings.setMonitorExecution(true);
+        jobSettings.setCompactExecution(true);
         jobSettings.setCron("0/1 * * * * ?");
         jobSettings.setStreamingProcess(true);
         jobSettings.setFailover(false);
@@ -107,7 +110,8 @@ public class JobSettingsAPIImplTest {
         jobSettings.getJobProperties().put(JobPropertiesEnum.JOB_EXCEPTION_HANDLER.getKey(), DefaultJobExceptionHandler.class.getCanonicalName());
         jobSettingsAPI.updateJobSettings(jobSettings);
         verify(regCenter).update("/test_job/config", "{\"jobName\":\"test_job\",\"jobClass\":\"com.dangdang.ddframe.job.lite.fixture.TestDataflowJob\","
-                + "\"cron\":\"0/1 * * * * ?\",\"shardingTotalCount\":10,\"monitorExecution\":true,\"streamingProcess\":true,"
+                + "\"cron\":\"0/1 * * * * ?\",\"shardingTotalCount\":10,\"monitorExecution\":true,\"compactExecution\":true,\"sharedScheduler\":false,"
+                + "\"streamingProcess\":true,\"prefetchDepth\":0,\"processParallelism\":0,\"minBatchSize\":0,\"maxBatchSize\":0,\"targetProcessMilliseconds\":0,"
                 + "\"maxTimeDiffSeconds\":-1,\"monitorPort\":-1,\"failover\":false,\"misfire\":true,"
                 + "\"jobProperties\":{\"executor_service_handler\":\"" + DefaultExecutorServiceHandler.class.getCanonicalName() + "\","
                 + "\"job_exception_handler\":\"" + DefaultJobExceptionHandler.class.getCanonicalName() + "\"}}");
@@ -29,6 +29,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 
 import static org.hamcrest.core.Is.is;
@@ -36,6 +37,8 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public final class JobStatisticsAPIImplTest {
@@ -94,8 +97,7 @@ public final class JobStatisticsAPIImplTest {
         when(regCenter.getChildrenKeys("/test_job/servers")).thenReturn(Arrays.asList("ip1", "ip2"));
         when(regCenter.get("/test_job/servers/ip1/hostName")).thenReturn("host1");
         when(regCenter.get("/test_job/servers/ip2/hostName")).thenReturn("host2");
-        when(regCenter.get("/test_job/servers/ip1/sharding")).thenReturn("0,1");
-        when(regCenter.get("/test_job/servers/ip2/sharding")).thenReturn("2,3");
+        when(regCenter.get("/test_job/sharding")).thenReturn("1\nip1=0-1\nip2=2-3");
         when(regCenter.get("/test_job/servers/ip1/status")).thenReturn("RUNNING");
         when(regCenter.get("/test_job/servers/ip2/status")).thenReturn("READY");
         int i = 0;
@@ -176,4 +178,47 @@ public final class JobStatisticsAPIImplTest {
             }
         }
     }
+    
+    @Test
+    public void assertGetExecutionInfoWithCompactExecution() {
+        when(regCenter.isExisted("/test_job/executionState")).thenReturn(true);
+        when(regCenter.get("/test_job/config")).thenReturn(LifecycleJsonConstants.getSimpleJobJson("test_job", "desc"));
+        when(regCenter.get("/test_job/sharding")).thenReturn("1\nhost0=0-1\nhost1=2");
+        when(regCenter.getChildrenKeys("/test_job/executionState")).thenReturn(Arrays.asList("host0", "host1"));
+        when(regCenter.get("/test_job/executionState/host0")).thenReturn("running=0\ncompleted=1\nmisfire=\nlastBeginTime=100\nnextFireTime=200\nlastCompleteTime=300\nduration=");
+        when(regCenter.get("/test_job/executionState/host1")).thenReturn("running=\ncompleted=\nmisfire=\nlastBeginTime=0\nnextFireTime=0\nlastCompleteTime=0\nduration=");
+        when(regCenter.isExisted("/test_job/execution")).thenReturn(true);
+        when(regCenter.getChildrenKeys("/test_job/execution")).thenReturn(Collections.singletonList("2"));
+        when(regCenter.get("/test_job/execution/2/failover")).thenReturn("host0");
+        int i = 0;
+        for (ExecutionInfo each : jobStatisticsAPI.getExecutionInfo("test_job")) {
+            i++;
+            assertThat(each.getItem(), is(i - 1));
+            switch (i) {
+                case 1:
+                    assertNull(each.getFailoverIp());
+                    assertThat(each.getLastBeginTime(), is(new Date(100L)));
+                    assertThat(each.getNextFireTime(), is(new Date(200L)));
+                    assertThat(each.getLastCompleteTime(), is(new Date(300L)));
+                    assertThat(each.getStatus(), is(ExecutionInfo.ExecutionStatus.RUNNING));
+                    break;
+                case 2:
+                    assertNull(each.getFailoverIp());
+                    assertThat(each.getLastBeginTime(), is(new Date(100L)));
+                    assertThat(each.getStatus(), is(ExecutionInfo.ExecutionStatus.COMPLETED));
+                    break;
+                case 3:
+                    assertThat(each.getFailoverIp(), is("host0"));
+                    assertNull(each.getLastBeginTime());
+                    assertNull(each.getNextFireTime());
+                    assertNull(each.getLastCompleteTime());
+                    assertThat(each.getStatus(), is(ExecutionInfo.ExecutionStatus.PENDING));
+                    break;
+                default:
+                    fail();
+            }
+        }
+        assertThat(i, is(3));
+        verify(regCenter, times(0)).isExisted("/test_job/execution/0/failover");
+    }
 }
@@ -94,8 +94,8 @@ public final class ServerStatisticsAPIImplTest {
         when(regCenter.isExisted("/test_job3/servers/localhost")).thenReturn(false);
         when(regCenter.get("/test_job1/servers/localhost/hostName")).thenReturn("localhost");
         when(regCenter.get("/test_job2/servers/localhost/hostName")).thenReturn("localhost");
-        when(regCenter.get("/test_job1/servers/localhost/sharding")).thenReturn("0,1");
-        when(regCenter.get("/test_job2/servers/localhost/sharding")).thenReturn("2");
+        when(regCenter.get("/test_job1/sharding")).thenReturn("1\nlocalhost=0-1");
+        when(regCenter.get("/test_job2/sharding")).thenReturn("1\nlocalhost=2");
         when(regCenter.get("/test_job1/servers/localhost/status")).thenReturn("RUNNING");
         when(regCenter.get("/test_job2/servers/localhost/status")).thenReturn("RUNNING");
         when(regCenter.isExisted("/test_job1/servers/localhost/disabled")).thenReturn(false);
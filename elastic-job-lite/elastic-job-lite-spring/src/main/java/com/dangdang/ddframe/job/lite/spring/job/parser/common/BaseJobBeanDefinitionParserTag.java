@@ -58,6 +58,10 @@ public final class BaseJobBeanDefinitionParserTag {
     
     public static final String OVERWRITE_ATTRIBUTE = "overwrite";
     
+    public static final String COMPACT_EXECUTION_ATTRIBUTE = "compact-execution";
+    
+    public static final String SHARED_SCHEDULER_ATTRIBUTE = "shared-scheduler";
+    
     public static final String LISTENER_TAG = "listener";
     
     public static final String DISTRIBUTED_LISTENER_TAG = "distributed-listener";
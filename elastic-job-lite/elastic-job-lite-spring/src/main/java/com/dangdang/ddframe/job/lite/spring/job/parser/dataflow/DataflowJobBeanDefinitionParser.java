@@ -37,6 +37,11 @@ public final class DataflowJobBeanDefinitionParser extends AbstractJobBeanDefini
         result.addConstructorArgValue(jobCoreConfigurationBeanDefinition);
         result.addConstructorArgValue(element.getAttribute(BaseJobBeanDefinitionParserTag.CLASS_ATTRIBUTE));
         result.addConstructorArgValue(element.getAttribute(DataflowJobBeanDefinitionParserTag.STREAMING_PROCESS_ATTRIBUTE));
+        result.addConstructorArgValue(element.getAttribute(DataflowJobBeanDefinitionParserTag.PREFETCH_DEPTH_ATTRIBUTE));
+        result.addConstructorArgValue(element.getAttribute(DataflowJobBeanDefinitionParserTag.PROCESS_PARALLELISM_ATTRIBUTE));
+        result.addConstructorArgValue(element.getAttribute(DataflowJobBeanDefinitionParserTag.MIN_BATCH_SIZE_ATTRIBUTE));
+        result.addConstructorArgValue(element.getAttribute(DataflowJobBeanDefinitionParserTag.MAX_BATCH_SIZE_ATTRIBUTE));
+        result.addConstructorArgValue(element.getAttribute(DataflowJobBeanDefinitionParserTag.TARGET_PROCESS_MILLISECONDS_ATTRIBUTE));
         return result.getBeanDefinition();
     }
 }
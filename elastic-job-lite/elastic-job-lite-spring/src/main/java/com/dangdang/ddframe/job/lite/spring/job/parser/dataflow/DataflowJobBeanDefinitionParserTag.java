@@ -29,4 +29,14 @@ import lombok.NoArgsConstructor;
 public final class DataflowJobBeanDefinitionParserTag {
     
     public static final String STREAMING_PROCESS_ATTRIBUTE = "streaming-process";
+    
+    public static final String PREFETCH_DEPTH_ATTRIBUTE = "prefetch-depth";
+    
+    public static final String PROCESS_PARALLELISM_ATTRIBUTE = "process-parallelism";
+    
+    public static final String MIN_BATCH_SIZE_ATTRIBUTE = "min-batch-size";
+    
+    public static final String MAX_BATCH_SIZE_ATTRIBUTE = "max-batch-size";
+    
+    public static final String TARGET_PROCESS_MILLISECONDS_ATTRIBUTE = "target-process-milliseconds";
 }
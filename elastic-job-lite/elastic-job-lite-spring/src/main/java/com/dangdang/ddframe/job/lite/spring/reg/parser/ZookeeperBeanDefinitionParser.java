@@ -50,6 +50,7 @@ public class ZookeeperBeanDefinitionParser extends AbstractBeanDefinitionParser
         addPropertyValueIfNotEmpty("session-timeout-milliseconds", "sessionTimeoutMilliseconds", element, configuration);
         addPropertyValueIfNotEmpty("connection-timeout-milliseconds", "connectionTimeoutMilliseconds", element, configuration);
         addPropertyValueIfNotEmpty("digest", "digest", element, configuration);
+        addPropertyValueIfNotEmpty("write-behind-flush-interval-milliseconds", "writeBehindFlushIntervalMilliseconds", element, configuration);
         return configuration.getBeanDefinition();
     }
     